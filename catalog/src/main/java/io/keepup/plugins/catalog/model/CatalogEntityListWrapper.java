@@ -18,6 +18,7 @@ public class CatalogEntityListWrapper<T extends CatalogEntity> {
     private List<Layout> layouts;
     private boolean success;
     private String error;
+    private Long cursor;
 
     /**
      * Default constructor, instantiates inner collections
@@ -117,6 +118,24 @@ public class CatalogEntityListWrapper<T extends CatalogEntity> {
         this.layouts = layouts;
     }
 
+    /**
+     * Get the cursor for the next page of entities
+     *
+     * @return identifier to fetch the next page after or null if the page is the last one or entities are not paged
+     */
+    public Long getCursor() {
+        return cursor;
+    }
+
+    /**
+     * Set the cursor for the next page of entities
+     *
+     * @param cursor identifier to fetch the next page after or null if the page is the last one
+     */
+    public void setCursor(final Long cursor) {
+        this.cursor = cursor;
+    }
+
     /**
      * toString method overriding
      *
@@ -124,9 +143,10 @@ public class CatalogEntityListWrapper<T extends CatalogEntity> {
      */
     @Override
     public String toString() {
-        return "success = %s, error = %s, parents = [%s], entities = [%s], layouts = [%s]"
+        return "success = %s, error = %s, cursor = %s, parents = [%s], entities = [%s], layouts = [%s]"
                 .formatted(success,
                         error,
+                        cursor,
                         getObjectListAsString(parents),
                         getObjectListAsString(entities),
                         getObjectListAsString(layouts));
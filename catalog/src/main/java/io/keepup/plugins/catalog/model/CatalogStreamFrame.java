@@ -0,0 +1,38 @@
+package io.keepup.plugins.catalog.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Element of catalog entities stream. Each frame carries either one entity or the layouts of all the entities
+ * emitted before, the layouts frame is the trailing one.
+ *
+ * @param entity  catalog entity or null for the layouts frame
+ * @param layouts layouts of the streamed entities or null for the entity frame
+ * @author Fedor Sergeev
+ * @since 2.0.0
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CatalogStreamFrame(CatalogEntity entity, List<Layout> layouts) {
+
+    /**
+     * Creates frame with catalog entity.
+     *
+     * @param entity catalog entity
+     * @return       new frame
+     */
+    public static CatalogStreamFrame of(final CatalogEntity entity) {
+        return new CatalogStreamFrame(entity, null);
+    }
+
+    /**
+     * Creates frame with layouts.
+     *
+     * @param layouts layouts of the streamed entities
+     * @return        new frame
+     */
+    public static CatalogStreamFrame of(final List<Layout> layouts) {
+        return new CatalogStreamFrame(null, layouts);
+    }
+}
@@ -10,25 +10,31 @@ import org.apache.commons.logging.LogFactory;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.http.codec.multipart.FilePart;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.WebSession;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.io.Serializable;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import static java.util.Optional.ofNullable;
 import static org.apache.commons.lang3.StringUtils.EMPTY;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
 import static org.springframework.http.MediaType.MULTIPART_FORM_DATA_VALUE;
+import static org.springframework.http.MediaType.TEXT_EVENT_STREAM_VALUE;
 import static org.springframework.http.ResponseEntity.internalServerError;
 import static org.springframework.http.ResponseEntity.ok;
 import static reactor.core.publisher.Mono.just;
@@ -47,6 +53,10 @@ import static reactor.core.publisher.Mono.just;
 public class CatalogController {
 
     private static final String SESSION_ID_WITH_RESPONSE = "Session id: %s, Send response: %s";
+    private static final String DEFAULT_PAGE_SIZE = "100";
+    private static final String ENTITY_EVENT = "entity";
+    private static final String LAYOUTS_EVENT = "layouts";
+    private static final int MAX_PAGE_SIZE = 1000;
     private final Log log = LogFactory.getLog(getClass());
     private final CatalogServiceAbstract catalogService;
     private final LayoutService layoutService;
@@ -71,6 +81,7 @@ public class CatalogController {
      * @param children   flag for getting children as well
      * @param parents    include parent nodes to the result list
      * @param offset     number of parent records to get, will be set to {@link Long#MAX_VALUE} if null
+     * @param depth      number of descendant levels to get by a single request, overrides children flag if set
      * @param webSession server-side session data abstraction
      * @return publisher signaling when entities are fetched
      * with {@link io.keepup.plugins.catalog.model.Layout} views
@@ -85,12 +96,17 @@ public class CatalogController {
                                                                                      defaultValue = "false") final boolean parents,
                                                                              @RequestParam(value = "parentOffsetId",
                                                                                      required = false) final Long offset,
+                                                                             @RequestParam(value = "depth",
+                                                                                     required = false) final Integer depth,
                                                                              final WebSession webSession) {
         log.info("Session id: %s, Received request to get entity id = %d  with%s children and with%s parents"
                 .formatted(webSession.getId(), id, getWithoutChildrenSuffix(children), getWithoutChildrenSuffix(parents)));
         final var layoutNames = new HashSet<String>();
 
-        return catalogService.getCatalogEntitiesWithLayouts(id, children)
+        final var entities = depth == null
+                ? catalogService.getCatalogEntitiesWithLayouts(id, children)
+                : catalogService.getCatalogEntitiesWithLayouts(id, depth.intValue());
+        return entities
                 .filter(CatalogEntityWrapper::isSuccess)
                 .map(CatalogEntityBaseWrapper::getEntity)
                 .doOnNext(entity -> layoutNames.add(entity.getLayoutName()))
@@ -138,6 +154,84 @@ public class CatalogController {
                         .formatted(webSession.getId(), response.toString())));
     }
 
+    /**
+     * Stream all catalog entities as newline delimited JSON. Each entity is written as soon as it is read,
+     * the trailing frame contains layouts of all the streamed entities.
+     *
+     * @param webSession server-side session data abstraction
+     * @return Publisher for catalog entity frames followed by the layouts frame
+     */
+    @GetMapping(produces = APPLICATION_NDJSON_VALUE)
+    public Flux<CatalogStreamFrame> streamAll(final WebSession webSession) {
+        log.info("Session id: %s, Received request to stream all values".formatted(webSession.getId()));
+        final Set<String> layoutNames = ConcurrentHashMap.newKeySet();
+        return catalogService.getAll()
+                .doOnNext(entity -> ofNullable(entity.getLayoutName()).ifPresent(layoutNames::add))
+                .map(CatalogStreamFrame::of)
+                .concatWith(Mono.defer(() -> layoutService.getByNames(layoutNames)
+                        .collectList()
+                        .map(CatalogStreamFrame::of)))
+                .doOnError(throwable -> log.error("Session id: %s, Failed to stream catalog entities: %s"
+                        .formatted(webSession.getId(), throwable.toString())));
+    }
+
+    /**
+     * Stream all catalog entities as server-sent events. Each entity is sent as 'entity' event as soon as it is
+     * read, the trailing 'layouts' event contains layouts of all the streamed entities.
+     *
+     * @param webSession server-side session data abstraction
+     * @return Publisher for 'entity' events followed by the 'layouts' event
+     */
+    @GetMapping(produces = TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamAllEvents(final WebSession webSession) {
+        return streamAll(webSession)
+                .map(frame -> frame.entity() != null
+                        ? ServerSentEvent.builder()
+                                .event(ENTITY_EVENT)
+                                .id(ofNullable(frame.entity().getId()).map(String::valueOf).orElse(null))
+                                .data((Object) frame.entity())
+                                .build()
+                        : ServerSentEvent.builder()
+                                .event(LAYOUTS_EVENT)
+                                .data((Object) frame.layouts())
+                                .build());
+    }
+
+    /**
+     * Get the page of catalog entities ordered by identifier with their layouts. To get the next page pass
+     * the cursor from the response as afterId parameter, the cursor is null for the last page.
+     *
+     * @param afterId    cursor of the previous page, the first page is returned if it is absent
+     * @param limit      maximum number of entities in the page, from 1 to 1000
+     * @param webSession server-side session data abstraction
+     * @return Publisher for ResponseEntity wrapping the page of catalog entities with layouts
+     */
+    @GetMapping("/page")
+    public Mono<ResponseEntity<CatalogEntityListWrapper<CatalogEntity>>> getPage(@RequestParam(value = "afterId",
+                                                                                         required = false) final Long afterId,
+                                                                                 @RequestParam(value = "limit",
+                                                                                         required = false,
+                                                                                         defaultValue = DEFAULT_PAGE_SIZE) final int limit,
+                                                                                 final WebSession webSession) {
+        log.info("Session id: %s, Received request to read %d values after %s"
+                .formatted(webSession.getId(), limit, afterId));
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            return Mono.just(ResponseEntity.badRequest()
+                    .body(CatalogEntityListWrapper.error("Page limit should be from 1 to %d".formatted(MAX_PAGE_SIZE))));
+        }
+        return catalogService.getPage(afterId, limit)
+                .flatMap(page -> CatalogEntityListWrapper.success(page.entities())
+                        .doOnNext(wrapper -> wrapper.setCursor(page.cursor())))
+                .flatMap(wrapper -> getCatalogEntityListWrapperWithLayouts(wrapper.getEntities().stream()
+                        .map(CatalogEntity::getLayoutName)
+                        .collect(Collectors.toSet()), wrapper))
+                .doOnNext(response -> tryLogResponse(response, webSession.getId()))
+                .onErrorResume(errorResponse -> Mono.just(CatalogEntityListWrapper.error(errorResponse.getMessage())))
+                .map(responseEntity -> responseEntity.isSuccess()
+                        ? ok(responseEntity)
+                        : internalServerError().body(responseEntity));
+    }
+
     /**
      * Create or update catalog entity. Logic is a little bit complicated because of possible inconsistency between
      * {@link CatalogEntity} interface and it's implementation.
@@ -233,6 +327,27 @@ public class CatalogController {
                         .formatted(webSession.getId(), response.toString())));
     }
 
+    /**
+     * Removes entity with all its descendants
+     *
+     * @param id         identifier of the subtree root entity
+     * @param webSession server-side session data abstraction
+     * @return publisher witch produces identifiers of the deleted records
+     */
+    @DeleteMapping("/{id}/subtree")
+    public Mono<ResponseEntity<KeepupResponseWrapper<List<Long>>>> deleteSubtree(@PathVariable("id") final Long id,
+                                                                                 final WebSession webSession) {
+        log.info("Session id: %s, Received request to delete catalog entity %d with descendants"
+                .formatted(webSession.getId(), id));
+        return catalogService.deleteSubtree(id)
+                .collectList()
+                .map(deletedIds -> ok(KeepupResponseWrapper.of(deletedIds)))
+                .onErrorResume(error -> Mono.just(internalServerError()
+                        .body(KeepupResponseWrapper.error(error.getMessage()))))
+                .doOnNext(response -> log.info(SESSION_ID_WITH_RESPONSE
+                        .formatted(webSession.getId(), response.toString())));
+    }
+
     // region private methods
     private String getWithoutChildrenSuffix(boolean children) {
         return children ? EMPTY : "out";
@@ -11,6 +11,7 @@ import io.keepup.plugins.catalog.model.CatalogEntity;
 import io.keepup.plugins.catalog.model.CatalogEntityWrapper;
 import io.keepup.plugins.catalog.model.Layout;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.codec.multipart.FilePart;
@@ -88,6 +89,54 @@ public class CatalogServiceAbstract extends AbstractEntityOperationService<Catal
         return entities.flatMap(catalogEntity -> success(catalogEntity, layoutService.getByName(catalogEntity.getLayoutName())));
     }
 
+    /**
+     * Looks for the entity with its descendants down to the specified depth and for {@link Layout} objects
+     * linked to them. The whole subtree is fetched with a single query.
+     *
+     * @param id    entity identifier
+     * @param depth maximum number of levels below the entity, 0 fetches the entity only
+     * @return      publisher for sequence of catalog wrappers ordered by depth and identifier
+     */
+    public Flux<CatalogEntityWrapper<CatalogEntity>> getCatalogEntitiesWithLayouts(final Long id, final int depth) {
+        if (id == null || depth < 0) {
+            var errorMessage = "Can not find content by id = %s with depth %d".formatted(id, depth);
+            log.error(errorMessage);
+            return CatalogEntityWrapper.error(errorMessage).flux();
+        }
+        log.debug("Looking for entity with id = %d and descendants down to depth %d".formatted(id, depth));
+        return getDescendants(id, depth)
+                .flatMapSequential(catalogEntity -> success(catalogEntity, layoutService.getByName(catalogEntity.getLayoutName())));
+    }
+
+    /**
+     * Searches for the entity and its descendants down to the specified depth.
+     *
+     * @param id       entity identifier
+     * @param maxDepth maximum number of levels below the entity, 0 fetches the entity only
+     * @return         publisher for the entities ordered by depth and identifier
+     */
+    public Flux<CatalogEntity> getDescendants(final Long id, final int maxDepth) {
+        return getDescendants(id, maxDepth, null);
+    }
+
+    /**
+     * Searches for the entity and its descendants of the specified type down to the specified depth. Records are
+     * filtered by type in the same query which walks the subtree, records of other types are traversed but neither
+     * returned nor loaded.
+     *
+     * @param id         entity identifier
+     * @param maxDepth   maximum number of levels below the entity, 0 fetches the entity only
+     * @param typeFilter class or interface the returned entities should implement, all {@link CatalogEntity}
+     *                   implementations are returned if null
+     * @return           publisher for the entities ordered by depth and identifier
+     */
+    public Flux<CatalogEntity> getDescendants(final Long id, final int maxDepth,
+                                              @Nullable final Class<? extends CatalogEntity> typeFilter) {
+        final Class<? extends CatalogEntity> type = typeFilter == null ? CatalogEntity.class : typeFilter;
+        return dataSourceFacade.getDescendants(id, maxDepth, type.getTypeName())
+                .concatMap(this::convert);
+    }
+
     /**
      * Searches for the entity by it's identifier and also for it's child entities if they exist
      *
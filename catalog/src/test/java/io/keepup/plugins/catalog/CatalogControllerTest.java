@@ -43,10 +43,13 @@ import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWeb
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.http.codec.multipart.FilePart;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -311,6 +314,103 @@ class CatalogControllerTest {
         });
     }
 
+    @Test
+    void streamAllAsNdjson() {
+        var entityIds = saveStreamedEntities();
+        var frames = client.get().uri("/catalog")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(JsonNode.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertNotNull(frames);
+        assertEquals(entityIds.size() + 1, frames.size());
+        for (int i = 0; i < entityIds.size(); i++) {
+            assertEquals(entityIds.get(i), frames.get(i).get("entity").get("id").asLong());
+            assertFalse(frames.get(i).has("layouts"));
+        }
+        var endFrame = frames.get(frames.size() - 1);
+        assertFalse(endFrame.has("entity"));
+        assertEquals(1, endFrame.get("layouts").size());
+        assertEquals("test entity", endFrame.get("layouts").get(0).get("name").asText());
+    }
+
+    @Test
+    void streamAllAsServerSentEvents() {
+        var entityIds = saveStreamedEntities();
+        var events = client.get().uri("/catalog")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<JsonNode>>() {})
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertNotNull(events);
+        assertEquals(entityIds.size() + 1, events.size());
+        for (int i = 0; i < entityIds.size(); i++) {
+            assertEquals("entity", events.get(i).event());
+            assertEquals(String.valueOf(entityIds.get(i)), events.get(i).id());
+            assertEquals(entityIds.get(i), events.get(i).data().get("id").asLong());
+        }
+        var endEvent = events.get(events.size() - 1);
+        assertEquals("layouts", endEvent.event());
+        assertNull(endEvent.id());
+        assertEquals("test entity", endEvent.data().get(0).get("name").asText());
+    }
+
+    @Test
+    void streamAllForAuthenticatedAndAnonymousSessions() {
+        var entityIds = saveStreamedEntities();
+        var authenticatedFrames = client.mutateWith(SecurityMockServerConfigurers.mockUser().roles("USER"))
+                .get().uri("/catalog")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(JsonNode.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+        var anonymousFrames = client.get().uri("/catalog")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(JsonNode.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertNotNull(authenticatedFrames);
+        assertEquals(entityIds.size() + 1, authenticatedFrames.size());
+        assertEquals(authenticatedFrames, anonymousFrames);
+    }
+
+    @Test
+    void streamAllWithErrorHasNoEndFrame() {
+        var entity = catalogService.save(new TestCatalogEntity(), 0L).block();
+        Mockito.when(mockCatalogService.getAll())
+                .thenReturn(Flux.concat(Mono.just(entity),
+                        Flux.error(new RuntimeException("Testing error in CatalogController#streamAll"))));
+        var frames = client.get().uri("/catalog")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(JsonNode.class)
+                .getResponseBody()
+                .onErrorResume(throwable -> Flux.empty())
+                .collectList()
+                .block();
+
+        assertNotNull(frames);
+        assertTrue(frames.stream().noneMatch(frame -> frame.has("layouts")));
+        assertTrue(frames.size() <= 1);
+    }
+
     @Test
     void getByIdWithError() {
         Mockito.when(mockCatalogService.get(anyLong()))
@@ -552,6 +652,16 @@ class CatalogControllerTest {
                 }).block();
     }
 
+    private List<Long> saveStreamedEntities() {
+        layoutService.deleteAll().then(catalogService.getAll()
+                .flatMap(entity -> catalogService.delete(entity.getId()))
+                .then(save10EntitiesAnd1Layout())).block();
+        return catalogService.getAll()
+                .map(CatalogEntity::getId)
+                .collectList()
+                .block();
+    }
+
     private Mono<Layout> save10EntitiesAnd1Layout() {
         for (int i = 0; i < 10; i++) {
             var block = catalogService.save(new TestCatalogEntity(), 0L).block();
@@ -17,6 +17,7 @@ import io.keepup.cms.core.datasource.sql.repository.ReactiveContentClassReposito
 import io.keepup.cms.core.datasource.sql.repository.ReactiveNodeAttributeEntityRepository;
 import io.keepup.cms.core.datasource.sql.repository.ReactiveNodeEntityRepository;
 import io.keepup.cms.core.datasource.sql.repository.ReactiveUserEntityRepository;
+import io.keepup.cms.core.persistence.Node;
 import io.keepup.plugins.catalog.model.CatalogEntity;
 import io.keepup.plugins.catalog.model.CatalogEntityWrapper;
 import io.keepup.plugins.catalog.model.Layout;
@@ -32,9 +33,11 @@ import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.TestPropertySource;
@@ -42,10 +45,13 @@ import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.util.ReflectionTestUtils;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.io.File;
 import java.nio.ByteBuffer;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -85,10 +91,16 @@ class CatalogServiceTest {
     private DataSourceFacade dataSourceFacade;
     @Autowired
     private LayoutService layoutService;
-    @Autowired
+    @SpyBean
     private ReactiveContentClassRepository contentClassRepository;
-    @Autowired
+    @SpyBean
     private ReactiveNodeEntityRepository nodeEntityRepository;
+    @SpyBean
+    private ReactiveNodeAttributeEntityRepository nodeAttributeEntityRepository;
+    @SpyBean
+    private DatabaseClient databaseClient;
+    @Autowired
+    private CacheAdapter cacheAdapter;
     @Autowired
     private ApplicationConfig applicationConfig;
 
@@ -121,6 +133,34 @@ class CatalogServiceTest {
         // endregion
     }
 
+    @Test
+    void getConcurrentlyByInterfaceWithSingleQuery() {
+        final int entitiesCount = 16;
+        var savedIds = Flux.range(0, entitiesCount)
+                .concatMap(i -> catalogService.save(new TestCatalogEntity(), 0L))
+                .map(CatalogEntity::getId)
+                .collectList()
+                .block();
+        assertNotNull(savedIds);
+        savedIds.forEach(cacheAdapter::deleteContent);
+        // every statement issued by the DAO is counted
+        Mockito.clearInvocations(databaseClient, nodeEntityRepository, nodeAttributeEntityRepository,
+                contentClassRepository);
+        var catalogEntities = Flux.fromIterable(savedIds)
+                .flatMap(id -> catalogService.get(id).subscribeOn(Schedulers.parallel()))
+                .collectList()
+                .block();
+
+        // region assert
+        assertNotNull(catalogEntities);
+        assertEquals(Set.copyOf(savedIds), catalogEntities.stream().map(CatalogEntity::getId).collect(Collectors.toSet()));
+        // node and its attributes are fetched by one joined statement, nothing else is queried
+        Mockito.verify(databaseClient, Mockito.times(entitiesCount)).sql(ArgumentMatchers.anyString());
+        Mockito.verifyNoInteractions(nodeEntityRepository, nodeAttributeEntityRepository);
+        Mockito.verify(contentClassRepository, Mockito.never()).findAllByContentId(ArgumentMatchers.anyLong());
+        // endregion
+    }
+
     @Test
     void getWithChildrenWithNoCatalogEntity() {
         var catalogEntities = catalogService.save(testCatalogEntity, 0L)
@@ -180,6 +220,54 @@ class CatalogServiceTest {
         // endregion
     }
 
+    @Test
+    void getCatalogEntitiesWithLayoutsByDepth() {
+        var root = catalogService.save(new TestCatalogEntity(), 0L).block();
+        assertNotNull(root);
+        var child = catalogService.save(new TestCatalogEntity(), 0L, root.getId()).block();
+        assertNotNull(child);
+        var grandChild = catalogService.save(new TestCatalogEntity(), 0L, child.getId()).block();
+        assertNotNull(grandChild);
+
+        var tree = catalogService.getCatalogEntitiesWithLayouts(root.getId(), 2).collectList().block();
+        var firstLevel = catalogService.getDescendants(root.getId(), 1).collectList().block();
+
+        // region assert
+        assertNotNull(tree);
+        assertEquals(3, tree.size());
+        assertEquals(List.of(root.getId(), child.getId(), grandChild.getId()),
+                tree.stream().map(wrapper -> wrapper.getEntity().getId()).toList());
+        assertTrue(tree.stream().allMatch(CatalogEntityWrapper::isSuccess));
+        assertNotNull(firstLevel);
+        assertEquals(2, firstLevel.size());
+        assertFalse(catalogService.getCatalogEntitiesWithLayouts(root.getId(), -1).blockFirst().isSuccess());
+        // endregion
+    }
+
+    @Test
+    void getDescendantsByType() {
+        var root = catalogService.save(new TestCatalogEntity(), 0L).block();
+        assertNotNull(root);
+        var child = catalogService.save(new TestCatalogEntity(), 0L, root.getId()).block();
+        assertNotNull(child);
+        var otherChild = new Node();
+        otherChild.setParentId(root.getId());
+        otherChild.setOwnerId(0L);
+        otherChild.setDefaultPrivileges();
+        otherChild.setEntityType("someWrongType");
+        assertNotNull(dataSourceFacade.createContent(otherChild).block());
+
+        var byInterface = catalogService.getDescendants(root.getId(), 1).collectList().block();
+        var byClass = catalogService.getDescendants(root.getId(), 1, TestCatalogEntity.class).collectList().block();
+
+        // region assert
+        assertNotNull(byInterface);
+        assertEquals(List.of(root.getId(), child.getId()), byInterface.stream().map(CatalogEntity::getId).toList());
+        assertNotNull(byClass);
+        assertEquals(List.of(root.getId(), child.getId()), byClass.stream().map(CatalogEntity::getId).toList());
+        // endregion
+    }
+
     @Test
     void getCatalogEntitiesWithLayoutsWithoutChildrenFlag() {
 
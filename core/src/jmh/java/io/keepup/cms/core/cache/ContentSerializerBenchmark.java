@@ -0,0 +1,97 @@
+package io.keepup.cms.core.cache;
+
+import io.keepup.cms.core.persistence.Content;
+import io.keepup.cms.core.persistence.Node;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link ContentRedisSerializer} with {@link GenericJackson2JsonRedisSerializer} currently used for
+ * Redis cache. Run with {@code ./gradlew :core:jmh}, payload sizes are reported as auxiliary counters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ContentSerializerBenchmark {
+
+    @Param({"5", "50"})
+    private int attributesCount;
+
+    private final GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer();
+    private final ContentRedisSerializer binarySerializer = new ContentRedisSerializer();
+
+    private Content content;
+    private byte[] jsonBytes;
+    private byte[] binaryBytes;
+
+    @Setup
+    public void setUp() {
+        var node = new Node(123_456L);
+        node.setParentId(1_024L);
+        node.setOwnerId(1L);
+        node.setEntityType("io.keepup.cms.catalog.TestEntity");
+        node.setDefaultPrivileges();
+        for (var i = 0; i < attributesCount; i++) {
+            node.setAttribute("string" + i, "Value of the string attribute number " + i);
+            node.setAttribute("long" + i, (long) i * 1_000_000);
+            node.setAttribute("flag" + i, i % 2 == 0);
+            ArrayList<Serializable> list = new ArrayList<>(List.of("first", "second", i));
+            node.setAttribute("list" + i, list);
+        }
+        content = node;
+        jsonBytes = jsonSerializer.serialize(content);
+        binaryBytes = binarySerializer.serialize(content);
+    }
+
+    @Benchmark
+    public byte[] encodeJson(PayloadSize payloadSize) {
+        var bytes = jsonSerializer.serialize(content);
+        payloadSize.bytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public byte[] encodeBinary(PayloadSize payloadSize) {
+        var bytes = binarySerializer.serialize(content);
+        payloadSize.bytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public Object decodeJson() {
+        return jsonSerializer.deserialize(jsonBytes);
+    }
+
+    @Benchmark
+    public Content decodeBinary() {
+        return binarySerializer.deserialize(binaryBytes);
+    }
+
+    /**
+     * Reports the size of the last serialized payload.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadSize {
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+}
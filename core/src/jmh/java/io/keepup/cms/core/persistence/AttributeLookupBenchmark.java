@@ -0,0 +1,69 @@
+package io.keepup.cms.core.persistence;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares attribute lookups of {@link Node} backed by {@link CompactAttributeMap} with the lookups over plain
+ * {@link HashMap} attributes, which look through all the keys to resolve names without type suffix. Run with
+ * {@code ./gradlew :core:jmh}, allocation rate per operation is reported by the gc profiler as gc.alloc.rate.norm.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AttributeLookupBenchmark {
+
+    @Param({"5", "50"})
+    private int attributesCount;
+
+    private Node compactNode;
+    private Node hashMapNode;
+    private String[] plainKeys;
+    private String[] suffixedKeys;
+
+    @Setup
+    public void setUp() {
+        compactNode = new Node(1L);
+        hashMapNode = new Node(2L);
+        hashMapNode.setAttributes(new HashMap<>());
+        plainKeys = new String[attributesCount];
+        suffixedKeys = new String[attributesCount];
+        for (var i = 0; i < attributesCount; i++) {
+            plainKeys[i] = "name" + i;
+            suffixedKeys[i] = "description" + i;
+            Serializable value = "Value of the attribute number " + i;
+            for (Node node : new Node[]{compactNode, hashMapNode}) {
+                node.setAttribute(plainKeys[i], value);
+                node.setAttribute(suffixedKeys[i] + ".html", value);
+            }
+        }
+    }
+
+    @Benchmark
+    public void compactLookup(Blackhole blackhole) {
+        lookup(compactNode, blackhole);
+    }
+
+    @Benchmark
+    public void hashMapLookup(Blackhole blackhole) {
+        lookup(hashMapNode, blackhole);
+    }
+
+    private void lookup(Node node, Blackhole blackhole) {
+        for (var i = 0; i < attributesCount; i++) {
+            blackhole.consume(node.getAttribute(plainKeys[i]));
+            blackhole.consume(node.getAttribute(suffixedKeys[i]));
+        }
+    }
+}
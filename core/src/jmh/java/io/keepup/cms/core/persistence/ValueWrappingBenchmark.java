@@ -0,0 +1,93 @@
+package io.keepup.cms.core.persistence;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.cglib.proxy.Enhancer;
+import org.springframework.cglib.proxy.MethodInterceptor;
+
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the save path of non-serializable attribute values: the proxy created by {@link Enhancer} for every
+ * value with fields copied through {@link FieldUtils}, as it was done before, and {@link ValueEnvelope}, with and
+ * without writing the attribute bytes. Run with {@code ./gradlew :core:jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ValueWrappingBenchmark {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private BenchmarkValue value;
+
+    @Setup
+    public void setUp() {
+        value = new BenchmarkValue();
+        value.setName("Benchmark value");
+        value.setCount(1_024);
+        value.setRating(4.5);
+    }
+
+    @Benchmark
+    public Object proxy() throws IllegalAccessException {
+        var enhancer = new Enhancer();
+        enhancer.setSuperclass(value.getClass());
+        enhancer.setInterfaces(new Class[]{Serializable.class});
+        enhancer.setCallback((MethodInterceptor) (obj, method, args, proxy) -> proxy.invokeSuper(obj, args));
+        final Object proxy = enhancer.create();
+        for (Field field : value.getClass().getDeclaredFields()) {
+            FieldUtils.writeField(field, proxy, FieldUtils.readField(field, value, true), true);
+        }
+        return proxy;
+    }
+
+    @Benchmark
+    public Object envelope() {
+        return ValueEnvelope.of(value, mapper);
+    }
+
+    @Benchmark
+    public byte[] envelopeBytes() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(ValueEnvelope.of(value, mapper));
+    }
+
+    public static class BenchmarkValue {
+        private String name;
+        private int count;
+        private double rating;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+
+        public double getRating() {
+            return rating;
+        }
+
+        public void setRating(double rating) {
+            this.rating = rating;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package io.keepup.cms.core.service;
+
+import io.keepup.cms.core.persistence.Content;
+import io.keepup.cms.core.persistence.Node;
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares entity conversions done by {@link EntityMapper} with the per call reflection previously used by
+ * {@link AbstractEntityOperationService}: field and annotation lookups, class resolution by name, reflective
+ * constructor call and field access through {@link FieldUtils}. Run with {@code ./gradlew :core:jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EntityMappingBenchmark {
+
+    private BenchmarkEntity entity;
+    private Content content;
+
+    @Setup
+    public void setUp() {
+        entity = new BenchmarkEntity();
+        entity.id = 1_024L;
+        entity.name = "Catalog entity";
+        entity.description = "Description of the catalog entity";
+        entity.price = 1_000L;
+        entity.available = true;
+        entity.rating = 4.5;
+        content = reflectiveSerialize();
+        content.setId(entity.id);
+    }
+
+    @Benchmark
+    public Node reflectiveSerialize() {
+        var node = new Node();
+        node.setEntityType(entity.getClass().getName());
+        for (Field field : entity.getClass().getDeclaredFields()) {
+            try {
+                final Object value = FieldUtils.readField(field, entity, true);
+                if (field.isAnnotationPresent(ContentMapping.class)) {
+                    node.addAttribute(field.getAnnotation(ContentMapping.class).value(), value);
+                } else if (field.isAnnotationPresent(ContentId.class)) {
+                    node.setId(value instanceof Long id ? id : null);
+                }
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return node;
+    }
+
+    @Benchmark
+    public Node mapperSerialize() {
+        final EntityMapper<?> entityMapper = EntityMapper.of(entity.getClass());
+        var node = new Node();
+        node.setEntityType(entity.getClass().getName());
+        for (EntityMapper.Attribute attribute : entityMapper.getAttributes()) {
+            node.addAttribute(attribute.getKey(), attribute.get(entity));
+        }
+        node.setId(entityMapper.getIdValue(entity));
+        return node;
+    }
+
+    @Benchmark
+    public Object reflectiveConvert() throws ReflectiveOperationException {
+        final Object converted = Class.forName(content.getEntityType()).getDeclaredConstructor().newInstance();
+        for (Field field : converted.getClass().getDeclaredFields()) {
+            if (field.isAnnotationPresent(ContentId.class)) {
+                FieldUtils.writeField(field, converted, content.getId(), true);
+            } else if (field.isAnnotationPresent(ContentMapping.class)) {
+                FieldUtils.writeField(field, converted,
+                        content.getAttribute(field.getAnnotation(ContentMapping.class).value()), true);
+            }
+        }
+        return converted;
+    }
+
+    @Benchmark
+    public Object mapperConvert() throws ReflectiveOperationException {
+        final EntityMapper<BenchmarkEntity> entityMapper = EntityMapper.of(BenchmarkEntity.class);
+        final BenchmarkEntity converted = entityMapper.newInstance();
+        entityMapper.getId().set(converted, content.getId());
+        for (EntityMapper.Attribute attribute : entityMapper.getAttributes()) {
+            attribute.set(converted, content.getAttribute(attribute.getKey()));
+        }
+        return converted;
+    }
+
+    public static class BenchmarkEntity implements Serializable {
+        @ContentId
+        private Long id;
+        @ContentMapping("name")
+        private String name;
+        @ContentMapping("description")
+        private String description;
+        @ContentMapping("price")
+        private Long price;
+        @ContentMapping("available")
+        private Boolean available;
+        @ContentMapping("rating")
+        private Double rating;
+    }
+}
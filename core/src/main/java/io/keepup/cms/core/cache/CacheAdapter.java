@@ -4,10 +4,12 @@ import io.keepup.cms.core.persistence.Content;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -36,8 +38,8 @@ public record CacheAdapter(@NonNull CacheManager cacheManager) {
     }
 
     /**
-     * Puts the newer Content object version into the cache
-     * if their hashes are not equal or if the older version is not present
+     * Puts the newer Content object version into the cache if the cached record has an older version
+     * or if the cached record is not present. Records without version are always put into the cache.
      *
      * @param content record to be updated
      * @return currently persisted record or null
@@ -47,7 +49,7 @@ public record CacheAdapter(@NonNull CacheManager cacheManager) {
         ofNullable(cacheManager.getCache(CONTENT_CACHE_NAME))
                 .ifPresent(cache -> {
                     final var cachedContent = cache.get(content.getId(), Content.class);
-                    if (cachedContent == null || cachedContent.hashCode() != content.hashCode()) {
+                    if (cachedContent == null || !isUpToDate(cachedContent, content)) {
                         cache.put(content.getId(), content);
                     } else {
                         success.set(cachedContent);
@@ -56,6 +58,18 @@ public record CacheAdapter(@NonNull CacheManager cacheManager) {
         return success.get();
     }
 
+    /**
+     * Puts the record into the cache without comparing it with the cached version. Should be used when
+     * the cached object itself was modified, so the comparison with the cached version always succeeds,
+     * but the change still has to reach remote cache tiers.
+     *
+     * @param content record to be cached
+     */
+    public void putContent(final Content content) {
+        ofNullable(cacheManager.getCache(CONTENT_CACHE_NAME))
+                .ifPresent(cache -> cache.put(content.getId(), content));
+    }
+
     /**
      * Evicts the cache if {@link Content} record was there
      *
@@ -70,6 +84,26 @@ public record CacheAdapter(@NonNull CacheManager cacheManager) {
                 .ifPresent(cache -> cache.evictIfPresent(contentId));
     }
 
+    /**
+     * Evicts a number of {@link Content} records from the cache. Local Caffeine cache is invalidated by a single
+     * bulk operation, other cache types evict the records one by one.
+     *
+     * @param contentIds record identifiers
+     */
+    public void deleteContents(final Collection<Long> contentIds) {
+        if (contentIds == null || contentIds.isEmpty()) {
+            return;
+        }
+        ofNullable(cacheManager.getCache(CONTENT_CACHE_NAME))
+                .ifPresent(cache -> {
+                    if (cache instanceof CaffeineCache caffeineCache) {
+                        caffeineCache.getNativeCache().invalidateAll(contentIds);
+                    } else {
+                        contentIds.forEach(cache::evictIfPresent);
+                    }
+                });
+    }
+
     /**
      * Updated just one record attribute in case when {@link Content} entity is cached
      *
@@ -80,10 +114,28 @@ public record CacheAdapter(@NonNull CacheManager cacheManager) {
     public void updateContent(final Long contentId,
                               final String attributeKey,
                               final Serializable attributeValue) {
+        updateContent(contentId, attributeKey, attributeValue, null);
+    }
+
+    /**
+     * Updated just one record attribute and the record version in case when {@link Content} entity is cached
+     *
+     * @param contentId      record id
+     * @param attributeKey   attribute key to be updated
+     * @param attributeValue new attribute value
+     * @param version        new record version, the cached version is kept if null
+     */
+    public void updateContent(final Long contentId,
+                              final String attributeKey,
+                              final Serializable attributeValue,
+                              final Long version) {
         ofNullable(cacheManager.getCache(CONTENT_CACHE_NAME))
                 .flatMap(cache -> ofNullable(cache.get(contentId, Content.class)))
                 .ifPresent(rec -> {
                     rec.setAttribute(attributeKey, attributeValue);
+                    if (version != null) {
+                        rec.setVersion(version);
+                    }
                     ofNullable(cacheManager.getCache(CONTENT_CACHE_NAME))
                             .ifPresent(contentCache -> {
                                 contentCache.put(contentId, rec);
@@ -94,6 +146,20 @@ public record CacheAdapter(@NonNull CacheManager cacheManager) {
                 });
     }
 
+    /**
+     * Checks whether the cached record is not older than the fetched one, versions are compared instead of
+     * the records themselves, so the attributes are neither hashed nor decoded.
+     *
+     * @param cachedContent  cached record
+     * @param fetchedContent record fetched from the data source
+     * @return               true if the cached record can be kept
+     */
+    private static boolean isUpToDate(@NonNull Content cachedContent, @NonNull Content fetchedContent) {
+        return cachedContent.getVersion() != null
+                && fetchedContent.getVersion() != null
+                && cachedContent.getVersion() >= fetchedContent.getVersion();
+    }
+
     @NonNull
     private Optional<Content> logEmptyIdWarning() {
         LOG.error("Content identifier is null");
@@ -0,0 +1,47 @@
+package io.keepup.cms.core.cache;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Message broadcast by {@link NearCacheManager} to other application instances when the record is
+ * changed or evicted, so they could drop the stale copy from their local caches.
+ *
+ * @param origin    identifier of the cache manager instance which changed the record
+ * @param cacheName name of the cache
+ * @param key       cache key as string, null means that the whole cache is cleared
+ * @author Fedor Sergeev
+ * @since 2.0.0
+ */
+record CacheInvalidationMessage(@NotNull String origin, @NotNull String cacheName, @Nullable String key) {
+
+    private static final String DELIMITER = "\n";
+    private static final int PARTS_COUNT = 3;
+
+    /**
+     * Converts the message to the string sent via Redis channel.
+     *
+     * @return message body
+     */
+    String encode() {
+        return String.join(DELIMITER, origin, cacheName, key == null ? "" : key);
+    }
+
+    /**
+     * Parses the message received from Redis channel.
+     *
+     * @param body message body
+     * @return     parsed message or null if the body has unexpected format
+     */
+    @Nullable
+    static CacheInvalidationMessage decode(@Nullable String body) {
+        if (body == null) {
+            return null;
+        }
+        var parts = body.split(DELIMITER, PARTS_COUNT);
+        if (parts.length != PARTS_COUNT) {
+            return null;
+        }
+        return new CacheInvalidationMessage(parts[0], parts[1], parts[2].isEmpty() ? null : parts[2]);
+    }
+}
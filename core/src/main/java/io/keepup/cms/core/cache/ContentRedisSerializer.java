@@ -0,0 +1,473 @@
+package io.keepup.cms.core.cache;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.keepup.cms.core.datasource.access.ContentPrivileges;
+import io.keepup.cms.core.datasource.access.Privilege;
+import io.keepup.cms.core.persistence.Content;
+import io.keepup.cms.core.persistence.Node;
+import io.keepup.cms.core.persistence.ValueEnvelope;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Compact binary serializer for {@link Content} records stored in Redis. Compared to
+ * {@link org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer} it does not embed
+ * class names, writes identifiers as variable length numbers, packs twelve privilege flags into two bytes
+ * and tags attribute values with single byte type markers. Values of types unknown to the format are
+ * written as JSON in {@link ValueEnvelope} the same way non-serializable entity fields are stored, so reading
+ * a record from the shared Redis never runs the standard Java deserialization.
+ * <p>
+ * Payloads bigger than the compression threshold are deflated. Records are always deserialized
+ * as {@link Node} objects.
+ *
+ * @author Fedor Sergeev
+ * @since 2.0.0
+ */
+public class ContentRedisSerializer implements RedisSerializer<Content> {
+
+    /**
+     * Format version, is written as the first byte together with the flags
+     */
+    static final int VERSION = 1;
+    /**
+     * Default size of payload in bytes above which it is compressed
+     */
+    public static final int DEFAULT_COMPRESSION_THRESHOLD = 1024;
+
+    private static final int COMPRESSED_FLAG = 0x10;
+    private static final int VERSION_MASK = 0x0F;
+
+    private static final int HAS_ID = 1;
+    private static final int HAS_PARENT_ID = 1 << 1;
+    private static final int HAS_OWNER_ID = 1 << 2;
+    private static final int HAS_ENTITY_TYPE = 1 << 3;
+    private static final int HAS_OWNER_PRIVILEGES = 1 << 4;
+    private static final int HAS_ROLE_PRIVILEGES = 1 << 5;
+    private static final int HAS_OTHER_PRIVILEGES = 1 << 6;
+    private static final int HAS_PRIVILEGES = 1 << 7;
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte LONG = 2;
+    private static final byte INTEGER = 3;
+    private static final byte TRUE = 4;
+    private static final byte FALSE = 5;
+    private static final byte DOUBLE = 6;
+    private static final byte FLOAT = 7;
+    private static final byte SHORT = 8;
+    private static final byte BYTE = 9;
+    private static final byte BYTES = 10;
+    private static final byte LIST = 11;
+    private static final byte MAP = 12;
+    /**
+     * Value of the type unknown to the format, written as JSON together with the name of its class
+     */
+    private static final byte JSON = 13;
+    /**
+     * {@link ValueEnvelope} attribute value, written as JSON and read as envelope
+     */
+    private static final byte ENVELOPE = 14;
+
+    private static final ObjectMapper MAPPER = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+            .build();
+
+    private final int compressionThreshold;
+
+    /**
+     * Creates serializer compressing payloads bigger than {@link #DEFAULT_COMPRESSION_THRESHOLD} bytes.
+     */
+    public ContentRedisSerializer() {
+        this(DEFAULT_COMPRESSION_THRESHOLD);
+    }
+
+    /**
+     * Creates serializer with the specified compression threshold.
+     *
+     * @param compressionThreshold size of payload in bytes above which it is compressed, negative value disables compression
+     */
+    public ContentRedisSerializer(int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public byte[] serialize(@Nullable Content content) throws SerializationException {
+        if (content == null) {
+            return new byte[0];
+        }
+        try {
+            var payload = new ByteArrayOutputStream();
+            writeContent(new DataOutputStream(payload), content);
+            var bytes = payload.toByteArray();
+            var result = new ByteArrayOutputStream(bytes.length + 1);
+            if (compressionThreshold >= 0 && bytes.length > compressionThreshold) {
+                result.write(VERSION | COMPRESSED_FLAG);
+                var output = new DataOutputStream(result);
+                writeVarLong(output, bytes.length);
+                output.write(deflate(bytes));
+            } else {
+                result.write(VERSION);
+                result.write(bytes);
+            }
+            return result.toByteArray();
+        } catch (IOException | IllegalArgumentException ex) {
+            throw new SerializationException("Could not write Content record with id %d: %s".formatted(content.getId(), ex.getMessage()), ex);
+        }
+    }
+
+    @Override
+    public Content deserialize(@Nullable byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        var header = bytes[0];
+        var formatVersion = header & VERSION_MASK;
+        if (formatVersion != VERSION) {
+            throw new SerializationException("Unsupported Content serialization format version %d".formatted(formatVersion));
+        }
+        try {
+            DataInputStream input;
+            if ((header & COMPRESSED_FLAG) != 0) {
+                var compressedInput = new DataInputStream(new ByteArrayInputStream(bytes, 1, bytes.length - 1));
+                var length = (int) readVarLong(compressedInput);
+                input = new DataInputStream(new ByteArrayInputStream(inflate(compressedInput.readAllBytes(), length)));
+            } else {
+                input = new DataInputStream(new ByteArrayInputStream(bytes, 1, bytes.length - 1));
+            }
+            return readContent(input);
+        } catch (IOException | DataFormatException | IllegalArgumentException ex) {
+            throw new SerializationException("Could not read Content record: %s".formatted(ex.getMessage()), ex);
+        }
+    }
+
+    private void writeContent(DataOutputStream output, Content content) throws IOException {
+        var privileges = content.getContentPrivileges();
+        var flags = 0;
+        flags |= content.getId() != null ? HAS_ID : 0;
+        flags |= content.getParentId() != null ? HAS_PARENT_ID : 0;
+        flags |= content.getOwnerId() != null ? HAS_OWNER_ID : 0;
+        flags |= content.getEntityType() != null ? HAS_ENTITY_TYPE : 0;
+        if (privileges != null) {
+            flags |= HAS_PRIVILEGES;
+            flags |= privileges.getOwnerPrivileges() != null ? HAS_OWNER_PRIVILEGES : 0;
+            flags |= privileges.getRolePrivileges() != null ? HAS_ROLE_PRIVILEGES : 0;
+            flags |= privileges.getOtherPrivileges() != null ? HAS_OTHER_PRIVILEGES : 0;
+        }
+        output.writeByte(flags);
+        if (content.getId() != null) {
+            writeVarLong(output, zigZag(content.getId()));
+        }
+        if (content.getParentId() != null) {
+            writeVarLong(output, zigZag(content.getParentId()));
+        }
+        if (content.getOwnerId() != null) {
+            writeVarLong(output, zigZag(content.getOwnerId()));
+        }
+        if (content.getEntityType() != null) {
+            writeString(output, content.getEntityType());
+        }
+        if (privileges != null) {
+            output.writeShort(packPrivileges(privileges));
+        }
+        // zero stands for the record without version
+        writeVarLong(output, content.getVersion() == null ? 0 : zigZag(content.getVersion()) + 1);
+        var attributes = content.getAttributes();
+        writeVarLong(output, attributes == null ? 0 : attributes.size());
+        if (attributes != null) {
+            for (Map.Entry<String, Serializable> attribute : attributes.entrySet()) {
+                writeString(output, attribute.getKey());
+                writeValue(output, attribute.getValue());
+            }
+        }
+    }
+
+    private Content readContent(DataInputStream input) throws IOException {
+        var flags = input.readUnsignedByte();
+        var content = new Node();
+        if ((flags & HAS_ID) != 0) {
+            content.setId(unZigZag(readVarLong(input)));
+        }
+        if ((flags & HAS_PARENT_ID) != 0) {
+            content.setParentId(unZigZag(readVarLong(input)));
+        }
+        if ((flags & HAS_OWNER_ID) != 0) {
+            content.setOwnerId(unZigZag(readVarLong(input)));
+        }
+        if ((flags & HAS_ENTITY_TYPE) != 0) {
+            content.setEntityType(readString(input));
+        }
+        if ((flags & HAS_PRIVILEGES) != 0) {
+            content.setContentPrivileges(unpackPrivileges(input.readUnsignedShort(), flags));
+        } else {
+            content.setContentPrivileges(null);
+        }
+        var version = readVarLong(input);
+        content.setVersion(version == 0 ? null : unZigZag(version - 1));
+        var attributesCount = (int) readVarLong(input);
+        for (var i = 0; i < attributesCount; i++) {
+            var key = readString(input);
+            content.setAttribute(key, (Serializable) readValue(input));
+        }
+        return content;
+    }
+
+    private void writeValue(DataOutputStream output, @Nullable Object value) throws IOException {
+        if (value == null) {
+            output.writeByte(NULL);
+        } else if (value instanceof String string) {
+            output.writeByte(STRING);
+            writeString(output, string);
+        } else if (value instanceof Long number) {
+            output.writeByte(LONG);
+            writeVarLong(output, zigZag(number));
+        } else if (value instanceof Integer number) {
+            output.writeByte(INTEGER);
+            writeVarLong(output, zigZag(number));
+        } else if (value instanceof Boolean bool) {
+            output.writeByte(bool ? TRUE : FALSE);
+        } else if (value instanceof Double number) {
+            output.writeByte(DOUBLE);
+            output.writeDouble(number);
+        } else if (value instanceof Float number) {
+            output.writeByte(FLOAT);
+            output.writeFloat(number);
+        } else if (value instanceof Short number) {
+            output.writeByte(SHORT);
+            output.writeShort(number);
+        } else if (value instanceof Byte number) {
+            output.writeByte(BYTE);
+            output.writeByte(number);
+        } else if (value instanceof byte[] bytes) {
+            output.writeByte(BYTES);
+            writeVarLong(output, bytes.length);
+            output.write(bytes);
+        } else if (value.getClass() == ArrayList.class) {
+            var list = (ArrayList<?>) value;
+            output.writeByte(LIST);
+            writeVarLong(output, list.size());
+            for (Object element : list) {
+                writeValue(output, element);
+            }
+        } else if (value.getClass() == HashMap.class && isStringKeyMap((HashMap<?, ?>) value)) {
+            var map = (HashMap<?, ?>) value;
+            output.writeByte(MAP);
+            writeVarLong(output, map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeString(output, (String) entry.getKey());
+                writeValue(output, entry.getValue());
+            }
+        } else if (value instanceof ValueEnvelope envelope) {
+            output.writeByte(ENVELOPE);
+            writeEnvelope(output, envelope);
+        } else if (value instanceof Serializable) {
+            output.writeByte(JSON);
+            writeEnvelope(output, ValueEnvelope.of(value, MAPPER));
+        } else {
+            throw new SerializationException("Value of type %s is not serializable".formatted(value.getClass().getName()));
+        }
+    }
+
+    private Object readValue(DataInputStream input) throws IOException {
+        var tag = input.readByte();
+        return switch (tag) {
+            case NULL -> null;
+            case STRING -> readString(input);
+            case LONG -> unZigZag(readVarLong(input));
+            case INTEGER -> (int) unZigZag(readVarLong(input));
+            case TRUE -> Boolean.TRUE;
+            case FALSE -> Boolean.FALSE;
+            case DOUBLE -> input.readDouble();
+            case FLOAT -> input.readFloat();
+            case SHORT -> input.readShort();
+            case BYTE -> input.readByte();
+            case BYTES -> input.readNBytes((int) readVarLong(input));
+            case LIST -> readList(input);
+            case MAP -> readMap(input);
+            case JSON -> readEnvelope(input).unwrap(Serializable.class, MAPPER);
+            case ENVELOPE -> readEnvelope(input);
+            default -> throw new SerializationException("Unknown attribute value type tag %d".formatted(tag));
+        };
+    }
+
+    private static void writeEnvelope(DataOutputStream output, ValueEnvelope envelope) throws IOException {
+        writeString(output, envelope.getType());
+        var bytes = MAPPER.writeValueAsBytes(envelope.getValue());
+        writeVarLong(output, bytes.length);
+        output.write(bytes);
+    }
+
+    private static ValueEnvelope readEnvelope(DataInputStream input) throws IOException {
+        var type = readString(input);
+        return new ValueEnvelope(type, MAPPER.readTree(input.readNBytes((int) readVarLong(input))));
+    }
+
+    private ArrayList<Object> readList(DataInputStream input) throws IOException {
+        var size = (int) readVarLong(input);
+        var list = new ArrayList<>(size);
+        for (var i = 0; i < size; i++) {
+            list.add(readValue(input));
+        }
+        return list;
+    }
+
+    private HashMap<String, Object> readMap(DataInputStream input) throws IOException {
+        var size = (int) readVarLong(input);
+        var map = new HashMap<String, Object>(size * 2);
+        for (var i = 0; i < size; i++) {
+            var key = readString(input);
+            map.put(key, readValue(input));
+        }
+        return map;
+    }
+
+    private static boolean isStringKeyMap(Map<?, ?> map) {
+        for (Object key : map.keySet()) {
+            if (!(key instanceof String)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Packs privileges to twelve bits: four bits (read, write, execute, create children) for owner,
+     * role and others respectively.
+     *
+     * @param privileges record privileges
+     * @return           packed privileges
+     */
+    static int packPrivileges(@NotNull ContentPrivileges privileges) {
+        return packPrivilege(privileges.getOwnerPrivileges()) << 8
+                | packPrivilege(privileges.getRolePrivileges()) << 4
+                | packPrivilege(privileges.getOtherPrivileges());
+    }
+
+    private static int packPrivilege(@Nullable Privilege privilege) {
+        if (privilege == null) {
+            return 0;
+        }
+        return (privilege.canRead() ? 1 : 0)
+                | (privilege.canWrite() ? 1 << 1 : 0)
+                | (privilege.canExecute() ? 1 << 2 : 0)
+                | (privilege.canCreateChildren() ? 1 << 3 : 0);
+    }
+
+    private static ContentPrivileges unpackPrivileges(int packedPrivileges, int flags) {
+        var privileges = new ContentPrivileges();
+        if ((flags & HAS_OWNER_PRIVILEGES) != 0) {
+            privileges.setOwnerPrivileges(unpackPrivilege(packedPrivileges >> 8));
+        }
+        if ((flags & HAS_ROLE_PRIVILEGES) != 0) {
+            privileges.setRolePrivileges(unpackPrivilege(packedPrivileges >> 4));
+        }
+        if ((flags & HAS_OTHER_PRIVILEGES) != 0) {
+            privileges.setOtherPrivileges(unpackPrivilege(packedPrivileges));
+        }
+        return privileges;
+    }
+
+    private static Privilege unpackPrivilege(int bits) {
+        var privilege = new Privilege();
+        privilege.setRead((bits & 1) != 0);
+        privilege.setWrite((bits & 1 << 1) != 0);
+        privilege.setExecute((bits & 1 << 2) != 0);
+        privilege.setCreateChildren((bits & 1 << 3) != 0);
+        return privilege;
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        var bytes = value.getBytes(UTF_8);
+        writeVarLong(output, bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+        return new String(input.readNBytes((int) readVarLong(input)), UTF_8);
+    }
+
+    private static void writeVarLong(DataOutputStream output, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            output.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        output.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream input) throws IOException {
+        long result = 0;
+        for (var shift = 0; shift < 64; shift += 7) {
+            var b = input.readUnsignedByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new SerializationException("Malformed variable length number");
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static byte[] deflate(byte[] bytes) {
+        var deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            var output = new ByteArrayOutputStream(bytes.length / 2 + 16);
+            var buffer = new byte[4096];
+            while (!deflater.finished()) {
+                output.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return output.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] bytes, int length) throws DataFormatException {
+        var inflater = new Inflater();
+        try {
+            inflater.setInput(bytes);
+            var result = new byte[length];
+            var offset = 0;
+            while (offset < length && !inflater.finished()) {
+                var count = inflater.inflate(result, offset, length - offset);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("Compressed Content payload is truncated");
+                }
+                offset += count;
+            }
+            return result;
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package io.keepup.cms.core.cache;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+import io.keepup.cms.core.persistence.Content;
+import io.keepup.cms.core.persistence.LazyAttributeMap;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Estimates the heap footprint of cached {@link Content} records in bytes. The estimation is based on
+ * the attribute keys and values, so a single record with large attributes costs as many small records,
+ * and the local cache bounded by weight does not depend on the number of records only.
+ * <p>
+ * Estimation is rough and does not walk through arbitrary object graphs: strings, byte arrays,
+ * numbers, collections and maps are measured, other objects are counted with the fixed weight.
+ *
+ * @author Fedor Sergeev
+ * @since 2.0.0
+ */
+public class ContentWeigher implements Weigher<Object, Object> {
+
+    /**
+     * Approximate size of node object with it's privileges and attribute map
+     */
+    static final int NODE_WEIGHT = 256;
+    /**
+     * Approximate size of a single map entry or collection element reference
+     */
+    static final int ENTRY_WEIGHT = 32;
+    /**
+     * Approximate size of boxed primitive and other small objects
+     */
+    static final int PRIMITIVE_WEIGHT = 16;
+    /**
+     * Weight of the objects which size cannot be estimated
+     */
+    static final int DEFAULT_WEIGHT = 64;
+    /**
+     * Approximate size of String object header without characters
+     */
+    private static final int STRING_HEADER_WEIGHT = 40;
+
+    @Override
+    public int weigh(@NotNull Object key, @NotNull Object value) {
+        long weight = value instanceof Content content
+                ? weigh(content)
+                : estimate(value);
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(1, weight));
+    }
+
+    private long weigh(Content content) {
+        long weight = NODE_WEIGHT;
+        var attributes = content.getAttributes();
+        if (attributes instanceof LazyAttributeMap lazyAttributes) {
+            // raw values are measured instead of decoded ones so that caching does not decode the attributes
+            for (String key : lazyAttributes.keySet()) {
+                weight += ENTRY_WEIGHT + estimate(key) + estimate(lazyAttributes.peek(key));
+            }
+        } else if (attributes != null) {
+            for (Map.Entry<String, Serializable> attribute : attributes.entrySet()) {
+                weight += ENTRY_WEIGHT + estimate(attribute.getKey()) + estimate(attribute.getValue());
+            }
+        }
+        return weight;
+    }
+
+    /**
+     * Estimates size of the attribute value.
+     *
+     * @param value attribute value
+     * @return      approximate size in bytes
+     */
+    static long estimate(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof CharSequence sequence) {
+            return STRING_HEADER_WEIGHT + 2L * sequence.length();
+        }
+        if (value instanceof byte[] bytes) {
+            return PRIMITIVE_WEIGHT + bytes.length;
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Character || value instanceof Enum) {
+            return PRIMITIVE_WEIGHT;
+        }
+        if (value instanceof Collection<?> collection) {
+            long weight = PRIMITIVE_WEIGHT;
+            for (Object element : collection) {
+                weight += ENTRY_WEIGHT + estimate(element);
+            }
+            return weight;
+        }
+        if (value instanceof Map<?, ?> map) {
+            long weight = PRIMITIVE_WEIGHT;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                weight += ENTRY_WEIGHT + estimate(entry.getKey()) + estimate(entry.getValue());
+            }
+            return weight;
+        }
+        if (value instanceof Object[] array) {
+            long weight = PRIMITIVE_WEIGHT;
+            for (Object element : array) {
+                weight += ENTRY_WEIGHT + estimate(element);
+            }
+            return weight;
+        }
+        return DEFAULT_WEIGHT;
+    }
+}
@@ -1,20 +1,28 @@
 package io.keepup.cms.core.cache;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.convert.DurationStyle;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.cache.concurrent.ConcurrentMapCache;
 import org.springframework.cache.support.SimpleCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
-import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
@@ -23,12 +31,21 @@ import java.util.Collections;
 
 import static io.keepup.cms.core.cache.CacheNames.CONTENT_CACHE_NAME;
 import static java.util.Collections.singleton;
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
 import static org.springframework.data.redis.cache.RedisCacheConfiguration.defaultCacheConfig;
 import static org.springframework.data.redis.cache.RedisCacheManager.builder;
 import static org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair.fromSerializer;
 
 /**
- * Contains configurations for different cache types.
+ * Contains configurations for different cache types. Cache type is chosen by keepup.cache.type property only,
+ * 'redis' profile just sets its default value to redis:
+ * <ul>
+ *     <li>simple - unbounded {@link ConcurrentMapCache}, default if the property is not specified;</li>
+ *     <li>local - in-process cache bounded by the estimated size of records, see {@link ContentWeigher};</li>
+ *     <li>redis - remote cache;</li>
+ *     <li>near - local cache in front of the Redis one, see {@link NearCacheManager}.</li>
+ * </ul>
+ * Redis connection is configured for redis and near cache types and for the Redis event relay.
  *
  * @author Fedor Sergeev
  * @since 2.0.0
@@ -36,6 +53,9 @@ import static org.springframework.data.redis.serializer.RedisSerializationContex
 @Configuration
 @EnableCaching
 public class KeepupCacheConfiguration {
+    private static final String BINARY_SERIALIZER = "binary";
+    private static final String REDIS_REQUIRED = "'${keepup.cache.type:simple}' matches 'redis|near' " +
+            "or ${keepup.events.redis.enabled:false}";
     private final Log log = LogFactory.getLog(getClass());
 
     /**
@@ -50,13 +70,55 @@ public class KeepupCacheConfiguration {
     @Value("${spring.redis.port:6379}")
     private int port;
 
+    /**
+     * Maximum estimated size of local cache in bytes
+     */
+    @Value("${keepup.cache.local.maximum-weight:67108864}")
+    private long localCacheMaximumWeight;
+
+    /**
+     * Time after which the record is evicted from local cache since it was put, e.g. 10m, empty value disables expiration
+     */
+    @Value("${keepup.cache.local.expire-after-write:}")
+    private String localCacheExpireAfterWrite;
+
+    /**
+     * Time after which the record is evicted from local cache since the last access, empty value disables expiration
+     */
+    @Value("${keepup.cache.local.expire-after-access:}")
+    private String localCacheExpireAfterAccess;
+
+    /**
+     * Whether to record hit, miss and eviction statistics for local cache
+     */
+    @Value("${keepup.cache.local.record-stats:true}")
+    private boolean localCacheRecordStats;
+
+    /**
+     * Redis channel used to notify other application instances about changed records
+     */
+    @Value("${keepup.cache.near.channel:keepup:cache:invalidation}")
+    private String nearCacheChannel;
+
+    /**
+     * Serializer of Content records stored in Redis: json or binary, see {@link ContentRedisSerializer}
+     */
+    @Value("${keepup.cache.redis.serializer:json}")
+    private String redisContentSerializer;
+
+    /**
+     * Size of serialized Content record in bytes above which binary serializer compresses it
+     */
+    @Value("${keepup.cache.redis.compression-threshold:" + ContentRedisSerializer.DEFAULT_COMPRESSION_THRESHOLD + "}")
+    private int redisCompressionThreshold;
+
     /**
      * Connection factory component that creates Lettuce -based connections
      *
      * @return thread-safe factory of reactive Redis connections
      */
     @Bean
-    @Profile("redis")
+    @ConditionalOnExpression(REDIS_REQUIRED)
     @Primary
     public LettuceConnectionFactory redisConnectionFactory() {
         log.debug("Initializing new Lettuce connection factory for Redis with host %s and port %d".formatted(host, port));
@@ -70,7 +132,7 @@ public class KeepupCacheConfiguration {
      * @return                       Helper component for data access
      */
     @Bean
-    @Profile("redis")
+    @ConditionalOnExpression(REDIS_REQUIRED)
     public RedisTemplate<String, Serializable> redisCacheTemplate(LettuceConnectionFactory redisConnectionFactory) {
         log.debug("Instantiating Redis cache template bean");
         RedisTemplate<String, Serializable> template = new RedisTemplate<>();
@@ -88,17 +150,45 @@ public class KeepupCacheConfiguration {
      */
     @Bean
     @Primary
-    @Profile("redis")
+    @ConditionalOnProperty(prefix = "keepup.cache", name = "type", havingValue = "redis")
     public CacheManager cacheManager(RedisConnectionFactory factory) {
         log.debug("Instantiating Redis cache manager bean");
-        var config = defaultCacheConfig();
-        var redisCacheConfiguration = config
-                .serializeKeysWith(fromSerializer(new StringRedisSerializer()))
-                .serializeValuesWith(fromSerializer(new GenericJackson2JsonRedisSerializer()));
-        return builder(factory)
-                .cacheDefaults(redisCacheConfiguration)
-                .initialCacheNames(singleton(CONTENT_CACHE_NAME))
-                .build();
+        return redisCacheManager(factory);
+    }
+
+    /**
+     * Two-tier cache manager: bounded local cache configured by keepup.cache.local properties in front of
+     * the Redis cache. Records changed on one application instance are evicted from the local caches of others
+     * via Redis pub/sub.
+     *
+     * @param factory Redis connection factory
+     * @return        cache manager instance
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(prefix = "keepup.cache", name = "type", havingValue = "near")
+    public NearCacheManager nearCacheManager(RedisConnectionFactory factory) {
+        log.debug("Instantiating near cache manager bean with invalidation channel %s".formatted(nearCacheChannel));
+        var redisCacheManager = redisCacheManager(factory);
+        redisCacheManager.afterPropertiesSet();
+        return new NearCacheManager(redisCacheManager, contentCacheBuilder(), new StringRedisTemplate(factory), nearCacheChannel);
+    }
+
+    /**
+     * Subscribes {@link NearCacheManager} to the invalidation messages of other application instances.
+     *
+     * @param factory          Redis connection factory
+     * @param nearCacheManager near cache manager
+     * @return                 listener container
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "keepup.cache", name = "type", havingValue = "near")
+    public RedisMessageListenerContainer nearCacheInvalidationListenerContainer(RedisConnectionFactory factory,
+                                                                                NearCacheManager nearCacheManager) {
+        var container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(factory);
+        container.addMessageListener(nearCacheManager, new ChannelTopic(nearCacheChannel));
+        return container;
     }
 
     /**
@@ -107,12 +197,64 @@ public class KeepupCacheConfiguration {
      *
      * @return cache manager
      */
-    @Profile("dev")
     @Bean("cacheManager")
+    @Primary
+    @ConditionalOnProperty(prefix = "keepup.cache", name = "type", havingValue = "simple", matchIfMissing = true)
     public CacheManager simpleCacheManager() {
         var cacheManager = new SimpleCacheManager();
         var contentCache = new ConcurrentMapCache(CONTENT_CACHE_NAME, false);
         cacheManager.setCaches(Collections.singletonList(contentCache));
         return cacheManager;
     }
+
+    /**
+     * Local cache manager based on Caffeine. Content cache is bounded by the estimated size of records
+     * and evicts them according to W-TinyLFU policy, so the full scan of content does not pin the whole tree
+     * in heap. Statistics are exposed via cache metrics when actuator is enabled.
+     *
+     * @return cache manager
+     */
+    @Bean("localCacheManager")
+    @Primary
+    @ConditionalOnProperty(prefix = "keepup.cache", name = "type", havingValue = "local")
+    public CacheManager localCacheManager() {
+        log.debug("Instantiating local cache manager bean with maximum weight %d".formatted(localCacheMaximumWeight));
+        var cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(contentCacheBuilder());
+        cacheManager.setCacheNames(singleton(CONTENT_CACHE_NAME));
+        return cacheManager;
+    }
+
+    private RedisCacheManager redisCacheManager(RedisConnectionFactory factory) {
+        var config = defaultCacheConfig();
+        var redisCacheConfiguration = config
+                .serializeKeysWith(fromSerializer(new StringRedisSerializer()))
+                .serializeValuesWith(fromSerializer(new GenericJackson2JsonRedisSerializer()));
+        var cacheManagerBuilder = builder(factory)
+                .cacheDefaults(redisCacheConfiguration)
+                .initialCacheNames(singleton(CONTENT_CACHE_NAME));
+        if (BINARY_SERIALIZER.equalsIgnoreCase(redisContentSerializer)) {
+            log.debug("Using binary serializer for Content records in Redis cache");
+            cacheManagerBuilder.withCacheConfiguration(CONTENT_CACHE_NAME, redisCacheConfiguration
+                    .serializeValuesWith(fromSerializer(new ContentRedisSerializer(redisCompressionThreshold)))
+                    .disableCachingNullValues());
+        }
+        return cacheManagerBuilder.build();
+    }
+
+    private Caffeine<Object, Object> contentCacheBuilder() {
+        var builder = Caffeine.newBuilder()
+                .maximumWeight(localCacheMaximumWeight)
+                .weigher(new ContentWeigher());
+        if (isNotBlank(localCacheExpireAfterWrite)) {
+            builder.expireAfterWrite(DurationStyle.detectAndParse(localCacheExpireAfterWrite));
+        }
+        if (isNotBlank(localCacheExpireAfterAccess)) {
+            builder.expireAfterAccess(DurationStyle.detectAndParse(localCacheExpireAfterAccess));
+        }
+        if (localCacheRecordStats) {
+            builder.recordStats();
+        }
+        return builder;
+    }
 }
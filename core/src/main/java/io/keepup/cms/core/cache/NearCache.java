@@ -0,0 +1,151 @@
+package io.keepup.cms.core.cache;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Two-tier cache: bounded in-process cache (L1) in front of the remote one (L2). Reads are served from
+ * the local memory when possible, writes go through both tiers and are broadcast by {@link NearCacheManager}
+ * so other application instances could evict their local copies.
+ * <p>
+ * Local cache keys are string representations of the original keys, the same way as they are stored in Redis,
+ * so the invalidation messages can address them.
+ *
+ * @author Fedor Sergeev
+ * @since 2.0.0
+ */
+public class NearCache implements Cache {
+
+    private final Cache localCache;
+    private final Cache remoteCache;
+    private final NearCacheManager cacheManager;
+
+    NearCache(@NotNull Cache localCache, @NotNull Cache remoteCache, @NotNull NearCacheManager cacheManager) {
+        this.localCache = localCache;
+        this.remoteCache = remoteCache;
+        this.cacheManager = cacheManager;
+    }
+
+    @NotNull
+    @Override
+    public String getName() {
+        return remoteCache.getName();
+    }
+
+    @NotNull
+    @Override
+    public Object getNativeCache() {
+        return remoteCache.getNativeCache();
+    }
+
+    @Nullable
+    @Override
+    public ValueWrapper get(@NotNull Object key) {
+        var localKey = localKey(key);
+        var valueWrapper = localCache.get(localKey);
+        if (valueWrapper != null) {
+            return valueWrapper;
+        }
+        valueWrapper = remoteCache.get(key);
+        if (valueWrapper != null) {
+            localCache.put(localKey, valueWrapper.get());
+        }
+        return valueWrapper;
+    }
+
+    @Nullable
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(@NotNull Object key, @Nullable Class<T> type) {
+        var valueWrapper = get(key);
+        var value = valueWrapper == null ? null : valueWrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [%s]: %s"
+                    .formatted(type.getName(), value));
+        }
+        return (T) value;
+    }
+
+    @Nullable
+    @Override
+    public <T> T get(@NotNull Object key, @NotNull Callable<T> valueLoader) {
+        var localKey = localKey(key);
+        var valueWrapper = localCache.get(localKey);
+        if (valueWrapper != null) {
+            @SuppressWarnings("unchecked")
+            var value = (T) valueWrapper.get();
+            return value;
+        }
+        var value = remoteCache.get(key, valueLoader);
+        localCache.put(localKey, value);
+        return value;
+    }
+
+    @Override
+    public void put(@NotNull Object key, @Nullable Object value) {
+        remoteCache.put(key, value);
+        localCache.put(localKey(key), value);
+        cacheManager.publishInvalidation(getName(), localKey(key));
+    }
+
+    /**
+     * Does not broadcast invalidation as the record was absent in the remote cache, so other instances
+     * could not have it in their local caches.
+     */
+    @Nullable
+    @Override
+    public ValueWrapper putIfAbsent(@NotNull Object key, @Nullable Object value) {
+        var existingValue = remoteCache.putIfAbsent(key, value);
+        localCache.put(localKey(key), existingValue == null ? value : existingValue.get());
+        return existingValue;
+    }
+
+    @Override
+    public void evict(@NotNull Object key) {
+        remoteCache.evict(key);
+        localCache.evict(localKey(key));
+        cacheManager.publishInvalidation(getName(), localKey(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(@NotNull Object key) {
+        var evicted = remoteCache.evictIfPresent(key);
+        localCache.evict(localKey(key));
+        cacheManager.publishInvalidation(getName(), localKey(key));
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        remoteCache.clear();
+        localCache.clear();
+        cacheManager.publishInvalidation(getName(), null);
+    }
+
+    /**
+     * Removes the record from the local tier only, is called when other instance changed the record.
+     *
+     * @param localKey string representation of the cache key
+     */
+    void evictLocal(@NotNull String localKey) {
+        localCache.evict(localKey);
+    }
+
+    /**
+     * Clears the local tier only, is called when other instance cleared the cache.
+     */
+    void clearLocal() {
+        localCache.clear();
+    }
+
+    Cache getLocalCache() {
+        return localCache;
+    }
+
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
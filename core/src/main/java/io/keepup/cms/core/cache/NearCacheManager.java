@@ -0,0 +1,119 @@
+package io.keepup.cms.core.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisOperations;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Cache manager producing {@link NearCache} instances: each cache of the remote cache manager gets the bounded
+ * in-process tier. Changes are broadcast to the Redis channel, and the manager itself listens to this channel
+ * to evict records changed by other application instances from the local tier.
+ *
+ * @author Fedor Sergeev
+ * @since 2.0.0
+ */
+public class NearCacheManager implements CacheManager, MessageListener {
+
+    private final Log log = LogFactory.getLog(getClass());
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Map<String, NearCache> caches = new ConcurrentHashMap<>();
+    private final CacheManager remoteCacheManager;
+    private final Caffeine<Object, Object> localCacheBuilder;
+    private final RedisOperations<String, String> redisOperations;
+    private final String channel;
+
+    /**
+     * Creates the near cache manager.
+     *
+     * @param remoteCacheManager manager of the second tier caches
+     * @param localCacheBuilder  builder for the first tier caches
+     * @param redisOperations    Redis operations used to publish invalidation messages
+     * @param channel            name of the Redis channel for invalidation messages
+     */
+    public NearCacheManager(@NotNull CacheManager remoteCacheManager,
+                            @NotNull Caffeine<Object, Object> localCacheBuilder,
+                            @NotNull RedisOperations<String, String> redisOperations,
+                            @NotNull String channel) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.localCacheBuilder = localCacheBuilder;
+        this.redisOperations = redisOperations;
+        this.channel = channel;
+    }
+
+    @Nullable
+    @Override
+    public Cache getCache(@NotNull String name) {
+        var cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        var remoteCache = remoteCacheManager.getCache(name);
+        if (remoteCache == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, cacheName -> new NearCache(
+                new CaffeineCache(cacheName, localCacheBuilder.build(), true), remoteCache, this));
+    }
+
+    @NotNull
+    @Override
+    public Collection<String> getCacheNames() {
+        return remoteCacheManager.getCacheNames();
+    }
+
+    /**
+     * Evicts records changed by other application instances from the local caches.
+     *
+     * @param message invalidation message
+     * @param pattern channel pattern, not used
+     */
+    @Override
+    public void onMessage(@NotNull Message message, @Nullable byte[] pattern) {
+        var invalidationMessage = CacheInvalidationMessage.decode(new String(message.getBody(), UTF_8));
+        if (invalidationMessage == null) {
+            log.warn("Received cache invalidation message of unknown format");
+            return;
+        }
+        if (instanceId.equals(invalidationMessage.origin())) {
+            return;
+        }
+        var cache = caches.get(invalidationMessage.cacheName());
+        if (cache == null) {
+            return;
+        }
+        if (invalidationMessage.key() == null) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(invalidationMessage.key());
+        }
+    }
+
+    /**
+     * Sends the message to other application instances so they could evict the changed record.
+     *
+     * @param cacheName name of the cache
+     * @param key       string representation of the cache key or null if the whole cache was cleared
+     */
+    void publishInvalidation(@NotNull String cacheName, @Nullable String key) {
+        try {
+            redisOperations.convertAndSend(channel, new CacheInvalidationMessage(instanceId, cacheName, key).encode());
+        } catch (Exception ex) {
+            log.error("Failed to publish invalidation for cache %s and key %s: %s".formatted(cacheName, key, ex.toString()));
+        }
+    }
+}
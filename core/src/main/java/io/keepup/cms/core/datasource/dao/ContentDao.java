@@ -7,6 +7,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -27,7 +28,18 @@ public interface ContentDao {
     Mono<Content> getContent(Long id);
 
     /**
-     * Looks up for the record and filters it by type
+     * Fetches the record with the specified attributes only. Values of other attributes are not read from
+     * data source, so the projected record is not put to the cache.
+     *
+     * @param id             record identifier
+     * @param attributeNames keys of the attributes to be fetched, all the attributes are fetched if null
+     * @return               Publisher emitting the record with the specified attributes
+     */
+    Mono<Content> getContent(Long id, @Nullable Collection<String> attributeNames);
+
+    /**
+     * Looks up for the record and filters it by type. The type may be the entity class itself or any of its
+     * superclasses or interfaces.
      *
      * @param id item identifier
      * @param type item type
@@ -43,6 +55,18 @@ public interface ContentDao {
      */
     Flux<Content> getContentByIdWithChildren(Long id);
 
+    /**
+     * Looks for {@link Content} node with the specified identifier and for its descendants down to the specified
+     * depth. Records are found by a single query and their attributes are loaded in batches.
+     *
+     * @param id       node identifier
+     * @param maxDepth maximum number of levels below the node, 0 fetches the node only
+     * @param type     entity class, superclass or interface name of the records to be fetched, records of all types
+     *                 are fetched if null
+     * @return         Publisher emitting the records ordered by depth and identifier
+     */
+    Flux<Content> getDescendants(Long id, int maxDepth, @Nullable String type);
+
     /**
      * Find all {@link Content} records from the data source
      *
@@ -51,11 +75,20 @@ public interface ContentDao {
     Flux<Content> getContent();
 
     /**
-     * First takes persistent attributes and intersects it with new ones, then adds
-     * new elements from argument map and save all elements, finally collects saved elements
-     * to the result map of {@link Content} attributes.
-     * <p>
-     * Yet the logic is a little bit complicated while we should use KISS...
+     * Find the page of {@link Content} records ordered by identifier. Use identifier of the last record from
+     * the previous page as afterId to get the next one, so memory consumption does not depend on the number
+     * of records in the data source.
+     *
+     * @param afterId identifier of the last record from the previous page or null for the first page
+     * @param limit   maximum number of records in the page, should be positive
+     * @return publisher that emits records of the page ordered by identifier
+     */
+    Flux<Content> getContent(@Nullable Long afterId, int limit);
+
+    /**
+     * Inserts new attributes and updates the existing ones with the same keys by a single batched upsert
+     * statement, persistent attributes are not read before the update. Attributes absent in the argument
+     * map are left as they are.
      *
      * @param id            record identifier
      * @param newAttributes list of attributes to be added or updated
@@ -96,6 +129,18 @@ public interface ContentDao {
      */
     Flux<Content> getContentByParentIdAndByAttributeNames(Long parentId, List<String> attributeNames);
 
+    /**
+     * Fetches {@link Content} records with the same parent identifier having at least one of the specified
+     * attributes, records are projected to the attributes from the allow-list. Projected records are not cached.
+     *
+     * @param parentId       parent record identifier
+     * @param attributeNames list of record field names
+     * @param projection     keys of the attributes to be fetched, all the attributes are fetched if null
+     * @return Flux with records meeting the criterion
+     */
+    Flux<Content> getContentByParentIdAndByAttributeNames(Long parentId, List<String> attributeNames,
+                                                          @Nullable Collection<String> projection);
+
     /**
      * Finds all {@link Content} records witch have the specified by name and value attribute.
      *
@@ -112,6 +157,32 @@ public interface ContentDao {
      */
     Flux<Content> getContentByParentIdAndAttributeValue(Long parentId, String attributeName, Serializable attributeValue);
 
+    /**
+     * Finds {@link Content} records which attribute is equal to the specified value. Unlike
+     * {@link #getContentByParentIdAndAttributeValue(Long, String, Serializable)} the values are compared by
+     * typed indexed columns, so only strings, numbers, booleans and dates can be used as the attribute value.
+     *
+     * @param parentId       parent record identifier, if null records are looked up regardless of the parent
+     * @param attributeName  record field name
+     * @param attributeValue record field value
+     * @return reactive sequence of {@link Content} records meeting the specified condition
+     */
+    Flux<Content> getContentByAttributeValue(@Nullable Long parentId, String attributeName, Serializable attributeValue);
+
+    /**
+     * Finds {@link Content} records which attribute value is in the specified range. Both bounds are inclusive,
+     * null bound means that the range is not limited from this side. Bounds should be of the same kind:
+     * strings, numbers or dates.
+     *
+     * @param parentId      parent record identifier, if null records are looked up regardless of the parent
+     * @param attributeName record field name
+     * @param from          lower bound of the attribute value
+     * @param to            upper bound of the attribute value
+     * @return reactive sequence of {@link Content} records meeting the specified condition
+     */
+    Flux<Content> getContentByAttributeRange(@Nullable Long parentId, String attributeName,
+                                             @Nullable Serializable from, @Nullable Serializable to);
+
     /**
      * Finds and returns all {@link Content} records witch are children of records with the specified identifiers.
      * Result of the operation is being cached.
@@ -132,6 +203,59 @@ public interface ContentDao {
      */
     Flux<Content> getContentByParentIdsAndType(Iterable <Long> parentIds, String type);
 
+    /**
+     * Finds {@link Content} records that are children of records with the specified identifiers and have
+     * the specified type, records are projected to the attributes from the allow-list. Only the specified
+     * attributes are read from data source, so listings can skip large attribute values they do not show.
+     * Projected records are not cached.
+     *
+     * @param parentIds      parent record identifiers
+     * @param type           name of entity, can be the name of entity class
+     * @param attributeNames keys of the attributes to be fetched, all the attributes are fetched if null
+     * @return publisher for {@link Content} records
+     */
+    Flux<Content> getContentByParentIdsAndType(Iterable <Long> parentIds, String type,
+                                               @Nullable Collection<String> attributeNames);
+
+    /**
+     * Finds the page of {@link Content} records that are children of records with the specified identifiers.
+     * Records are ordered by identifier, use identifier of the last record from the previous page as afterId
+     * to get the next one.
+     *
+     * @param parentIds parent record identifiers
+     * @param afterId   identifier of the last record from the previous page or null for the first page
+     * @param limit     maximum number of records in the page, should be positive
+     * @return publisher for {@link Content} records of the page ordered by identifier
+     */
+    Flux<Content> getContentByParentIds(Iterable <Long> parentIds, @Nullable Long afterId, int limit);
+
+    /**
+     * Finds the page of {@link Content} records that are children of records with the specified identifiers
+     * and have the specified type. Records are ordered by identifier, use identifier of the last record from
+     * the previous page as afterId to get the next one.
+     *
+     * @param parentIds parent record identifiers
+     * @param type      name of entity, can be the name of entity class
+     * @param afterId   identifier of the last record from the previous page or null for the first page
+     * @param limit     maximum number of records in the page, should be positive
+     * @return publisher for {@link Content} records of the page ordered by identifier
+     */
+    Flux<Content> getContentByParentIdsAndType(Iterable <Long> parentIds, String type, @Nullable Long afterId, int limit);
+
+    /**
+     * Finds the page of {@link Content} records like {@link #getContentByParentIdsAndType(Iterable, String, Long, int)}
+     * does, records are projected to the attributes from the allow-list. Projected records are not cached.
+     *
+     * @param parentIds      parent record identifiers
+     * @param type           name of entity, can be the name of entity class
+     * @param afterId        identifier of the last record from the previous page or null for the first page
+     * @param limit          maximum number of records in the page, should be positive
+     * @param attributeNames keys of the attributes to be fetched, all the attributes are fetched if null
+     * @return publisher for {@link Content} records of the page ordered by identifier
+     */
+    Flux<Content> getContentByParentIdsAndType(Iterable <Long> parentIds, String type, @Nullable Long afterId, int limit,
+                                               @Nullable Collection<String> attributeNames);
+
     /**
      * Finds and returns all {@link Content} records witch are children of record with the specified identifier.
      * Result of the operation is being cached. Difference between this method and getContentByParentIds is just in
@@ -144,7 +268,8 @@ public interface ContentDao {
 
     /**
      * Fetch a sequence of parents for the record specified by identifier. In current realization works only with
-     * PostgreSQL database as data source.
+     * PostgreSQL database as data source unless keepup.datasource.content.closure-enabled is set, in this case
+     * parents are fetched from node_closure table by a single query on any database.
      *
      * @param id       parent record identifier
      * @param offsetId number of parent records to get
@@ -160,6 +285,16 @@ public interface ContentDao {
      */
     Mono<Long> createContent(Content content);
 
+    /**
+     * Save a number of new {@link Content} records to database. Records are split into windows, records and
+     * attributes of each window are written with batched statements in a single transaction, so a failure
+     * rolls back only the current window while the previous ones stay saved.
+     *
+     * @param contents local record instances
+     * @return publisher emitting created record identifiers in the order of records
+     */
+    Flux<Long> createContents(Flux<Content> contents);
+
     /**
      * Remove record from database with all its attributes
      *
@@ -167,4 +302,32 @@ public interface ContentDao {
      * @return actually nothing but you can synchronize further actions
      */
     Mono<Void> deleteContent(Long id);
+
+    /**
+     * Removes the {@link Content} record with all its descendants and their attributes. Descendants are found
+     * by a single recursive query and deleted by set-based statements, deleted records are evicted from
+     * the cache at once.
+     *
+     * @param id identifier of the subtree root record
+     * @return   publisher emitting identifiers of the deleted records
+     */
+    Flux<Long> deleteSubtree(Long id);
+
+    /**
+     * Moves the {@link Content} record with all its descendants under the other parent record. Record cannot be
+     * moved under one of its descendants.
+     *
+     * @param id       record identifier
+     * @param parentId identifier of the new parent record
+     * @return         publisher emitting {@link Void} when the record is moved
+     */
+    Mono<Void> moveContent(Long id, Long parentId);
+
+    /**
+     * Counts all the descendants of the {@link Content} record.
+     *
+     * @param id record identifier
+     * @return   publisher emitting the number of descendants, the record itself is not counted
+     */
+    Mono<Long> countDescendants(Long id);
 }
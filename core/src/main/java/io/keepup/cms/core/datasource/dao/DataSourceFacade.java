@@ -3,12 +3,14 @@ package io.keepup.cms.core.datasource.dao;
 import io.keepup.cms.core.persistence.Content;
 import io.keepup.cms.core.persistence.FileWrapper;
 import io.keepup.cms.core.persistence.User;
+import org.jetbrains.annotations.Nullable;
 import org.springframework.security.core.userdetails.UserDetails;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.io.OutputStream;
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -27,6 +29,16 @@ public interface DataSourceFacade {
      */
     Mono<Content> getContent(Long id);
 
+    /**
+     * Get {@link Content} record with the specified attributes only.
+     *
+     * @param id             record ID
+     * @param attributeNames keys of the attributes to be fetched, all the attributes are fetched if null
+     * @return               Mono with the projected record specified by ID or empty.
+     * @see ContentDao#getContent(Long, Collection)
+     */
+    Mono<Content> getContent(Long id, @Nullable Collection<String> attributeNames);
+
     /**
      * @see ContentDao#getContentByIdAndType(Long, String) 
      * @param id item identifier
@@ -42,12 +54,32 @@ public interface DataSourceFacade {
      */
     Flux<Content> getContentByIdWithChildren(Long id);
 
+    /**
+     * Fetch {@link Content} record with its descendants down to the specified depth.
+     *
+     * @see ContentDao#getDescendants(Long, int, String)
+     * @param id       record identifier
+     * @param maxDepth maximum number of levels below the record, 0 fetches the record only
+     * @param type     entity class, superclass or interface name of the records to be fetched, records of all types
+     *                 are fetched if null
+     * @return         publisher emitting the records ordered by depth and identifier
+     */
+    Flux<Content> getDescendants(Long id, int maxDepth, @Nullable String type);
+
     /**
      * @see ContentDao#getContent() 
      * @return publisher that emits all the records
      */
     Flux<Content> getContent();
 
+    /**
+     * @see ContentDao#getContent(Long, int)
+     * @param afterId identifier of the last record from the previous page or null for the first page
+     * @param limit   maximum number of records in the page
+     * @return publisher that emits records of the page ordered by identifier
+     */
+    Flux<Content> getContent(Long afterId, int limit);
+
     /**
      * Update {@link Content} record.
      * 
@@ -89,6 +121,19 @@ public interface DataSourceFacade {
      */
     Flux<Content> getContentByParentIdAndByAttributeNames(Long parentId, List<String> attributeNames);
 
+    /**
+     * Find {@link Content} records by parent identifier which have attribute names as specified, records are
+     * projected to the attributes from the allow-list.
+     *
+     * @see ContentDao#getContentByParentIdAndByAttributeNames(Long, List, Collection)
+     * @param parentId       parent record identifier
+     * @param attributeNames list of record field names
+     * @param projection     keys of the attributes to be fetched, all the attributes are fetched if null
+     * @return Flux with records meeting the criterion
+     */
+    Flux<Content> getContentByParentIdAndByAttributeNames(Long parentId, List<String> attributeNames,
+                                                          @Nullable Collection<String> projection);
+
     /**
      * Find all {@link Content} records by parent identifier and attribute value.
      *
@@ -100,6 +145,29 @@ public interface DataSourceFacade {
      */
     Flux<Content> getContentByParentIdAndAttributeValue(Long parentId, String attributeName, Serializable attributeValue);
 
+    /**
+     * Find {@link Content} records which attribute is equal to the specified value using typed attribute columns.
+     *
+     * @see ContentDao#getContentByAttributeValue(Long, String, Serializable)
+     * @param parentId       parent record identifier or null
+     * @param attributeName  record field name
+     * @param attributeValue record field value
+     * @return               reactive stream emitting {@link Content} records meeting the specified condition
+     */
+    Flux<Content> getContentByAttributeValue(Long parentId, String attributeName, Serializable attributeValue);
+
+    /**
+     * Find {@link Content} records which attribute value is in the specified range using typed attribute columns.
+     *
+     * @see ContentDao#getContentByAttributeRange(Long, String, Serializable, Serializable)
+     * @param parentId      parent record identifier or null
+     * @param attributeName record field name
+     * @param from          inclusive lower bound or null
+     * @param to            inclusive upper bound or null
+     * @return              reactive stream emitting {@link Content} records meeting the specified condition
+     */
+    Flux<Content> getContentByAttributeRange(Long parentId, String attributeName, Serializable from, Serializable to);
+
     /**
      * Get {@link Content} records by one of parent identifiers
      *
@@ -119,6 +187,56 @@ public interface DataSourceFacade {
      */
     Flux<Content> getContentByParentIdsAndType(Iterable <Long> parentIds, String type);
 
+    /**
+     * Get {@link Content} records by parent identifier and by Java class projected to the specified attributes.
+     *
+     * @see ContentDao#getContentByParentIdsAndType(Iterable, String, Collection)
+     * @param parentIds      parent record identifiers
+     * @param type           name of entity, can be the name of entity class
+     * @param attributeNames keys of the attributes to be fetched, all the attributes are fetched if null
+     * @return publisher for {@link Content} records
+     */
+    Flux<Content> getContentByParentIdsAndType(Iterable <Long> parentIds, String type,
+                                               @Nullable Collection<String> attributeNames);
+
+    /**
+     * Get the page of {@link Content} records by one of parent identifiers.
+     *
+     * @see ContentDao#getContentByParentIds(Iterable, Long, int)
+     * @param parentIds parent record identifiers
+     * @param afterId   identifier of the last record from the previous page or null for the first page
+     * @param limit     maximum number of records in the page
+     * @return publisher for {@link Content} records of the page ordered by identifier
+     */
+    Flux<Content> getContentByParentIds(Iterable <Long> parentIds, Long afterId, int limit);
+
+    /**
+     * Get the page of {@link Content} records by parent identifier and by Java class.
+     *
+     * @see ContentDao#getContentByParentIdsAndType(Iterable, String, Long, int)
+     * @param parentIds parent record identifiers
+     * @param type      name of entity, can be the name of entity class
+     * @param afterId   identifier of the last record from the previous page or null for the first page
+     * @param limit     maximum number of records in the page
+     * @return publisher for {@link Content} records of the page ordered by identifier
+     */
+    Flux<Content> getContentByParentIdsAndType(Iterable <Long> parentIds, String type, Long afterId, int limit);
+
+    /**
+     * Get the page of {@link Content} records by parent identifier and by Java class projected to the specified
+     * attributes.
+     *
+     * @see ContentDao#getContentByParentIdsAndType(Iterable, String, Long, int, Collection)
+     * @param parentIds      parent record identifiers
+     * @param type           name of entity, can be the name of entity class
+     * @param afterId        identifier of the last record from the previous page or null for the first page
+     * @param limit          maximum number of records in the page
+     * @param attributeNames keys of the attributes to be fetched, all the attributes are fetched if null
+     * @return publisher for {@link Content} records of the page ordered by identifier
+     */
+    Flux<Content> getContentByParentIdsAndType(Iterable <Long> parentIds, String type, Long afterId, int limit,
+                                               @Nullable Collection<String> attributeNames);
+
     /**
      * Find {@link Content} record by parent identifier.
      * 
@@ -147,6 +265,15 @@ public interface DataSourceFacade {
      */
     Mono<Long> createContent(Content content);
 
+    /**
+     * Create a number of new {@link Content} records.
+     *
+     * @see ContentDao#createContents(Flux)
+     * @param contents local record instances
+     * @return publisher emitting created record identifiers in the order of records
+     */
+    Flux<Long> createContents(Flux<Content> contents);
+
     /**
      * Remove record from database with all its attributes
      *
@@ -154,6 +281,34 @@ public interface DataSourceFacade {
      * @return actually nothing but you can synchronize further actions
      */
     Mono<Void> deleteContent(Long id);
+
+    /**
+     * Delete {@link Content} record with all its descendants.
+     *
+     * @see ContentDao#deleteSubtree(Long)
+     * @param id identifier of the subtree root record
+     * @return   publisher emitting identifiers of the deleted records
+     */
+    Flux<Long> deleteSubtree(Long id);
+
+    /**
+     * Move {@link Content} record with all its descendants under the other parent record.
+     *
+     * @see ContentDao#moveContent(Long, Long)
+     * @param id       record identifier
+     * @param parentId identifier of the new parent record
+     * @return         publisher emitting {@link Void} when the record is moved
+     */
+    Mono<Void> moveContent(Long id, Long parentId);
+
+    /**
+     * Count descendants of {@link Content} record.
+     *
+     * @see ContentDao#countDescendants(Long)
+     * @param id record identifier
+     * @return   publisher emitting the number of descendants
+     */
+    Mono<Long> countDescendants(Long id);
     // endregion
 
     // region File operations
@@ -13,6 +13,7 @@ import reactor.core.publisher.Mono;
 
 import java.io.OutputStream;
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -48,6 +49,11 @@ public class DataSourceFacadeImpl implements DataSourceFacade {
         return contentDao.getContent(id);
     }
 
+    @Override
+    public Mono<Content> getContent(Long id, Collection<String> attributeNames) {
+        return contentDao.getContent(id, attributeNames);
+    }
+
     /**
      * Looks up for the record and filters it by type
      *
@@ -71,11 +77,21 @@ public class DataSourceFacadeImpl implements DataSourceFacade {
         return contentDao.getContentByIdWithChildren(id);
     }
 
+    @Override
+    public Flux<Content> getDescendants(Long id, int maxDepth, @Nullable String type) {
+        return contentDao.getDescendants(id, maxDepth, type);
+    }
+
     @Override
     public Flux<Content> getContent() {
         return contentDao.getContent();
     }
 
+    @Override
+    public Flux<Content> getContent(Long afterId, int limit) {
+        return contentDao.getContent(afterId, limit);
+    }
+
     @Override
     public Mono<Map<String, Serializable>> updateContent(Long id, Map<String, Serializable> newAttributes) {
         return contentDao.updateContent(id, newAttributes);
@@ -96,11 +112,27 @@ public class DataSourceFacadeImpl implements DataSourceFacade {
         return contentDao.getContentByParentIdAndByAttributeNames(parentId, attributeNames);
     }
 
+    @Override
+    public Flux<Content> getContentByParentIdAndByAttributeNames(Long parentId, List<String> attributeNames,
+                                                                 Collection<String> projection) {
+        return contentDao.getContentByParentIdAndByAttributeNames(parentId, attributeNames, projection);
+    }
+
     @Override
     public Flux<Content> getContentByParentIdAndAttributeValue(Long parentId, String attributeName, Serializable attributeValue) {
         return contentDao.getContentByParentIdAndAttributeValue(parentId, attributeName, attributeValue);
     }
 
+    @Override
+    public Flux<Content> getContentByAttributeValue(Long parentId, String attributeName, Serializable attributeValue) {
+        return contentDao.getContentByAttributeValue(parentId, attributeName, attributeValue);
+    }
+
+    @Override
+    public Flux<Content> getContentByAttributeRange(Long parentId, String attributeName, Serializable from, Serializable to) {
+        return contentDao.getContentByAttributeRange(parentId, attributeName, from, to);
+    }
+
     @Override
     public Flux<Content> getContentByParentIds(Iterable<Long> parentIds) {
         return contentDao.getContentByParentIds(parentIds);
@@ -111,6 +143,27 @@ public class DataSourceFacadeImpl implements DataSourceFacade {
         return contentDao.getContentByParentIdsAndType(parentIds, type);
     }
 
+    @Override
+    public Flux<Content> getContentByParentIdsAndType(Iterable <Long> parentIds, String type, Collection<String> attributeNames) {
+        return contentDao.getContentByParentIdsAndType(parentIds, type, attributeNames);
+    }
+
+    @Override
+    public Flux<Content> getContentByParentIds(Iterable<Long> parentIds, Long afterId, int limit) {
+        return contentDao.getContentByParentIds(parentIds, afterId, limit);
+    }
+
+    @Override
+    public Flux<Content> getContentByParentIdsAndType(Iterable <Long> parentIds, String type, Long afterId, int limit) {
+        return contentDao.getContentByParentIdsAndType(parentIds, type, afterId, limit);
+    }
+
+    @Override
+    public Flux<Content> getContentByParentIdsAndType(Iterable <Long> parentIds, String type, Long afterId, int limit,
+                                                      Collection<String> attributeNames) {
+        return contentDao.getContentByParentIdsAndType(parentIds, type, afterId, limit, attributeNames);
+    }
+
     /**
      * Finds and returns all {@link Content} records witch are children of record with the specified identifier.
      * Result of the operation is being cached. Difference between this method and getContentByParentIds is just in
@@ -141,11 +194,31 @@ public class DataSourceFacadeImpl implements DataSourceFacade {
         return contentDao.createContent(content);
     }
 
+    @Override
+    public Flux<Long> createContents(Flux<Content> contents) {
+        return contentDao.createContents(contents);
+    }
+
     @Override
     public Mono<Void> deleteContent(Long id) {
         return contentDao.deleteContent(id);
     }
 
+    @Override
+    public Flux<Long> deleteSubtree(Long id) {
+        return contentDao.deleteSubtree(id);
+    }
+
+    @Override
+    public Mono<Void> moveContent(Long id, Long parentId) {
+        return contentDao.moveContent(id, parentId);
+    }
+
+    @Override
+    public Mono<Long> countDescendants(Long id) {
+        return contentDao.countDescendants(id);
+    }
+
     @Override
     public Mono<OutputStream> getFileAsStream(String fileName) {
         return fileDao.getFileAsStream(fileName);
@@ -0,0 +1,186 @@
+package io.keepup.cms.core.datasource.dao.sql;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.keepup.cms.core.persistence.ValueEnvelope;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Converts attribute values stored as JSON bytes back to Java objects. Decoders are resolved once per
+ * java_class column value and cached: the class lookup and the Jackson {@link ObjectReader} construction
+ * are not repeated for every attribute of every read record. String, Long, Integer, Boolean and Double
+ * values are parsed directly from bytes without Jackson, falling back to it for the values which are
+ * not plain literals (escaped strings, nulls, special floating point values). Values saved as proxies by the
+ * previous versions are read as {@link ValueEnvelope} and are rewritten as envelopes on the next save.
+ *
+ * @author Fedor Sergeev
+ * @since 2.0.0
+ */
+final class AttributeValueDecoder {
+
+    private static final byte QUOTE = '"';
+    private static final byte BACKSLASH = '\\';
+    private static final byte[] TRUE = "true".getBytes(UTF_8);
+    private static final byte[] FALSE = "false".getBytes(UTF_8);
+
+    private final ObjectMapper mapper;
+    private final Map<String, Decoder> decoders = new ConcurrentHashMap<>();
+
+    AttributeValueDecoder(@NotNull ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    /**
+     * Converts attribute value to the object of the specified type.
+     *
+     * @param javaClass name of attribute value class
+     * @param value     attribute value serialized to JSON
+     * @return          attribute value or null if the value is null
+     * @throws IOException            if value cannot be read as the object of the specified type
+     * @throws ClassNotFoundException if there is no such class in classpath
+     */
+    @Nullable
+    Serializable decode(@NotNull String javaClass, @Nullable byte[] value) throws IOException, ClassNotFoundException {
+        if (value == null) {
+            return null;
+        }
+        var decoder = decoders.get(javaClass);
+        if (decoder == null) {
+            decoder = resolve(javaClass);
+            decoders.putIfAbsent(javaClass, decoder);
+        }
+        return (Serializable) decoder.decode(value);
+    }
+
+    private Decoder resolve(String javaClass) throws ClassNotFoundException {
+        return switch (javaClass) {
+            case "java.lang.String" -> withFallback(AttributeValueDecoder::readString, String.class);
+            case "java.lang.Long" -> withFallback(AttributeValueDecoder::readLong, Long.class);
+            case "java.lang.Integer" -> withFallback(AttributeValueDecoder::readInteger, Integer.class);
+            case "java.lang.Boolean" -> withFallback(AttributeValueDecoder::readBoolean, Boolean.class);
+            case "java.lang.Double" -> withFallback(AttributeValueDecoder::readDouble, Double.class);
+            default -> {
+                if (ValueEnvelope.isLegacyProxyClass(javaClass)) {
+                    // values saved as runtime generated proxies are read as envelopes of the proxied class
+                    yield value -> ValueEnvelope.ofLegacyProxy(javaClass, mapper.readTree(value));
+                }
+                Class<?> attributeType = Class.forName(javaClass);
+                // immutable and inner list implementations cannot be instantiated by Jackson
+                if (List.class.isAssignableFrom(attributeType) || javaClass.contains("$ArrayList")) {
+                    attributeType = ArrayList.class;
+                }
+                var reader = mapper.readerFor(attributeType);
+                yield reader::readValue;
+            }
+        };
+    }
+
+    private Decoder withFallback(FastDecoder fastDecoder, Class<?> type) {
+        var reader = mapper.readerFor(type);
+        return value -> {
+            var result = fastDecoder.decode(value);
+            return result != null ? result : reader.readValue(value);
+        };
+    }
+
+    @Nullable
+    private static String readString(byte[] value) {
+        var length = value.length;
+        if (length < 2 || value[0] != QUOTE || value[length - 1] != QUOTE) {
+            return null;
+        }
+        for (var i = 1; i < length - 1; i++) {
+            if (value[i] == BACKSLASH) {
+                return null;
+            }
+        }
+        return new String(value, 1, length - 2, UTF_8);
+    }
+
+    @Nullable
+    private static Long readLong(byte[] value) {
+        var length = value.length;
+        if (length == 0 || length > 20) {
+            return null;
+        }
+        var negative = value[0] == '-';
+        var i = negative ? 1 : 0;
+        if (i == length) {
+            return null;
+        }
+        long result = 0;
+        for (; i < length; i++) {
+            var digit = value[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return null;
+            }
+            // accumulate negative value to be able to read Long.MIN_VALUE
+            if (result < (Long.MIN_VALUE + digit) / 10) {
+                return null;
+            }
+            result = result * 10 - digit;
+        }
+        if (!negative) {
+            if (result == Long.MIN_VALUE) {
+                return null;
+            }
+            result = -result;
+        }
+        return result;
+    }
+
+    @Nullable
+    private static Integer readInteger(byte[] value) {
+        var result = readLong(value);
+        if (result == null || result < Integer.MIN_VALUE || result > Integer.MAX_VALUE) {
+            return null;
+        }
+        return result.intValue();
+    }
+
+    @Nullable
+    private static Boolean readBoolean(byte[] value) {
+        if (Arrays.equals(TRUE, value)) {
+            return Boolean.TRUE;
+        }
+        if (Arrays.equals(FALSE, value)) {
+            return Boolean.FALSE;
+        }
+        return null;
+    }
+
+    @Nullable
+    private static Double readDouble(byte[] value) {
+        if (value.length == 0 || value[0] == QUOTE || value[0] == 'n') {
+            return null;
+        }
+        try {
+            return Double.parseDouble(new String(value, ISO_8859_1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Decoder {
+        Object decode(byte[] value) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface FastDecoder {
+        @Nullable
+        Object decode(byte[] value);
+    }
+}
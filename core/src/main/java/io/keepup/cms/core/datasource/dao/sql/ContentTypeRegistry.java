@@ -0,0 +1,182 @@
+package io.keepup.cms.core.datasource.dao.sql;
+
+import io.keepup.cms.core.datasource.sql.EntityUtils;
+import io.keepup.cms.core.datasource.sql.entity.NodeEntity;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.util.ClassUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of entity classes kept in content_type table. Every class is stored once and is linked in
+ * content_type_hierarchy table to itself and to all its superclasses and interfaces, so the records referencing
+ * the class by {@link NodeEntity#getEntityTypeId()} are found by any of these types with an integer join.
+ * <p>
+ * Registration statements are idempotent, so the class can be registered by several application instances
+ * at the same time. Registration is committed in its own transaction, otherwise the identifier cached by the
+ * registry could be rolled back together with the record which caused the registration. Classes which cannot be
+ * loaded are registered without supertypes and are not cached, so their supertypes are added as soon as the class
+ * becomes available.
+ *
+ * @author Fedor Sergeev
+ * @since 2.0.0
+ */
+final class ContentTypeRegistry {
+
+    private static final String CLASS_NAME = "className";
+    private static final String INSERT_TYPE = "INSERT INTO content_type (class_name) VALUES (:className) " +
+            "ON CONFLICT DO NOTHING";
+    private static final String INSERT_SUPERTYPES = "INSERT INTO content_type_hierarchy (type_id, supertype_id) " +
+            "SELECT content_type.id, supertype.id FROM content_type " +
+            "JOIN content_type AS supertype ON supertype.class_name IN (:classNames) " +
+            "WHERE content_type.class_name = :className " +
+            "AND NOT EXISTS (SELECT 1 FROM content_type_hierarchy AS hierarchy " +
+            "                WHERE hierarchy.type_id = content_type.id AND hierarchy.supertype_id = supertype.id) " +
+            "ON CONFLICT DO NOTHING";
+    private static final String SELECT_TYPE_ID = "SELECT id FROM content_type WHERE class_name = :className";
+
+    private final Log log = LogFactory.getLog(getClass());
+    private final DatabaseClient databaseClient;
+    private final Map<String, Integer> typeIds = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> assignableTypes = new ConcurrentHashMap<>();
+    /**
+     * Operator running registration in a new transaction, absent if there is no reactive transaction manager
+     */
+    private TransactionalOperator transactionalOperator;
+
+    ContentTypeRegistry(@NotNull DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Set the transaction manager used to commit registrations independently of the current transaction.
+     *
+     * @param transactionManager reactive transaction manager
+     */
+    void setTransactionManager(@NotNull ReactiveTransactionManager transactionManager) {
+        transactionalOperator = TransactionalOperator.create(transactionManager,
+                new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+    }
+
+    /**
+     * Finds the identifier of the class, the class and its supertypes are registered if it is met for the first time.
+     *
+     * @param className name of the entity class
+     * @return          Mono emitting the class identifier, empty if class name is null
+     */
+    Mono<Integer> getTypeId(@Nullable String className) {
+        if (className == null) {
+            return Mono.empty();
+        }
+        final Integer typeId = typeIds.get(className);
+        if (typeId != null) {
+            return Mono.just(typeId);
+        }
+        final Class<?> type = resolve(className);
+        final Mono<Integer> registered = register(className, type);
+        return (transactionalOperator == null ? registered : transactionalOperator.transactional(registered))
+                .doOnNext(id -> {
+                    if (type != null) {
+                        typeIds.put(className, id);
+                    }
+                });
+    }
+
+    /**
+     * Finds identifiers of the classes, see {@link #getTypeId(String)}.
+     *
+     * @param classNames names of the entity classes, null values are skipped
+     * @return           Mono emitting identifiers by class names
+     */
+    Mono<Map<String, Integer>> getTypeIds(@NotNull Collection<String> classNames) {
+        return Flux.fromIterable(new LinkedHashSet<>(classNames))
+                .filter(Objects::nonNull)
+                .concatMap(className -> getTypeId(className).map(id -> Map.entry(className, id)))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+    }
+
+    /**
+     * Checks the same relation as content_type_hierarchy table keeps without querying the database, used to filter
+     * records which are already fetched.
+     *
+     * @param className name of the entity class
+     * @param type      name of the requested type
+     * @return          true if the class is the requested type or one of its subtypes
+     */
+    boolean isAssignable(@Nullable String className, @NotNull String type) {
+        if (type.equals(className)) {
+            return true;
+        }
+        if (className == null) {
+            return false;
+        }
+        Set<String> supertypes = assignableTypes.get(className);
+        if (supertypes == null) {
+            final Class<?> resolved = resolve(className);
+            if (resolved == null) {
+                return false;
+            }
+            supertypes = Set.copyOf(EntityUtils.getSupertypeNames(resolved));
+            assignableTypes.putIfAbsent(className, supertypes);
+        }
+        return supertypes.contains(type);
+    }
+
+    private Mono<Integer> register(String className, @Nullable Class<?> type) {
+        final List<String> classNames = new ArrayList<>();
+        classNames.add(className);
+        if (type != null) {
+            classNames.addAll(EntityUtils.getSupertypeNames(type));
+        }
+        return Flux.fromIterable(classNames)
+                .concatMap(name -> databaseClient.sql(INSERT_TYPE)
+                        .bind(CLASS_NAME, name)
+                        .fetch()
+                        .rowsUpdated())
+                .then(databaseClient.sql(INSERT_SUPERTYPES)
+                        .bind(CLASS_NAME, className)
+                        .bind("classNames", classNames)
+                        .fetch()
+                        .rowsUpdated())
+                .then(databaseClient.sql(SELECT_TYPE_ID)
+                        .bind(CLASS_NAME, className)
+                        .map((row, metadata) -> row.get("id", Integer.class))
+                        .one())
+                .doOnNext(id -> log.debug("Entity type %s registered with id = %d and %d supertypes"
+                        .formatted(className, id, classNames.size() - 1)));
+    }
+
+    /**
+     * Loads the entity class by the context class loader, so the classes of the application are found when
+     * the library is loaded by a different class loader.
+     *
+     * @param className name of the entity class
+     * @return          loaded class or null if it is not found
+     */
+    @Nullable
+    private Class<?> resolve(String className) {
+        try {
+            return ClassUtils.forName(className, Thread.currentThread().getContextClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            log.debug("Class %s is not found, it is registered without supertypes: %s".formatted(className, e.toString()));
+            return null;
+        }
+    }
+}
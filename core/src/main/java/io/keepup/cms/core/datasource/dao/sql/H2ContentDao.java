@@ -10,6 +10,7 @@ import org.jetbrains.annotations.Nullable;
 import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 
@@ -34,17 +35,19 @@ public class H2ContentDao extends SqlContentDao {
      *
      * @param reactiveNodeEntityRepository          DAO for {@link io.keepup.cms.core.datasource.sql.entity.NodeEntity} objects
      * @param reactiveNodeAttributeEntityRepository DAO for {@link io.keepup.cms.core.datasource.sql.entity.NodeAttributeEntity} objects
+     * @param client                                reactive client for queries which are not covered by repositories
      * @param objectMapper                          mapper component
      * @param manager                               cache manager
      * @param adapter                               cache adapter
      */
-    public H2ContentDao(ReactiveNodeEntityRepository reactiveNodeEntityRepository, ReactiveNodeAttributeEntityRepository reactiveNodeAttributeEntityRepository, ObjectMapper objectMapper, CacheManager manager, CacheAdapter adapter) {
-        super(reactiveNodeEntityRepository, reactiveNodeAttributeEntityRepository, objectMapper, manager, adapter);
+    public H2ContentDao(ReactiveNodeEntityRepository reactiveNodeEntityRepository, ReactiveNodeAttributeEntityRepository reactiveNodeAttributeEntityRepository, DatabaseClient client, ObjectMapper objectMapper, CacheManager manager, CacheAdapter adapter) {
+        super(reactiveNodeEntityRepository, reactiveNodeAttributeEntityRepository, client, objectMapper, manager, adapter);
     }
 
     /**
      * Less effective method to fetch record parents, but it works for H2 database. Fetches all {@link Content} records
      * until the root or the specified offset record is found. Yet this method does not put found records in cache.
+     * If node_closure table is enabled, parents are fetched by a single query.
      *
      * @param id     first parent record identifier, in case of null empty Flux will be returned
      * @param offset depth of search, in case of null will be set to {@link Long#MAX_VALUE}
@@ -58,11 +61,33 @@ public class H2ContentDao extends SqlContentDao {
         int capacity = offset == null || offset > Integer.MAX_VALUE
             ? Integer.MAX_VALUE
             : offset.intValue();
+        if (isClosureEnabled()) {
+            return buildNodes(getNodeEntityRepository().findAncestors(id, 1, capacity));
+        }
 
-        return getNodeEntityRepository().findById(id)
+        return buildNodes(getNodeEntityRepository().findById(id)
                 .flatMap(entity -> getNodeEntityRepository().findById(entity.getParentId()))
                 .expand(nodeEntity -> getNodeEntityRepository().findById(nodeEntity.getParentId()), capacity)
-                .take(capacity)
-                .flatMap(getNodeEntityPublisherFunction());
+                .take(capacity));
+    }
+
+    /**
+     * H2 does not support RETURNING clause, so the deleted row is read from the data change delta table.
+     *
+     * @return DELETE statement wrapped into the query of the deleted row
+     */
+    @Override
+    protected String getDeleteNodeStatement() {
+        return "SELECT " + DELETED_NODE_COLUMNS + " FROM OLD TABLE (DELETE FROM node_entity WHERE id = :id)";
+    }
+
+    /**
+     * H2 does not support ON CONFLICT clause with updates, so attributes are written with MERGE statement.
+     *
+     * @return MERGE statement for {@link io.keepup.cms.core.datasource.sql.entity.NodeAttributeEntity} objects
+     */
+    @Override
+    protected String getUpsertAttributeStatement() {
+        return NodeBatchWriter.MERGE_ATTRIBUTE;
     }
 }
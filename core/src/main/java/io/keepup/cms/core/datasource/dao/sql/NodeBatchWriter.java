@@ -0,0 +1,165 @@
+package io.keepup.cms.core.datasource.dao.sql;
+
+import io.keepup.cms.core.datasource.sql.entity.NodeAttributeEntity;
+import io.keepup.cms.core.datasource.sql.entity.NodeEntity;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Writes {@link NodeEntity} and {@link NodeAttributeEntity} objects with batched statements: all the records
+ * of one kind are bound to a single statement which is sent to the database at once instead of one
+ * INSERT per record.
+ *
+ * @author Fedor Sergeev
+ * @since 2.0.0
+ */
+final class NodeBatchWriter {
+
+    private static final String INSERT_NODE = "INSERT INTO node_entity (parent_id, owner_id, entity_type, " +
+            "owner_read_privilege, owner_write_privilege, owner_execute_privilege, owner_create_children_privilege, " +
+            "role_read_privilege, role_write_privilege, role_execute_privilege, role_create_children_privilege, " +
+            "other_read_privilege, other_write_privilege, other_execute_privilege, other_create_children_privilege, " +
+            "entity_type_id) " +
+            "VALUES ($1, $2, $3, $4, $5, $6, $7, $8, $9, $10, $11, $12, $13, $14, $15, $16)";
+    private static final String INSERT_ATTRIBUTE = "INSERT INTO node_attribute (content_id, attribute_key, " +
+            "attribute_value, attribute_value_hash, java_class, creation_time, modification_time, " +
+            "string_value, number_value, boolean_value, date_value) " +
+            "VALUES ($1, $2, $3, $4, $5, $6, $7, $8, $9, $10, $11)";
+    /**
+     * Inserts the attribute or updates the existing one with the same key, creation time of the existing
+     * attribute is kept. Requires unique constraint on (content_id, attribute_key).
+     */
+    static final String UPSERT_ATTRIBUTE = INSERT_ATTRIBUTE + " ON CONFLICT (content_id, attribute_key) DO UPDATE SET " +
+            "attribute_value = EXCLUDED.attribute_value, attribute_value_hash = EXCLUDED.attribute_value_hash, " +
+            "java_class = EXCLUDED.java_class, modification_time = EXCLUDED.modification_time, " +
+            "string_value = EXCLUDED.string_value, number_value = EXCLUDED.number_value, " +
+            "boolean_value = EXCLUDED.boolean_value, " +
+            "date_value = EXCLUDED.date_value";
+    /**
+     * The same as {@link #UPSERT_ATTRIBUTE} for the databases supporting MERGE statement instead of ON CONFLICT clause,
+     * parameters are bound in the same order.
+     */
+    static final String MERGE_ATTRIBUTE = "MERGE INTO node_attribute target USING (SELECT " +
+            "CAST($1 AS BIGINT) AS content_id, CAST($2 AS VARCHAR(255)) AS attribute_key, " +
+            "CAST($3 AS VARBINARY) AS attribute_value, CAST($4 AS BIGINT) AS attribute_value_hash, " +
+            "CAST($5 AS VARCHAR(255)) AS java_class, CAST($6 AS TIMESTAMP) AS creation_time, " +
+            "CAST($7 AS TIMESTAMP) AS modification_time, CAST($8 AS VARCHAR(1024)) AS string_value, " +
+            "CAST($9 AS NUMERIC) AS number_value, " +
+            "CAST($10 AS BOOLEAN) AS boolean_value, CAST($11 AS TIMESTAMP) AS date_value) source " +
+            "ON target.content_id = source.content_id AND target.attribute_key = source.attribute_key " +
+            "WHEN MATCHED THEN UPDATE SET attribute_value = source.attribute_value, " +
+            "attribute_value_hash = source.attribute_value_hash, java_class = source.java_class, " +
+            "modification_time = source.modification_time, string_value = source.string_value, " +
+            "number_value = source.number_value, " +
+            "boolean_value = source.boolean_value, date_value = source.date_value " +
+            "WHEN NOT MATCHED THEN INSERT (content_id, attribute_key, attribute_value, attribute_value_hash, " +
+            "java_class, creation_time, modification_time, string_value, number_value, boolean_value, " +
+            "date_value) VALUES (source.content_id, source.attribute_key, source.attribute_value, " +
+            "source.attribute_value_hash, source.java_class, source.creation_time, source.modification_time, " +
+            "source.string_value, source.number_value, source.boolean_value, source.date_value)";
+
+    private NodeBatchWriter() {}
+
+    /**
+     * Inserts node entities with a single batched statement.
+     *
+     * @param connection   database connection
+     * @param nodeEntities entities to be inserted, should not be empty
+     * @return             publisher emitting generated identifiers in the order of entities
+     */
+    static Flux<Long> insertNodes(@NotNull Connection connection, @NotNull List<NodeEntity> nodeEntities) {
+        var statement = connection.createStatement(INSERT_NODE);
+        for (var i = 0; i < nodeEntities.size(); i++) {
+            if (i > 0) {
+                statement.add();
+            }
+            var entity = nodeEntities.get(i);
+            bind(statement, 0, entity.getParentId(), Long.class);
+            bind(statement, 1, entity.getOwnerId(), Long.class);
+            bind(statement, 2, entity.getEntityType(), String.class);
+            statement.bind(3, entity.isOwnerReadPrivilege());
+            statement.bind(4, entity.isOwnerWritePrivilege());
+            statement.bind(5, entity.isOwnerExecutePrivilege());
+            statement.bind(6, entity.isOwnerCreateChildrenPrivilege());
+            statement.bind(7, entity.isRoleReadPrivilege());
+            statement.bind(8, entity.isRoleWritePrivilege());
+            statement.bind(9, entity.isRoleExecutePrivilege());
+            statement.bind(10, entity.isRoleCreateChildrenPrivilege());
+            statement.bind(11, entity.isOtherReadPrivilege());
+            statement.bind(12, entity.isOtherWritePrivilege());
+            statement.bind(13, entity.isOtherExecutePrivilege());
+            statement.bind(14, entity.isOtherCreateChildrenPrivilege());
+            bind(statement, 15, entity.getEntityTypeId(), Integer.class);
+        }
+        statement.returnGeneratedValues("id");
+        return Flux.from(statement.execute())
+                .concatMap(result -> result.map((row, metadata) -> row.get(0, Long.class)));
+    }
+
+    /**
+     * Inserts attribute entities with a single batched statement.
+     *
+     * @param connection        database connection
+     * @param attributeEntities entities to be inserted
+     * @return                  publisher emitting the number of inserted records
+     */
+    static Mono<Integer> insertAttributes(@NotNull Connection connection, @NotNull List<NodeAttributeEntity> attributeEntities) {
+        return writeAttributes(connection, attributeEntities, INSERT_ATTRIBUTE);
+    }
+
+    /**
+     * Writes attribute entities with a single batched statement. The statement should take attribute columns
+     * in the same order as {@link #INSERT_ATTRIBUTE} does, see {@link #UPSERT_ATTRIBUTE} and {@link #MERGE_ATTRIBUTE}.
+     *
+     * @param connection        database connection
+     * @param attributeEntities entities to be written
+     * @param sql               statement to be executed for each entity
+     * @return                  publisher emitting the number of affected records
+     */
+    static Mono<Integer> writeAttributes(@NotNull Connection connection,
+                                         @NotNull List<NodeAttributeEntity> attributeEntities,
+                                         @NotNull String sql) {
+        if (attributeEntities.isEmpty()) {
+            return Mono.just(0);
+        }
+        var statement = connection.createStatement(sql);
+        for (var i = 0; i < attributeEntities.size(); i++) {
+            if (i > 0) {
+                statement.add();
+            }
+            var entity = attributeEntities.get(i);
+            statement.bind(0, entity.getContentId());
+            bind(statement, 1, entity.getAttributeKey(), String.class);
+            bind(statement, 2, entity.getAttributeValue(), byte[].class);
+            bind(statement, 3, entity.getAttributeValueHash(), Long.class);
+            bind(statement, 4, entity.getJavaClass(), String.class);
+            bind(statement, 5, entity.getCreationTime(), LocalDate.class);
+            bind(statement, 6, entity.getModificationTime(), LocalDate.class);
+            bind(statement, 7, entity.getStringValue(), String.class);
+            bind(statement, 8, entity.getNumberValue(), BigDecimal.class);
+            bind(statement, 9, entity.getBooleanValue(), Boolean.class);
+            bind(statement, 10, entity.getDateValue(), LocalDateTime.class);
+        }
+        return Flux.from(statement.execute())
+                .concatMap(Result::getRowsUpdated)
+                .reduce(0, Integer::sum);
+    }
+
+    private static void bind(Statement statement, int index, @Nullable Object value, Class<?> type) {
+        if (value == null) {
+            statement.bindNull(index, type);
+        } else {
+            statement.bind(index, value);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package io.keepup.cms.core.datasource.dao.sql;
+
+import io.keepup.cms.core.datasource.sql.entity.NodeAttributeEntity;
+import io.keepup.cms.core.datasource.sql.entity.NodeEntity;
+import io.r2dbc.spi.Row;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reads {@link NodeEntity} and {@link NodeAttributeEntity} objects from the rows of queries joining
+ * node_entity and node_attribute tables, so the record with all it's attributes can be fetched
+ * with a single database round trip.
+ *
+ * @author Fedor Sergeev
+ * @since 2.0.0
+ */
+final class NodeRowReader {
+
+    /**
+     * Columns of node_entity table, table should be aliased as 'node'
+     */
+    static final String NODE_COLUMNS = "node.id, node.parent_id, node.owner_id, node.entity_type, " +
+            "node.owner_read_privilege, node.owner_write_privilege, node.owner_create_children_privilege, node.owner_execute_privilege, " +
+            "node.role_read_privilege, node.role_write_privilege, node.role_create_children_privilege, node.role_execute_privilege, " +
+            "node.other_read_privilege, node.other_write_privilege, node.other_create_children_privilege, node.other_execute_privilege, node.version";
+    /**
+     * Columns of node_attribute table, table should be aliased as 'attribute'
+     */
+    static final String ATTRIBUTE_COLUMNS = "attribute.id AS attribute_id, attribute.attribute_key, " +
+            "attribute.attribute_value, attribute.java_class";
+
+    private NodeRowReader() {}
+
+    /**
+     * Reads node entity and an optional attribute from the joined row.
+     *
+     * @param row row of the query selecting {@link #NODE_COLUMNS} and {@link #ATTRIBUTE_COLUMNS}
+     * @return    node entity with the attribute, attribute is null if node has no attributes at all
+     */
+    static NodeRow read(@NotNull Row row) {
+        return new NodeRow(readNodeEntity(row), readAttributeEntity(row));
+    }
+
+    /**
+     * Reads {@link NodeEntity} from the row containing {@link #NODE_COLUMNS}.
+     *
+     * @param row query result row
+     * @return    node entity
+     */
+    static NodeEntity readNodeEntity(@NotNull Row row) {
+        var nodeEntity = new NodeEntity();
+        nodeEntity.setId(row.get("id", Long.class));
+        nodeEntity.setParentId(row.get("parent_id", Long.class));
+        nodeEntity.setOwnerId(row.get("owner_id", Long.class));
+        nodeEntity.setEntityType(row.get("entity_type", String.class));
+        nodeEntity.setOwnerReadPrivilege(getBoolean(row, "owner_read_privilege"));
+        nodeEntity.setOwnerWritePrivilege(getBoolean(row, "owner_write_privilege"));
+        nodeEntity.setOwnerCreateChildrenPrivilege(getBoolean(row, "owner_create_children_privilege"));
+        nodeEntity.setOwnerExecutePrivilege(getBoolean(row, "owner_execute_privilege"));
+        nodeEntity.setRoleReadPrivilege(getBoolean(row, "role_read_privilege"));
+        nodeEntity.setRoleWritePrivilege(getBoolean(row, "role_write_privilege"));
+        nodeEntity.setRoleCreateChildrenPrivilege(getBoolean(row, "role_create_children_privilege"));
+        nodeEntity.setRoleExecutePrivilege(getBoolean(row, "role_execute_privilege"));
+        nodeEntity.setOtherReadPrivilege(getBoolean(row, "other_read_privilege"));
+        nodeEntity.setOtherWritePrivilege(getBoolean(row, "other_write_privilege"));
+        nodeEntity.setOtherCreateChildrenPrivilege(getBoolean(row, "other_create_children_privilege"));
+        nodeEntity.setOtherExecutePrivilege(getBoolean(row, "other_execute_privilege"));
+        nodeEntity.setVersion(row.get("version", Long.class));
+        return nodeEntity;
+    }
+
+    /**
+     * Reads {@link NodeAttributeEntity} from the row containing {@link #ATTRIBUTE_COLUMNS}.
+     *
+     * @param row query result row
+     * @return    attribute entity or null if the row was produced by outer join without attribute
+     */
+    @Nullable
+    static NodeAttributeEntity readAttributeEntity(@NotNull Row row) {
+        var attributeId = row.get("attribute_id", Long.class);
+        if (attributeId == null) {
+            return null;
+        }
+        var attributeEntity = new NodeAttributeEntity();
+        attributeEntity.setId(attributeId);
+        attributeEntity.setContentId(row.get("id", Long.class));
+        attributeEntity.setAttributeKey(row.get("attribute_key", String.class));
+        attributeEntity.setAttributeValue(getBytes(row.get("attribute_value")));
+        attributeEntity.setJavaClass(row.get("java_class", String.class));
+        return attributeEntity;
+    }
+
+    private static boolean getBoolean(Row row, String column) {
+        return Boolean.TRUE.equals(row.get(column, Boolean.class));
+    }
+
+    /**
+     * Drivers can return binary values either as byte arrays or as {@link ByteBuffer} objects.
+     *
+     * @param value column value
+     * @return      column value as byte array
+     */
+    @Nullable
+    private static byte[] getBytes(@Nullable Object value) {
+        if (value instanceof ByteBuffer buffer) {
+            var bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            return bytes;
+        }
+        return (byte[]) value;
+    }
+
+    /**
+     * Single row of the joined node and attribute query.
+     *
+     * @param node      node entity
+     * @param attribute node attribute, null if there is no attributes for the node
+     */
+    record NodeRow(NodeEntity node, @Nullable NodeAttributeEntity attribute) {}
+}
@@ -8,9 +8,14 @@ import io.keepup.cms.core.datasource.dao.ContentDao;
 import io.keepup.cms.core.datasource.sql.EntityUtils;
 import io.keepup.cms.core.datasource.sql.entity.NodeAttributeEntity;
 import io.keepup.cms.core.datasource.sql.entity.NodeEntity;
+import io.keepup.cms.core.datasource.sql.entity.TypedAttributeColumn;
 import io.keepup.cms.core.datasource.sql.repository.ReactiveNodeAttributeEntityRepository;
 import io.keepup.cms.core.datasource.sql.repository.ReactiveNodeEntityRepository;
+import io.keepup.cms.core.events.ContentChangedEvent;
+import io.keepup.cms.core.events.ContentEventBus;
+import io.keepup.cms.core.persistence.CompactAttributeMap;
 import io.keepup.cms.core.persistence.Content;
+import io.keepup.cms.core.persistence.LazyAttributeMap;
 import io.keepup.cms.core.persistence.Node;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -18,9 +23,16 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.reactivestreams.Publisher;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
+import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.ReactiveTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -31,7 +43,11 @@ import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 
 import static io.keepup.cms.core.cache.CacheNames.CONTENT_CACHE_NAME;
+import static io.keepup.cms.core.datasource.dao.sql.NodeRowReader.ATTRIBUTE_COLUMNS;
+import static io.keepup.cms.core.datasource.dao.sql.NodeRowReader.NODE_COLUMNS;
 import static io.keepup.cms.core.datasource.sql.EntityUtils.convertToLocalDateViaInstant;
+import static io.keepup.cms.core.events.ContentChangedEvent.ChangeType.MOVED;
+import static io.keepup.cms.core.events.ContentChangedEvent.ChangeType.UPDATED;
 import static java.util.Optional.ofNullable;
 import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.toList;
@@ -48,20 +64,74 @@ import static reactor.core.publisher.Mono.empty;
 public class SqlContentDao implements ContentDao {
 
     private static final String PARENT_ID_PARAMETER = "parentId";
+    /**
+     * Columns of the deleted node which are needed for the deletion event
+     */
+    protected static final String DELETED_NODE_COLUMNS = "parent_id, entity_type, owner_id, owner_read_privilege, " +
+            "role_read_privilege, other_read_privilege";
+    private static final int DEFAULT_BATCH_SIZE = 500;
+    private static final String SELECT_NODE_WITH_ATTRIBUTES = "SELECT " + NODE_COLUMNS + ", " + ATTRIBUTE_COLUMNS + " " +
+            "FROM node_entity AS node " +
+            "LEFT JOIN node_attribute AS attribute ON attribute.content_id = node.id " +
+            "WHERE node.id = :id";
+    private static final String SELECT_NODE_WITH_ATTRIBUTES_BY_TYPE = SELECT_NODE_WITH_ATTRIBUTES + " " +
+            "AND " + ReactiveNodeEntityRepository.ASSIGNABLE_TO_TYPE;
+    /**
+     * Selects nodes by the condition on typed columns of the attribute with the specified key, condition
+     * placeholder should be filled with the predicate on 'attribute' alias.
+     */
+    private static final String SELECT_NODES_BY_TYPED_ATTRIBUTE = "SELECT " + NODE_COLUMNS + " " +
+            "FROM node_entity AS node " +
+            "JOIN node_attribute AS attribute ON attribute.content_id = node.id " +
+            "WHERE attribute.attribute_key = :attributeName AND %s";
 
     private final Log log = LogFactory.getLog(getClass());
     private final ReactiveNodeEntityRepository nodeEntityRepository;
     private final ReactiveNodeAttributeEntityRepository nodeAttributeEntityRepository;
+    private final DatabaseClient databaseClient;
 
     private final ObjectMapper mapper;
+    private final AttributeValueDecoder attributeValueDecoder;
+    private final ContentTypeRegistry contentTypeRegistry;
     private final CacheManager cacheManager;
     private final CacheAdapter cacheAdapter;
 
+    /**
+     * Defines whether attributes of the several {@link NodeEntity} records are fetched with a single query
+     */
+    @Value("${keepup.datasource.content.batch-loading:true}")
+    private boolean batchLoading = true;
+    /**
+     * Maximum number of {@link NodeEntity} records which attributes are fetched with a single query
+     */
+    @Value("${keepup.datasource.content.batch-size:" + DEFAULT_BATCH_SIZE + "}")
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    /**
+     * Maximum number of {@link Content} records inserted with batched statements in a single transaction
+     */
+    @Value("${keepup.datasource.content.insert-batch-size:" + DEFAULT_BATCH_SIZE + "}")
+    private int insertBatchSize = DEFAULT_BATCH_SIZE;
+    /**
+     * Defines whether node_closure table is used for ancestor and subtree lookups. The table is maintained on writes
+     * regardless of this flag, so it can be turned on at any time.
+     */
+    @Value("${keepup.datasource.content.closure-enabled:false}")
+    private boolean closureEnabled;
+    /**
+     * Operator wrapping bulk writes in transactions, absent if there is no reactive transaction manager
+     */
+    private TransactionalOperator transactionalOperator;
+    /**
+     * Bus receiving notifications about the changed records, absent if nobody listens to the changes
+     */
+    private ContentEventBus contentEventBus;
+
     /**
      * Instantiates the component with injection of other beans managed by IoC container.
      *
      * @param reactiveNodeEntityRepository          {@link NodeEntity} data access object
      * @param reactiveNodeAttributeEntityRepository {@link NodeAttributeEntity} data access object
+     * @param client                                reactive client for queries which are not covered by repositories
      * @param objectMapper                          JSON serializer and deserializer component
      * @param manager                               cache manager
      * @param adapter                               cache adapter
@@ -69,16 +139,41 @@ public class SqlContentDao implements ContentDao {
     @Autowired
     public SqlContentDao(ReactiveNodeEntityRepository reactiveNodeEntityRepository,
                                ReactiveNodeAttributeEntityRepository reactiveNodeAttributeEntityRepository,
+                               DatabaseClient client,
                                ObjectMapper objectMapper,
                                CacheManager manager,
                                CacheAdapter adapter) {
         nodeEntityRepository = reactiveNodeEntityRepository;
         nodeAttributeEntityRepository = reactiveNodeAttributeEntityRepository;
+        databaseClient = client;
         mapper = objectMapper;
+        attributeValueDecoder = new AttributeValueDecoder(objectMapper);
+        contentTypeRegistry = new ContentTypeRegistry(client);
         cacheManager = manager;
         cacheAdapter = adapter;
     }
 
+    /**
+     * Set the transaction manager used for bulk writes.
+     *
+     * @param transactionManager reactive transaction manager
+     */
+    @Autowired(required = false)
+    public void setTransactionManager(ReactiveTransactionManager transactionManager) {
+        transactionalOperator = TransactionalOperator.create(transactionManager);
+        contentTypeRegistry.setTransactionManager(transactionManager);
+    }
+
+    /**
+     * Set the bus receiving notifications about the created, updated and deleted records.
+     *
+     * @param eventBus content event bus
+     */
+    @Autowired(required = false)
+    public void setContentEventBus(ContentEventBus eventBus) {
+        contentEventBus = eventBus;
+    }
+
     // region public API
     /**
      * Finds {@link Content} record and returns as it is ready
@@ -100,18 +195,34 @@ public class SqlContentDao implements ContentDao {
                     .orElse(empty());
         }
 
-        final List<NodeAttributeEntity> attributeEntities = new ArrayList<>();
-        return nodeAttributeEntityRepository.findAllByContentId(id)
-                .collect(toList())
-                .flatMap(attributes -> {
-                    attributeEntities.addAll(attributes);
-                    return nodeEntityRepository.findById(id);
-                })
-                .map(entity -> buildNode(entity, attributeEntities));
+        return getNodeWithAttributes(databaseClient.sql(SELECT_NODE_WITH_ATTRIBUTES)
+                .bind("id", id));
     }
 
     /**
-     * Looks up for the record and filters it by type
+     * {@inheritDoc}
+     */
+    @Override
+    public Mono<Content> getContent(Long id, @Nullable Collection<String> attributeNames) {
+        if (id == null) {
+            return empty();
+        }
+        if (attributeNames == null) {
+            return getContent(id);
+        }
+        var cached = ofNullable(cacheManager.getCache(CONTENT_CACHE_NAME))
+                .map(cache -> cache.get(id, Content.class))
+                .orElse(null);
+        if (cached != null) {
+            return Mono.just(project(cached, attributeNames));
+        }
+        return buildNodes(nodeEntityRepository.findById(id).flux(), attributeNames).next();
+    }
+
+    /**
+     * Looks up for the record and filters it by type. The record is found by its own class name as well as by
+     * the name of any superclass or interface of this class, node and attributes are read by one query joined
+     * with content_type_hierarchy table.
      *
      * @param id item identifier
      * @param type item type
@@ -127,18 +238,15 @@ public class SqlContentDao implements ContentDao {
                 .orElse(null);
         if (valueWrapper != null) {
             return ofNullable(valueWrapper.get())
-                    .map(o -> Mono.just((Content) o))
+                    .map(Content.class::cast)
+                    .filter(content -> contentTypeRegistry.isAssignable(content.getEntityType(), type))
+                    .map(Mono::just)
                     .orElse(empty());
         }
 
-        final List<NodeAttributeEntity> attributeEntities = new ArrayList<>();
-        return nodeAttributeEntityRepository.findAllByContentId(id)
-                .collectList()
-                .flatMap(attributes -> {
-                    attributeEntities.addAll(attributes);
-                    return nodeEntityRepository.findByIdAndType(id, type);
-                })
-                .map(entity -> buildNode(entity, attributeEntities));
+        return getNodeWithAttributes(databaseClient.sql(SELECT_NODE_WITH_ATTRIBUTES_BY_TYPE)
+                .bind("id", id)
+                .bind("type", type));
     }
 
     /**
@@ -148,12 +256,26 @@ public class SqlContentDao implements ContentDao {
      * @return Publisher signaling when objects specified by id or parent id found
      */
     public Flux<Content> getContentByIdWithChildren(Long id) {
-        return nodeEntityRepository.findByIdOrByParentId(id)
-                .flatMap(node ->
-                        nodeAttributeEntityRepository.findAllByContentId(node.getId())
-                                .collect(toList())
-                                .map(nodeAttributeEntities -> buildNode(node, nodeAttributeEntities)))
-                .doOnNext(cacheAdapter::updateContent);
+        return buildNodes(nodeEntityRepository.findByIdOrByParentId(id));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Flux<Content> getDescendants(Long id, int maxDepth, @Nullable String type) {
+        if (id == null || maxDepth < 0) {
+            log.error("Wrong params passed to getDescendants method: id = %s, maxDepth = %d".formatted(id, maxDepth));
+            return Flux.empty();
+        }
+        if (closureEnabled) {
+            return buildNodes(type == null
+                    ? nodeEntityRepository.findClosureDescendants(id, maxDepth)
+                    : nodeEntityRepository.findClosureDescendantsByType(id, maxDepth, type));
+        }
+        return buildNodes(type == null
+                ? nodeEntityRepository.findDescendants(id, maxDepth)
+                : nodeEntityRepository.findDescendantsByType(id, maxDepth, type));
     }
 
     /**
@@ -163,12 +285,19 @@ public class SqlContentDao implements ContentDao {
      */
     @Override
     public Flux<Content> getContent() {
-        return nodeEntityRepository.findAll()
-                .flatMap(node ->
-                        nodeAttributeEntityRepository.findAllByContentId(node.getId())
-                                .collect(toList())
-                                .map(nodeAttributeEntities -> buildNode(node, nodeAttributeEntities)))
-                .doOnNext(cacheAdapter::updateContent);
+        return buildNodes(nodeEntityRepository.findAll());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Flux<Content> getContent(@Nullable Long afterId, int limit) {
+        if (limit <= 0) {
+            log.error("Wrong limit %d was passed to getContent method".formatted(limit));
+            return Flux.empty();
+        }
+        return buildNodes(nodeEntityRepository.findAllAfterId(getPageStart(afterId), limit));
     }
 
 
@@ -182,42 +311,54 @@ public class SqlContentDao implements ContentDao {
             content.setId(null);
         }
         final var entity = new NodeEntity(content);
-        return nodeEntityRepository.save(entity)
+        final Mono<Long> savedId = contentTypeRegistry.getTypeId(content.getEntityType())
+                .doOnNext(entity::setEntityTypeId)
+                .then(Mono.defer(() -> nodeEntityRepository.save(entity)))
                 .flatMap(saved -> getNodeAttributeEntityFlux(content, contentId, saved));
+        return savedId.flatMap(id -> nodeEntityRepository.insertClosures(List.of(id)).thenReturn(id))
+                .flatMap(id -> afterCommit(() -> publish(ContentChangedEvent.created(id, content))).thenReturn(id));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Flux<Long> createContents(Flux<Content> contents) {
+        if (contents == null) {
+            log.error("Null parameter contents was passed to createContents method");
+            return Flux.empty();
+        }
+        return contents.buffer(Math.max(1, insertBatchSize))
+                .concatMap(this::createContentWindow);
     }
 
     /**
      * {@inheritDoc}
      */
+    @Override
     @Transactional("connectionFactoryTransactionManager")
     public Mono<Map<String, Serializable>> updateContent(Long id, Map<String, Serializable> newAttributes) {
-        final List<NodeAttributeEntity> nodeAttributeEntities = new ArrayList<>();
-        final Map<String, Serializable> result = new HashMap<>();
-        return nodeAttributeEntityRepository.findAllByContentId(id)
-                .doOnNext(oldAttribute -> {
-                    var attributeKey = oldAttribute.getAttributeKey();
-                    var newValue = newAttributes.get(attributeKey);
-                    if (newValue != null) {
-                        nodeAttributeEntities.add(new NodeAttributeEntity(oldAttribute.getId(), id, attributeKey, newValue));
-                        newAttributes.remove(attributeKey);
-                    }
-                })
-                .collect(toList())
-                .flatMap(attributes -> {
-                    newAttributes.forEach((key, value) -> nodeAttributeEntities.add(new NodeAttributeEntity(id, key, value)));
-                    return nodeAttributeEntityRepository.saveAll(nodeAttributeEntities)
-                            .collectList();
-                })
-                .map(savedElements -> {
-                    savedElements.forEach(element -> result.put(element.getAttributeKey(), getContentAttribute(element)));
-                    return result;
-                })
-                .map(res -> {
-                    cacheAdapter.getContent(id).ifPresent(content -> {
-                        res.forEach(content::setAttribute);
-                        cacheAdapter.updateContent(content);
-                    });
-                    return res;
+        if (id == null || newAttributes == null) {
+            log.error("Null params passed to updateContent method: %s %s"
+                    .formatted(getNullParameterName(id, "id"), getNullParameterName(newAttributes, "newAttributes")));
+            return empty();
+        }
+        final Map<String, Serializable> result = new HashMap<>(newAttributes);
+        final List<NodeAttributeEntity> attributeEntities = result.entrySet()
+                .stream()
+                .map(entry -> new NodeAttributeEntity(id, entry.getKey(), entry.getValue()))
+                .toList();
+        return databaseClient.inConnection(connection -> NodeBatchWriter.writeAttributes(connection, attributeEntities, getUpsertAttributeStatement()))
+                .flatMap(updated -> {
+                    log.debug("[NODE#%d] %d attributes updated".formatted(id, updated));
+                    return incrementVersion(id)
+                            .flatMap(nodeEntity -> afterCommit(() -> {
+                                cacheAdapter.getContent(id)
+                                        .map(cached -> copyWithAttributes(cached, result, nodeEntity.getVersion()))
+                                        .ifPresent(cacheAdapter::putContent);
+                                publish(ContentChangedEvent.of(UPDATED, nodeEntity, result.keySet()));
+                            }))
+                            .thenReturn(result);
                 });
     }
 
@@ -226,9 +367,92 @@ public class SqlContentDao implements ContentDao {
      */
     @Override
     public Mono<Void> deleteContent(Long id) {
-        return nodeAttributeEntityRepository
-                .deleteByContentId(id)
-                .then(doDeleteContent(id));
+        if (id == null) {
+            log.error("Null parameter id was passed to deleteContent method");
+            return empty();
+        }
+        // descendants of the record are unlinked from its ancestors as they are not reachable from them anymore
+        final Mono<Void> deleted = afterCommit(() -> cacheAdapter.deleteContent(id))
+                .then(nodeEntityRepository.detachClosureSubtree(id))
+                .then(nodeEntityRepository.deleteClosures(List.of(id)))
+                .then(nodeAttributeEntityRepository.deleteByContentId(id))
+                .then(doDeleteContent(id))
+                .flatMap(removed -> afterCommit(() -> publish(ContentChangedEvent.deleted(id, removed))));
+        return transactionalOperator == null
+                ? deleted
+                : transactionalOperator.transactional(deleted);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional("connectionFactoryTransactionManager")
+    public Flux<Long> deleteSubtree(Long id) {
+        if (id == null) {
+            log.error("Null parameter id was passed to deleteSubtree method");
+            return Flux.empty();
+        }
+        // whole rows are read, so events get parent and type of the deleted records without extra queries
+        return (closureEnabled
+                ? nodeEntityRepository.findClosureDescendants(id, Integer.MAX_VALUE)
+                : nodeEntityRepository.findDescendants(id, Integer.MAX_VALUE))
+                .collectList()
+                .flatMapMany(nodes -> {
+                    final List<Long> ids = nodes.stream().map(NodeEntity::getId).toList();
+                    return Flux.fromIterable(ids)
+                            .buffer(Math.max(1, batchSize))
+                            .concatMap(window -> nodeEntityRepository.deleteClosures(window)
+                                    .then(nodeAttributeEntityRepository.deleteByContentIds(window))
+                                    .then(nodeEntityRepository.deleteByIds(window))
+                                    .thenMany(Flux.fromIterable(window)))
+                            .concatWith(afterCommit(() -> {
+                                log.debug("[NODE#%d] Deleted subtree of %d records".formatted(id, ids.size()));
+                                cacheAdapter.deleteContents(ids);
+                                nodes.forEach(node -> publish(ContentChangedEvent.deleted(node.getId(), node)));
+                            }).then(Mono.empty()));
+                });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional("connectionFactoryTransactionManager")
+    public Mono<Void> moveContent(Long id, Long parentId) {
+        if (id == null || parentId == null) {
+            log.error("Null params passed to moveContent method: %s %s"
+                    .formatted(getNullParameterName(id, "id"), getNullParameterName(parentId, PARENT_ID_PARAMETER)));
+            return empty();
+        }
+        return getSubtreeIds(id)
+                .any(parentId::equals)
+                .flatMap(cycle -> {
+                    if (Boolean.TRUE.equals(cycle)) {
+                        return Mono.<Integer>error(new IllegalArgumentException("Record %d cannot be moved under its descendant %d"
+                                .formatted(id, parentId)));
+                    }
+                    return nodeEntityRepository.detachClosureSubtree(id)
+                            .then(nodeEntityRepository.updateParentId(id, parentId))
+                            .flatMap(updated -> nodeEntityRepository.attachClosureSubtree(id, parentId).thenReturn(updated));
+                })
+                .filter(updated -> updated > 0)
+                .flatMap(updated -> afterCommit(() -> cacheAdapter.deleteContent(id))
+                        .then(publishChange(MOVED, id)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Mono<Long> countDescendants(Long id) {
+        if (id == null) {
+            log.error("Null parameter id was passed to countDescendants method");
+            return empty();
+        }
+        return closureEnabled
+                ? nodeEntityRepository.countClosureDescendants(id)
+                : nodeEntityRepository.findSubtreeIds(id).count().map(count -> Math.max(0, count - 1));
     }
 
     /**
@@ -277,6 +501,23 @@ public class SqlContentDao implements ContentDao {
                 .map(cacheAdapter::updateContent);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Flux<Content> getContentByParentIdAndByAttributeNames(Long parentId, List<String> attributeNames,
+                                                                 @Nullable Collection<String> projection) {
+        if (projection == null) {
+            return getContentByParentIdAndByAttributeNames(parentId, attributeNames);
+        }
+        if (attributeNames == null || parentId == null) {
+            log.error("Null params passed to getContentByAttributeNames method: %s %s"
+                    .formatted(getNullParameterName(parentId, PARENT_ID_PARAMETER), getNullParameterName(attributeNames, "attributeNames")));
+            return Flux.empty();
+        }
+        return buildNodes(nodeEntityRepository.findByParentIdAndAttributeNames(parentId, attributeNames), projection);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -289,7 +530,8 @@ public class SqlContentDao implements ContentDao {
                             getNullParameterName(attributeValue, "attributeValue")));
             return Flux.empty();
         }
-        return nodeAttributeEntityRepository.findAllByParentIdAndAttributeNameAndContentId(parentId, attributeName, EntityUtils.toByteArray(attributeValue))
+        var value = EntityUtils.toByteArray(attributeValue);
+        return nodeAttributeEntityRepository.findAllByParentIdAndAttributeNameAndContentId(parentId, attributeName, value, EntityUtils.hash(value))
                 .collect(groupingBy(NodeAttributeEntity::getContentId, toList()))
                 .flatMapMany(attributesByContentId -> {
                     if (attributesByContentId.isEmpty()) {
@@ -301,6 +543,48 @@ public class SqlContentDao implements ContentDao {
                 .map(cacheAdapter::updateContent);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Flux<Content> getContentByAttributeValue(@Nullable Long parentId, String attributeName, Serializable attributeValue) {
+        var column = TypedAttributeColumn.of(attributeValue);
+        if (attributeName == null || column == null) {
+            log.error("Wrong params passed to getContentByAttributeValue method: attributeName = %s, attributeValue = %s"
+                    .formatted(attributeName, attributeValue));
+            return Flux.empty();
+        }
+        var condition = "attribute.%s = :attributeValue".formatted(column.getColumnName());
+        return getContentByTypedAttribute(parentId, attributeName, condition,
+                Map.of("attributeValue", column.convert(attributeValue)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Flux<Content> getContentByAttributeRange(@Nullable Long parentId, String attributeName,
+                                                    @Nullable Serializable from, @Nullable Serializable to) {
+        var column = TypedAttributeColumn.of(from != null ? from : to);
+        if (attributeName == null || column == null || column == TypedAttributeColumn.BOOLEAN
+                || (from != null && to != null && TypedAttributeColumn.of(to) != column)) {
+            log.error("Wrong params passed to getContentByAttributeRange method: attributeName = %s, from = %s, to = %s"
+                    .formatted(attributeName, from, to));
+            return Flux.empty();
+        }
+        final var conditions = new ArrayList<String>();
+        final var values = new HashMap<String, Object>();
+        if (from != null) {
+            conditions.add("attribute.%s >= :from".formatted(column.getColumnName()));
+            values.put("from", column.convert(from));
+        }
+        if (to != null) {
+            conditions.add("attribute.%s <= :to".formatted(column.getColumnName()));
+            values.put("to", column.convert(to));
+        }
+        return getContentByTypedAttribute(parentId, attributeName, String.join(" AND ", conditions), values);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -310,8 +594,7 @@ public class SqlContentDao implements ContentDao {
             log.error("Null parameter parentIds was passed to getContentByParentIds method");
             return Flux.empty();
         }
-        return nodeEntityRepository.findByParentIds(parentIds)
-                .flatMap(getNodeEntityPublisherFunction());
+        return buildNodes(nodeEntityRepository.findByParentIds(parentIds));
     }
 
     /**
@@ -323,8 +606,61 @@ public class SqlContentDao implements ContentDao {
             log.error("Null parameter parentIds was passed to getContentByParentIds method");
             return Flux.empty();
         }
-        return nodeEntityRepository.findByParentIdsAndType(parentIds, type)
-                .flatMap(getNodeEntityPublisherFunction());
+        return buildNodes(nodeEntityRepository.findByParentIdsAndType(parentIds, type));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Flux<Content> getContentByParentIdsAndType(Iterable <Long> parentIds, String type,
+                                                      @Nullable Collection<String> attributeNames) {
+        if (parentIds == null) {
+            log.error("Null parameter parentIds was passed to getContentByParentIds method");
+            return Flux.empty();
+        }
+        return buildNodes(nodeEntityRepository.findByParentIdsAndType(parentIds, type), attributeNames);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Flux<Content> getContentByParentIds(Iterable <Long> parentIds, @Nullable Long afterId, int limit) {
+        if (parentIds == null || limit <= 0) {
+            log.error("Wrong params passed to getContentByParentIds method: parentIds = %s, limit = %d"
+                    .formatted(parentIds, limit));
+            return Flux.empty();
+        }
+        return buildNodes(nodeEntityRepository.findByParentIdsAfterId(parentIds, getPageStart(afterId), limit));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Flux<Content> getContentByParentIdsAndType(Iterable <Long> parentIds, String type, @Nullable Long afterId, int limit) {
+        if (parentIds == null || limit <= 0) {
+            log.error("Wrong params passed to getContentByParentIdsAndType method: parentIds = %s, limit = %d"
+                    .formatted(parentIds, limit));
+            return Flux.empty();
+        }
+        return buildNodes(nodeEntityRepository.findByParentIdsAndTypeAfterId(parentIds, type, getPageStart(afterId), limit));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Flux<Content> getContentByParentIdsAndType(Iterable <Long> parentIds, String type, @Nullable Long afterId, int limit,
+                                                      @Nullable Collection<String> attributeNames) {
+        if (parentIds == null || limit <= 0) {
+            log.error("Wrong params passed to getContentByParentIdsAndType method: parentIds = %s, limit = %d"
+                    .formatted(parentIds, limit));
+            return Flux.empty();
+        }
+        return buildNodes(nodeEntityRepository.findByParentIdsAndTypeAfterId(parentIds, type, getPageStart(afterId), limit),
+                attributeNames);
     }
 
     /**
@@ -336,8 +672,7 @@ public class SqlContentDao implements ContentDao {
             log.error("Null parameter parentId was passed to getContentByParentId method");
             return Flux.empty();
         }
-        return nodeEntityRepository.findByParentIds(Collections.singletonList(parentId))
-                .flatMap(getNodeEntityPublisherFunction());
+        return buildNodes(nodeEntityRepository.findByParentIds(Collections.singletonList(parentId)));
     }
 
     /**
@@ -349,8 +684,11 @@ public class SqlContentDao implements ContentDao {
         if (offset == null) {
             offset = Long.MAX_VALUE;
         }
-        return nodeEntityRepository.findContentParents(id, offset)
-                .flatMap(getNodeEntityPublisherFunction());
+        if (closureEnabled) {
+            // zero offset returns the record itself as the recursive query does
+            return buildNodes(nodeEntityRepository.findAncestors(id, 0, Math.max(0, offset - 1)));
+        }
+        return buildNodes(nodeEntityRepository.findContentParents(id, offset));
     }
 
     // endregion
@@ -368,6 +706,278 @@ public class SqlContentDao implements ContentDao {
                 .map(cacheAdapter::updateContent);
     }
 
+    /**
+     * Converts the sequence of {@link NodeEntity} objects to {@link Content} records. In batch loading mode entities
+     * are split into windows of {@code keepup.datasource.content.batch-size} elements and attributes of each window
+     * are fetched with a single query instead of one query per entity. Order of the incoming entities is kept.
+     *
+     * @param nodeEntities publisher emitting {@link NodeEntity} objects
+     * @return             publisher emitting {@link Content} records built from the entities and their attributes
+     */
+    @NotNull
+    protected Flux<Content> buildNodes(Flux<NodeEntity> nodeEntities) {
+        if (!batchLoading) {
+            return nodeEntities.flatMap(getNodeEntityPublisherFunction());
+        }
+        return nodeEntities.buffer(Math.max(1, batchSize))
+                .concatMap(this::buildNodeWindow)
+                .map(cacheAdapter::updateContent);
+    }
+
+    /**
+     * Converts the sequence of {@link NodeEntity} objects to {@link Content} records having only the specified
+     * attributes. Attributes are fetched by windows of {@code keepup.datasource.content.batch-size} entities with
+     * the attribute keys filter applied by the query, so other attribute values are neither transferred nor
+     * decoded. Projected records are not put to the cache as they are incomplete.
+     *
+     * @param nodeEntities   publisher emitting {@link NodeEntity} objects
+     * @param attributeNames keys of the attributes to be fetched, all the attributes are fetched if null
+     * @return               publisher emitting {@link Content} records built from the entities and their attributes
+     */
+    @NotNull
+    protected Flux<Content> buildNodes(Flux<NodeEntity> nodeEntities, @Nullable Collection<String> attributeNames) {
+        if (attributeNames == null) {
+            return buildNodes(nodeEntities);
+        }
+        return nodeEntities.buffer(Math.max(1, batchSize))
+                .concatMap(window -> buildProjectedNodeWindow(window, attributeNames));
+    }
+
+    /**
+     * Fetches node with all it's attributes by the single query joining node_entity and node_attribute tables.
+     *
+     * @param spec query selecting node and attribute columns for one node
+     * @return     publisher emitting the {@link Content} record or empty if node is not found
+     */
+    private Mono<Content> getNodeWithAttributes(DatabaseClient.GenericExecuteSpec spec) {
+        return spec.map((row, metadata) -> NodeRowReader.read(row))
+                .all()
+                .collectList()
+                .filter(rows -> !rows.isEmpty())
+                .map(rows -> buildNode(rows.get(0).node(), rows.stream()
+                        .map(NodeRowReader.NodeRow::attribute)
+                        .filter(Objects::nonNull)
+                        .toList()));
+    }
+
+    /**
+     * Finds records by the condition on typed attribute columns.
+     *
+     * @param parentId      parent record identifier or null
+     * @param attributeName attribute name
+     * @param condition     SQL condition on the columns of node_attribute table aliased as 'attribute'
+     * @param values        values of the condition parameters
+     * @return              publisher emitting found records
+     */
+    private Flux<Content> getContentByTypedAttribute(@Nullable Long parentId, String attributeName,
+                                                     String condition, Map<String, Object> values) {
+        var sql = SELECT_NODES_BY_TYPED_ATTRIBUTE.formatted(condition);
+        if (parentId != null) {
+            sql += " AND node.parent_id = :parentId";
+        }
+        var spec = databaseClient.sql(sql).bind("attributeName", attributeName);
+        for (Map.Entry<String, Object> value : values.entrySet()) {
+            spec = spec.bind(value.getKey(), value.getValue());
+        }
+        if (parentId != null) {
+            spec = spec.bind(PARENT_ID_PARAMETER, parentId);
+        }
+        return buildNodes(spec.map((row, metadata) -> NodeRowReader.readNodeEntity(row)).all());
+    }
+
+    /**
+     * Identifiers are positive, so the page without the previous one starts with the lowest possible value.
+     *
+     * @param afterId identifier of the last record from the previous page or null
+     * @return        identifier the page records should be greater than
+     */
+    private static long getPageStart(@Nullable Long afterId) {
+        return afterId == null ? Long.MIN_VALUE : afterId;
+    }
+
+    private Flux<Long> createContentWindow(List<Content> contents) {
+        final var nodeEntities = contents.stream()
+                .map(NodeEntity::new)
+                .toList();
+        final Mono<List<Long>> ids = contentTypeRegistry.getTypeIds(contents.stream().map(Content::getEntityType).toList())
+                .flatMapMany(typeIds -> {
+                    nodeEntities.forEach(entity -> entity.setEntityTypeId(typeIds.get(entity.getEntityType())));
+                    return insertContentWindow(contents, nodeEntities);
+                })
+                .collectList();
+        // events are published after the window transaction is committed, so listeners can read the new records
+        return (transactionalOperator == null
+                ? ids
+                : transactionalOperator.transactional(ids))
+                .flatMapMany(contentIds -> afterCommit(() -> {
+                    for (int i = 0; i < contentIds.size(); i++) {
+                        publish(ContentChangedEvent.created(contentIds.get(i), contents.get(i)));
+                    }
+                }).thenMany(Flux.fromIterable(contentIds)));
+    }
+
+    private Flux<Long> insertContentWindow(List<Content> contents, List<NodeEntity> nodeEntities) {
+        return databaseClient.inConnectionMany(connection -> NodeBatchWriter.insertNodes(connection, nodeEntities)
+                .collectList()
+                .flatMapMany(contentIds -> {
+                    if (contentIds.size() != contents.size()) {
+                        return Flux.error(new IllegalStateException("%d identifiers were generated for %d records"
+                                .formatted(contentIds.size(), contents.size())));
+                    }
+                    return NodeBatchWriter.insertAttributes(connection, getAttributeEntities(contents, contentIds))
+                            .then(nodeEntityRepository.insertClosures(contentIds))
+                            .thenMany(Flux.fromIterable(contentIds));
+                }));
+    }
+
+    /**
+     * Checks whether node_closure table is used for ancestor and subtree lookups.
+     *
+     * @return true if closure table is enabled
+     */
+    protected boolean isClosureEnabled() {
+        return closureEnabled;
+    }
+
+    private Flux<Long> getSubtreeIds(Long id) {
+        return closureEnabled
+                ? nodeEntityRepository.findClosureSubtreeIds(id)
+                : nodeEntityRepository.findSubtreeIds(id);
+    }
+
+    /**
+     * Statement deleting the node by :id parameter and returning its {@link #DELETED_NODE_COLUMNS}.
+     *
+     * @return SQL statement supported by the database
+     */
+    protected String getDeleteNodeStatement() {
+        return "DELETE FROM node_entity WHERE id = :id RETURNING " + DELETED_NODE_COLUMNS;
+    }
+
+    /**
+     * Statement inserting {@link NodeAttributeEntity} or updating the existing one with the same content identifier
+     * and attribute key. Parameters are bound in the order of {@link NodeBatchWriter#UPSERT_ATTRIBUTE}.
+     *
+     * @return SQL statement supported by the database
+     */
+    protected String getUpsertAttributeStatement() {
+        return NodeBatchWriter.UPSERT_ATTRIBUTE;
+    }
+
+    /**
+     * Increments version of the record. Statement returning the updated row is not supported by all the databases
+     * (e.g. H2), so the record is read by the separate query.
+     *
+     * @param id record identifier
+     * @return   Mono emitting the updated record or empty Mono if there is no such record
+     */
+    private Mono<NodeEntity> incrementVersion(Long id) {
+        return nodeEntityRepository.incrementVersion(id)
+                .then(nodeEntityRepository.findById(id));
+    }
+
+    private Mono<Void> publishChange(ContentChangedEvent.ChangeType changeType, Long id) {
+        return contentEventBus == null
+                ? empty()
+                : nodeEntityRepository.findById(id)
+                        .flatMap(nodeEntity -> afterCommit(() -> publish(ContentChangedEvent.of(changeType, nodeEntity, Collections.emptySet()))));
+    }
+
+    /**
+     * Runs the action after the current transaction is committed, e.g. cache updates and event publishing which
+     * must not be visible if the transaction is rolled back. The action is run immediately if there is no
+     * transaction.
+     *
+     * @param action action to run
+     * @return       Mono completing when the action is run or registered
+     */
+    private Mono<Void> afterCommit(Runnable action) {
+        return TransactionSynchronizationManager.forCurrentTransaction()
+                .onErrorResume(NoTransactionException.class, e -> empty())
+                .filter(TransactionSynchronizationManager::isSynchronizationActive)
+                .map(synchronizationManager -> {
+                    synchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public Mono<Void> afterCommit() {
+                            return Mono.fromRunnable(action);
+                        }
+                    });
+                    return true;
+                })
+                .switchIfEmpty(Mono.fromRunnable(action))
+                .then();
+    }
+
+    private void publish(ContentChangedEvent event) {
+        if (contentEventBus != null) {
+            contentEventBus.publish(event);
+        }
+    }
+
+    private Content copyWithAttributes(Content cached, Map<String, Serializable> attributes, Long version) {
+        final Content content = copyHeader(cached);
+        content.setVersion(version);
+        content.setAttributes(new CompactAttributeMap<>(cached.getAttributes()));
+        attributes.forEach(content::setAttribute);
+        return content;
+    }
+
+    private Content project(Content cached, Collection<String> attributeNames) {
+        final Content content = copyHeader(cached);
+        final var attributes = new CompactAttributeMap<Serializable>(attributeNames.size());
+        attributeNames.stream()
+                .filter(cached::hasAttribute)
+                .forEach(attributeName -> attributes.put(attributeName, cached.getAttribute(attributeName)));
+        content.setAttributes(attributes);
+        return content;
+    }
+
+    private Content copyHeader(Content cached) {
+        final Content content = new Node(cached.getId());
+        content.setEntityType(cached.getEntityType());
+        content.setParentId(cached.getParentId());
+        content.setOwnerId(cached.getOwnerId());
+        content.setContentPrivileges(cached.getContentPrivileges());
+        content.setVersion(cached.getVersion());
+        return content;
+    }
+
+    private List<NodeAttributeEntity> getAttributeEntities(List<Content> contents, List<Long> contentIds) {
+        final var attributeEntities = new ArrayList<NodeAttributeEntity>();
+        for (var i = 0; i < contents.size(); i++) {
+            final var contentId = contentIds.get(i);
+            contents.get(i).getAttributes()
+                    .forEach((key, value) -> attributeEntities.add(new NodeAttributeEntity(contentId, key, value)));
+        }
+        return attributeEntities;
+    }
+
+    private Flux<Content> buildNodeWindow(List<NodeEntity> nodeEntities) {
+        final var contentIds = nodeEntities.stream()
+                .map(NodeEntity::getId)
+                .toList();
+        return nodeAttributeEntityRepository.findAllByContentIds(contentIds)
+                .collect(groupingBy(NodeAttributeEntity::getContentId, toList()))
+                .flatMapIterable(attributesByContentId -> nodeEntities.stream()
+                        .map(entity -> buildNode(entity, attributesByContentId.getOrDefault(entity.getId(), Collections.emptyList())))
+                        .toList());
+    }
+
+    private Flux<Content> buildProjectedNodeWindow(List<NodeEntity> nodeEntities, Collection<String> attributeNames) {
+        if (attributeNames.isEmpty()) {
+            return Flux.fromIterable(nodeEntities)
+                    .map(entity -> createNode(entity, Collections.emptyList()));
+        }
+        final var contentIds = nodeEntities.stream()
+                .map(NodeEntity::getId)
+                .toList();
+        return nodeAttributeEntityRepository.findAllByContentIdsAndAttributeKeys(contentIds, attributeNames)
+                .collect(groupingBy(NodeAttributeEntity::getContentId, toList()))
+                .flatMapIterable(attributesByContentId -> nodeEntities.stream()
+                        .map(entity -> createNode(entity, attributesByContentId.getOrDefault(entity.getId(), Collections.emptyList())))
+                        .toList());
+    }
+
     private Mono<Serializable> saveContentAttribute(String attributeName, Serializable attributeValue, NodeAttributeEntity nodeAttributeEntity) {
         nodeAttributeEntity.setModificationTime(convertToLocalDateViaInstant(new Date()));
 
@@ -375,6 +985,7 @@ public class SqlContentDao implements ContentDao {
             try {
                 nodeAttributeEntity.setAttributeValue(mapper.writeValueAsBytes(attributeValue));
                 nodeAttributeEntity.setJavaClass(getValueTypeAsString(attributeValue));
+                nodeAttributeEntity.setTypedValue(attributeValue);
             } catch (IOException ex) {
                 log.error("Unable to convert attribute value o byte array: %s".formatted(ex.getMessage()));
                 nodeAttributeEntity.setAttributeValue(new byte[0]);
@@ -383,9 +994,15 @@ public class SqlContentDao implements ContentDao {
         } else {
             nodeAttributeEntity.setAttributeValue(null);
             nodeAttributeEntity.setJavaClass(null);
+            nodeAttributeEntity.setTypedValue(null);
         }
         return nodeAttributeEntityRepository.save(nodeAttributeEntity)
-                .mapNotNull(updatedNodeAttributeEntity -> updateContentAttributeCache(attributeName, attributeValue, updatedNodeAttributeEntity));
+                .flatMap(updatedNodeAttributeEntity -> incrementVersion(updatedNodeAttributeEntity.getContentId())
+                        .flatMap(nodeEntity -> afterCommit(() -> {
+                            updateContentAttributeCache(attributeName, attributeValue,
+                                    updatedNodeAttributeEntity, nodeEntity.getVersion());
+                            publish(ContentChangedEvent.of(UPDATED, nodeEntity, Collections.singleton(attributeName)));
+                        }).then(Mono.justOrEmpty(attributeValue))));
     }
 
     @NotNull
@@ -397,16 +1014,34 @@ public class SqlContentDao implements ContentDao {
                 .orElse(EMPTY);
     }
 
-    private Serializable updateContentAttributeCache(String attributeName, Serializable attributeValue, NodeAttributeEntity updatedNodeAttributeEntity) {
+    private void updateContentAttributeCache(String attributeName, Serializable attributeValue,
+                                             NodeAttributeEntity updatedNodeAttributeEntity, Long version) {
         log.debug("Node attribute updated: %s".formatted(updatedNodeAttributeEntity.toString()));
-        cacheAdapter.updateContent(updatedNodeAttributeEntity.getContentId(), attributeName, attributeValue);
-        return attributeValue;
+        cacheAdapter.updateContent(updatedNodeAttributeEntity.getContentId(), attributeName, attributeValue, version);
     }
 
+    /**
+     * Deletes the node and reads its parent, type, owner and read privileges by the same statement.
+     *
+     * @param id record identifier
+     * @return   Mono emitting the deleted node with the returned columns set, empty if there was no node
+     */
     @NotNull
-    private Mono<Void> doDeleteContent(Long id) {
-        cacheAdapter.deleteContent(id);
-        return nodeEntityRepository.deleteById(id);
+    private Mono<NodeEntity> doDeleteContent(Long id) {
+        return databaseClient.sql(getDeleteNodeStatement())
+                .bind("id", id)
+                .map((row, metadata) -> {
+                    final var removed = new NodeEntity();
+                    removed.setId(id);
+                    removed.setParentId(row.get("parent_id", Long.class));
+                    removed.setEntityType(row.get("entity_type", String.class));
+                    removed.setOwnerId(row.get("owner_id", Long.class));
+                    removed.setOwnerReadPrivilege(Boolean.TRUE.equals(row.get("owner_read_privilege", Boolean.class)));
+                    removed.setRoleReadPrivilege(Boolean.TRUE.equals(row.get("role_read_privilege", Boolean.class)));
+                    removed.setOtherReadPrivilege(Boolean.TRUE.equals(row.get("other_read_privilege", Boolean.class)));
+                    return removed;
+                })
+                .one();
     }
 
     private Mono<Long> getNodeAttributeEntityFlux(Content content, AtomicReference<Long> contentId, NodeEntity saved) {
@@ -424,29 +1059,33 @@ public class SqlContentDao implements ContentDao {
      * We should think about this approach a little bit more. The plan is to separate different
      * content types into different blocks and provide content like content.getStringAttribute(name)
      * or content.getIntegerAttribute(), but this approach leads to many requests or huge joins,
-     * so for now we just serialize values from byte arrays.
+     * so for now we just serialize values from byte arrays. Values are kept as bytes and deserialized on the first
+     * access to the attribute, see {@link LazyAttributeMap}.
      *
-     * @param content             {@link Content} record
-     * @param nodeAttributeEntity attribute entity to paste
+     * @param attributeEntities attribute entities to paste
+     * @return                  attributes of {@link Content} record
      */
-    private void addNodeAttributeToContent(Content content, NodeAttributeEntity nodeAttributeEntity) {
-        content.setAttribute(nodeAttributeEntity.getAttributeKey(), getContentAttribute(nodeAttributeEntity));
+    private LazyAttributeMap getContentAttributes(List<NodeAttributeEntity> attributeEntities) {
+        final var attributes = new LazyAttributeMap(this::decodeAttribute);
+        attributeEntities.forEach(nodeAttributeEntity -> attributes.putEncoded(nodeAttributeEntity.getAttributeKey(),
+                nodeAttributeEntity.getJavaClass(), nodeAttributeEntity.getAttributeValue()));
+        return attributes;
     }
 
     private Serializable getContentAttribute(NodeAttributeEntity nodeAttributeEntity) {
-        if (nodeAttributeEntity.getJavaClass() == null || nodeAttributeEntity.getAttributeValue() == null) {
+        return decodeAttribute(nodeAttributeEntity.getJavaClass(), nodeAttributeEntity.getAttributeValue());
+    }
+
+    private Serializable decodeAttribute(@Nullable String javaClass, @Nullable byte[] value) {
+        if (javaClass == null || value == null) {
             return null;
         }
         try {
-            Class<?> attributeType = Class.forName(nodeAttributeEntity.getJavaClass());
-            if (List.class.isAssignableFrom(attributeType) || nodeAttributeEntity.getJavaClass().contains("$ArrayList")) {
-                nodeAttributeEntity.setJavaClass(ArrayList.class.getName());
-            }
-            return (Serializable) mapper.readValue(nodeAttributeEntity.getAttributeValue(), attributeType);
+            return attributeValueDecoder.decode(javaClass, value);
         } catch (IOException ex) {
             log.error("Failed to serialize value from persistent content: %s".formatted(ex));
         } catch (ClassNotFoundException e) {
-            log.error("Class %s not found in classpath: %s".formatted(nodeAttributeEntity.getJavaClass(), e.getMessage()));
+            log.error("Class %s not found in classpath: %s".formatted(javaClass, e.getMessage()));
         }
         return null;
     }
@@ -460,18 +1099,25 @@ public class SqlContentDao implements ContentDao {
     }
 
     Content buildNode(NodeEntity nodeEntity, List<NodeAttributeEntity> attributeEntities) {
+        final Content content = createNode(nodeEntity, attributeEntities);
+        // cache record only after the attributes are set so that size-aware caches could estimate it's weight
+        saveContentToCache(content);
+        return content;
+    }
+
+    private Content createNode(NodeEntity nodeEntity, List<NodeAttributeEntity> attributeEntities) {
         // as we call this method from reactive chain there is no success result with null NodeEntity
         final Content content = new Node(nodeEntity.getId());
         content.setEntityType(nodeEntity.getEntityType());
         content.setParentId(nodeEntity.getParentId());
         content.setOwnerId(nodeEntity.getOwnerId());
+        content.setVersion(nodeEntity.getVersion());
         content.setContentPrivileges(new ContentPrivileges());
         setOwnerPrivileges(nodeEntity, content);
         setOtherPrivileges(nodeEntity, content);
         setRolePrivileges(nodeEntity, content);
-        saveContentToCache(content);
 
-        attributeEntities.forEach(nodeAttributeEntity -> addNodeAttributeToContent(content, nodeAttributeEntity));
+        content.setAttributes(getContentAttributes(attributeEntities));
         return content;
     }
 
@@ -42,7 +42,7 @@ public class SqlUserDao implements UserDao {
 
     private final Log log = LogFactory.getLog(getClass());
 
-    private final ObjectMapper mapper;
+    private final AttributeValueDecoder attributeValueDecoder;
     private final ReactiveUserEntityRepository userEntityRepository;
     private final ReactiveUserAttributeEntityRepository userAttributeEntityRepository;
     private final ReactiveRoleByUserEntityRepository roleByUserEntityRepository;
@@ -60,7 +60,7 @@ public class SqlUserDao implements UserDao {
                       ReactiveUserEntityRepository userEntityRepository,
                       ReactiveUserAttributeEntityRepository userAttributeEntityRepository,
                       ReactiveRoleByUserEntityRepository reactiveRoleByUserEntityRepository) {
-        this.mapper = objectMapper;
+        this.attributeValueDecoder = new AttributeValueDecoder(objectMapper);
         this.userEntityRepository = userEntityRepository;
         this.userAttributeEntityRepository = userAttributeEntityRepository;
         this.roleByUserEntityRepository = reactiveRoleByUserEntityRepository;
@@ -222,11 +222,7 @@ public class SqlUserDao implements UserDao {
 
     private Serializable getUserAttribute(UserAttributeEntity userAttributeEntity) {
         try {
-            Class<?> attributeType = Class.forName(userAttributeEntity.getJavaClass());
-            if (List.class.isAssignableFrom(attributeType) || userAttributeEntity.getJavaClass().contains("$ArrayList")) {
-                userAttributeEntity.setJavaClass(ArrayList.class.getName());
-            }
-            return (Serializable) mapper.readValue(userAttributeEntity.getAttributeValue(), attributeType);
+            return attributeValueDecoder.decode(userAttributeEntity.getJavaClass(), userAttributeEntity.getAttributeValue());
         } catch (IOException ex) {
             log.error("Failed to serialize value from persistent content: %s".formatted(ex));
         } catch (ClassNotFoundException e) {
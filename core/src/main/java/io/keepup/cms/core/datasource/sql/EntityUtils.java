@@ -1,13 +1,16 @@
 package io.keepup.cms.core.datasource.sql;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.lang3.ClassUtils;
 import org.apache.commons.logging.LogFactory;
 
 import java.io.IOException;
 import java.io.Serializable;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 /**
  * Helper with static methods for some utility purposes
@@ -17,6 +20,9 @@ import java.util.Date;
  */
 public final class EntityUtils {
 
+    private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+
     private EntityUtils() {}
 
     /**
@@ -41,6 +47,45 @@ public final class EntityUtils {
         }
     }
 
+    /**
+     * Calculates 64-bit FNV-1a hash of the serialized attribute value. The hash is stored next to the value
+     * and lets equality lookups use an index instead of comparing the byte arrays of every attribute with the
+     * same key. As hashes can collide, the value itself still has to be compared.
+     *
+     * @param value serialized attribute value
+     * @return      hash of the value or null if the value is null
+     */
+    public static Long hash(byte[] value) {
+        if (value == null) {
+            return null;
+        }
+        var hash = FNV_OFFSET_BASIS;
+        for (byte b : value) {
+            hash ^= b & 0xFF;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Collects the names of the superclasses and interfaces of the entity class, the names are written the same way
+     * as entity types are and {@link Object} is skipped. Used to fill the type hierarchy of the content records.
+     *
+     * @param type entity class
+     * @return     names of the types the class is assignable to, excluding the class itself
+     */
+    public static List<String> getSupertypeNames(Class<?> type) {
+        final List<String> typeNames = new ArrayList<>();
+        ClassUtils.getAllSuperclasses(type).stream()
+                .filter(superclass -> !Object.class.equals(superclass))
+                .map(Class::getTypeName)
+                .forEach(typeNames::add);
+        ClassUtils.getAllInterfaces(type).stream()
+                .map(Class::getTypeName)
+                .forEach(typeNames::add);
+        return typeNames;
+    }
+
     /**
      * Date to {@link LocalDate} converter, useful for storing dates in databases.
      *
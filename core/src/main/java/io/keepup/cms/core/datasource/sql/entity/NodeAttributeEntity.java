@@ -1,6 +1,7 @@
 package io.keepup.cms.core.datasource.sql.entity;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.keepup.cms.core.datasource.sql.EntityUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.data.annotation.Id;
@@ -9,7 +10,9 @@ import javax.persistence.*;
 import java.io.IOException;
 import java.io.Serial;
 import java.io.Serializable;
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Date;
 
 import static io.keepup.cms.core.datasource.sql.EntityUtils.convertToLocalDateViaInstant;
@@ -26,7 +29,10 @@ import static org.apache.commons.lang3.StringUtils.EMPTY;
 @org.springframework.data.relational.core.mapping.Table
 @Table(name = "node_attribute", indexes = {
         @Index(name = "IDX_ATTRIBUTE_ID", columnList = "id"),
-        @Index(name = "IDX_CONTENT_ID", columnList = "content_id")})
+        @Index(name = "IDX_CONTENT_ID", columnList = "content_id"),
+        @Index(name = "IDX_ATTRIBUTE_KEY_CONTENT_ID", columnList = "attribute_key, content_id"),
+        @Index(name = "IDX_ATTRIBUTE_VALUE_HASH", columnList = "attribute_key, attribute_value_hash")},
+        uniqueConstraints = @UniqueConstraint(name = "UQ_ATTRIBUTE_CONTENT_ID_KEY", columnNames = {"content_id", "attribute_key"}))
 public class NodeAttributeEntity extends AbstractEntityAttribute {
 
     @Serial
@@ -45,6 +51,31 @@ public class NodeAttributeEntity extends AbstractEntityAttribute {
      */
     @Column(name = "content_id", nullable = false)
     private Long contentId;
+    /**
+     * Attribute value if it is a string, see {@link TypedAttributeColumn#STRING}
+     */
+    @Column(name = "string_value", length = TypedAttributeColumn.MAX_STRING_LENGTH)
+    private String stringValue;
+    /**
+     * Attribute value if it is a number, see {@link TypedAttributeColumn#NUMBER}
+     */
+    @Column(name = "number_value")
+    private BigDecimal numberValue;
+    /**
+     * Attribute value if it is a boolean, see {@link TypedAttributeColumn#BOOLEAN}
+     */
+    @Column(name = "boolean_value")
+    private Boolean booleanValue;
+    /**
+     * Attribute value if it is a date, see {@link TypedAttributeColumn#DATE}
+     */
+    @Column(name = "date_value")
+    private LocalDateTime dateValue;
+    /**
+     * Hash of serialized attribute value, used for equality lookups, see {@link EntityUtils#hash(byte[])}
+     */
+    @Column(name = "attribute_value_hash")
+    private Long attributeValueHash;
 
     /**
      * Default constructor, no additional logic is implemented.
@@ -71,6 +102,7 @@ public class NodeAttributeEntity extends AbstractEntityAttribute {
             try {
                 setAttributeValue(mapper.writeValueAsBytes(value));
                 setJavaClass(value.getClass().toString().substring(6));
+                setTypedValue(value);
             } catch (IOException ex) {
                 getLog().error("Unable to convert attribute value o byte array: %s".formatted(ex.getMessage()));
                 setDefaultValue();
@@ -127,6 +159,131 @@ public class NodeAttributeEntity extends AbstractEntityAttribute {
         this.contentId = contentId;
     }
 
+    /**
+     * Set serialized to byte array value of the attribute and calculate its hash.
+     *
+     * @param attributeValue serialized to byte array attribute value
+     */
+    @Override
+    public void setAttributeValue(byte[] attributeValue) {
+        super.setAttributeValue(attributeValue);
+        attributeValueHash = EntityUtils.hash(attributeValue);
+    }
+
+    /**
+     * Get hash of serialized attribute value.
+     *
+     * @return attribute value hash or null if it was not calculated
+     */
+    public Long getAttributeValueHash() {
+        return attributeValueHash;
+    }
+
+    /**
+     * Set hash of serialized attribute value.
+     *
+     * @param attributeValueHash attribute value hash
+     */
+    public void setAttributeValueHash(Long attributeValueHash) {
+        this.attributeValueHash = attributeValueHash;
+    }
+
+    /**
+     * Fills the typed column matching the value type and clears the others, so the attribute can be found
+     * with equality and range predicates.
+     *
+     * @param value attribute value
+     */
+    public void setTypedValue(Serializable value) {
+        stringValue = null;
+        numberValue = null;
+        booleanValue = null;
+        dateValue = null;
+        var column = TypedAttributeColumn.of(value);
+        if (column == null) {
+            return;
+        }
+        var typedValue = column.convert(value);
+        switch (column) {
+            case STRING -> stringValue = (String) typedValue;
+            case NUMBER -> numberValue = (BigDecimal) typedValue;
+            case BOOLEAN -> booleanValue = (Boolean) typedValue;
+            case DATE -> dateValue = (LocalDateTime) typedValue;
+        }
+    }
+
+    /**
+     * Get attribute value stored in string column.
+     *
+     * @return string value or null if attribute is not a string
+     */
+    public String getStringValue() {
+        return stringValue;
+    }
+
+    /**
+     * Set attribute value stored in string column.
+     *
+     * @param stringValue string value
+     */
+    public void setStringValue(String stringValue) {
+        this.stringValue = stringValue;
+    }
+
+    /**
+     * Get attribute value stored in number column.
+     *
+     * @return number value or null if attribute is not a number
+     */
+    public BigDecimal getNumberValue() {
+        return numberValue;
+    }
+
+    /**
+     * Set attribute value stored in number column.
+     *
+     * @param numberValue number value
+     */
+    public void setNumberValue(BigDecimal numberValue) {
+        this.numberValue = numberValue;
+    }
+
+    /**
+     * Get attribute value stored in boolean column.
+     *
+     * @return boolean value or null if attribute is not a boolean
+     */
+    public Boolean getBooleanValue() {
+        return booleanValue;
+    }
+
+    /**
+     * Set attribute value stored in boolean column.
+     *
+     * @param booleanValue boolean value
+     */
+    public void setBooleanValue(Boolean booleanValue) {
+        this.booleanValue = booleanValue;
+    }
+
+    /**
+     * Get attribute value stored in date column.
+     *
+     * @return date value in UTC or null if attribute is not a date
+     */
+    public LocalDateTime getDateValue() {
+        return dateValue;
+    }
+
+    /**
+     * Set attribute value stored in date column.
+     *
+     * @param dateValue date value in UTC
+     */
+    public void setDateValue(LocalDateTime dateValue) {
+        this.dateValue = dateValue;
+    }
+
     @Override
     public final String toString() {
         var stringAttributeValue = EMPTY;
@@ -102,6 +102,16 @@ public class NodeEntity implements Serializable  {
      */
     @Column(name = "entity_type")
     private String entityType;
+    /**
+     * Identifier of the entity Java class in content_type registry, written with the new records only
+     */
+    @Column(name = "entity_type_id")
+    private Integer entityTypeId;
+    /**
+     * Record version, incremented on every update of the record or its attributes
+     */
+    @Column(name = "version", nullable = false)
+    private Long version;
 
     /**
      * Default constructor.
@@ -135,6 +145,8 @@ public class NodeEntity implements Serializable  {
         otherExecutePrivilege = content.getContentPrivileges().getOtherPrivileges().canExecute();
         otherCreateChildrenPrivilege = content.getContentPrivileges().getOtherPrivileges().canCreateChildren();
         setEntityType(content.getEntityType());
+        // entity is created for the new record only
+        version = 0L;
     }
 
     /**
@@ -428,4 +440,40 @@ public class NodeEntity implements Serializable  {
     public void setEntityType(String entityType) {
         this.entityType = entityType;
     }
+
+    /**
+     * Get identifier of the entity type in content_type registry.
+     *
+     * @return entity type identifier, null if the node has no type or the identifier was not fetched
+     */
+    public Integer getEntityTypeId() {
+        return entityTypeId;
+    }
+
+    /**
+     * Set identifier of the entity type in content_type registry.
+     *
+     * @param entityTypeId entity type identifier
+     */
+    public void setEntityTypeId(Integer entityTypeId) {
+        this.entityTypeId = entityTypeId;
+    }
+
+    /**
+     * Get record version.
+     *
+     * @return record version, null if the version was not fetched
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Set record version.
+     *
+     * @param version record version
+     */
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,129 @@
+package io.keepup.cms.core.datasource.sql.entity;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+/**
+ * Typed columns of node_attribute table. Besides the JSON representation, values of primitive types are
+ * written to one of these columns, so the records can be filtered by attribute values with equality and
+ * range predicates served by indexes. Numbers of all types share the same exact decimal column, so integral
+ * and fractional values are compared with each other without loss of precision.
+ *
+ * @author Fedor Sergeev
+ * @since 2.0.0
+ */
+public enum TypedAttributeColumn {
+    /**
+     * Strings not longer than {@link #MAX_STRING_LENGTH}
+     */
+    STRING("string_value"),
+    /**
+     * Integral, floating point and decimal numbers, stored as exact decimals. Not finite floating point
+     * numbers have no typed representation.
+     */
+    NUMBER("number_value"),
+    /**
+     * Boolean values
+     */
+    BOOLEAN("boolean_value"),
+    /**
+     * Dates and timestamps, stored in UTC
+     */
+    DATE("date_value");
+
+    /**
+     * Maximum length of string stored in {@link #STRING} column, longer strings are kept in JSON only
+     */
+    public static final int MAX_STRING_LENGTH = 1024;
+
+    private final String columnName;
+
+    TypedAttributeColumn(String columnName) {
+        this.columnName = columnName;
+    }
+
+    /**
+     * Get the name of database column.
+     *
+     * @return column name
+     */
+    public String getColumnName() {
+        return columnName;
+    }
+
+    /**
+     * Finds the column for the attribute value.
+     *
+     * @param value attribute value
+     * @return      column which can store the value or null if the value has no typed representation
+     */
+    @Nullable
+    public static TypedAttributeColumn of(@Nullable Object value) {
+        if (value instanceof String string) {
+            return string.length() <= MAX_STRING_LENGTH ? STRING : null;
+        }
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte
+                || value instanceof BigInteger || value instanceof BigDecimal) {
+            return NUMBER;
+        }
+        if (value instanceof Double number) {
+            return number.isNaN() || number.isInfinite() ? null : NUMBER;
+        }
+        if (value instanceof Float number) {
+            return number.isNaN() || number.isInfinite() ? null : NUMBER;
+        }
+        if (value instanceof Boolean) {
+            return BOOLEAN;
+        }
+        if (value instanceof Date || value instanceof LocalDate || value instanceof LocalDateTime || value instanceof Instant) {
+            return DATE;
+        }
+        return null;
+    }
+
+    /**
+     * Converts attribute value to the type of the column.
+     *
+     * @param value attribute value of the type supported by the column
+     * @return      value to be stored in the column
+     */
+    public Object convert(Object value) {
+        return switch (this) {
+            case STRING, BOOLEAN -> value;
+            case NUMBER -> toBigDecimal((Number) value);
+            case DATE -> toLocalDateTime(value);
+        };
+    }
+
+    private static BigDecimal toBigDecimal(Number value) {
+        if (value instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        if (value instanceof BigInteger integer) {
+            return new BigDecimal(integer);
+        }
+        // decimal representation of float is used, so 0.1f is stored as 0.1 like 0.1d
+        if (value instanceof Float || value instanceof Double) {
+            return new BigDecimal(value.toString());
+        }
+        return BigDecimal.valueOf(value.longValue());
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof LocalDateTime localDateTime) {
+            return localDateTime;
+        }
+        if (value instanceof LocalDate localDate) {
+            return localDate.atStartOfDay();
+        }
+        var instant = value instanceof Date date ? date.toInstant() : (Instant) value;
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+}
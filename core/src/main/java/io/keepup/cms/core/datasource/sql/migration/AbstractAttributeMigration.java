@@ -0,0 +1,120 @@
+package io.keepup.cms.core.datasource.sql.migration;
+
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.SetupException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Base of the database migrations which recalculate derived columns of the existing node_attribute rows from
+ * the stored attribute values, e.g. when the new derived column is added. Values are read and rows are updated
+ * by windows of {@link #WINDOW_SIZE} rows ordered by identifier, so the whole table is never kept in memory.
+ * The migration runs in the transaction of the changeset.
+ *
+ * @author Fedor Sergeev
+ * @since 2.0.0
+ */
+abstract class AbstractAttributeMigration implements CustomTaskChange {
+
+    /**
+     * Maximum number of rows read and updated by a single statement
+     */
+    static final int WINDOW_SIZE = 500;
+    private static final String SELECT_ATTRIBUTES = "SELECT id, java_class, attribute_value FROM keepup.node_attribute " +
+            "WHERE id > ? ORDER BY id LIMIT " + WINDOW_SIZE;
+
+    /**
+     * Instance logger
+     */
+    protected final Log log = LogFactory.getLog(getClass());
+    private int updatedRows;
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        var connection = (JdbcConnection) database.getConnection();
+        try (var select = connection.prepareStatement(SELECT_ATTRIBUTES);
+             var update = connection.prepareStatement(getUpdateStatement())) {
+            var lastId = Long.MIN_VALUE;
+            var windowSize = WINDOW_SIZE;
+            while (windowSize == WINDOW_SIZE) {
+                windowSize = 0;
+                select.setLong(1, lastId);
+                try (var rows = select.executeQuery()) {
+                    while (rows.next()) {
+                        lastId = rows.getLong("id");
+                        windowSize++;
+                        if (bindValues(update, rows.getString("java_class"), rows.getBytes("attribute_value"))) {
+                            update.setLong(getIdParameterIndex(), lastId);
+                            update.addBatch();
+                        }
+                    }
+                }
+                if (windowSize > 0) {
+                    for (int count : update.executeBatch()) {
+                        updatedRows += Math.max(count, 0);
+                    }
+                }
+            }
+            log.info("%d node_attribute rows updated by %s".formatted(updatedRows, getClass().getSimpleName()));
+        } catch (DatabaseException | SQLException ex) {
+            throw new CustomChangeException("Failed to update node_attribute rows: %s".formatted(ex.getMessage()), ex);
+        }
+    }
+
+    /**
+     * Statement updating the derived columns of node_attribute row, the last parameter is the row identifier.
+     *
+     * @return UPDATE statement
+     */
+    protected abstract String getUpdateStatement();
+
+    /**
+     * Binds the derived column values of the row to the update statement, all the parameters except for
+     * the row identifier have to be bound.
+     *
+     * @param update    update statement
+     * @param javaClass name of the attribute value class
+     * @param value     serialized attribute value
+     * @return          false if the row has to be kept as it is
+     * @throws SQLException if parameters cannot be bound
+     */
+    protected abstract boolean bindValues(PreparedStatement update, @Nullable String javaClass, @Nullable byte[] value)
+            throws SQLException;
+
+    /**
+     * Get the index of row identifier parameter of the update statement.
+     *
+     * @return parameter index starting from 1
+     */
+    protected abstract int getIdParameterIndex();
+
+    @Override
+    public String getConfirmationMessage() {
+        return "%d node_attribute rows updated".formatted(updatedRows);
+    }
+
+    @Override
+    public void setUp() throws SetupException {
+        // no parameters
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+        // no resources are read
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        return new ValidationErrors();
+    }
+}
@@ -0,0 +1,38 @@
+package io.keepup.cms.core.datasource.sql.migration;
+
+import io.keepup.cms.core.datasource.sql.EntityUtils;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Fills attribute_value_hash column of the node_attribute rows saved before the column was added, so the lookups
+ * by attribute value can always use the hash index, see {@link EntityUtils#hash(byte[])}.
+ *
+ * @author Fedor Sergeev
+ * @since 2.0.0
+ */
+public class AttributeValueHashMigration extends AbstractAttributeMigration {
+
+    @Override
+    protected String getUpdateStatement() {
+        return "UPDATE keepup.node_attribute SET attribute_value_hash = ? WHERE id = ?";
+    }
+
+    @Override
+    protected int getIdParameterIndex() {
+        return 2;
+    }
+
+    @Override
+    protected boolean bindValues(PreparedStatement update, @Nullable String javaClass, @Nullable byte[] value)
+            throws SQLException {
+        var hash = EntityUtils.hash(value);
+        if (hash == null) {
+            return false;
+        }
+        update.setLong(1, hash);
+        return true;
+    }
+}
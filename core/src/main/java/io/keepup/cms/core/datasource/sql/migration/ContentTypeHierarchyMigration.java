@@ -0,0 +1,103 @@
+package io.keepup.cms.core.datasource.sql.migration;
+
+import io.keepup.cms.core.datasource.sql.EntityUtils;
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.SetupException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.util.ClassUtils;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Links the entity classes registered in content_type table to all their superclasses and interfaces. The registry
+ * backfill only knows the interfaces linked by entity_classes table, so the records saved before the registry was
+ * introduced would not be found by their superclasses. Classes which cannot be loaded are kept as they are and get
+ * their supertypes when they are registered by the application.
+ *
+ * @author Fedor Sergeev
+ * @since 2.0.0
+ */
+public class ContentTypeHierarchyMigration implements CustomTaskChange {
+
+    private static final String SELECT_TYPES = "SELECT class_name FROM keepup.content_type";
+    private static final String INSERT_TYPE = "INSERT INTO keepup.content_type (class_name) VALUES (?)";
+    private static final String INSERT_SUPERTYPE = "INSERT INTO keepup.content_type_hierarchy (type_id, supertype_id) " +
+            "SELECT content_type.id, supertype.id FROM keepup.content_type AS content_type " +
+            "JOIN keepup.content_type AS supertype ON supertype.class_name = ? " +
+            "WHERE content_type.class_name = ? " +
+            "AND NOT EXISTS (SELECT 1 FROM keepup.content_type_hierarchy AS hierarchy " +
+            "                WHERE hierarchy.type_id = content_type.id AND hierarchy.supertype_id = supertype.id)";
+
+    private final Log log = LogFactory.getLog(getClass());
+    private int linkedTypes;
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        var connection = (JdbcConnection) database.getConnection();
+        try (var select = connection.prepareStatement(SELECT_TYPES);
+             var insertType = connection.prepareStatement(INSERT_TYPE);
+             var insertSupertype = connection.prepareStatement(INSERT_SUPERTYPE)) {
+            final Set<String> classNames = new LinkedHashSet<>();
+            try (var rows = select.executeQuery()) {
+                while (rows.next()) {
+                    classNames.add(rows.getString("class_name"));
+                }
+            }
+            for (String className : List.copyOf(classNames)) {
+                for (String supertype : getSupertypeNames(className)) {
+                    if (classNames.add(supertype)) {
+                        insertType.setString(1, supertype);
+                        insertType.executeUpdate();
+                    }
+                    insertSupertype.setString(1, supertype);
+                    insertSupertype.setString(2, className);
+                    linkedTypes += insertSupertype.executeUpdate();
+                }
+            }
+            log.info(getConfirmationMessage());
+        } catch (DatabaseException | SQLException ex) {
+            throw new CustomChangeException("Failed to update content type hierarchy: %s".formatted(ex.getMessage()), ex);
+        }
+    }
+
+    private List<String> getSupertypeNames(String className) {
+        try {
+            var type = ClassUtils.forName(className, Thread.currentThread().getContextClassLoader());
+            return EntityUtils.getSupertypeNames(type);
+        } catch (ClassNotFoundException | LinkageError e) {
+            log.debug("Class %s is not found, its supertypes are not linked: %s".formatted(className, e.toString()));
+            return new ArrayList<>();
+        }
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "%d supertypes linked to the registered content types".formatted(linkedTypes);
+    }
+
+    @Override
+    public void setUp() throws SetupException {
+        // no parameters
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+        // no resources are read
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        return new ValidationErrors();
+    }
+}
@@ -0,0 +1,88 @@
+package io.keepup.cms.core.datasource.sql.migration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.keepup.cms.core.datasource.sql.entity.NodeAttributeEntity;
+import io.keepup.cms.core.datasource.sql.entity.TypedAttributeColumn;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * Fills typed columns of the existing node_attribute rows, see {@link TypedAttributeColumn}. Values are decoded
+ * from JSON by the class stored in java_class column, only the classes having typed representation are read.
+ * Rows which values cannot be decoded keep empty typed columns and are found by the JSON value only.
+ *
+ * @author Fedor Sergeev
+ * @since 2.0.0
+ */
+public class TypedAttributeValueMigration extends AbstractAttributeMigration {
+
+    private static final Map<String, Class<?>> TYPED_CLASSES = Stream.of(String.class, Long.class, Integer.class,
+                    Short.class, Byte.class, Double.class, Float.class, BigDecimal.class, BigInteger.class, Boolean.class,
+                    Date.class, LocalDate.class, LocalDateTime.class, Instant.class)
+            .collect(toMap(Class::getName, Function.identity()));
+
+    private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+
+    @Override
+    protected String getUpdateStatement() {
+        return "UPDATE keepup.node_attribute SET string_value = ?, number_value = ?, boolean_value = ?, date_value = ? " +
+                "WHERE id = ?";
+    }
+
+    @Override
+    protected int getIdParameterIndex() {
+        return 5;
+    }
+
+    @Override
+    protected boolean bindValues(PreparedStatement update, @Nullable String javaClass, @Nullable byte[] value)
+            throws SQLException {
+        var typedValue = decode(javaClass, value);
+        if (typedValue == null) {
+            return false;
+        }
+        var entity = new NodeAttributeEntity();
+        entity.setTypedValue(typedValue);
+        update.setString(1, entity.getStringValue());
+        update.setBigDecimal(2, entity.getNumberValue());
+        if (entity.getBooleanValue() == null) {
+            update.setNull(3, Types.BOOLEAN);
+        } else {
+            update.setBoolean(3, entity.getBooleanValue());
+        }
+        update.setTimestamp(4, entity.getDateValue() == null ? null : Timestamp.valueOf(entity.getDateValue()));
+        return true;
+    }
+
+    @Nullable
+    private Serializable decode(@Nullable String javaClass, @Nullable byte[] value) {
+        var valueClass = javaClass == null ? null : TYPED_CLASSES.get(javaClass);
+        if (valueClass == null || value == null || value.length == 0) {
+            return null;
+        }
+        try {
+            var decoded = (Serializable) mapper.readValue(value, valueClass);
+            return TypedAttributeColumn.of(decoded) == null ? null : decoded;
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Value of class %s cannot be decoded: %s".formatted(javaClass, ex.toString()));
+            return null;
+        }
+    }
+}
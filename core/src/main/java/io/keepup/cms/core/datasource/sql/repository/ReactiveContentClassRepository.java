@@ -2,28 +2,39 @@ package io.keepup.cms.core.datasource.sql.repository;
 
 import io.keepup.cms.core.datasource.sql.entity.ContentClass;
 import io.keepup.cms.core.datasource.sql.entity.NodeEntity;
+import org.springframework.data.r2dbc.repository.Modifying;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
 
 /**
  * DAO for linkages between {@link io.keepup.cms.core.persistence.Content} records and it's classes.
- * Used for cases when we save {@link io.keepup.cms.core.persistence.Content} item as interface type
+ * Used for cases when we save {@link io.keepup.cms.core.persistence.Content} item as interface type.
+ * <p>
+ * Classes of the new records are resolved by content_type registry, ENTITY_CLASSES table keeps the links
+ * created by the previous versions only, they are copied to the registry by the database migration.
  *
  * @author Fedor Sergeev
  * @since 2.0.0
  */
 public interface ReactiveContentClassRepository extends ReactiveCrudRepository<ContentClass, Long> {
     /**
-     * Finds all links between {@link NodeEntity} and Java classes representing business entity by entity ID.
+     * Finds all Java classes the {@link NodeEntity} type is assignable to by entity ID, the entity type itself
+     * is included. Classes are read from content_type registry, identifier of the link is the class identifier
+     * in the registry.
      *
      * @param contentId Content record identifier
      * @return          Publisher which emit all the {@link ContentClass} records with the specified content record ID.
      */
-    @Query("SELECT id, content_id, class_name FROM ENTITY_CLASSES " +
-           "AS content_class " +
-           "WHERE content_class.content_id = :contentId")
+    @Query("SELECT CAST(supertype.id AS BIGINT) AS id, node.id AS content_id, supertype.class_name " +
+           "FROM node_entity AS node " +
+           "JOIN content_type_hierarchy AS hierarchy ON hierarchy.type_id = node.entity_type_id " +
+           "JOIN content_type AS supertype ON supertype.id = hierarchy.supertype_id " +
+           "WHERE node.id = :contentId")
     Flux<ContentClass> findAllByContentId(@Param("contentId") Long contentId);
 
     /**
@@ -35,4 +46,15 @@ public interface ReactiveContentClassRepository extends ReactiveCrudRepository<C
     @Query("DELETE FROM ENTITY_CLASSES " +
            "WHERE content_id = :contentId")
     Flux<Void> deleteByContentId(@Param("contentId") Long contentId);
+
+    /**
+     * Deletes links between Java classes and the records with the specified identifiers by a single statement.
+     *
+     * @param contentIds Content record identifiers
+     * @return           Publisher emitting the number of deleted links
+     */
+    @Modifying
+    @Query("DELETE FROM ENTITY_CLASSES " +
+           "WHERE content_id IN (:contentIds)")
+    Mono<Integer> deleteByContentIds(@Param("contentIds") Collection<Long> contentIds);
 }
@@ -10,6 +10,7 @@ import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -21,6 +22,21 @@ import java.util.List;
 @Repository
 public interface ReactiveNodeAttributeEntityRepository extends ReactiveCrudRepository<NodeAttributeEntity, Long> {
 
+    /**
+     * Query for attributes of the child records which contain the specified attribute name and value,
+     * see {@link #findAllByParentIdAndAttributeNameAndContentId(Long, String, byte[], Long)}
+     */
+    String FIND_BY_PARENT_ID_AND_ATTRIBUTE_VALUE = "SELECT attribute.id, attribute.content_id, attribute.attribute_key, attribute.attribute_value, attribute.java_class " +
+            "FROM node_entity AS node " +
+            "INNER JOIN node_attribute AS matched " +
+            "    ON matched.content_id = node.id " +
+            "    AND matched.attribute_key = :attributeName " +
+            "    AND matched.attribute_value_hash = :attributeValueHash " +
+            "    AND matched.attribute_value = :attributeValue " +
+            "INNER JOIN node_attribute AS attribute " +
+            "    ON attribute.content_id = node.id " +
+            "WHERE node.parent_id = :parentId";
+
     /**
      * Find all attributes by {@link io.keepup.cms.core.datasource.sql.entity.NodeEntity} primary identifier.
      *
@@ -29,6 +45,33 @@ public interface ReactiveNodeAttributeEntityRepository extends ReactiveCrudRepos
      */
     Flux<NodeAttributeEntity> findAllByContentId(Long contentId);
 
+    /**
+     * Find all attributes of the several {@link io.keepup.cms.core.datasource.sql.entity.NodeEntity} records with
+     * a single query. Used for batched attribute loading when a number of records are read at once.
+     *
+     * @param contentIds content record identifiers
+     * @return           Publisher emitting found records which belong to any of the specified content records
+     */
+    @Query("SELECT id, content_id, attribute_key, attribute_value, java_class, creation_time, modification_time " +
+           "FROM node_attribute AS nodeAttribute " +
+           "WHERE nodeAttribute.content_id IN (:contentIds)")
+    Flux<NodeAttributeEntity> findAllByContentIds(@Param("contentIds") Iterable<Long> contentIds);
+
+    /**
+     * Find the specified attributes of the several {@link io.keepup.cms.core.datasource.sql.entity.NodeEntity}
+     * records with a single query. Used for reads projected to the part of attributes, so the other attribute
+     * values are neither transferred nor decoded.
+     *
+     * @param contentIds    content record identifiers
+     * @param attributeKeys keys of the attributes to be fetched, should not be empty
+     * @return              Publisher emitting found attributes with the specified keys
+     */
+    @Query("SELECT id, content_id, attribute_key, attribute_value, java_class, creation_time, modification_time " +
+           "FROM node_attribute AS nodeAttribute " +
+           "WHERE nodeAttribute.attribute_key IN (:attributeKeys) AND nodeAttribute.content_id IN (:contentIds)")
+    Flux<NodeAttributeEntity> findAllByContentIdsAndAttributeKeys(@Param("contentIds") Iterable<Long> contentIds,
+                                                                  @Param("attributeKeys") Collection<String> attributeKeys);
+
     /**
      * Find all {@link NodeAttributeEntity} objects by {@link io.keepup.cms.core.datasource.sql.entity.NodeEntity} ID
      * and attribute key.
@@ -67,24 +110,29 @@ public interface ReactiveNodeAttributeEntityRepository extends ReactiveCrudRepos
 
     /**
      * Finds ALL node attributes for the records witch contain the specified attribute name and value.
+     * Children are joined with the matching attribute served by (attribute_key, attribute_value_hash) and
+     * (attribute_key, content_id) indexes, values are compared only for the records with the same hash.
      *
-     * @param parentId {@link Content} parent id
-     * @param attributeName attribute field name
-     * @param attributeValue attribute field value
+     * @param parentId           {@link Content} parent id
+     * @param attributeName      attribute field name
+     * @param attributeValue     attribute field value
+     * @param attributeValueHash hash of attribute field value, see
+     *                           {@link io.keepup.cms.core.datasource.sql.EntityUtils#hash(byte[])}
      * @return all node attributes for the specified by condition {@link Content} nodes
      */
-    @Query("SELECT id, content_id, attribute_key, attribute_value,  java_class " +
-            "FROM node_attribute AS nodeAttribute " +
-            "WHERE nodeAttribute.content_id " +
-            "IN (SELECT content_id FROM node_attribute " +
-            "    AS attribute  " +
-            "    WHERE attribute.content_id " +
-            "    IN (SELECT id FROM node_entity " +
-            "        AS node " +
-            "        WHERE node.parent_id = :parentId) " +
-            "    AND attribute.attribute_key = :attributeName" +
-            "    AND attribute.attribute_value = :attributeValue)")
+    @Query(FIND_BY_PARENT_ID_AND_ATTRIBUTE_VALUE)
     Flux<NodeAttributeEntity> findAllByParentIdAndAttributeNameAndContentId(@Param("parentId") Long parentId,
                                                                             @Param("attributeName") String attributeName,
-                                                                            @Param("attributeValue")byte[] attributeValue);
+                                                                            @Param("attributeValue") byte[] attributeValue,
+                                                                            @Param("attributeValueHash") Long attributeValueHash);
+
+    /**
+     * Deletes attributes of the records with the specified identifiers by a single statement.
+     *
+     * @param contentIds record identifiers
+     * @return           Mono emitting the number of deleted attributes
+     */
+    @Modifying
+    @Query("DELETE FROM node_attribute WHERE content_id IN (:contentIds)")
+    Mono<Integer> deleteByContentIds(@Param("contentIds") Collection<Long> contentIds);
 }
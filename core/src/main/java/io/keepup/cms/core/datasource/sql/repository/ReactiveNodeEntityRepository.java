@@ -1,6 +1,7 @@
 package io.keepup.cms.core.datasource.sql.repository;
 
 import io.keepup.cms.core.datasource.sql.entity.NodeEntity;
+import org.springframework.data.r2dbc.repository.Modifying;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
@@ -8,6 +9,8 @@ import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+
 /**
  * Reactive data access object for {@link NodeEntity} entities.
  *
@@ -16,6 +19,22 @@ import reactor.core.publisher.Mono;
  */
 @Repository
 public interface ReactiveNodeEntityRepository extends ReactiveCrudRepository<NodeEntity, Long> {
+    /**
+     * Recursive part of descendant queries, collects identifiers and depths of the subtree records
+     */
+    String DESCENDANTS_SUBTREE = "WITH RECURSIVE subtree(id, depth) AS (" +
+            "   SELECT id, 0 FROM node_entity WHERE id = :id" +
+            "   UNION ALL" +
+            "   SELECT node.id, subtree.depth + 1 FROM node_entity AS node" +
+            "      JOIN subtree ON node.parent_id = subtree.id" +
+            "   WHERE subtree.depth < :maxDepth" +
+            ") ";
+    /**
+     * Condition on node_entity table aliased as 'node' selecting the records which entity type is assignable
+     * to the :type class. Types are resolved by content_type registry, so records are filtered by integer identifiers.
+     */
+    String ASSIGNABLE_TO_TYPE = "node.entity_type_id IN (SELECT hierarchy.type_id FROM content_type_hierarchy AS hierarchy " +
+            "WHERE hierarchy.supertype_id = (SELECT content_type.id FROM content_type WHERE content_type.class_name = :type))";
 
     /**
      * Find all {@link NodeEntity} objects by primary identifiers
@@ -25,7 +44,7 @@ public interface ReactiveNodeEntityRepository extends ReactiveCrudRepository<Nod
     @Query("SELECT id, parent_id, owner_id, entity_type," +
             " owner_read_privilege, owner_write_privilege, owner_create_children_privilege, owner_execute_privilege," +
             " role_read_privilege, role_write_privilege, role_create_children_privilege, role_execute_privilege," +
-            " other_read_privilege, other_write_privilege, other_create_children_privilege, other_execute_privilege " +
+            " other_read_privilege, other_write_privilege, other_create_children_privilege, other_execute_privilege, version " +
            "FROM node_entity as node WHERE node.id IN (:ids)")
     Flux<NodeEntity> findByIds(@Param("ids") Iterable<Long> ids);
 
@@ -38,12 +57,13 @@ public interface ReactiveNodeEntityRepository extends ReactiveCrudRepository<Nod
     @Query("SELECT id, parent_id, owner_id, entity_type," +
             " owner_read_privilege, owner_write_privilege, owner_create_children_privilege, owner_execute_privilege," +
             " role_read_privilege, role_write_privilege, role_create_children_privilege, role_execute_privilege," +
-            " other_read_privilege, other_write_privilege, other_create_children_privilege, other_execute_privilege " +
+            " other_read_privilege, other_write_privilege, other_create_children_privilege, other_execute_privilege, version " +
             "FROM node_entity as node WHERE node.parent_id IN (:ids)")
     Flux<NodeEntity> findByParentIds(@Param("ids") Iterable<Long> ids);
 
     /**
-     * Find all records by the parent id and entity type. Use 0 to get the list of root records.
+     * Find all records by the parent id and entity type. Use 0 to get the list of root records. Records of
+     * the classes extending or implementing the type are found as well.
      *
      * @param ids  collection of parent node identifiers
      * @param type entity type (Java class)
@@ -52,16 +72,88 @@ public interface ReactiveNodeEntityRepository extends ReactiveCrudRepository<Nod
     @Query("SELECT id, parent_id, owner_id, entity_type," +
             " owner_read_privilege, owner_write_privilege, owner_create_children_privilege, owner_execute_privilege," +
             " role_read_privilege, role_write_privilege, role_create_children_privilege, role_execute_privilege," +
-            " other_read_privilege, other_write_privilege, other_create_children_privilege, other_execute_privilege " +
+            " other_read_privilege, other_write_privilege, other_create_children_privilege, other_execute_privilege, version " +
            "FROM node_entity " +
            "AS node WHERE node.parent_id IN (:ids) " +
-           "AND (node.entity_type = :type " +
-           "     OR node.id IN (SELECT content_id FROM ENTITY_CLASSES " +
-           "                    WHERE ENTITY_CLASSES.class_name = :type))")
+           "AND " + ASSIGNABLE_TO_TYPE)
     Flux<NodeEntity> findByParentIdsAndType(@Param("ids") Iterable<Long> ids, @Param("type") String type);
 
     /**
-     * Find all records by primary identifier and entity type.
+     * Find {@link NodeEntity} objects by parent identifier having at least one of the specified attributes.
+     *
+     * @param parentId       parent node identifier
+     * @param attributeNames attribute keys
+     * @return               reactive stream publisher emitting all the found {@link NodeEntity} objects
+     */
+    @Query("SELECT id, parent_id, owner_id, entity_type," +
+            " owner_read_privilege, owner_write_privilege, owner_create_children_privilege, owner_execute_privilege," +
+            " role_read_privilege, role_write_privilege, role_create_children_privilege, role_execute_privilege," +
+            " other_read_privilege, other_write_privilege, other_create_children_privilege, other_execute_privilege, version " +
+           "FROM node_entity AS node WHERE node.parent_id = :parentId " +
+           "AND node.id IN (SELECT content_id FROM node_attribute WHERE attribute_key IN (:attributeNames))")
+    Flux<NodeEntity> findByParentIdAndAttributeNames(@Param("parentId") Long parentId,
+                                                     @Param("attributeNames") Collection<String> attributeNames);
+
+    /**
+     * Find the page of records ordered by primary identifier. Records are looked up by the identifier
+     * of the last record from the previous page, so every page is fetched by an index range scan
+     * regardless of its position.
+     *
+     * @param afterId identifier of the last record from the previous page, records with greater identifiers are found
+     * @param limit   maximum number of records to fetch
+     * @return        reactive stream publisher emitting the found {@link NodeEntity} objects ordered by identifier
+     */
+    @Query("SELECT id, parent_id, owner_id, entity_type," +
+            " owner_read_privilege, owner_write_privilege, owner_create_children_privilege, owner_execute_privilege," +
+            " role_read_privilege, role_write_privilege, role_create_children_privilege, role_execute_privilege," +
+            " other_read_privilege, other_write_privilege, other_create_children_privilege, other_execute_privilege, version " +
+            "FROM node_entity AS node WHERE node.id > :afterId " +
+            "ORDER BY node.id LIMIT :limit")
+    Flux<NodeEntity> findAllAfterId(@Param("afterId") Long afterId, @Param("limit") int limit);
+
+    /**
+     * Find the page of records by the parent ids ordered by primary identifier.
+     *
+     * @param ids     collection of parent node identifiers
+     * @param afterId identifier of the last record from the previous page, records with greater identifiers are found
+     * @param limit   maximum number of records to fetch
+     * @return        reactive stream publisher emitting the found {@link NodeEntity} objects ordered by identifier
+     */
+    @Query("SELECT id, parent_id, owner_id, entity_type," +
+            " owner_read_privilege, owner_write_privilege, owner_create_children_privilege, owner_execute_privilege," +
+            " role_read_privilege, role_write_privilege, role_create_children_privilege, role_execute_privilege," +
+            " other_read_privilege, other_write_privilege, other_create_children_privilege, other_execute_privilege, version " +
+            "FROM node_entity AS node WHERE node.parent_id IN (:ids) AND node.id > :afterId " +
+            "ORDER BY node.id LIMIT :limit")
+    Flux<NodeEntity> findByParentIdsAfterId(@Param("ids") Iterable<Long> ids,
+                                            @Param("afterId") Long afterId,
+                                            @Param("limit") int limit);
+
+    /**
+     * Find the page of records by the parent ids and entity type ordered by primary identifier.
+     *
+     * @param ids     collection of parent node identifiers
+     * @param type    entity type (Java class)
+     * @param afterId identifier of the last record from the previous page, records with greater identifiers are found
+     * @param limit   maximum number of records to fetch
+     * @return        reactive stream publisher emitting the found {@link NodeEntity} objects ordered by identifier
+     */
+    @Query("SELECT id, parent_id, owner_id, entity_type," +
+            " owner_read_privilege, owner_write_privilege, owner_create_children_privilege, owner_execute_privilege," +
+            " role_read_privilege, role_write_privilege, role_create_children_privilege, role_execute_privilege," +
+            " other_read_privilege, other_write_privilege, other_create_children_privilege, other_execute_privilege, version " +
+           "FROM node_entity " +
+           "AS node WHERE node.parent_id IN (:ids) " +
+           "AND node.id > :afterId " +
+           "AND " + ASSIGNABLE_TO_TYPE + " " +
+           "ORDER BY node.id LIMIT :limit")
+    Flux<NodeEntity> findByParentIdsAndTypeAfterId(@Param("ids") Iterable<Long> ids,
+                                                   @Param("type") String type,
+                                                   @Param("afterId") Long afterId,
+                                                   @Param("limit") int limit);
+
+    /**
+     * Find the record by primary identifier if its entity type is assignable to the specified one.
      *
      * @param id   entity ID
      * @param type entity type (Java class)
@@ -70,12 +162,10 @@ public interface ReactiveNodeEntityRepository extends ReactiveCrudRepository<Nod
     @Query("SELECT id, parent_id, owner_id, entity_type," +
             " owner_read_privilege, owner_write_privilege, owner_create_children_privilege, owner_execute_privilege," +
             " role_read_privilege, role_write_privilege, role_create_children_privilege, role_execute_privilege," +
-            " other_read_privilege, other_write_privilege, other_create_children_privilege, other_execute_privilege " +
+            " other_read_privilege, other_write_privilege, other_create_children_privilege, other_execute_privilege, version " +
            "FROM node_entity " +
-            "AS node WHERE node.id IN (:ids) " +
-            "AND (node.entity_type = :type " +
-            "     OR node.id IN (SELECT content_id FROM ENTITY_CLASSES " +
-            "                 WHERE ENTITY_CLASSES.class_name = :type))")
+            "AS node WHERE node.id = :id " +
+            "AND " + ASSIGNABLE_TO_TYPE)
     Mono<NodeEntity> findByIdAndType(@Param("id") Long id, @Param("type") String type);
 
     /**
@@ -87,7 +177,7 @@ public interface ReactiveNodeEntityRepository extends ReactiveCrudRepository<Nod
     @Query("SELECT id, parent_id, owner_id, entity_type," +
             " owner_read_privilege, owner_write_privilege, owner_create_children_privilege, owner_execute_privilege," +
             " role_read_privilege, role_write_privilege, role_create_children_privilege, role_execute_privilege," +
-            " other_read_privilege, other_write_privilege, other_create_children_privilege, other_execute_privilege " +
+            " other_read_privilege, other_write_privilege, other_create_children_privilege, other_execute_privilege, version " +
             "FROM node_entity as node WHERE node.id = :id OR node.parent_id = :id")
     Flux<NodeEntity> findByIdOrByParentId(@Param("id") Long id);
 
@@ -102,14 +192,14 @@ public interface ReactiveNodeEntityRepository extends ReactiveCrudRepository<Nod
             "   SELECT id, parent_id, owner_id, entity_type, " +
             "   owner_read_privilege, owner_write_privilege, owner_create_children_privilege, owner_execute_privilege," +
             "   role_read_privilege, role_write_privilege, role_create_children_privilege, role_execute_privilege," +
-            "   other_read_privilege, other_write_privilege, other_create_children_privilege, other_execute_privilege, 1::INT AS depth" +
+            "   other_read_privilege, other_write_privilege, other_create_children_privilege, other_execute_privilege, version, 1::INT AS depth" +
             "   FROM node_entity" +
             "   WHERE id = :id " +
             "   UNION" +
             "   SELECT node_entity.id, node_entity.parent_id, node_entity.owner_id, node_entity.entity_type, " +
             "   node_entity.owner_read_privilege, node_entity.owner_write_privilege, node_entity.owner_create_children_privilege, node_entity.owner_execute_privilege," +
             "   node_entity.role_read_privilege, node_entity.role_write_privilege, node_entity.role_create_children_privilege, node_entity.role_execute_privilege," +
-            "   node_entity.other_read_privilege, node_entity.other_write_privilege, node_entity.other_create_children_privilege, node_entity.other_execute_privilege, 1::INT AS depth " +
+            "   node_entity.other_read_privilege, node_entity.other_write_privilege, node_entity.other_create_children_privilege, node_entity.other_execute_privilege, node_entity.version, 1::INT AS depth " +
             "   FROM node_entity" +
             "      JOIN r" +
             "          ON node_entity.id = r.parent_id AND r.depth < :offset" +
@@ -117,7 +207,211 @@ public interface ReactiveNodeEntityRepository extends ReactiveCrudRepository<Nod
             "SELECT id, parent_id, owner_id, entity_type, " +
             "       owner_read_privilege, owner_write_privilege, owner_create_children_privilege, owner_execute_privilege, " +
             "       role_read_privilege, role_write_privilege, role_create_children_privilege, role_execute_privilege, " +
-            "       other_read_privilege, other_write_privilege, other_create_children_privilege, other_execute_privilege " +
+            "       other_read_privilege, other_write_privilege, other_create_children_privilege, other_execute_privilege, version " +
             "FROM r;")
     Flux<NodeEntity> findContentParents(@Param("id") Long id, @Param("offset") Long offset);
+
+    /**
+     * Finds identifiers of the record and all its descendants with a recursive query.
+     *
+     * @param id identifier of the subtree root record
+     * @return   Flux that publishes identifiers of the subtree records, empty if there is no such record
+     */
+    @Query("WITH RECURSIVE subtree(id) AS (" +
+            "   SELECT id FROM node_entity WHERE id = :id" +
+            "   UNION" +
+            "   SELECT node.id FROM node_entity AS node" +
+            "      JOIN subtree ON node.parent_id = subtree.id" +
+            ") " +
+            "SELECT id FROM subtree")
+    Flux<Long> findSubtreeIds(@Param("id") Long id);
+
+    /**
+     * Deletes the records with the specified identifiers by a single statement.
+     *
+     * @param ids record identifiers
+     * @return    Mono emitting the number of deleted records
+     */
+    @Modifying
+    @Query("DELETE FROM node_entity WHERE id IN (:ids)")
+    Mono<Integer> deleteByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Finds ancestors of the record with a single query to node_closure table. The record itself is stored
+     * in the table as its own ancestor with zero depth.
+     *
+     * @param id       record identifier
+     * @param minDepth minimum distance between the record and the ancestor, 0 includes the record itself
+     * @param maxDepth maximum distance between the record and the ancestor
+     * @return         Flux that publishes found ancestors ordered from the nearest one
+     */
+    @Query("SELECT id, parent_id, owner_id, entity_type," +
+            " owner_read_privilege, owner_write_privilege, owner_create_children_privilege, owner_execute_privilege," +
+            " role_read_privilege, role_write_privilege, role_create_children_privilege, role_execute_privilege," +
+            " other_read_privilege, other_write_privilege, other_create_children_privilege, other_execute_privilege, version " +
+            "FROM node_closure AS closure JOIN node_entity AS node ON node.id = closure.ancestor_id " +
+            "WHERE closure.descendant_id = :id AND closure.depth BETWEEN :minDepth AND :maxDepth " +
+            "ORDER BY closure.depth")
+    Flux<NodeEntity> findAncestors(@Param("id") Long id, @Param("minDepth") long minDepth, @Param("maxDepth") long maxDepth);
+
+    /**
+     * Finds identifiers of the record and all its descendants stored in node_closure table.
+     *
+     * @param id identifier of the subtree root record
+     * @return   Flux that publishes identifiers of the subtree records
+     */
+    @Query("SELECT descendant_id FROM node_closure WHERE ancestor_id = :id")
+    Flux<Long> findClosureSubtreeIds(@Param("id") Long id);
+
+    /**
+     * Counts descendants of the record stored in node_closure table.
+     *
+     * @param id record identifier
+     * @return   Mono emitting the number of descendants, the record itself is not counted
+     */
+    @Query("SELECT count(*) FROM node_closure WHERE ancestor_id = :id AND depth > 0")
+    Mono<Long> countClosureDescendants(@Param("id") Long id);
+
+    /**
+     * Adds the new records to node_closure table: each record is linked to itself and to all the ancestors
+     * of its parent record.
+     *
+     * @param ids identifiers of the records which are not present in node_closure table yet
+     * @return    Mono emitting the number of added links
+     */
+    @Modifying
+    @Query("INSERT INTO node_closure (ancestor_id, descendant_id, depth) " +
+            "SELECT closure.ancestor_id, node.id, closure.depth + 1 " +
+            "FROM node_entity AS node JOIN node_closure AS closure ON closure.descendant_id = node.parent_id " +
+            "WHERE node.id IN (:ids) " +
+            "UNION ALL " +
+            "SELECT id, id, 0 FROM node_entity WHERE id IN (:ids)")
+    Mono<Integer> insertClosures(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Removes links between the subtree of the record and the ancestors of the record, the links inside
+     * the subtree are kept. Should be called before the record is moved to the other parent.
+     *
+     * @param id identifier of the subtree root record
+     * @return   Mono emitting the number of removed links
+     */
+    @Modifying
+    @Query("DELETE FROM node_closure " +
+            "WHERE descendant_id IN (SELECT subtree.descendant_id FROM node_closure AS subtree WHERE subtree.ancestor_id = :id) " +
+            "AND ancestor_id NOT IN (SELECT subtree.descendant_id FROM node_closure AS subtree WHERE subtree.ancestor_id = :id)")
+    Mono<Integer> detachClosureSubtree(@Param("id") Long id);
+
+    /**
+     * Links the subtree of the record to the new parent record and all its ancestors.
+     *
+     * @param id       identifier of the subtree root record
+     * @param parentId identifier of the new parent record
+     * @return         Mono emitting the number of added links
+     */
+    @Modifying
+    @Query("INSERT INTO node_closure (ancestor_id, descendant_id, depth) " +
+            "SELECT ancestors.ancestor_id, subtree.descendant_id, ancestors.depth + subtree.depth + 1 " +
+            "FROM node_closure AS ancestors CROSS JOIN node_closure AS subtree " +
+            "WHERE ancestors.descendant_id = :parentId AND subtree.ancestor_id = :id")
+    Mono<Integer> attachClosureSubtree(@Param("id") Long id, @Param("parentId") Long parentId);
+
+    /**
+     * Removes all the links of the records from node_closure table.
+     *
+     * @param ids record identifiers
+     * @return    Mono emitting the number of removed links
+     */
+    @Modifying
+    @Query("DELETE FROM node_closure WHERE descendant_id IN (:ids) OR ancestor_id IN (:ids)")
+    Mono<Integer> deleteClosures(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Sets the new parent for the record and increments the record version.
+     *
+     * @param id       record identifier
+     * @param parentId identifier of the new parent record
+     * @return         Mono emitting the number of updated records
+     */
+    @Modifying
+    @Query("UPDATE node_entity SET parent_id = :parentId, version = version + 1 WHERE id = :id")
+    Mono<Integer> updateParentId(@Param("id") Long id, @Param("parentId") Long parentId);
+
+    /**
+     * Increments version of the record, should be called by every operation changing the record or its attributes.
+     *
+     * @param id record identifier
+     * @return   Mono emitting the number of updated records
+     */
+    @Modifying
+    @Query("UPDATE node_entity SET version = version + 1 WHERE id = :id")
+    Mono<Integer> incrementVersion(@Param("id") Long id);
+
+    /**
+     * Finds the record and its descendants down to the specified depth with a single recursive query.
+     *
+     * @param id       identifier of the subtree root record
+     * @param maxDepth maximum distance between the root record and the descendant, 0 fetches the root record only
+     * @return         Flux that publishes found records ordered by depth and identifier
+     */
+    @Query(DESCENDANTS_SUBTREE +
+            "SELECT node.id, node.parent_id, node.owner_id, node.entity_type," +
+            " owner_read_privilege, owner_write_privilege, owner_create_children_privilege, owner_execute_privilege," +
+            " role_read_privilege, role_write_privilege, role_create_children_privilege, role_execute_privilege," +
+            " other_read_privilege, other_write_privilege, other_create_children_privilege, other_execute_privilege, version " +
+            "FROM subtree JOIN node_entity AS node ON node.id = subtree.id " +
+            "ORDER BY subtree.depth, node.id")
+    Flux<NodeEntity> findDescendants(@Param("id") Long id, @Param("maxDepth") int maxDepth);
+
+    /**
+     * Finds the record and its descendants of the specified type down to the specified depth with a single
+     * recursive query. Records of other types are traversed but not returned.
+     *
+     * @param id       identifier of the subtree root record
+     * @param maxDepth maximum distance between the root record and the descendant, 0 fetches the root record only
+     * @param type     entity type of the records to be returned, records of its subtypes are returned as well
+     * @return         Flux that publishes found records ordered by depth and identifier
+     */
+    @Query(DESCENDANTS_SUBTREE +
+            "SELECT node.id, node.parent_id, node.owner_id, node.entity_type," +
+            " owner_read_privilege, owner_write_privilege, owner_create_children_privilege, owner_execute_privilege," +
+            " role_read_privilege, role_write_privilege, role_create_children_privilege, role_execute_privilege," +
+            " other_read_privilege, other_write_privilege, other_create_children_privilege, other_execute_privilege, version " +
+            "FROM subtree JOIN node_entity AS node ON node.id = subtree.id " +
+            "WHERE " + ASSIGNABLE_TO_TYPE + " " +
+            "ORDER BY subtree.depth, node.id")
+    Flux<NodeEntity> findDescendantsByType(@Param("id") Long id, @Param("maxDepth") int maxDepth, @Param("type") String type);
+
+    /**
+     * Finds the record and its descendants down to the specified depth with a single query to node_closure table.
+     *
+     * @param id       identifier of the subtree root record
+     * @param maxDepth maximum distance between the root record and the descendant, 0 fetches the root record only
+     * @return         Flux that publishes found records ordered by depth and identifier
+     */
+    @Query("SELECT id, parent_id, owner_id, entity_type," +
+            " owner_read_privilege, owner_write_privilege, owner_create_children_privilege, owner_execute_privilege," +
+            " role_read_privilege, role_write_privilege, role_create_children_privilege, role_execute_privilege," +
+            " other_read_privilege, other_write_privilege, other_create_children_privilege, other_execute_privilege, version " +
+            "FROM node_closure AS closure JOIN node_entity AS node ON node.id = closure.descendant_id " +
+            "WHERE closure.ancestor_id = :id AND closure.depth <= :maxDepth " +
+            "ORDER BY closure.depth, node.id")
+    Flux<NodeEntity> findClosureDescendants(@Param("id") Long id, @Param("maxDepth") int maxDepth);
+
+    /**
+     * Finds the record and its descendants of the specified type down to the specified depth with a single
+     * query to node_closure table.
+     *
+     * @param id       identifier of the subtree root record
+     * @param maxDepth maximum distance between the root record and the descendant, 0 fetches the root record only
+     * @param type     entity type of the records to be returned, records of its subtypes are returned as well
+     * @return         Flux that publishes found records ordered by depth and identifier
+     */
+    @Query("SELECT id, parent_id, owner_id, entity_type," +
+            " owner_read_privilege, owner_write_privilege, owner_create_children_privilege, owner_execute_privilege," +
+            " role_read_privilege, role_write_privilege, role_create_children_privilege, role_execute_privilege," +
+            " other_read_privilege, other_write_privilege, other_create_children_privilege, other_execute_privilege, version " +
+            "FROM node_closure AS closure JOIN node_entity AS node ON node.id = closure.descendant_id " +
+            "WHERE closure.ancestor_id = :id AND closure.depth <= :maxDepth AND " + ASSIGNABLE_TO_TYPE + " " +
+            "ORDER BY closure.depth, node.id")
+    Flux<NodeEntity> findClosureDescendantsByType(@Param("id") Long id, @Param("maxDepth") int maxDepth, @Param("type") String type);
 }
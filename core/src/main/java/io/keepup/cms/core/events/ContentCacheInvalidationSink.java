@@ -0,0 +1,55 @@
+package io.keepup.cms.core.events;
+
+import io.keepup.cms.core.cache.CacheAdapter;
+import io.keepup.cms.core.persistence.Content;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts records from the cache when the cached copy is older than the changed record. Changes made by current
+ * application instance are already applied to the cache by the data access objects, so the sink evicts the records
+ * changed by other instances, see {@link RedisContentEventRelay}, and deleted records.
+ *
+ * @author Fedor Sergeev
+ * @since 2.0.0
+ */
+@Component
+@ConditionalOnProperty(prefix = "keepup.events.cache-invalidation", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ContentCacheInvalidationSink implements ContentChangedEventSink {
+
+    private final Log log = LogFactory.getLog(getClass());
+    private final CacheAdapter cacheAdapter;
+
+    /**
+     * Creates the sink.
+     *
+     * @param cacheAdapter cache adapter
+     */
+    public ContentCacheInvalidationSink(CacheAdapter cacheAdapter) {
+        this.cacheAdapter = cacheAdapter;
+    }
+
+    @Override
+    public void accept(@NotNull ContentChangedEvent event) {
+        if (event.changeType() == ContentChangedEvent.ChangeType.CREATED) {
+            return;
+        }
+        var stale = event.changeType() == ContentChangedEvent.ChangeType.DELETED
+                || cacheAdapter.getContent(event.id())
+                        .filter(cached -> isOlder(cached, event))
+                        .isPresent();
+        if (stale) {
+            log.debug("[NODE#%d] Evicting record from cache after %s event".formatted(event.id(), event.changeType()));
+            cacheAdapter.deleteContent(event.id());
+        }
+    }
+
+    private static boolean isOlder(Content cached, ContentChangedEvent event) {
+        return cached.getVersion() == null
+                || event.version() == null
+                || cached.getVersion() < event.version();
+    }
+}
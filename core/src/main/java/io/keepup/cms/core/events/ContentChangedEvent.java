@@ -0,0 +1,138 @@
+package io.keepup.cms.core.events;
+
+import io.keepup.cms.core.datasource.access.ContentPrivileges;
+import io.keepup.cms.core.datasource.access.Privilege;
+import io.keepup.cms.core.datasource.sql.entity.NodeEntity;
+import io.keepup.cms.core.persistence.Content;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Notification about the change of {@link Content} record published to
+ * {@link ContentEventBus} after the change was written to the data source.
+ *
+ * @param changeType  kind of the change
+ * @param id          record identifier
+ * @param parentId    parent record identifier, null if it is unknown, e.g. for the records removed with subtree
+ * @param entityType  record entity type, null if it is unknown or was not specified
+ * @param changedKeys keys of the created or updated attributes, empty for moved and deleted records
+ * @param version     record version after the change, null for deleted records
+ * @param readAccess  read privileges of the record, null if they are unknown
+ * @param remote      true if the change was made by another application instance
+ * @author Fedor Sergeev
+ * @since 2.0.0
+ */
+public record ContentChangedEvent(@NotNull ChangeType changeType,
+                                  @NotNull Long id,
+                                  @Nullable Long parentId,
+                                  @Nullable String entityType,
+                                  @NotNull Set<String> changedKeys,
+                                  @Nullable Long version,
+                                  @Nullable ReadAccess readAccess,
+                                  boolean remote) {
+
+    /**
+     * Kind of the record change
+     */
+    public enum ChangeType {
+        /**
+         * Record was created
+         */
+        CREATED,
+        /**
+         * Record attributes were updated
+         */
+        UPDATED,
+        /**
+         * Record was moved under another parent
+         */
+        MOVED,
+        /**
+         * Record was deleted
+         */
+        DELETED
+    }
+
+    /**
+     * Read privileges of the changed record, so the event could be delivered only to the users who can read it.
+     *
+     * @param ownerId record owner identifier
+     * @param owner   true if the owner can read the record
+     * @param role    true if the users with the same role as the owner can read the record
+     * @param others  true if anyone can read the record
+     */
+    public record ReadAccess(@Nullable Long ownerId, boolean owner, boolean role, boolean others) {
+
+        static ReadAccess of(@NotNull NodeEntity nodeEntity) {
+            return new ReadAccess(nodeEntity.getOwnerId(), nodeEntity.isOwnerReadPrivilege(),
+                    nodeEntity.isRoleReadPrivilege(), nodeEntity.isOtherReadPrivilege());
+        }
+
+        @Nullable
+        static ReadAccess of(@NotNull Content content) {
+            final ContentPrivileges privileges = content.getContentPrivileges();
+            return privileges == null
+                    ? null
+                    : new ReadAccess(content.getOwnerId(), canRead(privileges.getOwnerPrivileges()),
+                            canRead(privileges.getRolePrivileges()), canRead(privileges.getOtherPrivileges()));
+        }
+
+        private static boolean canRead(@Nullable Privilege privilege) {
+            return privilege != null && privilege.canRead();
+        }
+    }
+
+    /**
+     * Creates the event about the change made by current application instance.
+     *
+     * @param changeType  kind of the change
+     * @param nodeEntity  changed record
+     * @param changedKeys keys of the changed attributes
+     * @return            event
+     */
+    public static ContentChangedEvent of(@NotNull ChangeType changeType, @NotNull NodeEntity nodeEntity,
+                                         @NotNull Collection<String> changedKeys) {
+        return new ContentChangedEvent(changeType, nodeEntity.getId(), nodeEntity.getParentId(),
+                nodeEntity.getEntityType(), Set.copyOf(changedKeys), nodeEntity.getVersion(),
+                ReadAccess.of(nodeEntity), false);
+    }
+
+    /**
+     * Creates the event about the record created by current application instance.
+     *
+     * @param id      identifier of the created record
+     * @param content created record
+     * @return        event
+     */
+    public static ContentChangedEvent created(@NotNull Long id, @NotNull Content content) {
+        var attributes = content.getAttributes();
+        return new ContentChangedEvent(ChangeType.CREATED, id, content.getParentId(), content.getEntityType(),
+                attributes == null ? Set.of() : Set.copyOf(attributes.keySet()), 0L, ReadAccess.of(content), false);
+    }
+
+    /**
+     * Creates the event about the record deleted by current application instance.
+     *
+     * @param id         record identifier
+     * @param nodeEntity deleted record if it was fetched before deletion
+     * @return           event
+     */
+    public static ContentChangedEvent deleted(@NotNull Long id, @Nullable NodeEntity nodeEntity) {
+        return nodeEntity == null
+                ? new ContentChangedEvent(ChangeType.DELETED, id, null, null, Set.of(), null, null, false)
+                : new ContentChangedEvent(ChangeType.DELETED, id, nodeEntity.getParentId(), nodeEntity.getEntityType(),
+                        Set.of(), null, ReadAccess.of(nodeEntity), false);
+    }
+
+    /**
+     * Copies the event received from another application instance.
+     *
+     * @return the same event marked as remote
+     */
+    public ContentChangedEvent asRemote() {
+        return new ContentChangedEvent(changeType, id, parentId, entityType, changedKeys, version, readAccess, true);
+    }
+}
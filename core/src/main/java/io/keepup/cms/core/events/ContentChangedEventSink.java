@@ -0,0 +1,21 @@
+package io.keepup.cms.core.events;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Consumer of {@link ContentChangedEvent} notifications. All the beans implementing this interface are subscribed
+ * to {@link ContentEventBus} on application start. Each sink gets its own bounded buffer and is called on the
+ * separate worker, so slow sinks do not delay the data source operations and each other.
+ *
+ * @author Fedor Sergeev
+ * @since 2.0.0
+ */
+@FunctionalInterface
+public interface ContentChangedEventSink {
+    /**
+     * Handles the record change.
+     *
+     * @param event record change notification
+     */
+    void accept(@NotNull ContentChangedEvent event);
+}
@@ -0,0 +1,137 @@
+package io.keepup.cms.core.events;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-process bus of {@link ContentChangedEvent} notifications. Data access objects publish the events after
+ * the changes are written, subscribers get them via {@link #events()} or by implementing
+ * {@link ContentChangedEventSink}.
+ * <p>
+ * Publishing never blocks the writer: events are delivered to the subscribers having demand, every subscriber
+ * gets the buffer of {@code keepup.events.buffer-size} events, and the oldest events are dropped with a warning
+ * when the subscriber cannot keep up. Events published while there are no subscribers are discarded.
+ *
+ * @author Fedor Sergeev
+ * @since 2.0.0
+ */
+@Service
+public class ContentEventBus implements SmartInitializingSingleton, DisposableBean {
+
+    private static final int DEFAULT_BUFFER_SIZE = 1024;
+    private final Log log = LogFactory.getLog(getClass());
+    private final Sinks.Many<ContentChangedEvent> sink = Sinks.many().multicast().directBestEffort();
+    private final List<Disposable> subscriptions = new CopyOnWriteArrayList<>();
+    private final ObjectProvider<ContentChangedEventSink> eventSinks;
+    private Scheduler scheduler;
+
+    /**
+     * Maximum number of events buffered for the single subscriber
+     */
+    @Value("${keepup.events.buffer-size:" + DEFAULT_BUFFER_SIZE + "}")
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+
+    /**
+     * Creates the bus, sinks are looked up when all the singletons are instantiated, so they can depend on the bus.
+     *
+     * @param eventSinks provider of {@link ContentChangedEventSink} beans
+     */
+    public ContentEventBus(ObjectProvider<ContentChangedEventSink> eventSinks) {
+        this.eventSinks = eventSinks;
+    }
+
+    /**
+     * Publishes the event to all the current subscribers.
+     *
+     * @param event record change notification
+     */
+    public void publish(@NotNull ContentChangedEvent event) {
+        Sinks.EmitResult result;
+        while ((result = sink.tryEmitNext(event)) == Sinks.EmitResult.FAIL_NON_SERIALIZED) {
+            // other thread is emitting at the moment, the emission is short so spin until it finishes
+            Thread.onSpinWait();
+        }
+        if (result.isFailure() && result != Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER) {
+            log.warn("[NODE#%d] Failed to publish %s event: %s".formatted(event.id(), event.changeType(), result));
+        } else if (log.isDebugEnabled()) {
+            log.debug("[NODE#%d] Published %s event".formatted(event.id(), event.changeType()));
+        }
+    }
+
+    /**
+     * Get the stream of events published after the subscription.
+     *
+     * @return publisher of record change notifications with the bounded buffer
+     */
+    public Flux<ContentChangedEvent> events() {
+        return sink.asFlux()
+                .onBackpressureBuffer(Math.max(1, bufferSize),
+                        dropped -> log.warn("[NODE#%d] %s event dropped as subscriber does not keep up"
+                                .formatted(dropped.id(), dropped.changeType())),
+                        BufferOverflowStrategy.DROP_OLDEST);
+    }
+
+    /**
+     * Subscribes the sink to the events, sink is called on the separate worker.
+     *
+     * @param eventSink events consumer
+     * @return          subscription which can be disposed to unsubscribe the sink
+     */
+    public Disposable subscribe(@NotNull ContentChangedEventSink eventSink) {
+        var subscription = events()
+                .publishOn(getScheduler())
+                .subscribe(event -> accept(eventSink, event));
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    /**
+     * Subscribes all the {@link ContentChangedEventSink} beans.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        eventSinks.orderedStream().forEach(this::subscribe);
+    }
+
+    @Override
+    public void destroy() {
+        subscriptions.forEach(Disposable::dispose);
+        subscriptions.clear();
+        if (scheduler != null) {
+            scheduler.dispose();
+        }
+    }
+
+    private synchronized Scheduler getScheduler() {
+        if (scheduler == null) {
+            scheduler = Schedulers.newBoundedElastic(Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE,
+                    Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "keepup-content-events");
+        }
+        return scheduler;
+    }
+
+    private void accept(ContentChangedEventSink eventSink, ContentChangedEvent event) {
+        try {
+            eventSink.accept(event);
+        } catch (Exception ex) {
+            // the failed sink keeps its subscription, next events are still delivered to it
+            log.error("[NODE#%d] Event sink %s failed to handle %s event: %s"
+                    .formatted(event.id(), eventSink.getClass().getName(), event.changeType(), ex.toString()));
+        }
+    }
+}
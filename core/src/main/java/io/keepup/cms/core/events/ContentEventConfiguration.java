@@ -0,0 +1,69 @@
+package io.keepup.cms.core.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Configuration of {@link ContentChangedEvent} sinks which require additional infrastructure. Redis relay is
+ * enabled in 'redis' profile by keepup.events.redis.enabled property.
+ *
+ * @author Fedor Sergeev
+ * @since 2.0.0
+ */
+@Configuration
+public class ContentEventConfiguration {
+
+    private final Log log = LogFactory.getLog(getClass());
+
+    /**
+     * Redis channel used to share content events between application instances
+     */
+    @Value("${keepup.events.redis.channel:keepup:content:events}")
+    private String redisChannel;
+
+    /**
+     * Relay of content events between application instances.
+     *
+     * @param factory  Redis connection factory
+     * @param eventBus local event bus
+     * @param mapper   JSON serializer and deserializer component
+     * @return         relay instance
+     */
+    @Bean
+    @Profile("redis")
+    @ConditionalOnProperty(prefix = "keepup.events.redis", name = "enabled", havingValue = "true")
+    public RedisContentEventRelay redisContentEventRelay(RedisConnectionFactory factory,
+                                                         ContentEventBus eventBus,
+                                                         ObjectMapper mapper) {
+        log.debug("Instantiating Redis content event relay with channel %s".formatted(redisChannel));
+        return new RedisContentEventRelay(eventBus, new StringRedisTemplate(factory), mapper, redisChannel);
+    }
+
+    /**
+     * Subscribes {@link RedisContentEventRelay} to the events of other application instances.
+     *
+     * @param factory Redis connection factory
+     * @param relay   content event relay
+     * @return        listener container
+     */
+    @Bean
+    @Profile("redis")
+    @ConditionalOnProperty(prefix = "keepup.events.redis", name = "enabled", havingValue = "true")
+    public RedisMessageListenerContainer contentEventListenerContainer(RedisConnectionFactory factory,
+                                                                       RedisContentEventRelay relay) {
+        var container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(factory);
+        container.addMessageListener(relay, new ChannelTopic(redisChannel));
+        return container;
+    }
+}
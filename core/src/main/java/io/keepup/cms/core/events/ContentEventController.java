@@ -0,0 +1,119 @@
+package io.keepup.cms.core.events;
+
+import io.keepup.cms.core.datasource.dao.DataSourceFacade;
+import io.keepup.cms.core.persistence.User;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import static java.util.stream.Collectors.toSet;
+
+import static org.springframework.http.MediaType.TEXT_EVENT_STREAM_VALUE;
+
+/**
+ * Streams {@link ContentChangedEvent} notifications to HTTP clients as server-sent events, so they could update
+ * the displayed records instead of polling. Endpoint is enabled by keepup.events.sse.enabled property.
+ * <p>
+ * Events are sent only about the records which can be read by the user of the session: the record is readable by
+ * anyone, by its owner or by the users having a role of the owner according to its read privileges. Events without
+ * known privileges are not sent.
+ *
+ * @author Fedor Sergeev
+ * @since 2.0.0
+ */
+@RestController
+@RequestMapping("/content/events")
+@ConditionalOnProperty(prefix = "keepup.events.sse", name = "enabled", havingValue = "true")
+public class ContentEventController {
+
+    private final ContentEventBus eventBus;
+    private final DataSourceFacade dataSourceFacade;
+
+    /**
+     * Creates the controller.
+     *
+     * @param eventBus         content event bus
+     * @param dataSourceFacade data access object used to read the roles of record owners
+     */
+    public ContentEventController(ContentEventBus eventBus, DataSourceFacade dataSourceFacade) {
+        this.eventBus = eventBus;
+        this.dataSourceFacade = dataSourceFacade;
+    }
+
+    /**
+     * Get the stream of record changes, event name is the change type in lower case, event id is the record
+     * identifier.
+     *
+     * @param parentId if specified, only changes of the records with this parent identifier are sent
+     * @param type     if specified, only changes of the records with this entity type are sent
+     * @return         publisher of server-sent events
+     */
+    @GetMapping(produces = TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<ContentChangedEvent>> streamEvents(@RequestParam(required = false) Long parentId,
+                                                                   @RequestParam(required = false) String type) {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .map(Authentication::getPrincipal)
+                .filter(User.class::isInstance)
+                .map(User.class::cast)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMapMany(user -> eventBus.events()
+                        .filter(event -> parentId == null || parentId.equals(event.parentId()))
+                        .filter(event -> type == null || type.equals(event.entityType()))
+                        .filterWhen(event -> canRead(event.readAccess(), user.orElse(null))))
+                .map(event -> ServerSentEvent.<ContentChangedEvent>builder()
+                        .event(event.changeType().name().toLowerCase(Locale.ROOT))
+                        .id(String.valueOf(event.id()))
+                        .data(event)
+                        .build());
+    }
+
+    private Mono<Boolean> canRead(@Nullable ContentChangedEvent.ReadAccess readAccess, @Nullable User user) {
+        if (readAccess == null) {
+            return Mono.just(false);
+        }
+        if (readAccess.others()) {
+            return Mono.just(true);
+        }
+        if (user == null || readAccess.ownerId() == null) {
+            return Mono.just(false);
+        }
+        if (readAccess.owner() && Objects.equals(readAccess.ownerId(), user.getId())) {
+            return Mono.just(true);
+        }
+        if (!readAccess.role()) {
+            return Mono.just(false);
+        }
+        final Set<String> roles = getRoles(user);
+        return dataSourceFacade.getUser(readAccess.ownerId())
+                .map(owner -> getRoles(owner).stream().anyMatch(roles::contains))
+                .defaultIfEmpty(false);
+    }
+
+    @NotNull
+    private static Set<String> getRoles(@NotNull User user) {
+        return user.getAuthorities() == null
+                ? Set.of()
+                : user.getAuthorities()
+                        .stream()
+                        .map(GrantedAuthority::getAuthority)
+                        .collect(toSet());
+    }
+}
@@ -0,0 +1,85 @@
+package io.keepup.cms.core.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisOperations;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Shares {@link ContentChangedEvent} notifications between application instances via Redis pub/sub. Events
+ * published by current instance are sent to the channel, events received from other instances are published
+ * to the local {@link ContentEventBus} marked as remote, so they are not sent back to the channel.
+ *
+ * @author Fedor Sergeev
+ * @since 2.0.0
+ */
+public class RedisContentEventRelay implements ContentChangedEventSink, MessageListener {
+
+    private final Log log = LogFactory.getLog(getClass());
+    private final String instanceId = UUID.randomUUID().toString();
+    private final ContentEventBus eventBus;
+    private final RedisOperations<String, String> redisOperations;
+    private final ObjectMapper mapper;
+    private final String channel;
+
+    /**
+     * Creates the relay.
+     *
+     * @param eventBus        local event bus
+     * @param redisOperations Redis operations used to publish events
+     * @param mapper          JSON serializer and deserializer component
+     * @param channel         name of the Redis channel for events
+     */
+    public RedisContentEventRelay(@NotNull ContentEventBus eventBus,
+                                  @NotNull RedisOperations<String, String> redisOperations,
+                                  @NotNull ObjectMapper mapper,
+                                  @NotNull String channel) {
+        this.eventBus = eventBus;
+        this.redisOperations = redisOperations;
+        this.mapper = mapper;
+        this.channel = channel;
+    }
+
+    @Override
+    public void accept(@NotNull ContentChangedEvent event) {
+        if (event.remote()) {
+            return;
+        }
+        try {
+            redisOperations.convertAndSend(channel, mapper.writeValueAsString(new RelayedEvent(instanceId, event)));
+        } catch (JsonProcessingException ex) {
+            log.error("[NODE#%d] Failed to serialize %s event: %s".formatted(event.id(), event.changeType(), ex.toString()));
+        }
+    }
+
+    @Override
+    public void onMessage(@NotNull Message message, @Nullable byte[] pattern) {
+        RelayedEvent relayedEvent;
+        try {
+            relayedEvent = mapper.readValue(message.getBody(), RelayedEvent.class);
+        } catch (IOException ex) {
+            log.warn("Received content event of unknown format: %s".formatted(ex.getMessage()));
+            return;
+        }
+        if (instanceId.equals(relayedEvent.origin()) || relayedEvent.event() == null) {
+            return;
+        }
+        eventBus.publish(relayedEvent.event().asRemote());
+    }
+
+    /**
+     * Message sent to Redis channel.
+     *
+     * @param origin identifier of the relay instance which sent the event
+     * @param event  record change notification
+     */
+    record RelayedEvent(String origin, ContentChangedEvent event) {}
+}
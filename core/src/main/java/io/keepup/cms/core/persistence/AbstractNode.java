@@ -2,7 +2,6 @@ package io.keepup.cms.core.persistence;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 
@@ -40,20 +39,25 @@ public abstract class AbstractNode<T> implements BasicEntity<T> {
      */
     @Override
     public T getAttribute(String attrKey) {
-        Map<String, T> attributeNames = new HashMap<>();
-
-        for (Map.Entry<String, T> entry : attributes.entrySet()) {
-            String key = entry.getKey();
+        if (attributes instanceof AttributeKeyResolver resolver) {
+            var key = resolver.resolveKey(attrKey);
+            return key == null ? null : attributes.get(key);
+        }
+        // only keys are looked through, so values of lazily decoded attributes are not touched
+        String foundKey = null;
+        for (String key : attributes.keySet()) {
             String resultKey;
             if (key.contains(".")) {
                 resultKey = key.substring(0, key.indexOf('.'));
             } else {
                 resultKey = key;
             }
-            attributeNames.put(resultKey, attributes.get(key));
+            if (resultKey.equals(attrKey)) {
+                foundKey = key;
+            }
         }
-        if (attributeNames.containsKey(attrKey)) {
-            return attributeNames.get(attrKey);
+        if (foundKey != null) {
+            return attributes.get(foundKey);
         } else if (attributes.containsKey(attrKey)) {
             return attributes.get(attrKey);
         }
@@ -63,7 +67,7 @@ public abstract class AbstractNode<T> implements BasicEntity<T> {
     @Override
     public void setAttribute(final String attrKey, final T attrValue) {
         if (attributes == null)
-            attributes = new HashMap<>();
+            attributes = new CompactAttributeMap<>();
         attributes.put(attrKey, attrValue);
     }
 
@@ -75,7 +79,7 @@ public abstract class AbstractNode<T> implements BasicEntity<T> {
     @Override
     public void addAttributes(Map<String, T> objects) {
         if (attributes == null) {
-            attributes = new HashMap<>();
+            attributes = new CompactAttributeMap<>();
         }
         attributes.putAll(objects);
 
@@ -161,7 +165,7 @@ public abstract class AbstractNode<T> implements BasicEntity<T> {
         if (attrName == null) {
             return attributes.containsKey(null);
         }
-        if (attributes.get(attrName) == null && attrName.contains(".")) {
+        if (!attributes.containsKey(attrName) && attrName.contains(".")) {
             return hasAttribute(attrName.split("\\.")[0]);
         }
         return attributes.containsKey(attrName);
@@ -0,0 +1,21 @@
+package io.keepup.cms.core.persistence;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Attribute container resolving attribute names like {@link AbstractNode#getAttribute(String)} does: the name
+ * without type suffix (eg description) matches the key with the suffix (eg description.html).
+ *
+ * @author Fedor Sergeev
+ * @since 2.0.0
+ */
+interface AttributeKeyResolver {
+    /**
+     * Finds the key of stored attribute for the requested attribute name.
+     *
+     * @param attrKey attribute name with or without type suffix
+     * @return        stored key or null if there is no such attribute
+     */
+    @Nullable
+    String resolveKey(String attrKey);
+}
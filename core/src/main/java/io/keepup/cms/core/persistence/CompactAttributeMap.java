@@ -0,0 +1,389 @@
+package io.keepup.cms.core.persistence;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Attribute container for {@link AbstractNode} records. Attributes are stored in the open addressing table with
+ * linear probing, keys are interned as the same attribute names are repeated in every record of the same type.
+ * <p>
+ * Besides the attributes the map keeps the index of dotted keys by their prefix (eg description for
+ * description.html), so {@link AbstractNode#getAttribute(String)} resolves attribute names with and without
+ * type suffix in constant time without allocations. The index is updated by {@link #put(String, Object)} and
+ * {@link #remove(Object)}, removing the dotted key looks through the map for another key with the same prefix.
+ * <p>
+ * Null keys are not supported. Map is not thread safe for modifications like {@link java.util.HashMap}.
+ *
+ * @param <V> attribute value type
+ * @author Fedor Sergeev
+ * @since 2.0.0
+ */
+public final class CompactAttributeMap<V> extends AbstractMap<String, V> implements AttributeKeyResolver {
+
+    private static final int DEFAULT_EXPECTED_SIZE = 4;
+    private static final int MIN_CAPACITY = 4;
+    private static final Object TOMBSTONE = new Object();
+
+    private final Table attributes;
+    /**
+     * Dotted keys by their prefixes
+     */
+    private final Table prefixes;
+    private Set<Map.Entry<String, V>> entries;
+
+    /**
+     * Creates an empty map.
+     */
+    public CompactAttributeMap() {
+        this(DEFAULT_EXPECTED_SIZE);
+    }
+
+    /**
+     * Creates an empty map sized for the specified number of attributes.
+     *
+     * @param expectedSize expected number of attributes
+     */
+    public CompactAttributeMap(int expectedSize) {
+        attributes = new Table(expectedSize);
+        prefixes = new Table(DEFAULT_EXPECTED_SIZE);
+    }
+
+    /**
+     * Creates a map with the attributes of the specified map.
+     *
+     * @param attributes attributes to be copied
+     */
+    public CompactAttributeMap(@NotNull Map<String, ? extends V> attributes) {
+        this(attributes.size());
+        putAll(attributes);
+    }
+
+    @Nullable
+    @Override
+    public String resolveKey(String attrKey) {
+        if (attrKey == null) {
+            return null;
+        }
+        var slot = attributes.find(attrKey);
+        if (slot >= 0 && attrKey.indexOf('.') < 0) {
+            return (String) attributes.keys[slot];
+        }
+        var dottedKey = (String) prefixes.get(attrKey);
+        if (dottedKey != null) {
+            return dottedKey;
+        }
+        return slot >= 0 ? (String) attributes.keys[slot] : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public V get(Object key) {
+        return key instanceof String attributeKey
+                ? (V) attributes.get(attributeKey)
+                : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String attributeKey && attributes.find(attributeKey) >= 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public V put(String key, V value) {
+        Objects.requireNonNull(key, "Attribute key should not be null");
+        var slot = attributes.find(key);
+        if (slot >= 0) {
+            var previous = attributes.values[slot];
+            attributes.values[slot] = value;
+            return (V) previous;
+        }
+        var internedKey = key.intern();
+        attributes.insert(internedKey, value);
+        addPrefix(internedKey);
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public V remove(Object key) {
+        if (!(key instanceof String attributeKey)) {
+            return null;
+        }
+        var slot = attributes.find(attributeKey);
+        if (slot < 0) {
+            return null;
+        }
+        var previous = attributes.values[slot];
+        removeAt(slot);
+        return (V) previous;
+    }
+
+    @Override
+    public int size() {
+        return attributes.size;
+    }
+
+    @Override
+    public void clear() {
+        attributes.clear();
+        prefixes.clear();
+    }
+
+    @NotNull
+    @Override
+    public Set<Map.Entry<String, V>> entrySet() {
+        if (entries == null) {
+            entries = new EntrySet();
+        }
+        return entries;
+    }
+
+    private void removeAt(int slot) {
+        var key = (String) attributes.keys[slot];
+        attributes.removeAt(slot);
+        removePrefix(key);
+    }
+
+    private void addPrefix(String key) {
+        var dot = key.indexOf('.');
+        if (dot > 0) {
+            prefixes.put(key.substring(0, dot).intern(), key);
+        }
+    }
+
+    private void removePrefix(String key) {
+        var dot = key.indexOf('.');
+        if (dot <= 0) {
+            return;
+        }
+        var prefix = key.substring(0, dot);
+        if (!key.equals(prefixes.get(prefix))) {
+            return;
+        }
+        // the same prefix can be used by other keys, eg price.usd and price.eur
+        for (Object candidate : attributes.keys) {
+            if (candidate instanceof String candidateKey && candidateKey.indexOf('.') == dot
+                    && candidateKey.regionMatches(0, key, 0, dot)) {
+                prefixes.put(prefix, candidateKey);
+                return;
+            }
+        }
+        prefixes.remove(prefix);
+    }
+
+    /**
+     * Open addressing table with linear probing. Removed entries are marked with tombstones, so slots of the
+     * remaining entries do not change and iteration can remove entries. Table is rebuilt when more than half
+     * of the slots are used, so there is always an empty slot terminating the probe sequence.
+     */
+    private static final class Table {
+        private Object[] keys;
+        private Object[] values;
+        private int size;
+        private int used;
+
+        private Table(int expectedSize) {
+            var capacity = capacityFor(expectedSize);
+            keys = new Object[capacity];
+            values = new Object[capacity];
+        }
+
+        private int find(String key) {
+            var mask = keys.length - 1;
+            var slot = spread(key.hashCode()) & mask;
+            Object candidate;
+            while ((candidate = keys[slot]) != null) {
+                if (candidate == key || (candidate != TOMBSTONE && key.equals(candidate))) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        @Nullable
+        private Object get(String key) {
+            var slot = find(key);
+            return slot < 0 ? null : values[slot];
+        }
+
+        private void put(String key, Object value) {
+            var slot = find(key);
+            if (slot >= 0) {
+                values[slot] = value;
+            } else {
+                insert(key, value);
+            }
+        }
+
+        private void remove(String key) {
+            var slot = find(key);
+            if (slot >= 0) {
+                removeAt(slot);
+            }
+        }
+
+        /**
+         * Inserts the key which is known to be absent in the table.
+         */
+        private void insert(String key, Object value) {
+            if ((used + 1) * 2 > keys.length) {
+                rehash();
+            }
+            var mask = keys.length - 1;
+            var slot = spread(key.hashCode()) & mask;
+            while (keys[slot] != null && keys[slot] != TOMBSTONE) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == null) {
+                used++;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+            size++;
+        }
+
+        private void removeAt(int slot) {
+            keys[slot] = TOMBSTONE;
+            values[slot] = null;
+            size--;
+        }
+
+        private void rehash() {
+            var oldKeys = keys;
+            var oldValues = values;
+            var capacity = capacityFor((size + 1) * 2);
+            keys = new Object[capacity];
+            values = new Object[capacity];
+            size = 0;
+            used = 0;
+            for (var i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != null && oldKeys[i] != TOMBSTONE) {
+                    insert((String) oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private void clear() {
+            Arrays.fill(keys, null);
+            Arrays.fill(values, null);
+            size = 0;
+            used = 0;
+        }
+
+        private static int capacityFor(int expectedSize) {
+            return Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, expectedSize * 2 - 1)) << 1);
+        }
+
+        private static int spread(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<String, V>> {
+        @NotNull
+        @Override
+        public Iterator<Map.Entry<String, V>> iterator() {
+            return new Iterator<>() {
+                private int next = advance(0);
+                private int current = -1;
+
+                @Override
+                public boolean hasNext() {
+                    return next < attributes.keys.length;
+                }
+
+                @Override
+                public Map.Entry<String, V> next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    current = next;
+                    next = advance(next + 1);
+                    return new Entry(current);
+                }
+
+                @Override
+                public void remove() {
+                    if (current < 0) {
+                        throw new IllegalStateException();
+                    }
+                    removeAt(current);
+                    current = -1;
+                }
+
+                private int advance(int slot) {
+                    var keys = attributes.keys;
+                    while (slot < keys.length && (keys[slot] == null || keys[slot] == TOMBSTONE)) {
+                        slot++;
+                    }
+                    return slot;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return attributes.size;
+        }
+
+        @Override
+        public void clear() {
+            CompactAttributeMap.this.clear();
+        }
+    }
+
+    private final class Entry implements Map.Entry<String, V> {
+        private final int slot;
+
+        private Entry(int slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        public String getKey() {
+            return (String) attributes.keys[slot];
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public V getValue() {
+            return (V) attributes.values[slot];
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public V setValue(V value) {
+            var previous = attributes.values[slot];
+            attributes.values[slot] = value;
+            return (V) previous;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Map.Entry<?, ?> other
+                    && Objects.equals(getKey(), other.getKey())
+                    && Objects.equals(getValue(), other.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+}
@@ -64,6 +64,21 @@ public interface Content extends BasicEntity<Serializable> {
      */
     void setEntityType(String entityType);
 
+    /**
+     * Get record version. Version is incremented by the data source on every update of the record or its
+     * attributes, so two records with the same identifier and version have the same data.
+     *
+     * @return record version or null if the record has not been read from the data source
+     */
+    Long getVersion();
+
+    /**
+     * Set record version.
+     *
+     * @param version record version
+     */
+    void setVersion(Long version);
+
     /**
      * Shows of record parent id is zero and if has no real parent records.
      *
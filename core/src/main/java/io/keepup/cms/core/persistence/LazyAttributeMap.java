@@ -0,0 +1,247 @@
+package io.keepup.cms.core.persistence;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Attribute map of {@link Content} records which decodes values on the first access. Values read from the data
+ * source are kept as raw bytes together with the name of the value class and are converted to Java objects only
+ * when they are requested by key or by iteration over the values, the decoded value is memoized. Records which
+ * attributes are never read, e.g. the ones filtered out by type, do not pay for deserialization.
+ * <p>
+ * The map is transparent for the callers: all the {@link Map} operations including {@code equals} and
+ * {@code hashCode} work with decoded values. Map is not thread safe for modifications like
+ * {@link java.util.HashMap}, but concurrent reads are safe as decoding does not change the map structure.
+ *
+ * @author Fedor Sergeev
+ * @since 2.0.0
+ */
+public final class LazyAttributeMap extends AbstractMap<String, Serializable> implements AttributeKeyResolver {
+
+    private final CompactAttributeMap<Object> values = new CompactAttributeMap<>();
+    private final AttributeDecoder decoder;
+    private Set<Map.Entry<String, Serializable>> entries;
+
+    /**
+     * Creates an empty map.
+     *
+     * @param decoder function converting raw attribute values to Java objects
+     */
+    public LazyAttributeMap(@NotNull AttributeDecoder decoder) {
+        this.decoder = decoder;
+    }
+
+    /**
+     * Puts the attribute value which will be decoded on the first access.
+     *
+     * @param key       attribute key
+     * @param javaClass name of attribute value class
+     * @param value     raw attribute value
+     */
+    public void putEncoded(String key, @Nullable String javaClass, @Nullable byte[] value) {
+        values.put(key, new EncodedValue(javaClass, value));
+    }
+
+    /**
+     * Get the attribute value without decoding it.
+     *
+     * @param key attribute key
+     * @return    decoded value, raw bytes of the value which has not been decoded yet or null
+     */
+    @Nullable
+    public Object peek(String key) {
+        var value = values.get(key);
+        return value instanceof EncodedValue encoded ? encoded.peek() : value;
+    }
+
+    @Nullable
+    @Override
+    public String resolveKey(String attrKey) {
+        return values.resolveKey(attrKey);
+    }
+
+    @Override
+    public Serializable get(Object key) {
+        return decode(values.get(key));
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return values.containsKey(key);
+    }
+
+    @Override
+    public Serializable put(String key, Serializable value) {
+        return decode(values.put(key, value));
+    }
+
+    @Override
+    public Serializable remove(Object key) {
+        return decode(values.remove(key));
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return values.keySet();
+    }
+
+    @Override
+    public int size() {
+        return values.size();
+    }
+
+    @Override
+    public void clear() {
+        values.clear();
+    }
+
+    @NotNull
+    @Override
+    public Set<Map.Entry<String, Serializable>> entrySet() {
+        if (entries == null) {
+            entries = new EntrySet();
+        }
+        return entries;
+    }
+
+    @Nullable
+    private Serializable decode(@Nullable Object value) {
+        return value instanceof EncodedValue encoded
+                ? encoded.get(decoder)
+                : (Serializable) value;
+    }
+
+    /**
+     * Converts raw attribute value to Java object.
+     */
+    @FunctionalInterface
+    public interface AttributeDecoder {
+        /**
+         * Decodes attribute value.
+         *
+         * @param javaClass name of attribute value class
+         * @param value     raw attribute value
+         * @return          attribute value or null if it cannot be decoded
+         */
+        @Nullable
+        Serializable decode(@Nullable String javaClass, @Nullable byte[] value);
+    }
+
+    private static final class EncodedValue {
+        private final String javaClass;
+        private byte[] raw;
+        private Serializable decoded;
+        private volatile boolean isDecoded;
+
+        private EncodedValue(@Nullable String javaClass, @Nullable byte[] raw) {
+            this.javaClass = javaClass;
+            this.raw = raw;
+        }
+
+        private Serializable get(AttributeDecoder decoder) {
+            if (!isDecoded) {
+                synchronized (this) {
+                    if (!isDecoded) {
+                        decoded = decoder.decode(javaClass, raw);
+                        raw = null;
+                        isDecoded = true;
+                    }
+                }
+            }
+            return decoded;
+        }
+
+        private synchronized Object peek() {
+            return isDecoded ? decoded : raw;
+        }
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<String, Serializable>> {
+        @NotNull
+        @Override
+        public Iterator<Map.Entry<String, Serializable>> iterator() {
+            var iterator = values.entrySet().iterator();
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Map.Entry<String, Serializable> next() {
+                    return new Entry(iterator.next());
+                }
+
+                @Override
+                public void remove() {
+                    iterator.remove();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return values.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Map.Entry<?, ?> entry
+                    && values.containsKey(entry.getKey())
+                    && Objects.equals(get(entry.getKey()), entry.getValue());
+        }
+
+        @Override
+        public void clear() {
+            values.clear();
+        }
+    }
+
+    private final class Entry implements Map.Entry<String, Serializable> {
+        private final Map.Entry<String, Object> entry;
+
+        private Entry(Map.Entry<String, Object> entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public String getKey() {
+            return entry.getKey();
+        }
+
+        @Override
+        public Serializable getValue() {
+            return decode(entry.getValue());
+        }
+
+        @Override
+        public Serializable setValue(Serializable value) {
+            return decode(entry.setValue(value));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Map.Entry<?, ?> other
+                    && Objects.equals(getKey(), other.getKey())
+                    && Objects.equals(getValue(), other.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+}
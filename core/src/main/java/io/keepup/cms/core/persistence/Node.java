@@ -4,13 +4,9 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.keepup.cms.core.datasource.access.ContentPrivileges;
 import io.keepup.cms.core.datasource.access.Privilege;
-import org.springframework.cglib.proxy.Enhancer;
-import org.springframework.cglib.proxy.MethodInterceptor;
-import org.springframework.cglib.proxy.MethodProxy;
 
 import java.io.Serial;
 import java.io.Serializable;
-import java.lang.reflect.Method;
 import java.util.*;
 /**
  * New representation of Content entity.
@@ -24,6 +20,7 @@ public class Node extends AbstractNode<Serializable> implements Content, Seriali
     private static final String OWNER_ID = "ownerId";
     private static final String PRIVILEGES_KEY = "privileges";
     private static final String ENTITY_TYPE = "entityType";
+    private static final String VERSION = "version";
     /**
      * ID of entity owner
      */
@@ -39,6 +36,11 @@ public class Node extends AbstractNode<Serializable> implements Content, Seriali
      */
     @JsonProperty(ENTITY_TYPE)
     protected String entityType;
+    /**
+     * Record version
+     */
+    @JsonProperty(VERSION)
+    protected Long version;
 
     /**
      * Constructor.
@@ -55,7 +57,7 @@ public class Node extends AbstractNode<Serializable> implements Content, Seriali
      */
     public Node() {
         super();
-        attributes = new HashMap<>();
+        attributes = new CompactAttributeMap<>();
         privileges = new ContentPrivileges();
         privileges.setOwnerPrivileges(new Privilege());
         privileges.setRolePrivileges(new Privilege());
@@ -215,8 +217,18 @@ public class Node extends AbstractNode<Serializable> implements Content, Seriali
         return entityType;
     }
 
+    @Override
+    public Long getVersion() {
+        return version;
+    }
+
+    @Override
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     /**
-     * Unfortunately does not work with inner classes and classes without default constructor
+     * Wraps the value which does not implement {@link Serializable} to {@link ValueEnvelope}.
      *
      * @param value object to be saved as an attribute
      * @return value as Serializable object
@@ -225,18 +237,6 @@ public class Node extends AbstractNode<Serializable> implements Content, Seriali
     protected Serializable convertToPersistentValue(Object value) {
         return value == null
                 ? null
-                : getSerializable(value);
-    }
-
-    private Serializable getSerializable(Object value) {
-        var enhancer = new Enhancer();
-        enhancer.setSuperclass(value.getClass());
-        enhancer.setInterfaces(new Class[]{Serializable.class});
-        enhancer.setCallback((MethodInterceptor)Node::intercept);
-        return (Serializable)enhancer.create();
-    }
-
-    private static Object intercept(Object obj, Method method, Object[] args, MethodProxy proxy) throws Throwable {
-        return proxy.invokeSuper(obj, args);
+                : ValueEnvelope.of(value);
     }
 }
@@ -0,0 +1,201 @@
+package io.keepup.cms.core.persistence;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serializable container for attribute values which do not implement {@link Serializable}. The value is kept
+ * as Jackson tree together with the name of its class and is converted back to the object by
+ * {@link #unwrap(Class)}. Unlike the runtime generated proxies used before, envelopes need no class generation
+ * and are stored as plain JSON.
+ * <p>
+ * Attributes saved as proxies by the previous versions are read as envelopes too, their type is the class
+ * the proxy was generated for.
+ *
+ * @author Fedor Sergeev
+ * @since 2.0.0
+ */
+public final class ValueEnvelope implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+    private static final String TYPE = "type";
+    private static final String VALUE = "value";
+    /**
+     * Marker of the class names generated for proxies by CGLIB
+     */
+    private static final String PROXY_CLASS_MARKER = "$$EnhancerBy";
+
+    private static final ObjectMapper DEFAULT_MAPPER = new ObjectMapper()
+            .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    private static final Map<String, Class<?>> TYPES = new ConcurrentHashMap<>();
+
+    private final String type;
+    private final JsonNode value;
+
+    /**
+     * Creates the envelope with the value converted to Jackson tree.
+     *
+     * @param type  name of the value class
+     * @param value value converted to Jackson tree
+     */
+    @JsonCreator
+    public ValueEnvelope(@JsonProperty(TYPE) @NotNull String type, @JsonProperty(VALUE) @Nullable JsonNode value) {
+        this.type = type;
+        this.value = value;
+    }
+
+    /**
+     * Wraps the value with the default object mapper.
+     *
+     * @param value value to be wrapped
+     * @return      envelope with the value
+     */
+    @NotNull
+    public static ValueEnvelope of(@NotNull Object value) {
+        return of(value, DEFAULT_MAPPER);
+    }
+
+    /**
+     * Wraps the value with the specified object mapper.
+     *
+     * @param value  value to be wrapped
+     * @param mapper mapper converting the value to Jackson tree
+     * @return       envelope with the value
+     * @throws IllegalArgumentException if the value cannot be converted to Jackson tree
+     */
+    @NotNull
+    public static ValueEnvelope of(@NotNull Object value, @NotNull ObjectMapper mapper) {
+        return new ValueEnvelope(getTypeName(value.getClass()), mapper.valueToTree(value));
+    }
+
+    /**
+     * @param javaClass name of the attribute value class
+     * @return          true if the class was generated for proxy of non-serializable value by the previous
+     *                  versions
+     */
+    public static boolean isLegacyProxyClass(@Nullable String javaClass) {
+        return javaClass != null && javaClass.contains(PROXY_CLASS_MARKER);
+    }
+
+    /**
+     * Creates the envelope for the value stored as proxy by the previous versions.
+     *
+     * @param proxyClass name of the proxy class
+     * @param value      stored value
+     * @return           envelope with the value
+     */
+    @NotNull
+    public static ValueEnvelope ofLegacyProxy(@NotNull String proxyClass, @Nullable JsonNode value) {
+        return new ValueEnvelope(proxyClass.substring(0, proxyClass.indexOf(PROXY_CLASS_MARKER)), value);
+    }
+
+    /**
+     * @return name of the value class
+     */
+    @JsonProperty(TYPE)
+    @NotNull
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * @return value converted to Jackson tree
+     */
+    @JsonProperty(VALUE)
+    @Nullable
+    public JsonNode getValue() {
+        return value;
+    }
+
+    /**
+     * Converts the value back to the object with the default object mapper.
+     *
+     * @param targetType expected value type
+     * @param <V>        expected value type
+     * @return           value or null if it was null
+     * @throws IllegalArgumentException if the value cannot be converted to the expected type
+     */
+    @Nullable
+    public <V> V unwrap(@NotNull Class<V> targetType) {
+        return unwrap(targetType, DEFAULT_MAPPER);
+    }
+
+    /**
+     * Converts the value back to the object. The value is read as the object of its original class if this class
+     * is a subtype of the expected one, otherwise it is read as the expected type.
+     *
+     * @param targetType expected value type
+     * @param mapper     mapper converting Jackson tree to the object
+     * @param <V>        expected value type
+     * @return           value or null if it was null
+     * @throws IllegalArgumentException if the value cannot be converted to the expected type
+     */
+    @Nullable
+    public <V> V unwrap(@NotNull Class<V> targetType, @NotNull ObjectMapper mapper) {
+        if (value == null || value.isNull() || value.isMissingNode()) {
+            return null;
+        }
+        final Class<?> storedType = resolveType(targetType);
+        try {
+            return targetType.cast(mapper.treeToValue(value, storedType));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to read value of type %s: %s".formatted(type, e.getMessage()), e);
+        }
+    }
+
+    private Class<?> resolveType(Class<?> targetType) {
+        Class<?> storedType = TYPES.get(type);
+        if (storedType == null) {
+            try {
+                storedType = Class.forName(type);
+                TYPES.putIfAbsent(type, storedType);
+            } catch (ClassNotFoundException e) {
+                return targetType;
+            }
+        }
+        return targetType.isAssignableFrom(storedType) ? storedType : targetType;
+    }
+
+    private static String getTypeName(Class<?> valueClass) {
+        final String name = valueClass.getName();
+        return isLegacyProxyClass(name) && valueClass.getSuperclass() != null
+                ? valueClass.getSuperclass().getName()
+                : name;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ValueEnvelope other)) {
+            return false;
+        }
+        return type.equals(other.type) && Objects.equals(value, other.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, value);
+    }
+
+    @Override
+    public String toString() {
+        return "ValueEnvelope{type='%s', value=%s}".formatted(type, value);
+    }
+}
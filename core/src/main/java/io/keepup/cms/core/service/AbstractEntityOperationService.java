@@ -2,36 +2,31 @@ package io.keepup.cms.core.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.keepup.cms.core.datasource.dao.DataSourceFacade;
-import io.keepup.cms.core.datasource.sql.entity.ContentClass;
 import io.keepup.cms.core.datasource.sql.repository.ReactiveContentClassRepository;
 import io.keepup.cms.core.exception.EntityValidationException;
 import io.keepup.cms.core.persistence.Content;
 import io.keepup.cms.core.persistence.Node;
-import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.reflect.FieldUtils;
+import io.keepup.cms.core.persistence.ValueEnvelope;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cglib.proxy.Callback;
-import org.springframework.cglib.proxy.Enhancer;
-import org.springframework.cglib.proxy.MethodInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.ReactiveTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.io.Serializable;
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static java.util.Arrays.asList;
-import static java.util.Arrays.stream;
 import static java.util.Optional.ofNullable;
 import static reactor.core.publisher.Mono.empty;
 import static reactor.core.publisher.Mono.error;
@@ -46,12 +41,38 @@ import static reactor.core.publisher.Mono.error;
  */
 public abstract class AbstractEntityOperationService<T> implements EntityService<T> {
 
-    private static final String TO_STRING_METHOD = "toString";
+    private static final int DEFAULT_SAVE_ALL_WINDOW_SIZE = 500;
+    private static final int DEFAULT_DELETE_WINDOW_SIZE = 500;
 
     private final Class<T> typeClass;
+    /**
+     * Keys of attributes mapped to summary fields or null if entities have no summary
+     */
+    private final List<String> summaryAttributeNames;
+    /**
+     * Entity classes resolved by record entity types
+     */
+    private final Map<String, Class<? extends T>> entityClasses = new ConcurrentHashMap<>();
 
     private ObjectMapper mapper;
     private ReactiveContentClassRepository contentClassRepository;
+    /**
+     * Maximum number of new entities stored by {@link #saveAll(Flux, long)} in a single transaction, is the same
+     * as the number of records the data source inserts with batched statements in a single transaction
+     */
+    @Value("${keepup.datasource.content.insert-batch-size:" + DEFAULT_SAVE_ALL_WINDOW_SIZE + "}")
+    private int saveAllWindowSize = DEFAULT_SAVE_ALL_WINDOW_SIZE;
+    /**
+     * Maximum number of deleted records which links to entity classes are removed by a single statement, is the same
+     * as the number of records the data source deletes by a single statement
+     */
+    @Value("${keepup.datasource.content.batch-size:" + DEFAULT_DELETE_WINDOW_SIZE + "}")
+    private int deleteWindowSize = DEFAULT_DELETE_WINDOW_SIZE;
+    /**
+     * Operator wrapping windows of {@link #saveAll(Flux, long)} in transactions, absent if there is no reactive
+     * transaction manager
+     */
+    private TransactionalOperator transactionalOperator;
     /**
      * Instance logger
      */
@@ -74,6 +95,7 @@ public abstract class AbstractEntityOperationService<T> implements EntityService
     protected AbstractEntityOperationService() {
         entityParentIds = asList(0L);
         this.typeClass = getGenericParameterClass(getClass());
+        this.summaryAttributeNames = getSummaryAttributeNames(typeClass);
     }
 
     /**
@@ -97,6 +119,16 @@ public abstract class AbstractEntityOperationService<T> implements EntityService
         this.contentClassRepository = contentClassRepository;
     }
 
+    /**
+     * Set the transaction manager used for windows of saved entities.
+     *
+     * @param transactionManager reactive transaction manager
+     */
+    @Autowired(required = false)
+    public void setTransactionManager(final ReactiveTransactionManager transactionManager) {
+        this.transactionalOperator = TransactionalOperator.create(transactionManager);
+    }
+
     /**
      * Set {@link Content} and {@link io.keepup.cms.core.persistence.User} DAO
      *
@@ -108,10 +140,9 @@ public abstract class AbstractEntityOperationService<T> implements EntityService
     }
 
     /**
-     * Basic method for mapping data source records to POJOs. If service is specified by interface, not the
-     * implementation class, method attempts to look for all classes stored for record with the specified identifier
-     * then selects for all the {@link Content} records witch have one of those implementations (with the specified id
-     * there can be only one) and take the last from reactive stream.
+     * Basic method for mapping data source records to POJOs. If service is specified by interface or superclass,
+     * not the implementation class, the record of any implementation is found by the same single query which
+     * fetches the node together with its attributes.
      *
      * @param id object identifier
      * @return is not supported in abstract implementation as convert method should be implemented
@@ -136,7 +167,30 @@ public abstract class AbstractEntityOperationService<T> implements EntityService
      */
     @Override
     public Flux<T> getAll() {
-        return dataSourceFacade.getContentByParentIdsAndType(entityParentIds, typeClass.getTypeName())
+        return getAll(null);
+    }
+
+    /**
+     * Fetches all the entities like {@link #getAll()} does, but reads only the attributes of fields marked
+     * as summary ones.
+     *
+     * @return Publisher witch produces filtered converted entity summaries
+     */
+    @Override
+    public Flux<T> getAllSummaries() {
+        return getAll(summaryAttributeNames);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Mono<EntityPage<T>> getSummaryPage(@Nullable final Long afterId, final int limit) {
+        return getPage(afterId, limit, summaryAttributeNames);
+    }
+
+    private Flux<T> getAll(@Nullable final List<String> attributeNames) {
+        return dataSourceFacade.getContentByParentIdsAndType(entityParentIds, typeClass.getTypeName(), attributeNames)
                 .flatMap(this::convert)
                 .onErrorResume(t -> {
                     log.error(t.toString());
@@ -146,6 +200,37 @@ public abstract class AbstractEntityOperationService<T> implements EntityService
                         .formatted(throwable.toString())));
     }
 
+    /**
+     * Fetches the page of {@link Content} records with the specified parent ids ordered by identifier and
+     * converts them to the generic entity. Unlike {@link #getAll()} only one page of records is kept in memory.
+     * Cursor of the page is the greatest identifier of the fetched records, so records which could not be
+     * converted do not break the pagination.
+     *
+     * @param afterId cursor of the previous page or null for the first page
+     * @param limit   maximum number of entities in the page
+     * @return        publisher emitting the page with the cursor for the next one
+     */
+    @Override
+    public Mono<EntityPage<T>> getPage(@Nullable final Long afterId, final int limit) {
+        return getPage(afterId, limit, null);
+    }
+
+    private Mono<EntityPage<T>> getPage(@Nullable final Long afterId, final int limit, @Nullable final List<String> attributeNames) {
+        if (limit <= 0) {
+            log.error("Page of %s entities cannot be fetched with limit %d".formatted(typeClass.getTypeName(), limit));
+            return empty();
+        }
+        return dataSourceFacade.getContentByParentIdsAndType(entityParentIds, typeClass.getTypeName(), afterId, limit,
+                        attributeNames)
+                .collectList()
+                .flatMap(contents -> Flux.fromIterable(contents)
+                        .concatMap(this::convert)
+                        .collectList()
+                        .map(entities -> new EntityPage<>(entities, getCursor(contents, limit))))
+                .doOnError(throwable -> log.error("Failed to fetch page of entities after %s from data source: %s"
+                        .formatted(afterId, throwable.toString())));
+    }
+
     /**
      * Removes selected entity by id
      *
@@ -156,6 +241,25 @@ public abstract class AbstractEntityOperationService<T> implements EntityService
                 .then(dataSourceFacade.deleteContent(id));
     }
 
+    /**
+     * Removes selected entity with all its descendants. Links of the deleted records to entity classes
+     * saved by the previous versions are removed by a single statement per window of
+     * {@code keepup.datasource.content.batch-size} records.
+     *
+     * @param id entity identifier
+     * @return   publisher emitting identifiers of the deleted records
+     */
+    @Override
+    @Transactional("connectionFactoryTransactionManager")
+    public Flux<Long> deleteSubtree(final Long id) {
+        return dataSourceFacade.deleteSubtree(id)
+                .collectList()
+                .flatMapMany(ids -> Flux.fromIterable(ids)
+                        .buffer(Math.max(1, deleteWindowSize))
+                        .concatMap(window -> contentClassRepository.deleteByContentIds(window)
+                                .thenMany(Flux.fromIterable(window))));
+    }
+
     /**
      * Gets the list of current node parent identifiers till the root node
      *
@@ -229,21 +333,89 @@ public abstract class AbstractEntityOperationService<T> implements EntityService
         return saveAsChild(entity, ownerId, parentId);
     }
 
+    /**
+     * Saves a stream of entities under the first of entity parent identifiers. New entities are collected
+     * to windows of {@code keepup.datasource.content.insert-batch-size} elements, nodes of each window with their
+     * entity type links and attributes are stored with batched statements. Entities which already have identifiers
+     * are updated one by one as {@link #save(Object, long)} does. Each window including its updated entities
+     * is saved in a single transaction.
+     * <p>
+     * The order of the entities is not kept: in every window the created entities are emitted before
+     * the updated ones.
+     *
+     * @param entities entities to be saved
+     * @param ownerId  entity owner ID
+     * @return         Publisher emitting the saved entities with identifiers set
+     */
+    @Override
+    public Flux<T> saveAll(final Flux<T> entities, final long ownerId) {
+        if (entities == null) {
+            log.warn("Empty entities stream cannot be saved for ownerId %s".formatted(ownerId));
+            return Flux.empty();
+        }
+        if (entityParentIds == null || entityParentIds.isEmpty()) {
+            log.error("Cannot save entities %s under null parent id".formatted(typeClass.getTypeName()));
+            return Flux.empty();
+        }
+        final Long parentId = entityParentIds.get(0);
+        return entities.filter(entity -> {
+                    if (noDefaultConstructor(entity)) {
+                        log.warn("Entities of type %s have no default constructor, entity %s won't be saved"
+                                .formatted(typeClass.getName(), entity.toString()));
+                        return false;
+                    }
+                    return true;
+                })
+                .buffer(Math.max(1, saveAllWindowSize))
+                .concatMap(window -> saveWindow(window, ownerId, parentId));
+    }
+
+    @NotNull
+    private Flux<T> saveWindow(final List<T> window, final long ownerId, final Long parentId) {
+        final List<T> newEntities = new ArrayList<>(window.size());
+        final List<Node> newNodes = new ArrayList<>(window.size());
+        final List<Mono<T>> updatedEntities = new ArrayList<>();
+        for (T entity : window) {
+            final Node serializedEntity = serialize(entity, ownerId, parentId);
+            if (serializedEntity.getId() == null) {
+                newEntities.add(entity);
+                newNodes.add(serializedEntity);
+            } else {
+                updatedEntities.add(saveContent(serializedEntity)
+                        .map(savedId -> buildEntity(entity, savedId)));
+            }
+        }
+        final Flux<T> createdEntities = newNodes.isEmpty()
+                ? Flux.empty()
+                : dataSourceFacade.createContents(Flux.fromIterable(newNodes))
+                .collectList()
+                .flatMapMany(ids -> ids.size() != newEntities.size()
+                        ? Flux.<T>error(new IllegalStateException("%d identifiers generated for %d entities"
+                                .formatted(ids.size(), newEntities.size())))
+                        : Flux.range(0, ids.size())
+                                .map(i -> buildEntity(newEntities.get(i), ids.get(i))));
+        final Flux<T> savedEntities = createdEntities.concatWith(Flux.concat(updatedEntities));
+        return transactionalOperator == null
+                ? savedEntities
+                : transactionalOperator.transactional(savedEntities);
+    }
+
     @NotNull
     private Mono<T> saveAsChild(final T entity, final long ownerId, final Long parentId) {
-        var serializedEntity = new Node();
+        final Node serializedEntity = serialize(entity, ownerId, parentId);
+        return saveContent(serializedEntity)
+                .map(savedId -> buildEntity(entity, savedId));
+    }
+
+    @NotNull
+    private Node serialize(final T entity, final long ownerId, final Long parentId) {
+        var serializedEntity = getContentMapper(entity).toNode(entity, this::getSerializedValue);
         serializedEntity.setParentId(parentId);
         serializedEntity.setOwnerId(ownerId);
         serializedEntity.setDefaultPrivileges();
         serializedEntity.setEntityType(getValueClassName(entity));
-        Object fieldValue = null;
-        final AtomicReference<Field> idField = new AtomicReference<>();
-        for (Field field : entity.getClass().getDeclaredFields()) {
-            fieldValue = processField(entity, serializedEntity, fieldValue, idField, field);
-        }
-        return saveContent(serializedEntity)
-                .flatMap(savedEntityId -> saveEntityInterfaces(entity, savedEntityId))
-                .map(savedId -> buildEntity(entity, idField, savedId));
+        log.debug("Id %s set to as Content record identifier".formatted(serializedEntity.getId()));
+        return serializedEntity;
     }
 
     @NotNull
@@ -255,119 +427,38 @@ public abstract class AbstractEntityOperationService<T> implements EntityService
     }
 
     @NotNull
-    private T buildEntity(final T entity, final AtomicReference<Field> idField, final Long savedId) {
-        String idFieldName = ofNullable(idField.get())
-                .map(Field::getName)
-                .orElse(StringUtils.EMPTY);
-        Field entityIdField;
-        try {
-            entityIdField = entity.getClass().getDeclaredField(idFieldName);
-            FieldUtils.writeField(entityIdField, entity, savedId, true);
-
-        } catch (NoSuchFieldException e) {
-            log.error("No field with name '%s' found for class %s"
-                    .formatted(idFieldName, entity.getClass()));
-        } catch (IllegalArgumentException e) {
-            log.error("Id field is null or value is not assignable: %s"
-                    .formatted(e.toString()));
-        } catch (IllegalAccessException | SecurityException e) {
-            log.error("Id field cannot be accessed for object %s: %s"
-                    .formatted(entity.toString(), e.toString()));
-        }
+    private T buildEntity(final T entity, final Long savedId) {
+        getContentMapper(entity).setId(entity, savedId);
         return entity;
     }
 
-    @NotNull
-    private Mono<Long> saveEntityInterfaces(final T entity, final Long savedEntityId) {
-        Class<?>[] interfaces = entity.getClass().getInterfaces();
-        List<ContentClass> contentClasses = stream(interfaces)
-                .filter(item -> !Serializable.class.equals(item))
-                .map(interfaceItem -> new ContentClass(savedEntityId, interfaceItem.getTypeName()))
-                .toList();
-        return contentClassRepository.saveAll(contentClasses)
-                .doOnNext(savedInterface -> log.debug("Saved ContentClass id = %d, contentId = %d, interface = %s"
-                        .formatted(savedInterface.getId(), savedInterface.getContentId(), savedInterface.getClassName())))
-                .collectList()
-                .thenReturn(savedEntityId);
-    }
-
-    private Object processField(final T entity, final Node serializedEntity, Object fieldValue, final AtomicReference<Field> idField, final Field field) {
-        Object newFieldValue;
-        try {
-            fieldValue = FieldUtils.readField(field, entity, true);
-        } catch (IllegalAccessException e) {
-            log.error("Could not add attribute to map: %s".formatted(e.toString()));
-        }
-
-        if (field.isAnnotationPresent(ContentMapping.class)) {
-
-            newFieldValue = getSerializedValue(fieldValue);
-
-            serializedEntity.addAttribute(field.getAnnotation(ContentMapping.class).value(), newFieldValue);
-        } else if (field.isAnnotationPresent(ContentId.class)) {
-            setIdField(entity, serializedEntity, idField, field);
-        }
-        return fieldValue;
-    }
-
-    private void setIdField(final T entity, final Node serializedEntity, final AtomicReference<Field> idField, final Field field) {
-        var idValue = getIdValue(entity, field);
-        serializedEntity.setId(idValue);
-        idField.set(field);
-        log.debug("Id field %s = %s set to as Content record identifier".formatted(field.getName(), idValue));
+    @SuppressWarnings("unchecked")
+    private ContentMapper<T> getContentMapper(final T entity) {
+        return (ContentMapper<T>) ContentMappers.of(entity.getClass());
     }
 
     /**
-     * Check if field is Serializable and wrap it with proxy if not
+     * Check if field is Serializable and wrap it with {@link ValueEnvelope} if not
      *
      * @param fieldValue incoming field value
      * @return java.io.Serializable version of field value
      */
     @Nullable
     private Object getSerializedValue(final Object fieldValue) {
-        final Object newFieldValue;
-        // region
-        final Class<?> fieldType = ofNullable(fieldValue)
-                .map(Object::getClass)
-                .orElse(null);
-        if (fieldType != null && !Serializable.class.isAssignableFrom(fieldType)) {
-            final var enhancer = new Enhancer();
-            enhancer.setSuperclass(fieldType);
-            enhancer.setInterfaces(new Class[]{Serializable.class});
-            enhancer.setCallbackFilter(this::getCallbackFilter);
-            enhancer.setCallbacks(getCallbacks());
-            newFieldValue = enhancer.create();
-            for (final Field attributeField : fieldType.getDeclaredFields()) {
-                setValue(newFieldValue, attributeField, getValue(fieldValue, attributeField));
-            }
-        } else {
-            newFieldValue = fieldValue;
+        if (fieldValue == null || fieldValue instanceof Serializable) {
+            return fieldValue;
         }
-        //endregion
-        return newFieldValue;
-    }
-
-    private boolean noDefaultConstructor(final T entity) {
         try {
-            return entity.getClass().getDeclaredConstructor() == null;
-        } catch (NoSuchMethodException e) {
-            log.error("Exception while fetching the default constructor for type %s: %s"
-                    .formatted(typeClass.getTypeName(), e.toString()));
-            return true;
-        }
-    }
-
-    private int getCallbackFilter(final Method method) {
-        if (TO_STRING_METHOD.equals(method.getName()) && method.getReturnType() == String.class) {
-            return 0;
+            return ValueEnvelope.of(fieldValue, mapper);
+        } catch (IllegalArgumentException e) {
+            log.error("Failed to convert value of type %s to serializable form: %s"
+                    .formatted(getValueClassName(fieldValue), e.toString()));
+            return null;
         }
-        return 1;
     }
 
-    private Callback[] getCallbacks() {
-        return new Callback[]{(MethodInterceptor) (obj, method, args, proxy) -> mapper.writeValueAsString(obj),
-                (MethodInterceptor) (obj, method, args, proxy) -> proxy.invokeSuper(obj, args)
-        };
+    private boolean noDefaultConstructor(final T entity) {
+        return !EntityMapper.of(entity.getClass()).hasDefaultConstructor();
     }
 
     /**
@@ -378,7 +469,6 @@ public abstract class AbstractEntityOperationService<T> implements EntityService
      * @return converted data transfer object
      */
     protected Mono<T> convert(final Content content) {
-        final T entity;
         final String contentClassName = content.getEntityType();
 
         if (contentClassName == null) {
@@ -389,81 +479,55 @@ public abstract class AbstractEntityOperationService<T> implements EntityService
         }
 
         try {
-            final Class<? extends T> entityClass = Class.forName(contentClassName).asSubclass(typeClass);
-            entity = entityClass.getDeclaredConstructor().newInstance();
-        } catch (InstantiationException | IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
-            log.error("Failed to instantiate entity by default constructor: %s".formatted(e.toString()));
-            return Mono.error(e);
+            return Mono.just(ContentMappers.of(getEntityClass(contentClassName))
+                    .fromContent(content, this::getFieldValue));
         } catch (ClassNotFoundException e) {
             log.error("Class %s not found".formatted(contentClassName));
             return Mono.error(e);
+        } catch (ReflectiveOperationException e) {
+            log.error("Failed to instantiate entity by default constructor: %s".formatted(e.toString()));
+            return Mono.error(e);
         } catch (ClassCastException e) {
             log.error("Class %s is not a subclass of %s".formatted(contentClassName, typeClass));
             return Mono.error(e);
         }
-
-        for (final Field field : entity.getClass().getDeclaredFields()) {
-            if (field.isAnnotationPresent(ContentId.class)) {
-                // set new object id from Content node
-                setId(entity, content.getId(), field);
-            } else if (field.isAnnotationPresent(ContentMapping.class)) {
-                mapEntityField(content, entity, field);
-            }
-        }
-        return Mono.just(entity);
-    }
-
-    private void mapEntityField(final Content content, final T entity, final Field field) {
-        // unbox from serializable and set object value from attribute
-        Object attribute = content.getAttribute(field.getAnnotation(ContentMapping.class).value());
-        final Class<?> targetClass = ofNullable(attribute)
-                .map(Object::getClass)
-                .map(Class::getSuperclass)
-                .orElse(null);
-        if (targetClass != null && Objects.equals(field.getType(), targetClass)) {
-            try {
-                final Object newInstance = targetClass.getConstructor().newInstance();
-                for (Field newInstanceField : targetClass.getDeclaredFields()) {
-                    setValue(newInstance, newInstanceField, getValue(attribute, newInstanceField));
-                }
-                attribute = newInstance;
-            } catch (NoSuchMethodException e) {
-                log.error("Class %s has no default constructor".formatted(targetClass.getTypeName()));
-                attribute = null;
-            } catch (InvocationTargetException | InstantiationException e) {
-                log.error("Failed to create new instance of %s: %s".formatted(targetClass.getTypeName(), e.toString()));
-                attribute = null;
-            } catch (IllegalAccessException e) {
-                log.error("Constructor of class %s has private access: %s".formatted(targetClass.getTypeName(), e.toString()));
-                attribute = null;
-            }
-        }
-        setValue(entity, field, attribute);
     }
 
-    private Object getValue(final Object target, final Field field) {
-        Object value = null;
-        try {
-            value = FieldUtils.readField(field, target, true);
-        } catch (IllegalAccessException e) {
-            log.error("Failed to get value from object field: %s".formatted(e.toString()));
+    /**
+     * Resolves the entity class by the record entity type, resolved classes are cached by service.
+     *
+     * @param contentClassName record entity type
+     * @return                 entity class
+     * @throws ClassNotFoundException if there is no class with the specified name
+     * @throws ClassCastException     if the class is not the subclass of service entities type
+     */
+    private Class<? extends T> getEntityClass(final String contentClassName) throws ClassNotFoundException {
+        Class<? extends T> entityClass = entityClasses.get(contentClassName);
+        if (entityClass == null) {
+            entityClass = Class.forName(contentClassName).asSubclass(typeClass);
+            entityClasses.put(contentClassName, entityClass);
         }
-
-        return value;
+        return entityClass;
     }
 
-    private void setValue(final Object target, final Field field, final Object value) {
-        if (target != null && field != null) {
+    @Nullable
+    private Object getFieldValue(final Object value, final Class<?> fieldType, final String fieldName) {
+        Object attribute = value;
+        if (attribute instanceof ValueEnvelope envelope && !fieldType.isInstance(envelope)) {
             try {
-                FieldUtils.writeField(field, target, value, true);
-            } catch (SecurityException | IllegalAccessException e) {
-                log.error("Failed to set field %s value for target %s: %s"
-                        .formatted(field.getName(), target.getClass().getTypeName(), e.toString()));
+                attribute = envelope.unwrap(fieldType, mapper);
             } catch (IllegalArgumentException e) {
-                log.error("Attempt to set value of type %s to field of type %s".formatted(value.getClass().getTypeName(), field.getType().getTypeName()));
+                log.error("Failed to read value of type %s for field %s: %s"
+                        .formatted(envelope.getType(), fieldName, e.toString()));
+                return null;
             }
         }
-
+        if (attribute != null && !fieldType.isInstance(attribute)) {
+            log.error("Attempt to set value of type %s to field %s of type %s"
+                    .formatted(getValueClassName(attribute), fieldName, fieldType.getTypeName()));
+            return null;
+        }
+        return attribute;
     }
 
     @NotNull
@@ -474,39 +538,37 @@ public abstract class AbstractEntityOperationService<T> implements EntityService
                 .orElse("NULL");
     }
 
-    private Long getIdValue(final Object target, final Field field) {
-        Object id = null;
-        try {
-            id = FieldUtils.readField(field, target, true);
-        } catch (IllegalAccessException e) {
-            log.error("Failed to read field %s value from object %s, exception: %s"
-                    .formatted(field.getName(), target.toString(), e.toString()));
-        }
-        return id instanceof Long idAsLong ? idAsLong : null;
+    private Class<T> getGenericParameterClass(final Class<?> actualClass) {
+        return (Class<T>) ((ParameterizedType) actualClass.getGenericSuperclass()).getActualTypeArguments()[0];
     }
 
-    private void setId(final Object entity, final Long id, final Field field) {
-        try {
-            FieldUtils.writeField(field, entity, id, true);
-        } catch (SecurityException | IllegalAccessException e) {
-            log.error("Failed to update identifier for entity %d: %s".formatted(id, e.toString()));
+    /**
+     * Collects keys of attributes mapped to summary fields. Fields of interface implementations are not known
+     * until the records are read, so services specified by interface have no summary.
+     *
+     * @param typeClass class of entities served by the service
+     * @return          attribute keys or null if there are no summary fields
+     */
+    @Nullable
+    private static List<String> getSummaryAttributeNames(final Class<?> typeClass) {
+        if (typeClass.isInterface()) {
+            return null;
         }
+        return EntityMapper.of(typeClass).getSummaryAttributeNames();
     }
 
-    private Class<T> getGenericParameterClass(final Class<?> actualClass) {
-        return (Class<T>) ((ParameterizedType) actualClass.getGenericSuperclass()).getActualTypeArguments()[0];
+    @Nullable
+    private static Long getCursor(final List<Content> contents, final int limit) {
+        if (contents.size() < limit) {
+            return null;
+        }
+        return contents.stream()
+                .map(Content::getId)
+                .max(Long::compare)
+                .orElse(null);
     }
 
     private Mono<Content> getContentById(final Long id) {
-        if (typeClass.isInterface()) {
-            log.debug("%s is an interface type, looking for implementations".formatted(typeClass.getTypeName()));
-            return contentClassRepository.findAllByContentId(id)
-                    .map(ContentClass::getClassName)
-                    .flatMap(classNames -> dataSourceFacade.getContentByIdAndType(id, classNames))
-                    .collectList()
-                    .flatMap(items -> items.isEmpty() ? Mono.empty() : Mono.just(items.get(0)));
-        } else {
-            return dataSourceFacade.getContentByIdAndType(id, typeClass.getTypeName());
-        }
+        return dataSourceFacade.getContentByIdAndType(id, typeClass.getTypeName());
     }
 }
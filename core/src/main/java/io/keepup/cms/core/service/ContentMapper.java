@@ -0,0 +1,77 @@
+package io.keepup.cms.core.service;
+
+import io.keepup.cms.core.persistence.Content;
+import io.keepup.cms.core.persistence.Node;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * Converts entities with fields marked by {@link ContentId} and {@link ContentMapping} annotations to
+ * {@link Content} records and back.
+ * <p>
+ * Implementations are generated at compile time by keepup-mapping-processor annotation processor and registered
+ * as services in META-INF/services/io.keepup.cms.core.service.ContentMapper, so
+ * {@link AbstractEntityOperationService} finds them by {@link java.util.ServiceLoader}. Entities of classes
+ * without generated mapper are converted by reflective {@link EntityMapper}.
+ *
+ * @param <T> entity type
+ * @author Fedor Sergeev
+ * @since 2.0.0
+ */
+public interface ContentMapper<T> {
+
+    /**
+     * @return class of entities converted by the mapper
+     */
+    @NotNull
+    Class<T> getType();
+
+    /**
+     * Creates the record with identifier and mapped attributes of the entity. Parent, owner, privileges and
+     * entity type of the record are set by caller.
+     *
+     * @param entity      entity to be converted
+     * @param valueWriter converts field values before they are added to the record attributes
+     * @return            record with entity data
+     */
+    @NotNull
+    Node toNode(@NotNull T entity, @NotNull UnaryOperator<Object> valueWriter);
+
+    /**
+     * Creates the entity by default constructor and sets its identifier and mapped fields from the record.
+     *
+     * @param content     record with entity data
+     * @param valueReader converts attribute values to the field types
+     * @return            new entity
+     * @throws ReflectiveOperationException if the entity cannot be created
+     */
+    @NotNull
+    T fromContent(@NotNull Content content, @NotNull ValueReader valueReader) throws ReflectiveOperationException;
+
+    /**
+     * Sets the identifier of the entity, e.g. after the entity was saved.
+     *
+     * @param entity entity to be updated
+     * @param id     record identifier
+     */
+    void setId(@NotNull T entity, @Nullable Long id);
+
+    /**
+     * Converts the attribute value to the type of the field it is mapped to.
+     */
+    @FunctionalInterface
+    interface ValueReader {
+        /**
+         * Get the value that can be assigned to the field.
+         *
+         * @param value     record attribute value
+         * @param fieldType field type, primitive types are passed as the corresponding wrapper classes
+         * @param fieldName field name
+         * @return          value of the specified type or null if the attribute cannot be assigned to the field
+         */
+        @Nullable
+        Object read(@Nullable Object value, @NotNull Class<?> fieldType, @NotNull String fieldName);
+    }
+}
@@ -0,0 +1,80 @@
+package io.keepup.cms.core.service;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * Registry of {@link ContentMapper} implementations. Mappers generated at compile time are loaded once by
+ * {@link ServiceLoader}, classes without generated mapper are served by {@link EntityMapper}.
+ *
+ * @author Fedor Sergeev
+ * @since 2.0.0
+ */
+final class ContentMappers {
+
+    private static final Log log = LogFactory.getLog(ContentMappers.class);
+
+    private static final ClassValue<ContentMapper<?>> MAPPERS = new ClassValue<>() {
+        @Override
+        protected ContentMapper<?> computeValue(final Class<?> type) {
+            final ContentMapper<?> generatedMapper = GeneratedMappers.MAPPERS.get(type);
+            if (generatedMapper != null) {
+                log.debug("Generated mapper %s is used for class %s"
+                        .formatted(generatedMapper.getClass().getTypeName(), type.getTypeName()));
+                return generatedMapper;
+            }
+            return EntityMapper.of(type);
+        }
+    };
+
+    private ContentMappers() {}
+
+    /**
+     * Get the mapper for the entities of the specified class.
+     *
+     * @param type entity class
+     * @param <T>  entity type
+     * @return     generated mapper if it is registered for the class or the reflective one otherwise
+     */
+    @SuppressWarnings("unchecked")
+    static <T> ContentMapper<T> of(@NotNull final Class<T> type) {
+        return (ContentMapper<T>) MAPPERS.get(type);
+    }
+
+    /**
+     * Holder of the generated mappers, services are loaded on the first mapper lookup.
+     */
+    private static final class GeneratedMappers {
+        private static final Map<Class<?>, ContentMapper<?>> MAPPERS = load();
+
+        private static Map<Class<?>, ContentMapper<?>> load() {
+            final Map<Class<?>, ContentMapper<?>> mappers = new HashMap<>();
+            final Iterator<ContentMapper> iterator = ServiceLoader.load(ContentMapper.class).iterator();
+            while (hasNext(iterator)) {
+                try {
+                    final ContentMapper<?> mapper = iterator.next();
+                    mappers.put(mapper.getType(), mapper);
+                } catch (ServiceConfigurationError e) {
+                    log.error("Failed to load generated content mapper: %s".formatted(e.toString()));
+                }
+            }
+            return Map.copyOf(mappers);
+        }
+
+        private static boolean hasNext(final Iterator<ContentMapper> iterator) {
+            try {
+                return iterator.hasNext();
+            } catch (ServiceConfigurationError e) {
+                log.error("Failed to look up generated content mappers: %s".formatted(e.toString()));
+                return false;
+            }
+        }
+    }
+}
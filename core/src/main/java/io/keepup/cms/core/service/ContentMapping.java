@@ -15,4 +15,12 @@ public @interface ContentMapping {
      * @return attribute key
      */
     String value() default "";
+
+    /**
+     * Marks the field as the part of entity summary. Summaries are used by listings and are read with the
+     * attributes of summary fields only, other fields of the summary entity are left unset.
+     *
+     * @return true if the field belongs to the entity summary
+     */
+    boolean summary() default false;
 }
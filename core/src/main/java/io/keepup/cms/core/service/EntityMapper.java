@@ -0,0 +1,332 @@
+package io.keepup.cms.core.service;
+
+import io.keepup.cms.core.persistence.Content;
+import io.keepup.cms.core.persistence.Node;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * Precompiled mapping between the entity class fields and {@link io.keepup.cms.core.persistence.Content} record
+ * attributes. Fields annotated with {@link ContentId} and {@link ContentMapping} are looked up once per class,
+ * access to them and to the default constructor is done through method handles, so entity conversions do not
+ * pay for reflective lookups, annotation parsing and access checks.
+ * <p>
+ * Mappers are registered per class on the first use and are released together with the class. Used for the
+ * classes which have no {@link ContentMapper} generated at compile time.
+ *
+ * @param <T> entity type
+ * @author Fedor Sergeev
+ * @since 2.0.0
+ */
+final class EntityMapper<T> implements ContentMapper<T> {
+
+    private static final Log log = LogFactory.getLog(EntityMapper.class);
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+    private static final ClassValue<EntityMapper<?>> MAPPERS = new ClassValue<>() {
+        @Override
+        protected EntityMapper<?> computeValue(final Class<?> type) {
+            return new EntityMapper<>(type);
+        }
+    };
+
+    private final Class<T> type;
+    @Nullable
+    private final MethodHandle constructor;
+    @Nullable
+    private final Attribute id;
+    private final List<Attribute> attributes;
+    @Nullable
+    private final List<String> summaryAttributeNames;
+
+    private EntityMapper(final Class<T> type) {
+        this.type = type;
+        this.constructor = getConstructor(type);
+        Attribute idAttribute = null;
+        final List<Attribute> mappedAttributes = new ArrayList<>();
+        final List<String> summaryNames = new ArrayList<>();
+        for (final Field field : type.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+            final ContentMapping mapping = field.getAnnotation(ContentMapping.class);
+            if (field.isAnnotationPresent(ContentId.class)) {
+                idAttribute = getAttribute(field, null);
+            } else if (mapping != null) {
+                final Attribute attribute = getAttribute(field, mapping.value());
+                if (attribute != null) {
+                    mappedAttributes.add(attribute);
+                    if (mapping.summary()) {
+                        summaryNames.add(mapping.value());
+                    }
+                }
+            }
+        }
+        this.id = idAttribute;
+        this.attributes = List.copyOf(mappedAttributes);
+        this.summaryAttributeNames = summaryNames.isEmpty() ? null : List.copyOf(summaryNames);
+    }
+
+    /**
+     * Get the mapper of the specified class, the mapper is built on the first call.
+     *
+     * @param type entity class
+     * @param <T>  entity type
+     * @return     mapper for the entities of the specified class
+     */
+    @SuppressWarnings("unchecked")
+    static <T> EntityMapper<T> of(@NotNull final Class<T> type) {
+        return (EntityMapper<T>) MAPPERS.get(type);
+    }
+
+    @NotNull
+    @Override
+    public Class<T> getType() {
+        return type;
+    }
+
+    @NotNull
+    @Override
+    public Node toNode(@NotNull final T entity, @NotNull final UnaryOperator<Object> valueWriter) {
+        final var node = new Node();
+        for (final Attribute attribute : attributes) {
+            node.addAttribute(attribute.getKey(), valueWriter.apply(attribute.get(entity)));
+        }
+        if (id != null) {
+            node.setId(getIdValue(entity));
+        }
+        return node;
+    }
+
+    @NotNull
+    @Override
+    public T fromContent(@NotNull final Content content, @NotNull final ValueReader valueReader)
+            throws NoSuchMethodException, InvocationTargetException {
+        final T entity = newInstance();
+        if (id != null) {
+            set(entity, id, content.getId());
+        }
+        for (final Attribute attribute : attributes) {
+            final Object value = valueReader.read(content.getAttribute(attribute.getKey()),
+                    attribute.getWrapperType(), attribute.getName());
+            set(entity, attribute, value);
+        }
+        return entity;
+    }
+
+    @Override
+    public void setId(@NotNull final T entity, @Nullable final Long idValue) {
+        if (id == null) {
+            log.error("No field marked as content identifier found for class %s".formatted(type.getTypeName()));
+            return;
+        }
+        set(entity, id, idValue);
+    }
+
+    /**
+     * @return true if entities can be created by the default constructor
+     */
+    boolean hasDefaultConstructor() {
+        return constructor != null;
+    }
+
+    /**
+     * Creates the new entity by the default constructor.
+     *
+     * @return new entity
+     * @throws NoSuchMethodException     if the class has no accessible default constructor
+     * @throws InvocationTargetException if the constructor has thrown an exception
+     */
+    @NotNull
+    T newInstance() throws NoSuchMethodException, InvocationTargetException {
+        if (constructor == null) {
+            throw new NoSuchMethodException("%s.<init>()".formatted(type.getTypeName()));
+        }
+        try {
+            return type.cast(constructor.invokeExact());
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    /**
+     * @return field marked with {@link ContentId} or null if there is no such field
+     */
+    @Nullable
+    Attribute getId() {
+        return id;
+    }
+
+    /**
+     * Get the identifier of the entity.
+     *
+     * @param entity entity of the mapped class
+     * @return       value of the identifier field or null if it is not set, is not a {@link Long} or the class
+     *               has no identifier field
+     */
+    @Nullable
+    Long getIdValue(@NotNull final Object entity) {
+        return id != null && id.get(entity) instanceof Long idAsLong ? idAsLong : null;
+    }
+
+    /**
+     * @return fields mapped to record attributes in the order of declaration
+     */
+    @NotNull
+    List<Attribute> getAttributes() {
+        return attributes;
+    }
+
+    /**
+     * @return keys of attributes mapped to summary fields or null if there are no summary fields
+     */
+    @Nullable
+    List<String> getSummaryAttributeNames() {
+        return summaryAttributeNames;
+    }
+
+    private void set(final T entity, final Attribute attribute, @Nullable final Object value) {
+        try {
+            attribute.set(entity, value);
+        } catch (ClassCastException e) {
+            log.error("Attempt to set value of type %s to field %s of type %s".formatted(
+                    value == null ? "NULL" : value.getClass().getTypeName(), attribute.getName(),
+                    attribute.getType().getTypeName()));
+        }
+    }
+
+    @Nullable
+    private static MethodHandle getConstructor(final Class<?> type) {
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            return null;
+        }
+        try {
+            final Constructor<?> defaultConstructor = type.getDeclaredConstructor();
+            defaultConstructor.setAccessible(true);
+            return LOOKUP.unreflectConstructor(defaultConstructor).asType(CONSTRUCTOR_TYPE);
+        } catch (NoSuchMethodException e) {
+            log.debug("Class %s has no default constructor".formatted(type.getTypeName()));
+        } catch (IllegalAccessException | RuntimeException e) {
+            log.error("Default constructor of class %s cannot be accessed: %s".formatted(type.getTypeName(), e.toString()));
+        }
+        return null;
+    }
+
+    @Nullable
+    private static Attribute getAttribute(final Field field, @Nullable final String key) {
+        try {
+            field.setAccessible(true);
+            final MethodHandle getter = LOOKUP.unreflectGetter(field).asType(GETTER_TYPE);
+            final MethodHandle setter = LOOKUP.unreflectSetter(field).asType(SETTER_TYPE);
+            return new Attribute(field.getName(), key, field.getType(), getter, setter);
+        } catch (IllegalAccessException | RuntimeException e) {
+            log.error("Field %s of class %s cannot be accessed and won't be mapped: %s"
+                    .formatted(field.getName(), field.getDeclaringClass().getTypeName(), e.toString()));
+            return null;
+        }
+    }
+
+    /**
+     * Accessor of the mapped entity field.
+     */
+    static final class Attribute {
+        private final String name;
+        private final String key;
+        private final Class<?> type;
+        private final Class<?> wrapperType;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        private Attribute(final String name, final String key, final Class<?> type,
+                          final MethodHandle getter, final MethodHandle setter) {
+            this.name = name;
+            this.key = key;
+            this.type = type;
+            this.wrapperType = MethodType.methodType(type).wrap().returnType();
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        /**
+         * @return field name
+         */
+        String getName() {
+            return name;
+        }
+
+        /**
+         * @return key of the record attribute or null for the identifier field
+         */
+        String getKey() {
+            return key;
+        }
+
+        /**
+         * @return declared field type
+         */
+        Class<?> getType() {
+            return type;
+        }
+
+        /**
+         * @return declared field type or the corresponding wrapper class for primitive types
+         */
+        Class<?> getWrapperType() {
+            return wrapperType;
+        }
+
+        /**
+         * Reads the field value.
+         *
+         * @param target entity of the mapped class
+         * @return       field value, primitives are boxed
+         */
+        Object get(@NotNull final Object target) {
+            try {
+                return (Object) getter.invokeExact(target);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        /**
+         * Writes the field value. Null values are not written to primitive fields.
+         *
+         * @param target entity of the mapped class
+         * @param value  new field value
+         * @throws ClassCastException if the value cannot be assigned to the field
+         */
+        void set(@NotNull final Object target, @Nullable final Object value) {
+            if (value == null && type.isPrimitive()) {
+                return;
+            }
+            try {
+                setter.invokeExact(target, value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package io.keepup.cms.core.service;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Page of entities fetched with keyset pagination. The cursor is the identifier of the last record read for
+ * the page, pass it as afterId to fetch the next page. Null cursor means that there are no more pages.
+ *
+ * @param entities entities of the page ordered by record identifier
+ * @param cursor   identifier to fetch the next page after or null if the page is the last one
+ * @param <T>      entity type
+ * @author Fedor Sergeev
+ * @since 2.0.0
+ */
+public record EntityPage<T>(List<T> entities, @Nullable Long cursor) {
+
+    /**
+     * Checks whether there are more entities after the current page.
+     *
+     * @return true if the next page can be requested
+     */
+    public boolean hasNext() {
+        return cursor != null;
+    }
+}
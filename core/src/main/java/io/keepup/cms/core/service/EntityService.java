@@ -20,6 +20,16 @@ public interface EntityService<T> {
      */
     Mono<T> save(T entity, long ownerId);
 
+    /**
+     * Save a number of entities. Implementations may emit the saved entities in the order different
+     * from the incoming one.
+     *
+     * @param entities entities to be saved
+     * @param ownerId  entities owner ID
+     * @return         Publisher emitting the saved entities
+     */
+    Flux<T> saveAll(Flux<T> entities, long ownerId);
+
     /**
      * Fetch an entity by primary ID.
      *
@@ -35,6 +45,32 @@ public interface EntityService<T> {
      */
     Flux<T> getAll();
 
+    /**
+     * Find the page of entities served by this service ordered by identifier.
+     *
+     * @param afterId cursor of the previous page or null for the first page
+     * @param limit   maximum number of entities in the page
+     * @return        publisher emitting the page with the cursor for the next one
+     */
+    Mono<EntityPage<T>> getPage(Long afterId, int limit);
+
+    /**
+     * Find all entities served by current service with only the fields marked as summary ones set, see
+     * {@link ContentMapping#summary()}. If there are no summary fields the entities are fetched completely.
+     *
+     * @return reactive stream publisher emitting summaries of all the entities served by this service
+     */
+    Flux<T> getAllSummaries();
+
+    /**
+     * Find the page of entity summaries ordered by identifier, see {@link #getAllSummaries()}.
+     *
+     * @param afterId cursor of the previous page or null for the first page
+     * @param limit   maximum number of entities in the page
+     * @return        publisher emitting the page with the cursor for the next one
+     */
+    Mono<EntityPage<T>> getSummaryPage(Long afterId, int limit);
+
     /**
      * Delete entity with specified ID.
      *
@@ -42,4 +78,12 @@ public interface EntityService<T> {
      * @return   reactive stream publisher emitting the {@link Void} object when delete operation is executed.
      */
     Mono<Void> delete(Long id);
+
+    /**
+     * Delete entity with specified ID and all the entities and records which are its descendants.
+     *
+     * @param id entity ID
+     * @return   reactive stream publisher emitting identifiers of the deleted records
+     */
+    Flux<Long> deleteSubtree(Long id);
 }
@@ -0,0 +1,158 @@
+package io.keepup.cms.core.cache;
+
+import io.keepup.cms.core.persistence.Content;
+import io.keepup.cms.core.persistence.Node;
+import io.keepup.cms.core.persistence.ValueEnvelope;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContentRedisSerializerTest {
+
+    private final ContentRedisSerializer serializer = new ContentRedisSerializer();
+
+    @Test
+    void serializeAndDeserialize() {
+        var content = getContent(10);
+
+        var result = serializer.deserialize(serializer.serialize(content));
+
+        assertEquals(content.getId(), result.getId());
+        assertEquals(content.getParentId(), result.getParentId());
+        assertEquals(content.getOwnerId(), result.getOwnerId());
+        assertEquals(content.getEntityType(), result.getEntityType());
+        assertEquals(content.getVersion(), result.getVersion());
+        assertEquals(content.getContentPrivileges(), result.getContentPrivileges());
+        assertEquals(content.getAttributes().keySet(), result.getAttributes().keySet());
+        content.getAttributes().forEach((key, value) -> {
+            if (value instanceof byte[] bytes) {
+                assertArrayEquals(bytes, (byte[]) result.getAttribute(key));
+            } else {
+                assertEquals(value, result.getAttribute(key), key);
+                assertEquals(value.getClass(), result.getAttribute(key).getClass(), key);
+            }
+        });
+    }
+
+    @Test
+    void largePayloadIsCompressed() {
+        var content = new Node(1L);
+        content.setAttribute("text", "repeated text ".repeat(1000));
+
+        var bytes = serializer.serialize(content);
+        var uncompressedBytes = new ContentRedisSerializer(-1).serialize(content);
+
+        assertTrue(bytes.length < uncompressedBytes.length);
+        assertEquals(content.getAttribute("text"), serializer.deserialize(bytes).getAttribute("text"));
+        assertEquals(content.getAttribute("text"), serializer.deserialize(uncompressedBytes).getAttribute("text"));
+    }
+
+    @Test
+    void binaryPayloadIsSmallerThanJson() {
+        var content = getContent(10);
+        // Java time types are not supported by the default JSON serializer
+        content.getAttributes().remove("date");
+
+        var jsonBytes = new GenericJackson2JsonRedisSerializer().serialize(content);
+        var binaryBytes = serializer.serialize(content);
+
+        assertTrue(binaryBytes.length < jsonBytes.length,
+                "binary: %d, json: %d".formatted(binaryBytes.length, jsonBytes.length));
+    }
+
+    @Test
+    void privilegesArePackedToTwelveBits() {
+        var content = new Node(1L);
+        content.setDefaultPrivileges();
+
+        var packedPrivileges = ContentRedisSerializer.packPrivileges(content.getContentPrivileges());
+
+        assertEquals(0, packedPrivileges & ~0xFFF);
+        assertEquals(0b1111_1011_0001, packedPrivileges);
+    }
+
+    @Test
+    void nullValues() {
+        var content = new Node();
+        content.setContentPrivileges(null);
+        content.setAttribute("empty", null);
+
+        var result = serializer.deserialize(serializer.serialize(content));
+
+        assertNull(result.getId());
+        assertNull(result.getVersion());
+        assertNull(result.getContentPrivileges());
+        assertTrue(result.getAttributes().containsKey("empty"));
+        assertNull(serializer.deserialize(new byte[0]));
+        assertEquals(0, serializer.serialize(null).length);
+    }
+
+    @Test
+    void unknownVersionIsRejected() {
+        assertThrows(SerializationException.class, () -> serializer.deserialize(new byte[]{0x0F, 0}));
+    }
+
+    @Test
+    void unknownTypesAreWrittenAsJson() {
+        var content = new Node(1L);
+        content.setAttribute("decimal", new BigDecimal("10.250000000000000000001"));
+        content.setAttribute("date", LocalDate.of(2022, 2, 24));
+        content.setAttribute("envelope", ValueEnvelope.of(new BigDecimal("2.5")));
+
+        var bytes = new ContentRedisSerializer(-1).serialize(content);
+        var result = serializer.deserialize(bytes);
+
+        for (var i = 0; i < bytes.length - 1; i++) {
+            // stream magic of the Java serialization
+            assertFalse(bytes[i] == (byte) 0xAC && bytes[i + 1] == (byte) 0xED);
+        }
+        assertEquals(content.getAttribute("decimal"), result.getAttribute("decimal"));
+        assertEquals(content.getAttribute("date"), result.getAttribute("date"));
+        var envelope = assertInstanceOf(ValueEnvelope.class, result.getAttribute("envelope"));
+        assertEquals(new BigDecimal("2.5"), envelope.unwrap(BigDecimal.class));
+    }
+
+    private Content getContent(int attributesCount) {
+        var content = new Node(-12_345L);
+        content.setParentId(0L);
+        content.setOwnerId(Long.MAX_VALUE);
+        content.setEntityType("io.keepup.cms.test.Entity");
+        content.setVersion(3L);
+        content.setDefaultPrivileges();
+        HashMap<String, Serializable> map = new HashMap<>(Map.of("key", "value", "number", 1L));
+        ArrayList<Serializable> list = new ArrayList<>(List.of("first", 2, false));
+        for (var i = 0; i < attributesCount; i++) {
+            content.setAttribute("string" + i, "value " + i);
+            content.setAttribute("long" + i, (long) i - 5);
+        }
+        content.setAttribute("integer", Integer.MIN_VALUE);
+        content.setAttribute("boolean", true);
+        content.setAttribute("double", 1.5d);
+        content.setAttribute("float", 2.5f);
+        content.setAttribute("short", (short) 3);
+        content.setAttribute("byte", (byte) 4);
+        content.setAttribute("bytes", new byte[]{1, 2, 3});
+        content.setAttribute("list", list);
+        content.setAttribute("map", map);
+        content.setAttribute("decimal", new BigDecimal("10.25"));
+        content.setAttribute("date", LocalDate.of(2022, 2, 24));
+        assertFalse(content.getAttributes().isEmpty());
+        return content;
+    }
+}
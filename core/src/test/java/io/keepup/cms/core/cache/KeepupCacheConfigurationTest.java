@@ -0,0 +1,43 @@
+package io.keepup.cms.core.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeepupCacheConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(KeepupCacheConfiguration.class);
+
+    @Test
+    void simpleCacheIsUsedByDefault() {
+        contextRunner.run(context -> {
+            assertInstanceOf(SimpleCacheManager.class, context.getBean(CacheManager.class));
+            assertTrue(context.getBeansOfType(RedisConnectionFactory.class).isEmpty());
+        });
+    }
+
+    @Test
+    void cacheTypeIsSelectedByPropertyWithoutProfiles() {
+        contextRunner.withPropertyValues("keepup.cache.type=local")
+                .run(context -> {
+                    assertInstanceOf(CaffeineCacheManager.class, context.getBean(CacheManager.class));
+                    assertTrue(context.getBeansOfType(SimpleCacheManager.class).isEmpty());
+                });
+    }
+
+    @Test
+    void simpleCacheIsSelectedInRedisProfile() {
+        contextRunner.withPropertyValues("spring.profiles.active=redis", "keepup.cache.type=simple")
+                .run(context -> {
+                    assertInstanceOf(SimpleCacheManager.class, context.getBean(CacheManager.class));
+                    assertTrue(context.getBeansOfType(RedisConnectionFactory.class).isEmpty());
+                });
+    }
+}
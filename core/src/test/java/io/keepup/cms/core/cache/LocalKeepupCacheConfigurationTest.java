@@ -0,0 +1,79 @@
+package io.keepup.cms.core.cache;
+
+import io.keepup.cms.core.persistence.Content;
+import io.keepup.cms.core.persistence.Node;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static io.keepup.cms.core.cache.CacheNames.CONTENT_CACHE_NAME;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalKeepupCacheConfigurationTest {
+
+    private static final long MAXIMUM_WEIGHT = 100_000L;
+
+    private CaffeineCache contentCache;
+
+    @BeforeEach
+    void setUp() {
+        var configuration = new KeepupCacheConfiguration();
+        ReflectionTestUtils.setField(configuration, "localCacheMaximumWeight", MAXIMUM_WEIGHT);
+        ReflectionTestUtils.setField(configuration, "localCacheExpireAfterWrite", "");
+        ReflectionTestUtils.setField(configuration, "localCacheExpireAfterAccess", "10m");
+        ReflectionTestUtils.setField(configuration, "localCacheRecordStats", true);
+        contentCache = (CaffeineCache) configuration.localCacheManager().getCache(CONTENT_CACHE_NAME);
+    }
+
+    @Test
+    void contentCacheIsBoundedByEstimatedSize() {
+        assertNotNull(contentCache);
+        for (long id = 0; id < 1000; id++) {
+            contentCache.put(id, getContent(id, 1000));
+        }
+        var nativeCache = contentCache.getNativeCache();
+        nativeCache.cleanUp();
+
+        var eviction = nativeCache.policy().eviction().orElseThrow();
+        assertEquals(MAXIMUM_WEIGHT, eviction.getMaximum());
+        assertTrue(eviction.weightedSize().orElseThrow() <= MAXIMUM_WEIGHT);
+        assertTrue(nativeCache.estimatedSize() < 1000);
+        assertTrue(nativeCache.stats().evictionCount() > 0);
+        assertTrue(nativeCache.policy().expireAfterAccess().isPresent());
+        assertTrue(nativeCache.policy().expireAfterWrite().isEmpty());
+    }
+
+    @Test
+    void contentCacheRecordsStatistics() {
+        contentCache.put(1L, getContent(1L, 10));
+
+        assertNotNull(contentCache.get(1L));
+        assertNull(contentCache.get(2L));
+
+        var stats = contentCache.getNativeCache().stats();
+        assertEquals(1, stats.hitCount());
+        assertEquals(1, stats.missCount());
+    }
+
+    @Test
+    void weightDependsOnAttributes() {
+        var weigher = new ContentWeigher();
+        var smallContent = getContent(1L, 10);
+        var largeContent = getContent(2L, 10_000);
+
+        assertEquals(ContentWeigher.NODE_WEIGHT, weigher.weigh(3L, new Node(3L)));
+        assertTrue(weigher.weigh(1L, smallContent) > ContentWeigher.NODE_WEIGHT);
+        assertTrue(weigher.weigh(2L, largeContent) > 20_000);
+    }
+
+    private Content getContent(long id, int valueLength) {
+        var content = new Node(id);
+        content.setAttribute("value", "a".repeat(valueLength));
+        content.setAttribute("number", id);
+        return content;
+    }
+}
@@ -0,0 +1,112 @@
+package io.keepup.cms.core.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.keepup.cms.core.persistence.Content;
+import io.keepup.cms.core.persistence.Node;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisOperations;
+
+import java.util.List;
+
+import static io.keepup.cms.core.cache.CacheNames.CONTENT_CACHE_NAME;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+class NearCacheManagerTest {
+
+    private static final String CHANNEL = "test:invalidation";
+
+    @Mock
+    private RedisOperations<String, String> redisOperations;
+
+    private ConcurrentMapCacheManager remoteCacheManager;
+    private NearCacheManager firstInstance;
+    private NearCacheManager secondInstance;
+
+    @BeforeEach
+    void setUp() {
+        remoteCacheManager = new ConcurrentMapCacheManager(CONTENT_CACHE_NAME);
+        firstInstance = new NearCacheManager(remoteCacheManager, Caffeine.newBuilder().maximumSize(100), redisOperations, CHANNEL);
+        secondInstance = new NearCacheManager(remoteCacheManager, Caffeine.newBuilder().maximumSize(100), redisOperations, CHANNEL);
+        // emulate Redis channel delivering each message to all the subscribers including the sender
+        lenient().doAnswer(invocation -> {
+            var message = new DefaultMessage(CHANNEL.getBytes(UTF_8), invocation.getArgument(1, String.class).getBytes(UTF_8));
+            List.of(firstInstance, secondInstance).forEach(instance -> instance.onMessage(message, null));
+            return 1L;
+        }).when(redisOperations).convertAndSend(anyString(), anyString());
+    }
+
+    @Test
+    void readsAreServedFromLocalTier() {
+        var content = new Node(1L);
+        remoteCacheManager.getCache(CONTENT_CACHE_NAME).put(1L, content);
+
+        var nearCache = (NearCache) firstInstance.getCache(CONTENT_CACHE_NAME);
+        assertNotNull(nearCache);
+        assertSame(content, nearCache.get(1L, Content.class));
+        remoteCacheManager.getCache(CONTENT_CACHE_NAME).evict(1L);
+
+        assertSame(content, nearCache.get(1L, Content.class));
+        assertNotNull(nearCache.getLocalCache().get("1"));
+    }
+
+    @Test
+    void updateOnOneInstanceEvictsLocalCopyOnAnother() {
+        var firstCache = firstInstance.getCache(CONTENT_CACHE_NAME);
+        var secondCache = (NearCache) secondInstance.getCache(CONTENT_CACHE_NAME);
+        assertNotNull(firstCache);
+        assertNotNull(secondCache);
+        firstCache.putIfAbsent(1L, getContent(1L, "old"));
+        assertEquals("old", secondCache.get(1L, Content.class).getAttribute("value"));
+
+        firstCache.put(1L, getContent(1L, "new"));
+
+        assertNull(secondCache.getLocalCache().get("1"));
+        assertEquals("new", secondCache.get(1L, Content.class).getAttribute("value"));
+    }
+
+    @Test
+    void deleteOnOneInstanceEvictsLocalCopyOnAnother() {
+        var firstCache = firstInstance.getCache(CONTENT_CACHE_NAME);
+        var secondCache = secondInstance.getCache(CONTENT_CACHE_NAME);
+        assertNotNull(firstCache);
+        assertNotNull(secondCache);
+        firstCache.putIfAbsent(1L, getContent(1L, "value"));
+        assertNotNull(secondCache.get(1L));
+
+        firstCache.evictIfPresent(1L);
+
+        assertNull(secondCache.get(1L));
+        assertNull(firstCache.get(1L));
+    }
+
+    @Test
+    void unknownMessageIsIgnored() {
+        var cache = firstInstance.getCache(CONTENT_CACHE_NAME);
+        assertNotNull(cache);
+        cache.putIfAbsent(1L, getContent(1L, "value"));
+
+        firstInstance.onMessage(new DefaultMessage(CHANNEL.getBytes(UTF_8), "unknown".getBytes(UTF_8)), null);
+
+        assertNotNull(cache.get(1L));
+    }
+
+    private Content getContent(long id, String value) {
+        var content = new Node(id);
+        content.setAttribute("value", value);
+        return content;
+    }
+}
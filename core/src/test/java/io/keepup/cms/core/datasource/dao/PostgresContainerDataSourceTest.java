@@ -1,5 +1,6 @@
 package io.keepup.cms.core.datasource.dao;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.keepup.cms.core.boot.KeepupApplication;
 import io.keepup.cms.core.cache.CacheAdapter;
 import io.keepup.cms.core.cache.KeepupCacheConfiguration;
@@ -9,6 +10,7 @@ import io.keepup.cms.core.config.WebFluxConfig;
 import io.keepup.cms.core.datasource.dao.sql.SqlContentDao;
 import io.keepup.cms.core.datasource.dao.sql.SqlFileDao;
 import io.keepup.cms.core.datasource.dao.sql.SqlUserDao;
+import io.keepup.cms.core.datasource.sql.EntityUtils;
 import io.keepup.cms.core.datasource.sql.repository.ReactiveNodeAttributeEntityRepository;
 import io.keepup.cms.core.datasource.sql.repository.ReactiveNodeEntityRepository;
 import io.keepup.cms.core.datasource.sql.repository.ReactiveUserEntityRepository;
@@ -18,15 +20,32 @@ import io.r2dbc.spi.ConnectionFactory;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.test.context.*;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
 import javax.sql.DataSource;
+import java.io.Serializable;
 import java.util.List;
+import java.util.Map;
 
+import static io.keepup.cms.core.datasource.sql.repository.ReactiveNodeAttributeEntityRepository.FIND_BY_PARENT_ID_AND_ATTRIBUTE_VALUE;
+import static java.util.stream.Collectors.joining;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @ActiveProfiles({"dev", "embedded-postgres"})
@@ -84,6 +103,24 @@ class PostgresContainerDataSourceTest {
     @Autowired
     ReactiveNodeEntityRepository nodeEntityRepository;
 
+    @Autowired
+    DatabaseClient databaseClient;
+
+    @Autowired
+    ReactiveNodeAttributeEntityRepository nodeAttributeEntityRepository;
+
+    @Autowired
+    SqlContentDao sqlContentDao;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @Autowired
+    CacheAdapter cacheAdapter;
+
     @Test
     void getContentParents() {
         Content content = new Node();
@@ -135,4 +172,171 @@ class PostgresContainerDataSourceTest {
         assertFalse(parentRecords.isEmpty());
         assertEquals(2, parentRecords.size());
     }
+
+    @Test
+    void getContentParentsByClosureTable() {
+        Content content = new Node();
+        content.setParentId(0L);
+        content.setOwnerId(0L);
+        content.setDefaultPrivileges();
+        Long parentId = dataSourceFacade.createContent(content).block();
+        Content child = new Node();
+        child.setParentId(parentId);
+        child.setOwnerId(0L);
+        child.setDefaultPrivileges();
+        Long childId = dataSourceFacade.createContent(child).block();
+
+        var recursiveParents = getContentParentIds(sqlContentDao, childId, 0L);
+        var recursiveAllParents = getContentParentIds(sqlContentDao, childId, null);
+        // a separate DAO reads the same records through node_closure table
+        var closureDao = createContentDao(nodeAttributeEntityRepository);
+        ReflectionTestUtils.setField(closureDao, "closureEnabled", true);
+
+        assertEquals(List.of(childId), recursiveParents);
+        assertEquals(recursiveParents, getContentParentIds(closureDao, childId, 0L));
+        assertEquals(List.of(childId, parentId), recursiveAllParents);
+        assertEquals(recursiveAllParents, getContentParentIds(closureDao, childId, null));
+    }
+
+    @Test
+    void getContentByParentIdKeepsAttributesOfEachChild() {
+        final int childrenCount = 12;
+        final int batchSize = 5;
+        Content content = new Node();
+        content.setAttribute("parentNodeAttribute", "parent");
+        content.setParentId(0L);
+        content.setOwnerId(0L);
+        content.setDefaultPrivileges();
+        Long parentId = dataSourceFacade.createContent(content)
+                .flatMap(id -> Flux.range(0, childrenCount)
+                        .concatMap(index -> {
+                            Content child = new Node();
+                            child.setAttribute("childNodeAttribute", "child");
+                            child.setAttribute("index", index);
+                            child.setParentId(id);
+                            child.setOwnerId(0L);
+                            child.setDefaultPrivileges();
+                            return dataSourceFacade.createContent(child);
+                        })
+                        .then(Mono.just(id)))
+                .block();
+        // count the attribute statements issued by the real driver with a separate DAO reading by small windows
+        var attributeRepository = mock(ReactiveNodeAttributeEntityRepository.class,
+                delegatesTo(nodeAttributeEntityRepository));
+        var contentDao = createContentDao(attributeRepository);
+        ReflectionTestUtils.setField(contentDao, "batchSize", batchSize);
+        var children = contentDao.getContentByParentId(parentId).collectList().block();
+
+        assertNotNull(children);
+        assertEquals(childrenCount, children.size());
+        assertEquals(childrenCount, children.stream()
+                .map(child -> child.getAttribute("index"))
+                .distinct()
+                .count());
+        children.forEach(child -> {
+            assertEquals(2, child.getAttributes().size());
+            assertEquals("child", child.getAttribute("childNodeAttribute"));
+        });
+        verify(attributeRepository, times(3)).findAllByContentIds(any());
+        verify(attributeRepository, never()).findAllByContentId(anyLong());
+    }
+
+    @Test
+    void updateContentUpsertsAttributes() {
+        Content content = new Node();
+        content.setAttribute("existing", "oldValue");
+        content.setAttribute("untouched", 1L);
+        Long contentId = dataSourceFacade.createContent(content).block();
+        Map<String, Serializable> attributes = Map.of("existing", "newValue", "added", true);
+
+        dataSourceFacade.updateContent(contentId, attributes).block();
+        dataSourceFacade.updateContent(contentId, attributes).block();
+
+        var rows = databaseClient.sql("SELECT count(*) AS total FROM node_attribute WHERE content_id = :contentId")
+                .bind("contentId", contentId)
+                .map(row -> row.get("total", Long.class))
+                .one()
+                .block();
+        assertEquals(3L, rows);
+        var stored = dataSourceFacade.getContentAttribute(contentId, "existing").block();
+        assertEquals("newValue", stored);
+    }
+
+    @Test
+    void getContentByParentIdAndAttributeValueUsesIndexes() {
+        final int childrenCount = 100_000;
+        final int attributesCount = 10;
+        Content parent = new Node();
+        parent.setAttribute("parentNodeAttribute", "parent");
+        parent.setParentId(0L);
+        parent.setOwnerId(0L);
+        parent.setDefaultPrivileges();
+        Long parentId = dataSourceFacade.createContent(parent).block();
+        assertNotNull(parentId);
+        Content target = new Node();
+        target.setAttribute("attribute0", "target");
+        target.setAttribute("attribute1", "second");
+        target.setParentId(parentId);
+        target.setOwnerId(0L);
+        target.setDefaultPrivileges();
+        assertNotNull(dataSourceFacade.createContent(target).block());
+
+        // one million attributes of the children spread among a thousand parents
+        databaseClient.sql("INSERT INTO node_entity (parent_id, owner_id, entity_type, " +
+                        "owner_read_privilege, owner_write_privilege, owner_execute_privilege, owner_create_children_privilege, " +
+                        "role_read_privilege, role_write_privilege, role_execute_privilege, role_create_children_privilege, " +
+                        "other_read_privilege, other_write_privilege, other_execute_privilege, other_create_children_privilege) " +
+                        "SELECT :parentId + series % 1000, 0, 'bulk', true, true, true, true, true, false, true, false, true, false, false, false " +
+                        "FROM generate_series(1, :childrenCount) AS series")
+                .bind("parentId", parentId)
+                .bind("childrenCount", childrenCount)
+                .then()
+                .block();
+        databaseClient.sql("INSERT INTO node_attribute (content_id, attribute_key, attribute_value, attribute_value_hash, " +
+                        "java_class, creation_time, modification_time) " +
+                        "SELECT node.id, 'attribute' || attribute.number, " +
+                        "convert_to('\"value ' || node.id || '\"', 'UTF8'), hashtextextended('value ' || node.id, 0), " +
+                        "'java.lang.String', now(), now() " +
+                        "FROM node_entity AS node CROSS JOIN generate_series(0, :lastAttribute) AS attribute(number) " +
+                        "WHERE node.entity_type = 'bulk'")
+                .bind("lastAttribute", attributesCount - 1)
+                .then()
+                .block();
+        databaseClient.sql("ANALYZE node_entity").then().block();
+        databaseClient.sql("ANALYZE node_attribute").then().block();
+
+        var attributeValue = EntityUtils.toByteArray("target");
+        String plan = databaseClient.sql("EXPLAIN " + FIND_BY_PARENT_ID_AND_ATTRIBUTE_VALUE)
+                .bind("parentId", parentId)
+                .bind("attributeName", "attribute0")
+                .bind("attributeValue", attributeValue)
+                .bind("attributeValueHash", EntityUtils.hash(attributeValue))
+                .map(row -> row.get(0, String.class))
+                .all()
+                .collect(joining("\n"))
+                .block();
+
+        assertNotNull(plan);
+        assertTrue(plan.contains("idx_attribute_value_hash") || plan.contains("idx_attribute_key_content_id"), plan);
+        assertFalse(plan.contains("Seq Scan on node_attribute"), plan);
+
+        List<Content> found = dataSourceFacade.getContentByParentIdAndAttributeValue(parentId, "attribute0", "target")
+                .collectList()
+                .block();
+        assertNotNull(found);
+        assertEquals(1, found.size());
+        assertEquals("second", found.get(0).getAttribute("attribute1"));
+    }
+
+    private SqlContentDao createContentDao(ReactiveNodeAttributeEntityRepository attributeRepository) {
+        return new SqlContentDao(nodeEntityRepository, attributeRepository, databaseClient, objectMapper, cacheManager,
+                cacheAdapter);
+    }
+
+    private List<Long> getContentParentIds(SqlContentDao contentDao, Long id, Long offset) {
+        return contentDao.getContentParents(id, offset)
+                .map(Content::getId)
+                .collectList()
+                .block();
+    }
 }
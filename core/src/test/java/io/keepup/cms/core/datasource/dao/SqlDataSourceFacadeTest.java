@@ -1,5 +1,6 @@
 package io.keepup.cms.core.datasource.dao;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.keepup.cms.core.boot.KeepupApplication;
 import io.keepup.cms.core.cache.CacheAdapter;
 import io.keepup.cms.core.cache.KeepupCacheConfiguration;
@@ -18,6 +19,8 @@ import io.keepup.cms.core.datasource.sql.repository.ReactiveFileRepository;
 import io.keepup.cms.core.datasource.sql.repository.ReactiveNodeAttributeEntityRepository;
 import io.keepup.cms.core.datasource.sql.repository.ReactiveNodeEntityRepository;
 import io.keepup.cms.core.datasource.sql.repository.ReactiveUserEntityRepository;
+import io.keepup.cms.core.events.ContentChangedEvent;
+import io.keepup.cms.core.events.ContentEventBus;
 import io.keepup.cms.core.persistence.*;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.logging.Log;
@@ -31,15 +34,18 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.ReflectionTestUtils;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.math.BigDecimal;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
@@ -47,6 +53,7 @@ import java.io.Serializable;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
@@ -54,6 +61,13 @@ import static io.keepup.cms.core.datasource.access.ContentPrivilegesFactory.STAN
 import static io.keepup.cms.core.datasource.sql.EntityUtils.convertToLocalDateViaInstant;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 /**
  * Mostly all the tests are blocking, but that does not affect the logic being checked
@@ -98,6 +112,12 @@ class SqlDataSourceFacadeTest {
     DataSourceFacade dataSourceFacade;
     @Autowired
     H2ConsoleService h2ConsoleService;
+    @Autowired
+    ContentEventBus contentEventBus;
+    @Autowired
+    DatabaseClient databaseClient;
+    @Autowired
+    ObjectMapper objectMapper;
 
     @BeforeEach
     void setUp() {
@@ -149,6 +169,38 @@ class SqlDataSourceFacadeTest {
         assertNull(content.block());
     }
 
+    @Test
+    void getContentWithoutAttributes() {
+        var node = new Node();
+        node.setOwnerId(1L);
+        node.setParentId(0L);
+        node.setDefaultPrivileges();
+        var fromDatabase = dataSourceFacade.createContent(node)
+                .flatMap(id -> dataSourceFacade.getContent(id))
+                .block();
+
+        assertNotNull(fromDatabase);
+        assertNotNull(fromDatabase.getAttributes());
+        assertTrue(fromDatabase.getAttributes().isEmpty());
+        assertEquals(node.getContentPrivileges(), fromDatabase.getContentPrivileges());
+    }
+
+    @Test
+    void getContentByIdAndType() {
+        var node = getNode();
+        node.setEntityType("getContentByIdAndType");
+        var id = dataSourceFacade.createContent(node).block();
+        var wrongType = dataSourceFacade.getContentByIdAndType(id, "wrongType").block();
+        var fromDatabase = dataSourceFacade.getContentByIdAndType(id, "getContentByIdAndType").block();
+
+        assertNull(wrongType);
+        assertNotNull(fromDatabase);
+        assertEquals(id, fromDatabase.getId());
+        assertEquals("getContentByIdAndType", fromDatabase.getEntityType());
+        assertEquals("testValue", fromDatabase.getAttribute("testAttr"));
+        assertEquals(1, fromDatabase.getAttribute("integer"));
+    }
+
     @Test
     void getContentByIdWithChildrenOnlyOneNode() {
         Node node = getNode();
@@ -234,6 +286,159 @@ class SqlDataSourceFacadeTest {
         assertEquals("newTestValue", cacheAdapter.getContent(contentId).get().getAttribute("testAttr"));
     }
 
+    @Test
+    void updateContentUpsertsAttributes() {
+        Content node = getNode();
+        node.setAttribute("existing", "oldValue");
+        Long contentId = dataSourceFacade.createContent(node).block();
+        Map<String, Serializable> attributes = Map.of("existing", "newValue", "added", 42L);
+
+        dataSourceFacade.updateContent(contentId, attributes).block();
+        dataSourceFacade.updateContent(contentId, attributes).block();
+        cacheAdapter.deleteContent(contentId);
+
+        var stored = reactiveNodeAttributeEntityRepository.findAllByContentId(contentId).collectList().block();
+        assertNotNull(stored);
+        assertEquals(1, stored.stream().filter(attribute -> "existing".equals(attribute.getAttributeKey())).count());
+        assertEquals(1, stored.stream().filter(attribute -> "added".equals(attribute.getAttributeKey())).count());
+        var content = dataSourceFacade.getContent(contentId).block();
+        assertNotNull(content);
+        assertEquals("newValue", content.getAttribute("existing"));
+        assertEquals(42L, content.getAttribute("added"));
+        assertNull(dataSourceFacade.updateContent(null, attributes).block());
+    }
+
+    @Test
+    void updateContentIncrementsVersion() {
+        Content node = getNode();
+        node.setAttribute("versioned", "first");
+        Long contentId = dataSourceFacade.createContent(node).block();
+        var created = dataSourceFacade.getContent(contentId).block();
+        assertNotNull(created);
+        assertEquals(0L, created.getVersion());
+
+        dataSourceFacade.updateContent(contentId, Map.of("versioned", "second")).block();
+        assertEquals(1L, cacheAdapter.getContent(contentId).get().getVersion());
+        dataSourceFacade.updateContentAttribute(contentId, "versioned", "third").block();
+        assertEquals(2L, cacheAdapter.getContent(contentId).get().getVersion());
+
+        cacheAdapter.deleteContent(contentId);
+        var stored = dataSourceFacade.getContent(contentId).block();
+        assertNotNull(stored);
+        assertEquals(2L, stored.getVersion());
+        assertEquals("third", stored.getAttribute("versioned"));
+    }
+
+    @Test
+    void moveMissingRecordPublishesNothing() {
+        var events = new CopyOnWriteArrayList<ContentChangedEvent>();
+        var subscription = contentEventBus.events().subscribe(events::add);
+        var parentId = dataSourceFacade.createContent(getNode()).block();
+        try {
+            dataSourceFacade.moveContent(Long.MAX_VALUE, parentId).block();
+        } finally {
+            subscription.dispose();
+        }
+
+        assertTrue(events.stream().noneMatch(event -> Long.valueOf(Long.MAX_VALUE).equals(event.id())));
+        assertEquals(0L, dataSourceFacade.countDescendants(parentId).block());
+    }
+
+    @Test
+    void writesPublishContentEvents() {
+        var events = new CopyOnWriteArrayList<ContentChangedEvent>();
+        var subscription = contentEventBus.events().subscribe(events::add);
+        Content node = getNode();
+        node.setEntityType("observed");
+        node.setAttribute("observed", "first");
+        Long contentId = dataSourceFacade.createContent(node).block();
+
+        dataSourceFacade.updateContent(contentId, Map.of("observed", "second")).block();
+        dataSourceFacade.updateContentAttribute(contentId, "observed", "third").block();
+        dataSourceFacade.deleteContent(contentId).block();
+        subscription.dispose();
+
+        var contentEvents = events.stream()
+                .filter(event -> contentId.equals(event.id()))
+                .toList();
+        assertEquals(List.of(ContentChangedEvent.ChangeType.CREATED, ContentChangedEvent.ChangeType.UPDATED,
+                        ContentChangedEvent.ChangeType.UPDATED, ContentChangedEvent.ChangeType.DELETED),
+                contentEvents.stream().map(ContentChangedEvent::changeType).toList());
+        assertTrue(contentEvents.get(0).changedKeys().contains("observed"));
+        assertEquals(Set.of("observed"), contentEvents.get(1).changedKeys());
+        assertEquals(1L, contentEvents.get(1).version());
+        assertEquals(2L, contentEvents.get(2).version());
+        assertEquals(node.getParentId(), contentEvents.get(3).parentId());
+        assertEquals(node.getEntityType(), contentEvents.get(3).entityType());
+    }
+
+    @Test
+    void getDescendants() {
+        var parentId = createChildrenWithPrices();
+        var children = dataSourceFacade.getContentByParentId(parentId).collectList().block();
+        assertNotNull(children);
+        var grandChild = getNode();
+        grandChild.setParentId(children.get(0).getId());
+        grandChild.setEntityType("grandChild");
+        var grandChildId = dataSourceFacade.createContent(grandChild).block();
+
+        var tree = dataSourceFacade.getDescendants(parentId, 2, null).collectList().block();
+        var firstLevel = dataSourceFacade.getDescendants(parentId, 1, null).collectList().block();
+        var typed = dataSourceFacade.getDescendants(parentId, Integer.MAX_VALUE, "grandChild").collectList().block();
+
+        assertNotNull(tree);
+        assertEquals(children.size() + 2, tree.size());
+        assertEquals(parentId, tree.get(0).getId());
+        assertEquals(grandChildId, tree.get(tree.size() - 1).getId());
+        assertEquals("item_0", tree.get(1).getAttribute("name"));
+        assertNotNull(firstLevel);
+        assertEquals(children.size() + 1, firstLevel.size());
+        assertNotNull(typed);
+        assertEquals(1, typed.size());
+        assertEquals(grandChildId, typed.get(0).getId());
+        assertTrue(dataSourceFacade.getDescendants(parentId, -1, null).collectList().block().isEmpty());
+    }
+
+    @Test
+    void deleteSubtree() {
+        var parentId = createChildrenWithPrices();
+        var children = dataSourceFacade.getContentByParentId(parentId).collectList().block();
+        assertNotNull(children);
+        var grandChild = getNode();
+        grandChild.setParentId(children.get(0).getId());
+        grandChild.setEntityType("grandChild");
+        var grandChildId = dataSourceFacade.createContent(grandChild).block();
+        var sibling = dataSourceFacade.createContent(getNode()).block();
+        dataSourceFacade.getContent(grandChildId).block();
+        var events = new CopyOnWriteArrayList<ContentChangedEvent>();
+        var subscription = contentEventBus.events().subscribe(events::add);
+
+        final List<Long> deleted;
+        try {
+            deleted = dataSourceFacade.deleteSubtree(parentId).collectList().block();
+        } finally {
+            subscription.dispose();
+        }
+
+        // subtree events are filled the same way as the event about the single deleted record
+        var grandChildEvent = events.stream()
+                .filter(event -> grandChildId.equals(event.id()))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(ContentChangedEvent.ChangeType.DELETED, grandChildEvent.changeType());
+        assertEquals(grandChild.getParentId(), grandChildEvent.parentId());
+        assertEquals(grandChild.getEntityType(), grandChildEvent.entityType());
+        assertNotNull(deleted);
+        assertEquals(children.size() + 2, deleted.size());
+        assertTrue(deleted.containsAll(List.of(parentId, grandChildId)));
+        assertTrue(cacheAdapter.getContent(grandChildId).isEmpty());
+        assertNull(dataSourceFacade.getContent(grandChildId).block());
+        assertTrue(reactiveNodeAttributeEntityRepository.findAllByContentId(grandChildId).collectList().block().isEmpty());
+        assertNotNull(dataSourceFacade.getContent(sibling).block());
+        assertTrue(dataSourceFacade.deleteSubtree(parentId).collectList().block().isEmpty());
+        assertTrue(dataSourceFacade.deleteSubtree(null).collectList().block().isEmpty());
+    }
+
     @Test
     void deleteContent() {
         final AtomicLong identifier = new AtomicLong();
@@ -433,6 +638,222 @@ class SqlDataSourceFacadeTest {
         assertTrue(dataSourceFacade.getContentByParentIds(null).collect(Collectors.toList()).block().isEmpty());
     }
 
+    @Test
+    void getContentWithProjection() {
+        var parentId = dataSourceFacade.createContent(getNode()).block();
+        var child = getNode();
+        child.setParentId(parentId);
+        child.setEntityType("projected_type");
+        var childId = dataSourceFacade.createContent(child).block();
+        cacheAdapter.deleteContent(childId);
+        var projection = List.of("testAttr", "integer");
+
+        var projected = dataSourceFacade.getContentByParentIdsAndType(List.of(parentId), "projected_type", projection)
+                .collectList()
+                .block();
+        var page = dataSourceFacade.getContentByParentIdsAndType(List.of(parentId), "projected_type", null, 10, List.of())
+                .collectList()
+                .block();
+        var byAttributeNames = dataSourceFacade.getContentByParentIdAndByAttributeNames(parentId, List.of("anotherKey"), projection)
+                .collectList()
+                .block();
+
+        assertNotNull(projected);
+        assertEquals(1, projected.size());
+        assertEquals(Set.of("testAttr", "integer"), projected.get(0).getAttributes().keySet());
+        assertEquals("testValue", projected.get(0).getAttribute("testAttr"));
+        assertNotNull(page);
+        assertEquals(1, page.size());
+        assertTrue(page.get(0).getAttributes().isEmpty());
+        assertNotNull(byAttributeNames);
+        assertEquals(1, byAttributeNames.size());
+        assertEquals(Set.of("testAttr", "integer"), byAttributeNames.get(0).getAttributes().keySet());
+        // projected records should not be cached
+        var full = dataSourceFacade.getContent(childId).block();
+        assertNotNull(full);
+        assertTrue(full.hasAttribute("anotherKey"));
+        var projectedFromCache = dataSourceFacade.getContent(childId, List.of("anotherKey")).block();
+        assertNotNull(projectedFromCache);
+        assertEquals(Set.of("anotherKey"), projectedFromCache.getAttributes().keySet());
+        assertTrue(dataSourceFacade.getContent(childId).block().hasAttribute("testAttr"));
+    }
+
+    @Test
+    void getContentByParentIdKeepsAttributesOfEachChild() {
+        final int childrenCount = 7;
+        final int batchSize = 5;
+        var parentId = dataSourceFacade.createContent(getNode())
+                .flatMap(id -> Flux.range(0, childrenCount)
+                        .concatMap(index -> {
+                            var child = getNode();
+                            child.setParentId(id);
+                            child.setAttribute("index", index);
+                            return dataSourceFacade.createContent(child);
+                        })
+                        .then(Mono.just(id)))
+                .block();
+        // count the attribute statements issued by the real driver with a separate DAO reading by small windows
+        var attributeRepository = mock(ReactiveNodeAttributeEntityRepository.class,
+                delegatesTo(reactiveNodeAttributeEntityRepository));
+        var contentDao = new SqlContentDao(reactiveNodeEntityRepository, attributeRepository, databaseClient,
+                objectMapper, cacheManager, cacheAdapter);
+        ReflectionTestUtils.setField(contentDao, "batchSize", batchSize);
+        var children = contentDao.getContentByParentId(parentId).collectList().block();
+
+        assertNotNull(children);
+        assertEquals(childrenCount, children.size());
+        assertEquals(childrenCount, children.stream()
+                .map(child -> child.getAttribute("index"))
+                .distinct()
+                .count());
+        children.forEach(child -> {
+            assertEquals(5, child.getAttributes().size());
+            assertEquals("testValue", child.getAttribute("testAttr"));
+        });
+        verify(attributeRepository, times(2)).findAllByContentIds(any());
+        verify(attributeRepository, never()).findAllByContentId(anyLong());
+    }
+
+    @Test
+    void getContentByTypedAttributeValue() {
+        var parentId = createChildrenWithPrices();
+
+        var byPrice = dataSourceFacade.getContentByAttributeValue(parentId, "price", 30L).collectList().block();
+        var byName = dataSourceFacade.getContentByAttributeValue(parentId, "name", "item_2").collectList().block();
+        var byFlag = dataSourceFacade.getContentByAttributeValue(parentId, "even", true).collectList().block();
+        var byIntegerValue = dataSourceFacade.getContentByAttributeValue(parentId, "price", 30).collectList().block();
+        var byDoubleValue = dataSourceFacade.getContentByAttributeValue(parentId, "price", 30.0d).collectList().block();
+        var byDecimalValue = dataSourceFacade.getContentByAttributeValue(parentId, "price", new BigDecimal("30.00")).collectList().block();
+
+        assertNotNull(byPrice);
+        assertEquals(1, byPrice.size());
+        assertEquals(30L, byPrice.get(0).getAttribute("price"));
+        assertEquals("testValue", byPrice.get(0).getAttribute("testAttr"));
+        assertEquals(1, byName.size());
+        assertEquals(2, byName.get(0).getAttribute("index"));
+        assertEquals(3, byFlag.size());
+        assertEquals(1, byIntegerValue.size());
+        assertEquals(1, byDoubleValue.size());
+        assertEquals(1, byDecimalValue.size());
+        assertTrue(dataSourceFacade.getContentByAttributeValue(parentId, "price", new ArrayList<>()).collectList().block().isEmpty());
+        assertTrue(dataSourceFacade.getContentByAttributeValue(parentId, null, 30L).collectList().block().isEmpty());
+    }
+
+    @Test
+    void getContentByTypedAttributeRange() {
+        var parentId = createChildrenWithPrices();
+
+        var between = dataSourceFacade.getContentByAttributeRange(parentId, "price", 10L, 30L).collectList().block();
+        var from = dataSourceFacade.getContentByAttributeRange(parentId, "price", 30L, null).collectList().block();
+        var to = dataSourceFacade.getContentByAttributeRange(parentId, "weight", null, 1.5d).collectList().block();
+        var byName = dataSourceFacade.getContentByAttributeRange(parentId, "name", "item_1", "item_3").collectList().block();
+        var mixed = dataSourceFacade.getContentByAttributeRange(parentId, "price", 10L, 30.5d).collectList().block();
+
+        assertNotNull(between);
+        assertEquals(3, between.size());
+        assertTrue(between.stream().allMatch(content -> (Long) content.getAttribute("price") >= 10L
+                && (Long) content.getAttribute("price") <= 30L));
+        assertEquals(2, from.size());
+        assertEquals(4, to.size());
+        assertEquals(3, byName.size());
+        assertEquals(3, mixed.size());
+        assertTrue(dataSourceFacade.getContentByAttributeRange(parentId, "price", 10L, "item_3").collectList().block().isEmpty());
+        assertTrue(dataSourceFacade.getContentByAttributeRange(parentId, "price", null, null).collectList().block().isEmpty());
+    }
+
+    @Test
+    void getContentByTypedAttributeAfterUpdate() {
+        var parentId = createChildrenWithPrices();
+        var content = dataSourceFacade.getContentByAttributeValue(parentId, "price", 0L).blockFirst();
+        assertNotNull(content);
+
+        dataSourceFacade.updateContentAttribute(content.getId(), "price", 1000L).block();
+        var updated = dataSourceFacade.getContentByAttributeRange(null, "price", 1000L, null)
+                .map(Content::getId)
+                .collectList()
+                .block();
+
+        assertNotNull(updated);
+        assertTrue(updated.contains(content.getId()));
+        assertTrue(dataSourceFacade.getContentByAttributeValue(parentId, "price", 0L).collectList().block().isEmpty());
+    }
+
+    @Test
+    void getContentByParentIdsPages() {
+        var parentId = createChildrenWithPrices();
+        var parentIds = Collections.singletonList(parentId);
+
+        var firstPage = dataSourceFacade.getContentByParentIds(parentIds, null, 2).collectList().block();
+        assertNotNull(firstPage);
+        assertEquals(List.of(0, 1), firstPage.stream().map(content -> content.getAttribute("index")).toList());
+
+        var lastId = firstPage.get(1).getId();
+        var secondPage = dataSourceFacade.getContentByParentIds(parentIds, lastId, 2).collectList().block();
+        assertNotNull(secondPage);
+        assertEquals(List.of(2, 3), secondPage.stream().map(content -> content.getAttribute("index")).toList());
+
+        var lastPage = dataSourceFacade.getContentByParentIds(parentIds, secondPage.get(1).getId(), 2).collectList().block();
+        assertNotNull(lastPage);
+        assertEquals(1, lastPage.size());
+        assertEquals(4, lastPage.get(0).getAttribute("index"));
+
+        assertTrue(dataSourceFacade.getContentByParentIds(parentIds, lastPage.get(0).getId(), 2).collectList().block().isEmpty());
+        assertTrue(dataSourceFacade.getContentByParentIds(parentIds, null, 0).collectList().block().isEmpty());
+    }
+
+    @Test
+    void getContentPages() {
+        var parentId = createChildrenWithPrices();
+        var children = dataSourceFacade.getContent(parentId, 10).collectList().block();
+
+        assertNotNull(children);
+        assertEquals(5, children.size());
+        children.forEach(child -> assertTrue(child.getId() > parentId));
+        assertTrue(dataSourceFacade.getContent(null, -1).collectList().block().isEmpty());
+    }
+
+    @Test
+    void createContents() {
+        var parentId = dataSourceFacade.createContent(getNode()).block();
+        var nodes = Flux.range(0, 7)
+                .map(index -> {
+                    var child = getNode();
+                    child.setParentId(parentId);
+                    child.setAttribute("index", index);
+                    child.setAttribute("name", "item_%d".formatted(index));
+                    return (Content) child;
+                });
+        var ids = dataSourceFacade.createContents(nodes).collectList().block();
+
+        assertNotNull(ids);
+        assertEquals(7, ids.size());
+        for (var i = 0; i < ids.size(); i++) {
+            var content = dataSourceFacade.getContent(ids.get(i)).block();
+            assertNotNull(content);
+            assertEquals(parentId, content.getParentId());
+            assertEquals(i, content.getAttribute("index"));
+            assertEquals("item_%d".formatted(i), content.getAttribute("name"));
+        }
+        assertTrue(dataSourceFacade.createContents(Flux.empty()).collectList().block().isEmpty());
+    }
+
+    private Long createChildrenWithPrices() {
+        return dataSourceFacade.createContent(getNode())
+                .flatMap(parentId -> Flux.range(0, 5)
+                        .concatMap(index -> {
+                            var child = getNode();
+                            child.setParentId(parentId);
+                            child.setAttribute("index", index);
+                            child.setAttribute("name", "item_%d".formatted(index));
+                            child.setAttribute("price", index * 10L);
+                            child.setAttribute("weight", index * 0.5d);
+                            child.setAttribute("even", index % 2 == 0);
+                            return dataSourceFacade.createContent(child);
+                        })
+                        .then(Mono.just(parentId)))
+                .block();
+    }
+
     @Test
     void getFileAsStream() throws IOException {
 
@@ -0,0 +1,105 @@
+package io.keepup.cms.core.datasource.dao.sql;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.keepup.cms.core.persistence.ValueEnvelope;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class AttributeValueDecoderTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void decodeValues() throws IOException, ClassNotFoundException {
+        var decoder = new AttributeValueDecoder(mapper);
+        var values = List.<Serializable>of("plain", "quoted \"value\"", "юникод", "",
+                0L, -1L, Long.MAX_VALUE, Long.MIN_VALUE,
+                42, Integer.MIN_VALUE, true, false,
+                1.5d, -0.0d, 1.0E-10d, Double.NaN, Double.POSITIVE_INFINITY,
+                new BigDecimal("10.25"));
+
+        for (Serializable value : values) {
+            assertEquals(value, decode(decoder, value), value.toString());
+        }
+    }
+
+    @Test
+    void decodeLists() throws IOException, ClassNotFoundException {
+        var decoder = new AttributeValueDecoder(mapper);
+        var list = Arrays.asList("a", "b");
+
+        assertEquals(new ArrayList<>(list), decode(decoder, (Serializable) list));
+        assertEquals(new ArrayList<>(list), decoder.decode(ArrayList.class.getName(), mapper.writeValueAsBytes(list)));
+    }
+
+    @Test
+    void decodeNull() throws IOException, ClassNotFoundException {
+        var decoder = new AttributeValueDecoder(mapper);
+
+        assertNull(decoder.decode(String.class.getName(), null));
+        assertNull(decoder.decode(String.class.getName(), "null".getBytes()));
+        assertNull(decoder.decode(Long.class.getName(), "null".getBytes()));
+    }
+
+    @Test
+    void decodeEnvelopes() throws IOException, ClassNotFoundException {
+        var decoder = new AttributeValueDecoder(mapper);
+        var envelope = ValueEnvelope.of(Map.of("key", "value"));
+
+        assertEquals(envelope, decode(decoder, envelope));
+    }
+
+    @Test
+    void decodeLegacyProxies() throws IOException, ClassNotFoundException {
+        var decoder = new AttributeValueDecoder(mapper);
+
+        var decoded = decoder.decode("io.keepup.cms.core.Value$$EnhancerByCGLIB$$3f1a2b", "{\"integer\":1}".getBytes());
+
+        var envelope = assertInstanceOf(ValueEnvelope.class, decoded);
+        assertEquals("io.keepup.cms.core.Value", envelope.getType());
+        assertEquals(1, envelope.getValue().get("integer").asInt());
+    }
+
+    @Test
+    void readersAreResolvedOnce() throws IOException, ClassNotFoundException {
+        var spyMapper = Mockito.spy(new ObjectMapper());
+        var decoder = new AttributeValueDecoder(spyMapper);
+
+        for (var i = 0; i < 10; i++) {
+            decoder.decode(BigDecimal.class.getName(), mapper.writeValueAsBytes(BigDecimal.valueOf(i)));
+            decoder.decode(Long.class.getName(), mapper.writeValueAsBytes((long) i));
+        }
+
+        verify(spyMapper, times(2)).readerFor(any(Class.class));
+    }
+
+    @Test
+    void decodeWithWrongTypes() {
+        var decoder = new AttributeValueDecoder(mapper);
+
+        assertThrows(ClassNotFoundException.class, () -> decoder.decode("NonExistingClass", new byte[0]));
+        assertThrows(IOException.class, () -> decoder.decode(Long.class.getName(), "String value".getBytes()));
+        assertThrows(IOException.class, () -> decoder.decode(Integer.class.getName(), mapper.writeValueAsBytes(Long.MAX_VALUE)));
+        assertThrows(IOException.class, () -> decoder.decode(Map.class.getName(), "[1, 2]".getBytes()));
+    }
+
+    private Serializable decode(AttributeValueDecoder decoder, Serializable value) throws IOException, ClassNotFoundException {
+        return decoder.decode(value.getClass().getName(), mapper.writeValueAsBytes(value));
+    }
+}
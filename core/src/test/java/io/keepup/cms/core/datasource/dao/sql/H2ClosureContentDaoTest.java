@@ -0,0 +1,129 @@
+package io.keepup.cms.core.datasource.dao.sql;
+
+import io.keepup.cms.core.boot.KeepupApplication;
+import io.keepup.cms.core.cache.CacheAdapter;
+import io.keepup.cms.core.cache.KeepupCacheConfiguration;
+import io.keepup.cms.core.config.DataSourceConfiguration;
+import io.keepup.cms.core.config.R2dbcConfiguration;
+import io.keepup.cms.core.config.WebFluxConfig;
+import io.keepup.cms.core.datasource.sql.H2ConsoleService;
+import io.keepup.cms.core.datasource.sql.repository.ReactiveNodeAttributeEntityRepository;
+import io.keepup.cms.core.datasource.sql.repository.ReactiveNodeEntityRepository;
+import io.keepup.cms.core.datasource.sql.repository.ReactiveUserEntityRepository;
+import io.keepup.cms.core.persistence.Content;
+import io.keepup.cms.core.persistence.Node;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import reactor.core.publisher.Flux;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reads of {@link H2ContentDao} through node_closure table
+ */
+@RunWith(SpringRunner.class)
+@ActiveProfiles({"dev", "h2"})
+@ContextConfiguration(classes = {
+        KeepupApplication.class,
+        KeepupCacheConfiguration.class,
+        CacheAdapter.class,
+        WebFluxConfig.class,
+        ReactiveNodeEntityRepository.class,
+        ReactiveNodeAttributeEntityRepository.class,
+        ReactiveUserEntityRepository.class,
+        DataSourceConfiguration.class,
+        H2ConsoleService.class,
+        R2dbcConfiguration.class,
+        H2ContentDao.class,
+})
+@TestPropertySource(properties = "keepup.datasource.content.closure-enabled=true")
+@DataR2dbcTest
+class H2ClosureContentDaoTest {
+
+    @Autowired
+    H2ContentDao h2ContentDao;
+
+    @Test
+    void closureTableIsMaintained() {
+        var grandParent = h2ContentDao.createContent(createRecord(0L, Pair.of("key", "firstParent"))).block();
+        var parent = h2ContentDao.createContent(createRecord(grandParent, Pair.of("key", "secondParent"))).block();
+        var child = h2ContentDao.createContents(Flux.just(createRecord(parent, Pair.of("key", "child"))))
+                .blockFirst();
+
+        var parents = h2ContentDao.getContentParents(child, Long.MAX_VALUE).collectList().block();
+        assertNotNull(parents);
+        assertEquals(2, parents.size());
+        assertEquals(parent, parents.get(0).getId());
+        assertEquals(grandParent, parents.get(1).getId());
+        assertEquals(2L, h2ContentDao.countDescendants(grandParent).block());
+
+        h2ContentDao.moveContent(child, grandParent).block();
+        assertEquals(1, h2ContentDao.getContentParents(child, null).collectList().block().size());
+        assertEquals(0L, h2ContentDao.countDescendants(parent).block());
+        assertThrows(IllegalArgumentException.class, () -> h2ContentDao.moveContent(grandParent, child).block());
+
+        var deleted = h2ContentDao.deleteSubtree(grandParent).collectList().block();
+        assertNotNull(deleted);
+        assertEquals(3, deleted.size());
+        assertEquals(0L, h2ContentDao.countDescendants(grandParent).block());
+    }
+
+    @Test
+    void closureTableIsMaintainedOnDeleteOfMiddleRecord() {
+        var grandParent = h2ContentDao.createContent(createRecord(0L, Pair.of("key", "firstParent"))).block();
+        var parent = h2ContentDao.createContent(createRecord(grandParent, Pair.of("key", "secondParent"))).block();
+        var child = h2ContentDao.createContent(createRecord(parent, Pair.of("key", "child"))).block();
+        h2ContentDao.deleteContent(parent).block();
+
+        // the orphaned child is not reachable from the top record by any path
+        assertEquals(0L, h2ContentDao.countDescendants(grandParent).block());
+        assertEquals(List.of(grandParent), h2ContentDao.deleteSubtree(grandParent).collectList().block());
+        assertTrue(h2ContentDao.getContentParents(child, null).collectList().block().isEmpty());
+        h2ContentDao.deleteContent(child).block();
+    }
+
+    @Test
+    void getDescendantsBySupertype() {
+        var root = h2ContentDao.createContent(createRecord(0L, Pair.of("key", "root"))).block();
+        var list = createRecord(root, Pair.of("key", "list"));
+        list.setEntityType(ArrayList.class.getTypeName());
+        var listId = h2ContentDao.createContent(list).block();
+        var other = createRecord(root, Pair.of("key", "other"));
+        other.setEntityType("someOtherType");
+        h2ContentDao.createContent(other).block();
+
+        assertEquals(List.of(listId), getDescendantIds(root, List.class.getTypeName()));
+        assertEquals(List.of(listId), getDescendantIds(root, AbstractList.class.getTypeName()));
+        assertEquals(List.of(listId), getDescendantIds(root, ArrayList.class.getTypeName()));
+        assertTrue(getDescendantIds(root, Map.class.getTypeName()).isEmpty());
+        h2ContentDao.deleteSubtree(root).blockLast();
+    }
+
+    private List<Long> getDescendantIds(Long id, String type) {
+        return h2ContentDao.getDescendants(id, 1, type)
+                .map(Content::getId)
+                .collectList()
+                .block();
+    }
+
+    private Content createRecord(long parentId, Pair<String, String> attribute) {
+        Content node = new Node();
+        node.setDefaultPrivileges();
+        node.setParentId(parentId);
+        node.setOwnerId(0L);
+        node.setAttribute(attribute.getLeft(), attribute.getRight());
+        return node;
+    }
+}
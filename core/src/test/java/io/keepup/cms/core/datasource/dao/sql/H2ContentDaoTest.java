@@ -24,7 +24,11 @@ import reactor.core.Exceptions;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.AbstractList;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -140,6 +144,30 @@ class H2ContentDaoTest {
                 .block();
     }
 
+    @Test
+    void getDescendantsBySupertype() {
+        var root = h2ContentDao.createContent(createRecord(0L, Pair.of("key", "root"))).block();
+        var list = createRecord(root, Pair.of("key", "list"));
+        list.setEntityType(ArrayList.class.getTypeName());
+        var listId = h2ContentDao.createContent(list).block();
+        var other = createRecord(root, Pair.of("key", "other"));
+        other.setEntityType("someOtherType");
+        h2ContentDao.createContent(other).block();
+
+        assertEquals(List.of(listId), getDescendantIds(root, List.class.getTypeName()));
+        assertEquals(List.of(listId), getDescendantIds(root, AbstractList.class.getTypeName()));
+        assertEquals(List.of(listId), getDescendantIds(root, ArrayList.class.getTypeName()));
+        assertTrue(getDescendantIds(root, Map.class.getTypeName()).isEmpty());
+        h2ContentDao.deleteSubtree(root).blockLast();
+    }
+
+    private List<Long> getDescendantIds(Long id, String type) {
+        return h2ContentDao.getDescendants(id, 1, type)
+                .map(Content::getId)
+                .collectList()
+                .block();
+    }
+
     Content createRecord(long parentId, Pair<String, String> attribute) {
         Content node = new Node();
         node.setDefaultPrivileges();
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.keepup.cms.core.cache.CacheAdapter;
 import io.keepup.cms.core.datasource.sql.entity.NodeAttributeEntity;
+import io.keepup.cms.core.datasource.sql.entity.NodeEntity;
 import io.keepup.cms.core.datasource.sql.repository.ReactiveNodeAttributeEntityRepository;
 import io.keepup.cms.core.datasource.sql.repository.ReactiveNodeEntityRepository;
 import io.keepup.cms.core.persistence.Content;
@@ -15,16 +16,22 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.cache.CacheManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.LongStream;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
 
 /**
  * Additional unit tests
@@ -39,6 +46,8 @@ class SqlContentDaoTest {
     @Mock
     ReactiveNodeAttributeEntityRepository reactiveNodeAttributeEntityRepository;
     @Mock
+    DatabaseClient databaseClient;
+    @Mock
     ObjectMapper objectMapper;
     @Mock
     CacheManager manager;
@@ -53,8 +62,11 @@ class SqlContentDaoTest {
     void setUp() {
         MockitoAnnotations.openMocks(this);
         adapter = new CacheAdapter(manager);
+        lenient().when(objectMapper.readerFor(any(Class.class)))
+                .thenAnswer(invocation -> new ObjectMapper().readerFor(invocation.getArgument(0, Class.class)));
         sqlContentDao = new SqlContentDao(reactiveNodeEntityRepository,
                 reactiveNodeAttributeEntityRepository,
+                databaseClient,
                 objectMapper,
                 manager,
                 adapter);
@@ -121,13 +133,11 @@ class SqlContentDaoTest {
 
         when(reactiveNodeAttributeEntityRepository.findByContentIdAndAttributeKey(2000L, "list"))
                 .thenReturn(Mono.just(nodeAttribute));
-        when(objectMapper.readValue(nodeAttribute.getAttributeValue(), ArrayList.class))
-                .thenReturn(listAttribute);
 
         sqlContentDao.getContentAttribute(2000L, "list")
                 .doOnNext(serializable -> {
                     assertNotNull(serializable);
-                    assertTrue(serializable instanceof List);
+                    assertEquals(listAttribute, serializable);
                 })
                 .block();
     }
@@ -148,4 +158,53 @@ class SqlContentDaoTest {
                 .doOnNext(serializable -> assertNull(serializable))
                 .block();
     }
-}
\ No newline at end of file
+
+    @Test
+    void getContentFetchesAttributesByWindows() {
+        ReflectionTestUtils.setField(sqlContentDao, "batchSize", 2);
+        var nodeEntities = LongStream.rangeClosed(1, 5)
+                .mapToObj(SqlContentDaoTest::getNodeEntity)
+                .toList();
+        when(reactiveNodeEntityRepository.findAll()).thenReturn(Flux.fromIterable(nodeEntities));
+        when(reactiveNodeAttributeEntityRepository.findAllByContentIds(any()))
+                .thenAnswer(invocation -> Flux.fromIterable(invocation.<Iterable<Long>>getArgument(0))
+                        .map(id -> new NodeAttributeEntity(id, "key_%d".formatted(id), "value")));
+
+        var result = sqlContentDao.getContent().collectList().block();
+
+        assertNotNull(result);
+        assertEquals(5, result.size());
+        for (var i = 0; i < result.size(); i++) {
+            var content = result.get(i);
+            assertEquals(nodeEntities.get(i).getId(), content.getId());
+            assertEquals(1, content.getAttributes().size());
+            assertTrue(content.hasAttribute("key_%d".formatted(content.getId())));
+        }
+        verify(reactiveNodeAttributeEntityRepository, times(3)).findAllByContentIds(any());
+        verify(reactiveNodeAttributeEntityRepository, never()).findAllByContentId(anyLong());
+    }
+
+    @Test
+    void getContentByParentIdWithoutBatchLoading() {
+        ReflectionTestUtils.setField(sqlContentDao, "batchLoading", false);
+        when(reactiveNodeEntityRepository.findByParentIds(any()))
+                .thenReturn(Flux.just(getNodeEntity(1L), getNodeEntity(2L)));
+        when(reactiveNodeAttributeEntityRepository.findAllByContentId(anyLong()))
+                .thenAnswer(invocation -> Flux.just(new NodeAttributeEntity(invocation.getArgument(0), "key", "value")));
+
+        var result = sqlContentDao.getContentByParentId(0L).collectList().block();
+
+        assertNotNull(result);
+        assertEquals(2, result.size());
+        verify(reactiveNodeAttributeEntityRepository, times(2)).findAllByContentId(anyLong());
+        verify(reactiveNodeAttributeEntityRepository, never()).findAllByContentIds(any());
+    }
+
+    private static NodeEntity getNodeEntity(long id) {
+        var nodeEntity = new NodeEntity();
+        nodeEntity.setId(id);
+        nodeEntity.setParentId(0L);
+        nodeEntity.setOwnerId(0L);
+        return nodeEntity;
+    }
+}
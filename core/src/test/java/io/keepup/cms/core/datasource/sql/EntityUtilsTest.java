@@ -4,7 +4,11 @@ import org.junit.jupiter.api.Test;
 
 import java.io.Serializable;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 /**
  * Simple tests to exclude nullability and other weird things
@@ -20,6 +24,15 @@ class EntityUtilsTest {
         assertNotNull(EntityUtils.toByteArray(new ClassThatCauseMappingException()));
     }
 
+    @Test
+    void hash() {
+        assertNull(EntityUtils.hash(null));
+        assertEquals(0xCBF29CE484222325L, EntityUtils.hash(new byte[0]));
+        assertEquals(0xAF63DC4C8601EC8CL, EntityUtils.hash("a".getBytes(UTF_8)));
+        assertEquals(EntityUtils.hash(EntityUtils.toByteArray("value")), EntityUtils.hash(EntityUtils.toByteArray("value")));
+        assertNotEquals(EntityUtils.hash(EntityUtils.toByteArray("value")), EntityUtils.hash(EntityUtils.toByteArray("values")));
+    }
+
 
     private static class ClassThatCauseMappingException implements Serializable {
         private final ClassThatCauseMappingException self = this;
@@ -10,6 +10,10 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.Mockito;
 import org.mockito.Spy;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Date;
+
 class NodeAttributeEntityTest {
 
     NodeAttributeEntity userAttribute;
@@ -39,4 +43,33 @@ class NodeAttributeEntityTest {
         Assertions.assertEquals("java.lang.Byte[]", userAttribute.getJavaClass());
     }
 
+    @Test
+    void setTypedValue() {
+        var attribute = new NodeAttributeEntity();
+        attribute.setTypedValue(5);
+        Assertions.assertEquals(0, new BigDecimal("5.0").compareTo(attribute.getNumberValue()));
+
+        attribute.setTypedValue(new Date(0));
+        Assertions.assertNull(attribute.getNumberValue());
+        Assertions.assertEquals(LocalDateTime.of(1970, 1, 1, 0, 0), attribute.getDateValue());
+
+        attribute.setTypedValue(0.1f);
+        Assertions.assertEquals(new BigDecimal("0.1"), attribute.getNumberValue());
+
+        attribute.setTypedValue(new BigDecimal("10.250000000000000000001"));
+        Assertions.assertEquals(new BigDecimal("10.250000000000000000001"), attribute.getNumberValue());
+
+        attribute.setTypedValue(Double.NaN);
+        Assertions.assertNull(attribute.getNumberValue());
+
+        attribute.setTypedValue(1.5d);
+
+        attribute.setTypedValue("a".repeat(TypedAttributeColumn.MAX_STRING_LENGTH + 1));
+        Assertions.assertNull(attribute.getStringValue());
+        Assertions.assertNull(attribute.getNumberValue());
+
+        attribute.setTypedValue(false);
+        Assertions.assertEquals(Boolean.FALSE, attribute.getBooleanValue());
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,113 @@
+package io.keepup.cms.core.events;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static io.keepup.cms.core.events.ContentChangedEvent.ChangeType.DELETED;
+import static io.keepup.cms.core.events.ContentChangedEvent.ChangeType.UPDATED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContentEventBusTest {
+
+    private ContentEventBus eventBus;
+
+    @AfterEach
+    void tearDown() {
+        if (eventBus != null) {
+            eventBus.destroy();
+        }
+    }
+
+    @Test
+    void eventsArePublishedToSubscribers() {
+        eventBus = getEventBus(Map.of());
+        var event = getEvent(1L);
+
+        StepVerifier.create(eventBus.events().take(1))
+                .then(() -> eventBus.publish(event))
+                .expectNext(event)
+                .verifyComplete();
+    }
+
+    @Test
+    void eventsWithoutSubscribersAreDiscarded() {
+        eventBus = getEventBus(Map.of());
+        eventBus.publish(getEvent(1L));
+
+        StepVerifier.create(eventBus.events().take(1))
+                .then(() -> eventBus.publish(getEvent(2L)))
+                .expectNextMatches(event -> event.id() == 2L)
+                .verifyComplete();
+    }
+
+    @Test
+    void sinksAreSubscribedAndFailedSinkKeepsReceivingEvents() throws InterruptedException {
+        var received = new CopyOnWriteArrayList<Long>();
+        var latch = new CountDownLatch(2);
+        ContentChangedEventSink failingSink = event -> {
+            received.add(event.id());
+            latch.countDown();
+            throw new IllegalStateException("Sink failure");
+        };
+        eventBus = getEventBus(Map.of("failingSink", failingSink));
+        eventBus.afterSingletonsInstantiated();
+
+        eventBus.publish(getEvent(1L));
+        eventBus.publish(getEvent(2L));
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(1L, 2L), received);
+    }
+
+    @Test
+    void oldestEventsAreDroppedForSlowSubscriber() {
+        eventBus = getEventBus(Map.of());
+        ReflectionTestUtils.setField(eventBus, "bufferSize", 2);
+
+        StepVerifier.create(eventBus.events(), 0)
+                .then(() -> {
+                    for (var id = 1L; id <= 5L; id++) {
+                        eventBus.publish(getEvent(id));
+                    }
+                })
+                .thenAwait(Duration.ofMillis(10))
+                .thenRequest(2)
+                .expectNextMatches(event -> event.id() == 4L)
+                .expectNextMatches(event -> event.id() == 5L)
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void remoteCopyKeepsEventData() {
+        var event = new ContentChangedEvent(DELETED, 1L, 2L, "type", Set.of(), null, null, false);
+        var remote = event.asRemote();
+
+        assertTrue(remote.remote());
+        assertEquals(event.id(), remote.id());
+        assertEquals(event.parentId(), remote.parentId());
+        assertEquals(event.entityType(), remote.entityType());
+    }
+
+    private ContentEventBus getEventBus(Map<String, ContentChangedEventSink> sinks) {
+        var beanFactory = new StaticListableBeanFactory();
+        sinks.forEach(beanFactory::addBean);
+        return new ContentEventBus(beanFactory.getBeanProvider(ContentChangedEventSink.class));
+    }
+
+    private ContentChangedEvent getEvent(Long id) {
+        return new ContentChangedEvent(UPDATED, id, 0L, "type", Set.of("name"), 1L, null, false);
+    }
+}
@@ -0,0 +1,91 @@
+package io.keepup.cms.core.events;
+
+import io.keepup.cms.core.datasource.dao.DataSourceFacade;
+import io.keepup.cms.core.persistence.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Set;
+
+import static io.keepup.cms.core.events.ContentChangedEvent.ChangeType.UPDATED;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ContentEventControllerTest {
+
+    private static final long OWNER_ID = 1L;
+    private static final long READER_ID = 2L;
+
+    private ContentEventBus eventBus;
+    private DataSourceFacade dataSourceFacade;
+    private ContentEventController controller;
+
+    @BeforeEach
+    void setUp() {
+        eventBus = new ContentEventBus(new StaticListableBeanFactory().getBeanProvider(ContentChangedEventSink.class));
+        dataSourceFacade = mock(DataSourceFacade.class);
+        when(dataSourceFacade.getUser(anyLong())).thenReturn(Mono.empty());
+        when(dataSourceFacade.getUser(OWNER_ID)).thenReturn(Mono.just(getUser(OWNER_ID, "ROLE_EDITOR")));
+        controller = new ContentEventController(eventBus, dataSourceFacade);
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventBus.destroy();
+    }
+
+    @Test
+    void anonymousSessionReceivesOnlyPublicRecords() {
+        StepVerifier.create(controller.streamEvents(null, null).map(ServerSentEvent::id).take(1))
+                .then(() -> {
+                    eventBus.publish(getEvent(10L, new ContentChangedEvent.ReadAccess(OWNER_ID, true, true, false)));
+                    eventBus.publish(getEvent(11L, null));
+                    eventBus.publish(getEvent(12L, new ContentChangedEvent.ReadAccess(OWNER_ID, true, true, true)));
+                })
+                .expectNext("12")
+                .verifyComplete();
+    }
+
+    @Test
+    void sessionUserReceivesOwnedAndSameRoleRecords() {
+        var reader = getUser(READER_ID, "ROLE_EDITOR");
+        var events = controller.streamEvents(null, null)
+                .map(ServerSentEvent::id)
+                .take(2)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(
+                        new UsernamePasswordAuthenticationToken(reader, null, reader.getAuthorities())));
+
+        StepVerifier.create(events)
+                .then(() -> {
+                    eventBus.publish(getEvent(10L, new ContentChangedEvent.ReadAccess(OWNER_ID, true, false, false)));
+                    eventBus.publish(getEvent(11L, new ContentChangedEvent.ReadAccess(READER_ID, true, false, false)));
+                    eventBus.publish(getEvent(12L, new ContentChangedEvent.ReadAccess(3L, true, true, false)));
+                    eventBus.publish(getEvent(13L, new ContentChangedEvent.ReadAccess(OWNER_ID, true, true, false)));
+                })
+                .expectNext("11", "13")
+                .verifyComplete();
+    }
+
+    private ContentChangedEvent getEvent(Long id, ContentChangedEvent.ReadAccess readAccess) {
+        return new ContentChangedEvent(UPDATED, id, 0L, "type", Set.of("name"), 1L, readAccess, false);
+    }
+
+    private User getUser(long id, String role) {
+        var user = new User();
+        user.setId(id);
+        user.setUsername("user" + id);
+        user.setAuthorities(List.<GrantedAuthority>of(new SimpleGrantedAuthority(role)));
+        return user;
+    }
+}
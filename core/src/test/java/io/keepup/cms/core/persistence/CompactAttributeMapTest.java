@@ -0,0 +1,68 @@
+package io.keepup.cms.core.persistence;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactAttributeMapTest {
+
+    @Test
+    void resolveDottedKeys() {
+        var node = new Node(1L);
+        node.setAttribute("description.html", "<p>text</p>");
+        node.setAttribute("name", "value");
+        node.setAttribute("price.usd", 10L);
+        node.setAttribute("price.eur", 9L);
+
+        assertEquals("<p>text</p>", node.getAttribute("description"));
+        assertEquals("<p>text</p>", node.getAttribute("description.html"));
+        assertEquals("value", node.getAttribute("name"));
+        assertNull(node.getAttribute("description.txt"));
+        assertNull(node.getAttribute("missing"));
+
+        node.removeAttribute("price.eur");
+        assertEquals(10L, node.getAttribute("price"));
+        node.removeAttribute("price.usd");
+        assertNull(node.getAttribute("price"));
+        node.removeAttribute("description.html");
+        assertNull(node.getAttribute("description"));
+        assertFalse(node.hasAttribute(null));
+    }
+
+    @Test
+    void growAndShrink() {
+        var attributes = new CompactAttributeMap<Serializable>();
+        var expected = new HashMap<String, Serializable>();
+        for (var i = 0; i < 1000; i++) {
+            attributes.put("key" + i, i);
+            expected.put("key" + i, i);
+            if (i % 3 == 0) {
+                assertEquals(i, attributes.remove("key" + i));
+                expected.remove("key" + i);
+            }
+        }
+
+        assertEquals(expected, attributes);
+        assertEquals(expected.hashCode(), attributes.hashCode());
+        assertEquals(expected.keySet(), attributes.keySet());
+        assertEquals(2, attributes.put("key2", "updated"));
+        assertEquals("updated", attributes.get("key2"));
+    }
+
+    @Test
+    void iteratorRemovesEntries() {
+        var attributes = new CompactAttributeMap<>(Map.<String, Serializable>of("a.x", 1, "b", 2, "c", 3));
+
+        attributes.entrySet().removeIf(entry -> !"b".equals(entry.getKey()));
+
+        assertEquals(Map.of("b", 2), attributes);
+        assertNull(attributes.resolveKey("a"));
+        attributes.clear();
+        assertTrue(attributes.isEmpty());
+        assertNull(attributes.get(null));
+    }
+}
@@ -0,0 +1,79 @@
+package io.keepup.cms.core.persistence;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LazyAttributeMapTest {
+
+    private final AtomicInteger decoded = new AtomicInteger();
+    private LazyAttributeMap attributes;
+
+    @BeforeEach
+    void setUp() {
+        decoded.set(0);
+        attributes = new LazyAttributeMap((javaClass, value) -> {
+            decoded.incrementAndGet();
+            return value == null ? null : new String(value, UTF_8);
+        });
+        attributes.putEncoded("name", String.class.getName(), "value".getBytes(UTF_8));
+        attributes.putEncoded("description.html", String.class.getName(), "<p>text</p>".getBytes(UTF_8));
+    }
+
+    @Test
+    void valuesAreDecodedOnFirstAccess() {
+        var node = new Node(1L);
+        node.setAttributes(attributes);
+
+        assertTrue(node.hasAttribute("name"));
+        assertEquals(2, node.getAttributes().size());
+        assertArrayEquals("value".getBytes(UTF_8), (byte[]) attributes.peek("name"));
+        assertEquals(0, decoded.get());
+
+        assertEquals("value", node.getAttribute("name"));
+        assertEquals("value", node.getAttribute("name"));
+        assertEquals(1, decoded.get());
+        assertEquals("value", attributes.peek("name"));
+        assertEquals("<p>text</p>", node.getAttribute("description"));
+        assertEquals(2, decoded.get());
+    }
+
+    @Test
+    void hashCodeMatchesDecodedMap() {
+        var copy = new HashMap<String, Serializable>(attributes);
+
+        assertEquals(copy.hashCode(), attributes.hashCode());
+        assertEquals(copy, attributes);
+        assertEquals(attributes, copy);
+    }
+
+    @Test
+    void hasAttributeDoesNotDecodeValues() {
+        var node = new Node(1L);
+        node.setAttributes(attributes);
+
+        assertTrue(node.hasAttribute("name"));
+        assertTrue(node.hasAttribute("name.nested"));
+        assertEquals(0, decoded.get());
+    }
+
+    @Test
+    void mapOperations() {
+        attributes.put("added", 42L);
+
+        assertEquals(3, attributes.size());
+        assertEquals("value", attributes.remove("name"));
+        assertEquals(42L, attributes.get("added"));
+        var copy = new HashMap<String, Serializable>(attributes);
+        assertEquals(copy, attributes);
+        assertEquals(2, copy.size());
+        attributes.clear();
+        assertTrue(attributes.isEmpty());
+    }
+}
@@ -0,0 +1,135 @@
+package io.keepup.cms.core.persistence;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ValueEnvelopeTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void jsonRoundTrip() throws IOException {
+        var envelope = ValueEnvelope.of(new Point(1, 2));
+
+        var read = mapper.readValue(mapper.writeValueAsBytes(envelope), ValueEnvelope.class);
+
+        assertEquals(envelope, read);
+        assertEquals(Point.class.getName(), read.getType());
+        assertEquals(new Point(1, 2), read.unwrap(Point.class));
+    }
+
+    @Test
+    void javaSerializationRoundTrip() throws IOException, ClassNotFoundException {
+        var envelope = ValueEnvelope.of(new Point(3, 4));
+
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new ObjectOutputStream(bytes)) {
+            out.writeObject(envelope);
+        }
+        try (var in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertEquals(envelope, in.readObject());
+        }
+    }
+
+    @Test
+    void unwrapToStoredSubtype() {
+        var envelope = ValueEnvelope.of(new NamedPoint(5, 6, "center"));
+
+        var value = assertInstanceOf(NamedPoint.class, envelope.unwrap(Point.class));
+        assertEquals("center", value.getName());
+    }
+
+    @Test
+    void unwrapToTargetType() {
+        var envelope = new ValueEnvelope("io.keepup.cms.core.NotExistingClass", mapper.valueToTree(new Point(7, 8)));
+
+        assertEquals(new Point(7, 8), envelope.unwrap(Point.class));
+        assertNull(new ValueEnvelope(Point.class.getName(), NullNode.getInstance()).unwrap(Point.class));
+        assertThrows(IllegalArgumentException.class, () -> envelope.unwrap(Integer.class));
+    }
+
+    @Test
+    void legacyProxy() {
+        var proxyClass = Point.class.getName() + "$$EnhancerByCGLIB$$a1b2c3";
+        assertTrue(ValueEnvelope.isLegacyProxyClass(proxyClass));
+        assertFalse(ValueEnvelope.isLegacyProxyClass(Point.class.getName()));
+
+        var envelope = ValueEnvelope.ofLegacyProxy(proxyClass, mapper.valueToTree(new Point(9, 10)));
+
+        assertEquals(Point.class.getName(), envelope.getType());
+        assertEquals(new Point(9, 10), envelope.unwrap(Point.class));
+    }
+
+    public static class Point {
+        private int x;
+        private int y;
+
+        public Point() {
+        }
+
+        Point(int x, int y) {
+            this.x = x;
+            this.y = y;
+        }
+
+        public int getX() {
+            return x;
+        }
+
+        public void setX(int x) {
+            this.x = x;
+        }
+
+        public int getY() {
+            return y;
+        }
+
+        public void setY(int y) {
+            this.y = y;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Point point && point.x == x && point.y == y;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * x + y;
+        }
+    }
+
+    public static class NamedPoint extends Point {
+        private String name;
+
+        public NamedPoint() {
+        }
+
+        NamedPoint(int x, int y, String name) {
+            super(x, y);
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
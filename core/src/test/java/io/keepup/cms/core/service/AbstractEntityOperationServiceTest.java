@@ -11,6 +11,7 @@ import io.keepup.cms.core.datasource.dao.DataSourceFacadeImpl;
 import io.keepup.cms.core.datasource.dao.sql.SqlContentDao;
 import io.keepup.cms.core.datasource.dao.sql.SqlFileDao;
 import io.keepup.cms.core.datasource.dao.sql.SqlUserDao;
+import io.keepup.cms.core.datasource.sql.entity.ContentClass;
 import io.keepup.cms.core.datasource.sql.repository.ReactiveContentClassRepository;
 import io.keepup.cms.core.datasource.sql.repository.ReactiveNodeAttributeEntityRepository;
 import io.keepup.cms.core.datasource.sql.repository.ReactiveNodeEntityRepository;
@@ -25,14 +26,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit4.SpringRunner;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
@@ -58,8 +60,10 @@ import static org.junit.Assert.*;
         TestNotSerializableAttributesAbstractEntityOperationService.class,
         TestAbstractEntityWithoutDefaultConstructorOperationService.class,
         AbstractEntityWithFinalFieldOperationService.class,
-        TestAbstractEntityInterfaceService.class
+        TestAbstractEntityInterfaceService.class,
+        TestSummaryEntityOperationService.class
 })
+@TestPropertySource(properties = "keepup.datasource.content.insert-batch-size=2")
 @DataR2dbcTest
 class AbstractEntityOperationServiceTest {
     @Autowired
@@ -73,6 +77,8 @@ class AbstractEntityOperationServiceTest {
     @Autowired
     TestAbstractEntityInterfaceService testEntityInterfaceService;
     @Autowired
+    TestSummaryEntityOperationService summaryEntityOperationService;
+    @Autowired
     DataSourceFacade dataSourceFacade;
     @Autowired
     ReactiveContentClassRepository contentClassRepository;
@@ -350,18 +356,145 @@ class AbstractEntityOperationServiceTest {
     }
 
     @Test
-    void saveAndGetByInterfaceGenerifiedServiceWithoutDefinedInterface() {
-        TestEntityInterface testEntity = new TestEntityInterfaceImpl();
-        final AtomicLong id = new AtomicLong();
-        var newEntity = testEntityInterfaceService.save(testEntity, 0L)
-                .map(savedEntity -> {
-                    id.set(savedEntity.getId());
-                    return savedEntity.getId();
-                })
-                .then(contentClassRepository.deleteAll())
-                .then(testEntityInterfaceService.get(id.get()))
+    void saveAndGetByInterfaceGenerifiedServiceWithoutLegacyClassLinks() {
+        var saved = testEntityInterfaceService.save(new TestEntityInterfaceImpl(), 0L).block();
+        assertNotNull(saved);
+
+        contentClassRepository.deleteByContentId(saved.getId()).collectList().block();
+        var classNames = contentClassRepository.findAllByContentId(saved.getId())
+                .map(ContentClass::getClassName)
+                .collectList()
+                .block();
+        var newEntity = testEntityInterfaceService.get(saved.getId()).block();
+
+        assertNotNull(classNames);
+        assertTrue(classNames.contains(TestEntityInterface.class.getTypeName()));
+        assertTrue(classNames.contains(TestEntityInterfaceImpl.class.getTypeName()));
+        assertNotNull(newEntity);
+        assertEquals(saved.getId(), newEntity.getId());
+    }
+
+    @Test
+    void getAllByInterfaceGenerifiedService() {
+        var saved = testEntityInterfaceService.saveAll(Flux.just(new TestEntityInterfaceImpl(), new TestEntityInterfaceImpl()), 0L)
+                .map(TestEntityInterface::getId)
+                .collectList()
                 .block();
-        assertNull(newEntity);
+        var single = testEntityInterfaceService.save(new TestEntityInterfaceImpl(), 0L).block();
+
+        var found = testEntityInterfaceService.getAll()
+                .map(TestEntityInterface::getId)
+                .collectList()
+                .block();
+
+        assertNotNull(saved);
+        assertNotNull(single);
+        assertNotNull(found);
+        assertTrue(found.containsAll(saved));
+        assertTrue(found.contains(single.getId()));
+    }
+
+    @Test
+    void saveAll() {
+        var entities = new ArrayList<TestEntity>();
+        for (var i = 0; i < 5; i++) {
+            var entity = new TestEntity();
+            entity.setSomeValue("value_%d".formatted(i));
+            entities.add(entity);
+        }
+        var existing = entityOperationService.save(new TestEntity(), 0L).block();
+        assertNotNull(existing);
+        existing.setSomeValue("updated value");
+        entities.add(existing);
+
+        var saved = entityOperationService.saveAll(Flux.fromIterable(entities), 0L).collectList().block();
+
+        assertNotNull(saved);
+        assertEquals(entities.size(), saved.size());
+        for (TestEntity entity : saved) {
+            assertNotNull(entity.getTestId());
+            assertEquals(entity.getSomeValue(), entityOperationService.get(entity.getTestId()).block().getSomeValue());
+        }
+        assertEquals(existing.getTestId(), saved.get(saved.size() - 1).getTestId());
+    }
+
+    @Test
+    void saveAllByConfiguredWindows() {
+        var existing = entityOperationService.save(new TestEntity(), 0L).block();
+        assertNotNull(existing);
+        existing.setSomeValue("updated value");
+        var entities = new ArrayList<TestEntity>();
+        entities.add(existing);
+        for (var i = 0; i < 4; i++) {
+            var entity = new TestEntity();
+            entity.setSomeValue("value_%d".formatted(i));
+            entities.add(entity);
+        }
+        var saved = entityOperationService.saveAll(Flux.fromIterable(entities), 0L).collectList().block();
+
+        // created entities of the first window are emitted before the updated one
+        assertNotNull(saved);
+        assertEquals(entities.size(), saved.size());
+        assertEquals("value_0", saved.get(0).getSomeValue());
+        assertEquals(existing.getTestId(), saved.get(1).getTestId());
+        assertEquals(List.of("value_1", "value_2", "value_3"),
+                saved.subList(2, saved.size()).stream().map(TestEntity::getSomeValue).toList());
+        saved.forEach(entity -> assertEquals(entity.getSomeValue(),
+                entityOperationService.get(entity.getTestId()).block().getSomeValue()));
+    }
+
+    @Test
+    void getSummaries() {
+        var entity = new TestSummaryEntity();
+        entity.setTitle("title");
+        entity.setBody("long body");
+        var saved = summaryEntityOperationService.save(entity, 0L).block();
+        assertNotNull(saved);
+
+        var summaries = summaryEntityOperationService.getAllSummaries().collectList().block();
+        var page = summaryEntityOperationService.getSummaryPage(saved.getTestId() - 1, 1).block();
+
+        assertNotNull(summaries);
+        var summary = summaries.stream()
+                .filter(item -> saved.getTestId().equals(item.getTestId()))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("title", summary.getTitle());
+        assertNull(summary.getBody());
+        assertNotNull(page);
+        assertEquals(1, page.entities().size());
+        assertEquals("title", page.entities().get(0).getTitle());
+        assertNull(page.entities().get(0).getBody());
+        assertEquals("long body", summaryEntityOperationService.get(saved.getTestId()).block().getBody());
+    }
+
+    @Test
+    void saveAllByInterfaceGenerifiedService() {
+        var saved = testEntityInterfaceService.saveAll(Flux.just(new TestEntityInterfaceImpl(), new TestEntityInterfaceImpl()), 0L)
+                .collectList()
+                .block();
+
+        assertNotNull(saved);
+        assertEquals(2, saved.size());
+        for (TestEntityInterface entity : saved) {
+            assertNotNull(testEntityInterfaceService.get(entity.getId()).block());
+        }
+    }
+
+    @Test
+    void deleteSubtree() {
+        var parent = testEntityInterfaceService.save(new TestEntityInterfaceImpl(), 0L).block();
+        assertNotNull(parent);
+        var child = new TestEntityInterfaceImpl();
+        var savedChild = testEntityInterfaceService.save(child, 0L, parent.getId()).block();
+        assertNotNull(savedChild);
+
+        var deleted = testEntityInterfaceService.deleteSubtree(parent.getId()).collectList().block();
+
+        assertNotNull(deleted);
+        assertEquals(2, deleted.size());
+        assertTrue(contentClassRepository.findAllByContentId(savedChild.getId()).collectList().block().isEmpty());
+        assertNull(testEntityInterfaceService.get(parent.getId()).block());
     }
 
     @Test
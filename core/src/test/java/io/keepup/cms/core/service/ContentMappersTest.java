@@ -0,0 +1,46 @@
+package io.keepup.cms.core.service;
+
+import io.keepup.cms.core.persistence.Node;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ContentMappersTest {
+
+    @Test
+    void generatedMapperIsUsedWhenRegistered() throws ReflectiveOperationException {
+        var mapper = ContentMappers.of(TestEntity.class);
+        assertEquals("io.keepup.cms.core.service.TestEntity_ContentMapper", mapper.getClass().getName());
+
+        var entity = new TestEntity();
+        entity.setTestId(1L);
+        entity.setSomeValue("value");
+        var node = mapper.toNode(entity, UnaryOperator.identity());
+        assertEquals(1L, node.getId());
+        assertEquals("value", node.getAttribute("some_value"));
+
+        var converted = mapper.fromContent(node, (value, fieldType, fieldName) -> fieldType.isInstance(value) ? value : null);
+        assertEquals(entity.getTestId(), converted.getTestId());
+        assertEquals(entity.getSomeValue(), converted.getSomeValue());
+    }
+
+    @Test
+    void reflectiveMapperIsUsedWithoutGeneratedOne() {
+        assertSame(EntityMapper.of(TestEntityWithFinalField.class), ContentMappers.of(TestEntityWithFinalField.class));
+    }
+
+    @Test
+    void unassignableValueIsSkipped() throws ReflectiveOperationException {
+        var node = new Node(1L);
+        node.setAttribute("some_value", 1L);
+
+        var converted = ContentMappers.of(TestEntity.class)
+                .fromContent(node, (value, fieldType, fieldName) -> fieldType.isInstance(value) ? value : null);
+        assertEquals(1L, converted.getTestId());
+        assertNull(converted.getSomeValue());
+    }
+}
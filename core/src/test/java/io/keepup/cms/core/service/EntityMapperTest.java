@@ -0,0 +1,58 @@
+package io.keepup.cms.core.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EntityMapperTest {
+
+    @Test
+    void mapperIsBuiltOncePerClass() {
+        assertSame(EntityMapper.of(TestEntity.class), EntityMapper.of(TestEntity.class));
+    }
+
+    @Test
+    void mappedFieldsAreReadAndWritten() throws ReflectiveOperationException {
+        var mapper = EntityMapper.of(TestEntity.class);
+        var entity = mapper.newInstance();
+        assertNotNull(mapper.getId());
+        mapper.getId().set(entity, 1L);
+        mapper.getAttributes().get(0).set(entity, "value");
+
+        assertEquals(1L, entity.getTestId());
+        assertEquals(1L, mapper.getIdValue(entity));
+        assertEquals("some_value", mapper.getAttributes().get(0).getKey());
+        assertEquals("value", mapper.getAttributes().get(0).get(entity));
+    }
+
+    @Test
+    void valueOfWrongTypeIsNotAssigned() throws ReflectiveOperationException {
+        var mapper = EntityMapper.of(TestEntity.class);
+        var entity = mapper.newInstance();
+        var attribute = mapper.getAttributes().get(0);
+
+        assertThrows(ClassCastException.class, () -> attribute.set(entity, 1L));
+        assertNull(entity.getSomeValue());
+    }
+
+    @Test
+    void summaryAttributesAreCollected() {
+        assertEquals(List.of("title"), EntityMapper.of(TestSummaryEntity.class).getSummaryAttributeNames());
+        assertNull(EntityMapper.of(TestEntity.class).getSummaryAttributeNames());
+    }
+
+    @Test
+    void classWithoutDefaultConstructorCannotBeInstantiated() {
+        var mapper = EntityMapper.of(TestEntityWithoutDefaultConstructor.class);
+
+        assertFalse(mapper.hasDefaultConstructor());
+        assertThrows(NoSuchMethodException.class, mapper::newInstance);
+    }
+}
@@ -0,0 +1,40 @@
+package io.keepup.cms.core.service;
+
+import java.io.Serializable;
+
+
+public class TestSummaryEntity implements Serializable {
+
+    @ContentId
+    private Long testId;
+
+    @ContentMapping(value = "title", summary = true)
+    private String title;
+
+    @ContentMapping("body")
+    private String body;
+
+    public Long getTestId() {
+        return testId;
+    }
+
+    public void setTestId(Long testId) {
+        this.testId = testId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public void setBody(String body) {
+        this.body = body;
+    }
+}
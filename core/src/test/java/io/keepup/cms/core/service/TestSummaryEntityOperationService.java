@@ -0,0 +1,6 @@
+package io.keepup.cms.core.service;
+
+import org.springframework.stereotype.Service;
+
+@Service
+public class TestSummaryEntityOperationService extends AbstractEntityOperationService<TestSummaryEntity> {}
@@ -0,0 +1,298 @@
+package io.keepup.cms.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Generates io.keepup.cms.core.service.ContentMapper implementations for the classes with fields marked by
+ * io.keepup.cms.core.service.ContentId and io.keepup.cms.core.service.ContentMapping annotations. Generated
+ * mappers access fields directly or through getters and setters, so entity conversions need no reflection.
+ * Mappers are registered in META-INF/services/io.keepup.cms.core.service.ContentMapper.
+ * <p>
+ * Mapper is not generated if the class cannot be instantiated from its package by the default constructor
+ * or some of mapped fields cannot be read or written without reflection, e.g. private fields without
+ * accessors or final fields. Such classes are still converted by the reflective mapper at runtime, the reason
+ * is reported as a compiler note.
+ *
+ * @author Fedor Sergeev
+ * @since 2.0.0
+ */
+public class ContentMapperProcessor extends AbstractProcessor {
+
+    static final String CONTENT_ID = "io.keepup.cms.core.service.ContentId";
+    static final String CONTENT_MAPPING = "io.keepup.cms.core.service.ContentMapping";
+    static final String CONTENT_MAPPER = "io.keepup.cms.core.service.ContentMapper";
+    static final String MAPPER_SUFFIX = "_ContentMapper";
+
+    private static final String SERVICES_FILE = "META-INF/services/" + CONTENT_MAPPER;
+
+    private final Set<String> processedTypes = new LinkedHashSet<>();
+    private final Set<String> generatedMappers = new TreeSet<>();
+
+    private Elements elements;
+    private Types types;
+    private Filer filer;
+    private Messager messager;
+
+    @Override
+    public synchronized void init(final ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        elements = processingEnv.getElementUtils();
+        types = processingEnv.getTypeUtils();
+        filer = processingEnv.getFiler();
+        messager = processingEnv.getMessager();
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Set.of(CONTENT_ID, CONTENT_MAPPING);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        final Set<TypeElement> entityTypes = new LinkedHashSet<>();
+        for (final TypeElement annotation : annotations) {
+            for (final Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() == ElementKind.FIELD && element.getEnclosingElement() instanceof TypeElement type) {
+                    entityTypes.add(type);
+                }
+            }
+        }
+        for (final TypeElement entityType : entityTypes) {
+            if (processedTypes.add(entityType.getQualifiedName().toString())) {
+                generateMapper(entityType);
+            }
+        }
+        if (roundEnv.processingOver() && !generatedMappers.isEmpty()) {
+            writeServicesFile();
+        }
+        return false;
+    }
+
+    private void generateMapper(final TypeElement entityType) {
+        final List<String> problems = new ArrayList<>();
+        final EntityModel model = getEntityModel(entityType, problems);
+        if (!problems.isEmpty()) {
+            messager.printMessage(Diagnostic.Kind.NOTE, "Content mapper is not generated for %s, reflective mapping will be used: %s"
+                    .formatted(entityType.getQualifiedName(), String.join("; ", problems)), entityType);
+            return;
+        }
+        final String mapperName = model.packageName().isEmpty()
+                ? model.mapperSimpleName()
+                : model.packageName() + "." + model.mapperSimpleName();
+        try (Writer writer = filer.createSourceFile(mapperName, entityType).openWriter()) {
+            writer.write(new MapperSourceWriter(model, elements).write());
+            generatedMappers.add(mapperName);
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Failed to write content mapper %s: %s"
+                    .formatted(mapperName, e.toString()), entityType);
+        }
+    }
+
+    private void writeServicesFile() {
+        final Set<String> mappers = new TreeSet<>(generatedMappers);
+        try {
+            final FileObject existing = filer.getResource(StandardLocation.CLASS_OUTPUT, "", SERVICES_FILE);
+            existing.getCharContent(true).toString().lines()
+                    .map(String::strip)
+                    .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                    .forEach(mappers::add);
+        } catch (IOException | IllegalArgumentException e) {
+            // there is no services file from the previous compilation
+        }
+        try (Writer writer = filer.createResource(StandardLocation.CLASS_OUTPUT, "", SERVICES_FILE).openWriter()) {
+            for (final String mapper : mappers) {
+                writer.write(mapper);
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Failed to write %s: %s".formatted(SERVICES_FILE, e.toString()));
+        }
+    }
+
+    private EntityModel getEntityModel(final TypeElement entityType, final List<String> problems) {
+        checkType(entityType, problems);
+        FieldModel idField = null;
+        final List<FieldModel> attributes = new ArrayList<>();
+        for (final VariableElement field : ElementFilter.fieldsIn(entityType.getEnclosedElements())) {
+            if (field.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+            if (getAnnotation(field, CONTENT_ID) != null) {
+                idField = getFieldModel(entityType, field, null, problems);
+                if (idField != null && !isAssignableFromLong(field.asType())) {
+                    problems.add("identifier field %s is not assignable from Long".formatted(field.getSimpleName()));
+                }
+            } else {
+                final AnnotationMirror mapping = getAnnotation(field, CONTENT_MAPPING);
+                if (mapping != null) {
+                    final FieldModel attribute = getFieldModel(entityType, field, getMappingKey(mapping), problems);
+                    if (attribute != null) {
+                        attributes.add(attribute);
+                    }
+                }
+            }
+        }
+        final String packageName = elements.getPackageOf(entityType).getQualifiedName().toString();
+        final String binaryName = elements.getBinaryName(entityType).toString();
+        final String simpleBinaryName = packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1);
+        return new EntityModel(packageName, entityType.getQualifiedName().toString(),
+                simpleBinaryName.replace('$', '_') + MAPPER_SUFFIX, idField, attributes);
+    }
+
+    private void checkType(final TypeElement entityType, final List<String> problems) {
+        if (entityType.getKind() != ElementKind.CLASS) {
+            problems.add("%s is not a class".formatted(entityType.getKind().toString().toLowerCase(Locale.ROOT)));
+        }
+        if (entityType.getModifiers().contains(Modifier.ABSTRACT)) {
+            problems.add("class is abstract");
+        }
+        if (!entityType.getTypeParameters().isEmpty()) {
+            problems.add("class has type parameters");
+        }
+        Element element = entityType;
+        while (element instanceof TypeElement type) {
+            if (type.getModifiers().contains(Modifier.PRIVATE)) {
+                problems.add("class %s is private".formatted(type.getSimpleName()));
+            }
+            if (type.getNestingKind() == NestingKind.LOCAL || type.getNestingKind() == NestingKind.ANONYMOUS) {
+                problems.add("class is local");
+            } else if (type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC)) {
+                problems.add("class %s is an inner class".formatted(type.getSimpleName()));
+            }
+            element = type.getEnclosingElement();
+        }
+        final boolean hasDefaultConstructor = ElementFilter.constructorsIn(entityType.getEnclosedElements()).stream()
+                .anyMatch(constructor -> constructor.getParameters().isEmpty()
+                        && !constructor.getModifiers().contains(Modifier.PRIVATE));
+        if (!hasDefaultConstructor) {
+            problems.add("class has no accessible default constructor");
+        }
+    }
+
+    private FieldModel getFieldModel(final TypeElement entityType, final VariableElement field, final String key,
+                                     final List<String> problems) {
+        final String name = field.getSimpleName().toString();
+        final TypeMirror fieldType = field.asType();
+        final boolean accessible = !field.getModifiers().contains(Modifier.PRIVATE);
+        final boolean writable = accessible && !field.getModifiers().contains(Modifier.FINAL);
+
+        String reader = accessible ? "entity." + name : null;
+        String writer = writable ? "entity." + name + " = %s" : null;
+        final String capitalizedName = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        for (final ExecutableElement method : ElementFilter.methodsIn(entityType.getEnclosedElements())) {
+            if (method.getModifiers().contains(Modifier.PRIVATE) || method.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+            final String methodName = method.getSimpleName().toString();
+            if (reader == null && method.getParameters().isEmpty()
+                    && types.isSameType(method.getReturnType(), fieldType)
+                    && (methodName.equals("get" + capitalizedName)
+                    || fieldType.getKind() == TypeKind.BOOLEAN && methodName.equals("is" + capitalizedName))) {
+                reader = "entity." + methodName + "()";
+            } else if (writer == null && method.getParameters().size() == 1
+                    && types.isSameType(method.getParameters().get(0).asType(), fieldType)
+                    && methodName.equals("set" + capitalizedName)) {
+                writer = "entity." + methodName + "(%s)";
+            }
+        }
+        if (reader == null) {
+            problems.add("field %s cannot be read".formatted(name));
+        }
+        if (writer == null) {
+            problems.add("field %s cannot be written".formatted(name));
+        }
+        if (reader == null || writer == null) {
+            return null;
+        }
+        final boolean primitive = fieldType.getKind().isPrimitive();
+        final String valueType = primitive
+                ? types.boxedClass(types.getPrimitiveType(fieldType.getKind())).getQualifiedName().toString()
+                : types.erasure(fieldType).toString();
+        return new FieldModel(name, key, valueType, primitive, reader, writer);
+    }
+
+    private boolean isAssignableFromLong(final TypeMirror fieldType) {
+        final TypeMirror longType = elements.getTypeElement(Long.class.getCanonicalName()).asType();
+        return fieldType.getKind() == TypeKind.LONG || types.isAssignable(longType, fieldType);
+    }
+
+    private AnnotationMirror getAnnotation(final Element element, final String annotationName) {
+        for (final AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            final Element annotationElement = annotation.getAnnotationType().asElement();
+            if (annotationElement instanceof TypeElement type && type.getQualifiedName().contentEquals(annotationName)) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    private String getMappingKey(final AnnotationMirror mapping) {
+        for (final Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                : elements.getElementValuesWithDefaults(mapping).entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals("value")) {
+                return (String) entry.getValue().getValue();
+            }
+        }
+        return "";
+    }
+
+    /**
+     * Entity class data needed to generate the mapper.
+     *
+     * @param packageName      package of the entity and the mapper
+     * @param entityName       canonical name of the entity class
+     * @param mapperSimpleName simple name of the mapper class
+     * @param idField          identifier field, null if there is no one
+     * @param attributes       fields mapped to the record attributes
+     */
+    record EntityModel(String packageName, String entityName, String mapperSimpleName,
+                       FieldModel idField, List<FieldModel> attributes) {}
+
+    /**
+     * Mapped field data.
+     *
+     * @param name      field name
+     * @param key       attribute key, null for identifier field
+     * @param valueType type the field value is cast to, primitives are represented by wrapper classes
+     * @param primitive true if the field has primitive type
+     * @param reader    expression reading the field value from the entity variable
+     * @param writer    format of the statement writing the value to the field of the entity variable
+     */
+    record FieldModel(String name, String key, String valueType, boolean primitive, String reader, String writer) {}
+}
@@ -0,0 +1,138 @@
+package io.keepup.cms.processor;
+
+import io.keepup.cms.processor.ContentMapperProcessor.EntityModel;
+import io.keepup.cms.processor.ContentMapperProcessor.FieldModel;
+
+import javax.lang.model.util.Elements;
+
+import static io.keepup.cms.processor.ContentMapperProcessor.CONTENT_MAPPER;
+
+/**
+ * Writes the source of io.keepup.cms.core.service.ContentMapper implementation for the entity class.
+ *
+ * @author Fedor Sergeev
+ * @since 2.0.0
+ */
+class MapperSourceWriter {
+
+    private static final String CONTENT = "io.keepup.cms.core.persistence.Content";
+    private static final String NODE = "io.keepup.cms.core.persistence.Node";
+    private static final String VALUE_WRITER = "java.util.function.UnaryOperator<java.lang.Object>";
+    private static final String VALUE_READER = CONTENT_MAPPER + ".ValueReader";
+    private static final String LOG = "org.apache.commons.logging.Log";
+    private static final String LOG_FACTORY = "org.apache.commons.logging.LogFactory";
+
+    private final EntityModel model;
+    private final Elements elements;
+    private final StringBuilder source = new StringBuilder();
+
+    MapperSourceWriter(final EntityModel model, final Elements elements) {
+        this.model = model;
+        this.elements = elements;
+    }
+
+    String write() {
+        final String entity = model.entityName();
+        if (!model.packageName().isEmpty()) {
+            line("package %s;", model.packageName());
+            line("");
+        }
+        line("/**");
+        line(" * Converts {@link %s} entities to content records and back.", entity);
+        line(" */");
+        line("@javax.annotation.processing.Generated(\"%s\")", ContentMapperProcessor.class.getName());
+        line("public final class %s implements %s<%s> {", model.mapperSimpleName(), CONTENT_MAPPER, entity);
+        line("");
+        line("    private static final %s log = %s.getLog(%s.class);", LOG, LOG_FACTORY, model.mapperSimpleName());
+        line("");
+        line("    @Override");
+        line("    public java.lang.Class<%s> getType() {", entity);
+        line("        return %s.class;", entity);
+        line("    }");
+        line("");
+        writeToNode(entity);
+        line("");
+        writeFromContent(entity);
+        line("");
+        writeSetId(entity);
+        line("}");
+        return source.toString();
+    }
+
+    private void writeToNode(final String entity) {
+        line("    @Override");
+        line("    public %s toNode(%s entity, %s valueWriter) {", NODE, entity, VALUE_WRITER);
+        line("        final %s node = new %s();", NODE, NODE);
+        for (final FieldModel attribute : model.attributes()) {
+            line("        node.addAttribute(%s, valueWriter.apply(%s));",
+                    elements.getConstantExpression(attribute.key()), attribute.reader());
+        }
+        if (model.idField() != null) {
+            line("        final java.lang.Object id = %s;", model.idField().reader());
+            line("        node.setId(id instanceof java.lang.Long longId ? longId : null);");
+        }
+        line("        return node;");
+        line("    }");
+    }
+
+    private void writeFromContent(final String entity) {
+        line("    @Override");
+        line("    @java.lang.SuppressWarnings(\"unchecked\")");
+        line("    public %s fromContent(%s content, %s valueReader) {", entity, CONTENT, VALUE_READER);
+        line("        final %s entity = new %s();", entity, entity);
+        if (model.idField() != null) {
+            writeValue(model.idField(), "content.getId()");
+        }
+        for (final FieldModel attribute : model.attributes()) {
+            writeValue(attribute, "valueReader.read(content.getAttribute(%s), %s.class, %s)".formatted(
+                    elements.getConstantExpression(attribute.key()), attribute.valueType(),
+                    elements.getConstantExpression(attribute.name())));
+        }
+        line("        return entity;");
+        line("    }");
+    }
+
+    private void writeSetId(final String entity) {
+        line("    @Override");
+        line("    public void setId(%s entity, java.lang.Long id) {", entity);
+        if (model.idField() != null) {
+            final FieldModel idField = model.idField();
+            if (idField.primitive()) {
+                line("        if (id != null) {");
+                line("            %s;", idField.writer().formatted("id"));
+                line("        }");
+            } else {
+                line("        %s;", idField.writer().formatted("id"));
+            }
+        }
+        line("    }");
+    }
+
+    /**
+     * Writes the assignment of the value to the field. Values which cannot be cast to the field type are logged
+     * and skipped the same way as io.keepup.cms.core.service.EntityMapper does.
+     */
+    private void writeValue(final FieldModel field, final String valueExpression) {
+        final String variable = field.name() + "Value";
+        line("        final java.lang.Object %s = %s;", variable, valueExpression);
+        final String value = "(%s) %s".formatted(field.valueType(), variable);
+        final String indent = field.primitive() ? "            " : "        ";
+        if (field.primitive()) {
+            line("        if (%s != null) {", variable);
+        }
+        line("%stry {", indent);
+        line("%s    %s;", indent, field.writer().formatted(value));
+        line("%s} catch (java.lang.ClassCastException e) {", indent);
+        line("%s    log.error(\"Attempt to set value of type %%s to field %%s of type %%s\".formatted(", indent);
+        line("%s            %s == null ? \"NULL\" : %s.getClass().getTypeName(), %s, %s));", indent, variable, variable,
+                elements.getConstantExpression(field.name()), elements.getConstantExpression(field.valueType()));
+        line("%s}", indent);
+        if (field.primitive()) {
+            line("        }");
+        }
+    }
+
+    private void line(final String format, final Object... args) {
+        source.append(args.length == 0 ? format : format.formatted(args)).append('\n');
+    }
+}
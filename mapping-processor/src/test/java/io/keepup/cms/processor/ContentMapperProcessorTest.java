@@ -0,0 +1,148 @@
+package io.keepup.cms.processor;
+
+import io.keepup.cms.core.persistence.Node;
+import io.keepup.cms.core.service.ContentMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContentMapperProcessorTest {
+
+    @TempDir
+    Path outputDirectory;
+
+    @Test
+    void mapperIsGeneratedForAccessibleFields() throws IOException {
+        var diagnostics = compile("test.Product", """
+                package test;
+
+                import io.keepup.cms.core.service.ContentId;
+                import io.keepup.cms.core.service.ContentMapping;
+
+                public class Product {
+                    @ContentId
+                    private Long id;
+                    @ContentMapping("name")
+                    String name;
+                    @ContentMapping("count")
+                    private int count;
+
+                    public Long getId() { return id; }
+                    public void setId(Long id) { this.id = id; }
+                    public int getCount() { return count; }
+                    public void setCount(int count) { this.count = count; }
+                }
+                """);
+
+        assertTrue(diagnostics.getDiagnostics().stream().noneMatch(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR),
+                diagnostics.getDiagnostics().toString());
+        var source = Files.readString(outputDirectory.resolve("test/Product_ContentMapper.java"));
+        assertTrue(source.contains("node.addAttribute(\"name\", valueWriter.apply(entity.name));"));
+        assertTrue(source.contains("node.addAttribute(\"count\", valueWriter.apply(entity.getCount()));"));
+        assertTrue(source.contains("entity.setId(id);"));
+        assertTrue(Files.exists(outputDirectory.resolve("test/Product_ContentMapper.class")));
+        assertEquals(List.of("test.Product_ContentMapper"),
+                Files.readAllLines(outputDirectory.resolve("META-INF/services/" + ContentMapperProcessor.CONTENT_MAPPER)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void valuesOfWrongTypeAreSkipped() throws Exception {
+        compile("test.Offer", """
+                package test;
+
+                import io.keepup.cms.core.service.ContentId;
+                import io.keepup.cms.core.service.ContentMapping;
+
+                public class Offer {
+                    @ContentId
+                    public Long id;
+                    @ContentMapping("name")
+                    public String name;
+                    @ContentMapping("count")
+                    public int count;
+                    @ContentMapping("price")
+                    public Double price;
+                }
+                """);
+        var content = new Node(1L);
+        content.addAttribute("name", 42);
+        content.addAttribute("count", "many");
+        content.addAttribute("price", 9.5d);
+
+        try (var classLoader = new URLClassLoader(new URL[]{outputDirectory.toUri().toURL()}, getClass().getClassLoader())) {
+            var mapper = (ContentMapper<Object>) classLoader.loadClass("test.Offer_ContentMapper")
+                    .getConstructor()
+                    .newInstance();
+            var offer = mapper.fromContent(content, (value, fieldType, fieldName) -> value);
+            var type = offer.getClass();
+
+            assertEquals(1L, type.getField("id").get(offer));
+            assertNull(type.getField("name").get(offer));
+            assertEquals(0, type.getField("count").get(offer));
+            assertEquals(9.5d, type.getField("price").get(offer));
+        }
+    }
+
+    @Test
+    void mapperIsNotGeneratedForPrivateFieldWithoutSetter() throws IOException {
+        var diagnostics = compile("test.Article", """
+                package test;
+
+                import io.keepup.cms.core.service.ContentId;
+                import io.keepup.cms.core.service.ContentMapping;
+
+                public class Article {
+                    @ContentId
+                    Long id;
+                    @ContentMapping("title")
+                    private String title;
+
+                    public String getTitle() { return title; }
+                }
+                """);
+
+        assertFalse(Files.exists(outputDirectory.resolve("test/Article_ContentMapper.java")));
+        assertTrue(diagnostics.getDiagnostics().stream()
+                .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.NOTE)
+                .anyMatch(diagnostic -> diagnostic.getMessage(Locale.ROOT).contains("field title cannot be written")));
+    }
+
+    private DiagnosticCollector<JavaFileObject> compile(String className, String source) throws IOException {
+        var sourceFile = outputDirectory.resolve(className.replace('.', '/') + ".java");
+        Files.createDirectories(sourceFile.getParent());
+        Files.writeString(sourceFile, source);
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        var diagnostics = new DiagnosticCollector<JavaFileObject>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, Locale.ROOT, StandardCharsets.UTF_8)) {
+            var task = compiler.getTask(null, fileManager, diagnostics,
+                    List.of("-classpath", System.getProperty("java.class.path"),
+                            "-d", outputDirectory.toString(),
+                            "-s", outputDirectory.toString()),
+                    null, fileManager.getJavaFileObjects(sourceFile));
+            task.setProcessors(List.of(new ContentMapperProcessor()));
+            task.call();
+        }
+        return diagnostics;
+    }
+}
@@ -2,6 +2,7 @@ package io.keepup.cms.rest.controller;
 
 import io.keepup.cms.core.persistence.User;
 import io.keepup.cms.core.service.AbstractEntityOperationService;
+import io.keepup.cms.core.service.EntityPage;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.jetbrains.annotations.NotNull;
@@ -10,12 +11,15 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.stream.Collectors;
 
 import static java.util.Optional.ofNullable;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
+import static org.springframework.http.MediaType.TEXT_EVENT_STREAM_VALUE;
 
 /**
  * Basic implementation of Reactive REST controller responsible for work with objects managed by
@@ -29,6 +33,14 @@ public abstract class AbstractRestController<T> {
      * Constant used for class name stubbing
      */
     private static final String NULL = "NULL";
+    /**
+     * Number of entities in the page if limit is not specified
+     */
+    private static final String DEFAULT_PAGE_SIZE = "100";
+    /**
+     * Maximum number of entities in the page
+     */
+    private static final int MAX_PAGE_SIZE = 1000;
     /**
      * Log object
      */
@@ -75,6 +87,57 @@ public abstract class AbstractRestController<T> {
                         .body(getErrorListWrapper("No operation service specified"))));
     }
 
+    /**
+     * Stream all entities served by the specified operation service. Chosen instead of {@link #getAll()} when
+     * client accepts newline delimited JSON or server-sent events, each entity is written as soon as it is
+     * converted, so the response is not buffered in memory.
+     *
+     * @return Flux emitting entities one by one
+     */
+    @GetMapping(produces = {APPLICATION_NDJSON_VALUE, TEXT_EVENT_STREAM_VALUE})
+    public Flux<T> streamAll() {
+        log.debug("Received GET request to stream all entities served by %s".formatted(getTypeName()));
+        if (operationService == null) {
+            return Flux.error(new IllegalStateException("No operation service specified"));
+        }
+        return operationService.getAll()
+                .doOnError(throwable -> log.error("Error while streaming objects from %s: %s"
+                        .formatted(getTypeName(), throwable.toString())));
+    }
+
+    /**
+     * Get the page of entities served by the specified operation service. Unlike {@link #getAll()} only the
+     * requested page is loaded, to get the next one pass the cursor from the response as afterId parameter.
+     *
+     * @param afterId cursor of the previous page, the first page is returned if it is absent
+     * @param limit   maximum number of entities in the page, from 1 to 1000
+     * @return Mono signaling when the page is ready or error
+     */
+    @GetMapping("/page")
+    public Mono<ResponseEntity<KeepupResponsePageWrapper<T>>> getPage(@RequestParam(value = "afterId", required = false) final Long afterId,
+                                                                      @RequestParam(value = "limit", required = false,
+                                                                              defaultValue = DEFAULT_PAGE_SIZE) final int limit) {
+        log.debug("Received GET request for page of entities after %s served by %s".formatted(afterId, getTypeName()));
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            return Mono.just(ResponseEntity
+                    .badRequest()
+                    .body(getErrorPageWrapper("Page limit should be from 1 to %d".formatted(MAX_PAGE_SIZE))));
+        }
+        if (operationService == null) {
+            return Mono.just(ResponseEntity
+                    .internalServerError()
+                    .body(getErrorPageWrapper("No operation service specified")));
+        }
+        return operationService.getPage(afterId, limit)
+                .map(this::getSuccessPageBody)
+                .map(ResponseEntity::ok)
+                .doOnError(throwable -> log.error("Error while calling page of objects from %s"
+                        .formatted(getTypeName())))
+                .onErrorResume(throwable -> Mono.just(ResponseEntity
+                        .internalServerError()
+                        .body(getErrorPageWrapper(throwable.toString()))));
+    }
+
     /**
      * Get an entity with the specified type and served by the specified operation service.
      *
@@ -136,6 +199,21 @@ public abstract class AbstractRestController<T> {
         return keepupResponseWrapper;
     }
 
+    private KeepupResponsePageWrapper<T> getErrorPageWrapper(String message) {
+        var keepupResponseWrapper = new KeepupResponsePageWrapper<T>();
+        keepupResponseWrapper.setError(message);
+        keepupResponseWrapper.setSuccess(false);
+        return keepupResponseWrapper;
+    }
+
+    private KeepupResponsePageWrapper<T> getSuccessPageBody(EntityPage<T> page) {
+        var keepupResponseWrapper = new KeepupResponsePageWrapper<T>();
+        keepupResponseWrapper.setSuccess(true);
+        keepupResponseWrapper.getEntities().addAll(page.entities());
+        keepupResponseWrapper.setCursor(page.cursor());
+        return keepupResponseWrapper;
+    }
+
     private KeepupResponseListWrapper<T> getSuccessBody(List<T> entities) {
         var keepupResponseWrapper = new KeepupResponseListWrapper<T>();
         keepupResponseWrapper.setSuccess(true);
@@ -0,0 +1,34 @@
+package io.keepup.cms.rest.controller;
+
+/**
+ * Wraps the page of entities fetched with keyset pagination. Besides the entities response contains the cursor
+ * which should be passed as afterId parameter to fetch the next page.
+ *
+ * @param <T> entity type
+ * @author Fedor Sergeev
+ * @since 2.0.0
+ */
+public class KeepupResponsePageWrapper<T> extends KeepupResponseListWrapper<T> {
+    /**
+     * Identifier to fetch the next page after, null if there are no more pages
+     */
+    private Long cursor;
+
+    /**
+     * Get the cursor for the next page.
+     *
+     * @return identifier to fetch the next page after or null if the page is the last one
+     */
+    public Long getCursor() {
+        return cursor;
+    }
+
+    /**
+     * Define the cursor for the next page.
+     *
+     * @param cursor identifier to fetch the next page after or null if the page is the last one
+     */
+    public void setCursor(final Long cursor) {
+        this.cursor = cursor;
+    }
+}
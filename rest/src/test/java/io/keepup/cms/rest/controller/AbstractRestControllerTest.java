@@ -26,6 +26,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers;
 import org.springframework.security.web.server.SecurityWebFilterChain;
@@ -191,6 +192,74 @@ class AbstractRestControllerTest {
         FieldUtils.writeField(someEntityController, "operationService", service, true);
     }
 
+    @Test
+    void getPages() {
+        dataSourceFacade.getContent()
+                .map(BasicEntity::getId)
+                .flatMap(id -> dataSourceFacade.deleteContent(id))
+                .collect(Collectors.toList())
+                .then(someEntityService.save(new SomeEntity(), 0L))
+                .then(someEntityService.save(new SomeEntity(), 0L))
+                .then(someEntityService.save(new SomeEntity(), 0L))
+                .block();
+
+        var firstPage = client.get().uri("/rest-test/page?limit=2").exchange()
+                .expectStatus().isOk()
+                .expectBody(KeepupResponsePageWrapper.class)
+                .returnResult()
+                .getResponseBody();
+        assertNotNull(firstPage);
+        assertTrue(firstPage.isSuccess());
+        assertEquals(2, firstPage.getEntities().size());
+        assertNotNull(firstPage.getCursor());
+
+        client.get().uri("/rest-test/page?limit=2&afterId=" + firstPage.getCursor()).exchange()
+                .expectStatus().isOk()
+                .expectBody(KeepupResponsePageWrapper.class)
+                .consumeWith(response -> {
+                    var lastPage = response.getResponseBody();
+                    assertNotNull(lastPage);
+                    assertTrue(lastPage.isSuccess());
+                    assertEquals(1, lastPage.getEntities().size());
+                    assertNull(lastPage.getCursor());
+                });
+    }
+
+    @Test
+    void streamAll() {
+        dataSourceFacade.getContent()
+                .map(BasicEntity::getId)
+                .flatMap(id -> dataSourceFacade.deleteContent(id))
+                .collect(Collectors.toList())
+                .then(someEntityService.save(new SomeEntity(), 0L))
+                .then(someEntityService.save(new SomeEntity(), 0L))
+                .block();
+
+        client.get().uri("/rest-test")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(SomeEntity.class)
+                .hasSize(2);
+
+        client.get().uri("/rest-test")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM)
+                .expectBodyList(SomeEntity.class)
+                .hasSize(2);
+    }
+
+    @Test
+    void getPageWithWrongLimit() {
+        client.get().uri("/rest-test/page?limit=0").exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(KeepupResponsePageWrapper.class)
+                .consumeWith(response -> assertFalse(response.getResponseBody().isSuccess()));
+    }
+
     @Test
     void getEmptyResult() {
         dataSourceFacade.getContent()